@@ -0,0 +1,178 @@
+package com.chess.engine.archive;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.move.Move;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * the GameArchiveReader class
+ * reads games from an archive written by GameArchiveWriter. The file is memory mapped, so fetching a game by id is
+ * a lookup in the index and a read of a few bytes. A MappedByteBuffer can only hold 2GB, so bigger archives are
+ * mapped as several consecutive chunks
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public class GameArchiveReader implements Closeable {
+    // the size of a single mapped chunk
+    private static final int CHUNK_BITS = 30;
+    private static final long CHUNK_SIZE = 1L << CHUNK_BITS;
+
+    // the open file, and its mapped chunks
+    private final RandomAccessFile randomAccessFile;
+    private final MappedByteBuffer[] chunks;
+
+    // the number of games, and where the index starts
+    private final int gameCount;
+    private final long indexOffset;
+
+    /**
+     * open and map an archive
+     * @param file the archive file
+     * @throws IOException if the file can't be read, or is not an archive
+     */
+    public GameArchiveReader(File file) throws IOException {
+        this.randomAccessFile = new RandomAccessFile(file, "r");
+        FileChannel channel = this.randomAccessFile.getChannel();
+        long size = channel.size();
+        int numChunks = (int) ((size + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        this.chunks = new MappedByteBuffer[numChunks];
+        for (int i = 0; i < numChunks; i++) {
+            long start = i * CHUNK_SIZE;
+            this.chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(CHUNK_SIZE, size - start));
+        }
+
+        if (size < GameArchiveWriter.HEADER_SIZE || getInt(0) != GameArchiveWriter.MAGIC
+                || getInt(4) != GameArchiveWriter.VERSION) {
+            close();
+            throw new IOException("not a game archive: " + file);
+        }
+        this.gameCount = getInt(8);
+        this.indexOffset = getLong(12);
+    }
+
+    /**
+     * get the number of games in the archive
+     * @return the number of games
+     */
+    public int getGameCount() {
+        return this.gameCount;
+    }
+
+    /**
+     * get the result of a game
+     * @param id the id of the game
+     * @return the result of the game
+     */
+    public GameResult getResult(int id) {
+        return GameResult.values()[getByte(getGameOffset(id))];
+    }
+
+    /**
+     * get the number of moves in a game
+     * @param id the id of the game
+     * @return the number of moves (plies) in the game
+     */
+    public int getMoveCount(int id) {
+        long offset = getGameOffset(id);
+        return getByte(offset + 1) << 8 | getByte(offset + 2);
+    }
+
+    /**
+     * get the stored move indices of a game without replaying it, this is the fast way to scan the archive
+     * @param id the id of the game
+     * @return the index of every move in the legal moves of the board it was played on
+     */
+    public int[] getMoveIndices(int id) {
+        long offset = getGameOffset(id) + 3;
+        int[] indices = new int[getMoveCount(id)];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = getByte(offset + i);
+        }
+        return indices;
+    }
+
+    /**
+     * replay a game from the standard board
+     * @param id the id of the game
+     * @return the moves of the game
+     */
+    public List<Move> getMoves(int id) {
+        List<Move> moves = new ArrayList<>();
+        Board board = Board.createStandardBoard();
+        for (int index : getMoveIndices(id)) {
+            Move move = board.calculateLegalMoves().get(index);
+            moves.add(move);
+            board = board.makeMove(move).getTransBoard();
+        }
+        return moves;
+    }
+
+    /**
+     * replay a game from the standard board and get the final board
+     * @param id the id of the game
+     * @return the board at the end of the game
+     */
+    public Board getFinalBoard(int id) {
+        Board board = Board.createStandardBoard();
+        for (int index : getMoveIndices(id)) {
+            board = board.makeMove(board.calculateLegalMoves().get(index)).getTransBoard();
+        }
+        return board;
+    }
+
+    /**
+     * close the archive
+     * @throws IOException if the file can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        this.randomAccessFile.close();
+    }
+
+    /**
+     * get the offset of a game from the index
+     * @param id the id of the game
+     * @return the offset of the game in the file
+     */
+    private long getGameOffset(int id) {
+        if (id < 0 || id >= this.gameCount) {
+            throw new IndexOutOfBoundsException("no game with id " + id);
+        }
+        return getLong(this.indexOffset + 8L * id);
+    }
+
+    /**
+     * read an unsigned byte
+     * @param offset the offset into the file
+     * @return the byte at the offset
+     */
+    private int getByte(long offset) {
+        return this.chunks[(int) (offset >>> CHUNK_BITS)].get((int) (offset & (CHUNK_SIZE - 1))) & 0xFF;
+    }
+
+    /**
+     * read a big endian 32 bit number
+     * @param offset the offset into the file
+     * @return the number at the offset
+     */
+    private int getInt(long offset) {
+        return getByte(offset) << 24 | getByte(offset + 1) << 16 | getByte(offset + 2) << 8 | getByte(offset + 3);
+    }
+
+    /**
+     * read a big endian 64 bit number
+     * @param offset the offset into the file
+     * @return the number at the offset
+     */
+    private long getLong(long offset) {
+        return (long) getInt(offset) << 32 | (getInt(offset + 4) & 0xFFFFFFFFL);
+    }
+}
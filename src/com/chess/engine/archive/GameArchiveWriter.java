@@ -0,0 +1,114 @@
+package com.chess.engine.archive;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.move.Move;
+import com.chess.engine.move.MoveStatus;
+import com.chess.engine.move.MoveTransition;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * the GameArchiveWriter class
+ * writes games to a binary archive. Every game starts from the standard board and each move is stored as a single
+ * byte: its index in the legal moves of the board it was played on. The file layout is
+ * <pre>
+ *     header:  magic (int), version (int), game count (int), index offset (long)
+ *     games:   result (byte), number of moves (unsigned short), one byte per move
+ *     index:   the offset of every game (long), by game id
+ * </pre>
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public class GameArchiveWriter implements Closeable {
+    // the magic number and version at the start of every archive
+    static final int MAGIC = 0x43484741;
+    static final int VERSION = 1;
+    // the size of the header in bytes
+    static final int HEADER_SIZE = 20;
+
+    // the archive file
+    private final File file;
+    // the stream the games are written to
+    private final DataOutputStream out;
+    // the offset of every game written so far
+    private final List<Long> offsets;
+    // the offset the next game is written at
+    private long offset;
+
+    /**
+     * create the archive, overwriting any file that is already there
+     * @param file the archive file
+     * @throws IOException if the file can't be written
+     */
+    public GameArchiveWriter(File file) throws IOException {
+        this.file = file;
+        this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+        this.offsets = new ArrayList<>();
+        // the header is filled in when the archive is closed
+        this.out.write(new byte[HEADER_SIZE]);
+        this.offset = HEADER_SIZE;
+    }
+
+    /**
+     * add a game to the archive
+     * @param moves the moves of the game, starting from the standard board
+     * @param result the result of the game
+     * @return the id of the game
+     * @throws IOException if the game can't be written
+     * @throws IllegalArgumentException if a move isn't legal
+     */
+    public int addGame(List<Move> moves, GameResult result) throws IOException {
+        if (moves.size() > 0xFFFF) {
+            throw new IllegalArgumentException("game is too long to archive: " + moves.size() + " moves");
+        }
+
+        // find the index of every move before anything is written, so a bad game leaves the archive untouched
+        byte[] indices = new byte[moves.size()];
+        Board board = Board.createStandardBoard();
+        for (int i = 0; i < moves.size(); i++) {
+            Move move = moves.get(i);
+            int index = board.calculateLegalMoves().indexOf(move);
+            if (index < 0) {
+                throw new IllegalArgumentException("illegal move " + move + " at ply " + i);
+            }
+            indices[i] = (byte) index;
+            MoveTransition trans = board.makeMove(move);
+            assert (trans.getStatus() == MoveStatus.DONE);
+            board = trans.getTransBoard();
+        }
+
+        this.offsets.add(this.offset);
+        this.out.writeByte(result.ordinal());
+        this.out.writeShort(indices.length);
+        this.out.write(indices);
+        this.offset += 3 + indices.length;
+        return this.offsets.size() - 1;
+    }
+
+    /**
+     * write the index and the header, and close the archive
+     * @throws IOException if the archive can't be written
+     */
+    @Override
+    public void close() throws IOException {
+        for (long gameOffset : this.offsets) {
+            this.out.writeLong(gameOffset);
+        }
+        this.out.close();
+
+        try (RandomAccessFile header = new RandomAccessFile(this.file, "rw")) {
+            header.writeInt(MAGIC);
+            header.writeInt(VERSION);
+            header.writeInt(this.offsets.size());
+            header.writeLong(this.offset);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.chess.engine.archive;
+
+/**
+ * the GameResult enum type, the result of an archived game
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public enum GameResult {
+    /**
+     * WHITE_WINS is used when white won the game
+     */
+    WHITE_WINS,
+    /**
+     * BLACK_WINS is used when black won the game
+     */
+    BLACK_WINS,
+    /**
+     * DRAW is used when the game was drawn
+     */
+    DRAW,
+    /**
+     * UNKNOWN is used when the game didn't finish, or the result wasn't recorded
+     */
+    UNKNOWN
+}
@@ -11,7 +11,9 @@ import com.chess.engine.pieces.vectorPieces.*;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -45,6 +47,20 @@ public class Board {
     private boolean whiteInCheck;
     private boolean blackInCheck;
 
+    // the history of the game up to and including this board
+    private GameHistory gameHistory;
+
+    // the legal moves of the next mover and the status they give, worked out the first time they are asked for.
+    // the board never changes, so working them out twice on two threads gives the same answer
+    private volatile List<Move> legalMoves;
+    private volatile BoardStatus status;
+
+    // the possible moves of each player by start coordinate, built the first time a move is looked up
+    private volatile List<List<Move>> whiteMovesByStart;
+    private volatile List<List<Move>> blackMovesByStart;
+    // the legal moves of the next mover by start coordinate, built the first time a tile's legal moves are asked for
+    private volatile List<List<Move>> legalMovesByStart;
+
     /**
      * Creates a Board object from the builder
      * @param builder the builder for the given board
@@ -77,6 +93,9 @@ public class Board {
 
         this.whiteInCheck = isTileAttacked(this.whiteKing.getPosition(), this.blackPossibleMoves);
         this.blackInCheck = isTileAttacked(this.blackKing.getPosition(), this.whitePossibleMoves);
+
+        this.gameHistory = new GameHistory(Zobrist.calculateKey(this), builder.getHalfmoveClock(),
+                builder.getPreviousHistory(), builder.isNullMove());
     }
 
     /**
@@ -95,6 +114,30 @@ public class Board {
         return this.nextMover;
     }
 
+    /**
+     * get the zobrist key of the board
+     * @return the key of the board, equal for boards with the same position
+     */
+    public long getZobristKey() {
+        return this.gameHistory.getZobristKey();
+    }
+
+    /**
+     * get the fifty move counter
+     * @return the number of half moves since the last capture or pawn move
+     */
+    public int getHalfmoveClock() {
+        return this.gameHistory.getHalfmoveClock();
+    }
+
+    /**
+     * get the history of the game up to and including this board
+     * @return the game history entry of this board
+     */
+    public GameHistory getGameHistory() {
+        return this.gameHistory;
+    }
+
     /**
      * get the tile for the given coordinate
      * @param coordinate the coordinate of the tile you want
@@ -119,12 +162,9 @@ public class Board {
      * @return the moves for that piece
      */
     public Collection<Move> getMovesForPiece (Piece piece) {
-        Alliance pieceAlliance = piece.getAlliance();
-        // get all the moves for that piece's alliance
-        Collection <Move> moves = pieceAlliance.isBlack() ? this.blackPossibleMoves : this.whitePossibleMoves;
         Collection<Move> toReturn = new ArrayList<>();
-        // find all the moves that correspond to the input piece
-        for (Move move: moves) {
+        // only the moves starting on the piece's tile can be the piece's
+        for (Move move: getMovesByStart(piece.getAlliance()).get(piece.getPosition())) {
             if (move.getPiece().equals(piece)) {
                 toReturn.add(move);
             }
@@ -141,6 +181,53 @@ public class Board {
         return alliance.isWhite() ? this.whitePossibleMoves : this.blackPossibleMoves;
     }
 
+    /**
+     * calculate the legal moves of the next mover (the possible moves that don't leave the player in check), in the
+     * order they are generated. They are only worked out once for a board
+     * @return the legal moves of the next mover
+     */
+    public List<Move> calculateLegalMoves() {
+        List<Move> moves = this.legalMoves;
+        if (moves == null) {
+            moves = new ArrayList<>();
+            for (Move move: getMovesByAlliance(this.nextMover)) {
+                if (makeMove(move).getStatus() == MoveStatus.DONE) {
+                    moves.add(move);
+                }
+            }
+            moves = Collections.unmodifiableList(moves);
+            this.legalMoves = moves;
+        }
+        return moves;
+    }
+
+    /**
+     * get the number of legal moves of the next mover
+     * @return the number of legal moves
+     */
+    public int getLegalMoveCount() {
+        return calculateLegalMoves().size();
+    }
+
+    /**
+     * get the status of the board for the next mover: still playing, checkmated or stalemated. It is only worked
+     * out once for a board
+     * @return the status of the board
+     */
+    public BoardStatus getStatus() {
+        BoardStatus boardStatus = this.status;
+        if (boardStatus == null) {
+            if (getLegalMoveCount() > 0) {
+                boardStatus = BoardStatus.ONGOING;
+            }
+            else {
+                boardStatus = isPlayerInCheck(this.nextMover) ? BoardStatus.CHECKMATE : BoardStatus.STALEMATE;
+            }
+            this.status = boardStatus;
+        }
+        return boardStatus;
+    }
+
     /**
      * see if a specific player is in check
      * @param alliance the alliance of the player
@@ -157,27 +244,102 @@ public class Board {
      * @return the desired move
      */
     public Move getMove(Piece piece, int destination) {
-        // get the possible moves for the piece's alliance
-        Collection<Move> movesToCheck =
-                piece.getAlliance().isBlack() ? this.blackPossibleMoves : this.whitePossibleMoves;
-        // for each move
-        for (Move move: movesToCheck) {
-            // if the move is for the desired piece and destination
-            if (move.getPiece().equals(piece) && move.getAlliance() == piece.getAlliance()
-                    && move.getEndPosition() == destination && move.getStartPosition() == piece.getPosition()) {
-                // return the move
+        // only the moves starting on the piece's tile can be the piece's
+        for (Move move: getMovesByStart(piece.getAlliance()).get(piece.getPosition())) {
+            if (move.getPiece().equals(piece) && move.getEndPosition() == destination) {
                 return move;
             }
         }
         return null;
     }
 
+    /**
+     * get the move of the piece on a tile to another tile
+     * @param startPosition the coordinate the move starts on
+     * @param endPosition the coordinate the move ends on
+     * @return the move, null if there is no piece on the start tile or it can't move to the end tile
+     */
+    public Move getMove(int startPosition, int endPosition) {
+        Piece piece = getTile(startPosition).getPiece();
+        return piece == null ? null : getMove(piece, endPosition);
+    }
+
+    /**
+     * get the legal moves of the next mover starting on a tile. The legal moves of every tile are sorted out together
+     * the first time, so showing and checking the moves of a selected piece doesn't try any move twice
+     * @param startPosition the coordinate of the tile
+     * @return the legal moves starting on the tile, empty if the next mover has no piece there
+     */
+    public List<Move> getLegalMovesFrom(int startPosition) {
+        List<List<Move>> movesByStart = this.legalMovesByStart;
+        if (movesByStart == null) {
+            List<List<Move>> sorted = new ArrayList<>(BoardUtils.NUM_TILES);
+            for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+                sorted.add(new ArrayList<Move>(0));
+            }
+            for (Move move: calculateLegalMoves()) {
+                sorted.get(move.getStartPosition()).add(move);
+            }
+            movesByStart = new ArrayList<>(BoardUtils.NUM_TILES);
+            for (List<Move> moves: sorted) {
+                movesByStart.add(Collections.unmodifiableList(moves));
+            }
+            this.legalMovesByStart = movesByStart;
+        }
+        return movesByStart.get(startPosition);
+    }
+
+    /**
+     * get the legal move of the next mover from one tile to another
+     * @param startPosition the coordinate the move starts on
+     * @param endPosition the coordinate the move ends on
+     * @return the move, null if it isn't a legal move of the next mover
+     */
+    public Move getLegalMove(int startPosition, int endPosition) {
+        for (Move move: getLegalMovesFrom(startPosition)) {
+            if (move.getEndPosition() == endPosition) {
+                return move;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * get the possible moves of a player by the coordinate they start on. They are sorted the first time they are
+     * asked for, so finding a move takes a look at the few moves of one tile, not all the moves of the player
+     * @param alliance the alliance of the player
+     * @return for every coordinate, the moves starting there
+     */
+    private List<List<Move>> getMovesByStart(Alliance alliance) {
+        List<List<Move>> movesByStart = alliance.isWhite() ? this.whiteMovesByStart : this.blackMovesByStart;
+        if (movesByStart == null) {
+            movesByStart = new ArrayList<>(BoardUtils.NUM_TILES);
+            for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+                movesByStart.add(new ArrayList<Move>(0));
+            }
+            for (Move move: getMovesByAlliance(alliance)) {
+                movesByStart.get(move.getStartPosition()).add(move);
+            }
+            if (alliance.isWhite()) {
+                this.whiteMovesByStart = movesByStart;
+            }
+            else {
+                this.blackMovesByStart = movesByStart;
+            }
+        }
+        return movesByStart;
+    }
+
     /**
      * is one of the possible moves for a given alliance a legal move (a move that doesn't move the player into check)
      * @param alliance the alliance of the player to check
      * @return does that player have legal moves
      */
     private boolean hasLegalMoves (Alliance alliance) {
+        // the next mover's answer is remembered
+        if (alliance == this.nextMover) {
+            return getStatus() == BoardStatus.ONGOING;
+        }
         // get the correct collection
         Collection<Move> possibleEscapes = alliance.isBlack() ? this.blackPossibleMoves : this.whitePossibleMoves;
         // for each move
@@ -211,6 +373,38 @@ public class Board {
         return !isPlayerInCheck(alliance) && !hasLegalMoves(alliance);
     }
 
+    /**
+     * has this position occurred three times in the game
+     * @return true if it is a draw by threefold repetition, false otherwise
+     */
+    public boolean isThreefoldRepetition() {
+        return this.gameHistory.isThreefoldRepetition();
+    }
+
+    /**
+     * have fifty moves passed by each player without a capture or pawn move
+     * @return true if the fifty move rule applies, false otherwise
+     */
+    public boolean isFiftyMoveRule() {
+        return this.gameHistory.isFiftyMoveRule();
+    }
+
+    /**
+     * calculate if the game is drawn for the input alliance to move: stalemate, threefold repetition, or the fifty
+     * move rule (unless the last move gave checkmate)
+     * @param alliance the alliance to calculate the draw for
+     * @return is the game a draw
+     */
+    public boolean calculateIsDraw (Alliance alliance) {
+        if (isThreefoldRepetition()) {
+            return true;
+        }
+        if (isFiftyMoveRule()) {
+            return !calculateIsPlayerInCheckmate(alliance);
+        }
+        return calculateIsPlayerInStalemate(alliance);
+    }
+
     /**
      * get all the pieces on the board (pieces of both alliances)
      * @return all the pieces on the board
@@ -415,10 +609,13 @@ public class Board {
         if (moveAlliance != this.nextMover) {
             return false;
         }
-        // look at all possible moves
-        Collection <Move> moves = moveAlliance.isBlack() ? this.blackPossibleMoves : this.whitePossibleMoves;
-        // is the move contained in moves
-        return moves.contains(move);
+        // look at the possible moves from the move's start tile
+        for (Move possibleMove: getMovesByStart(moveAlliance).get(move.getStartPosition())) {
+            if (move.equals(possibleMove)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -431,7 +628,7 @@ public class Board {
         Alliance moveAlliance = move.getAlliance();
         // if the move isn't possible return a move transition with the status ILLEGAL
         if (!isPossibleMove(move)) {
-            return new MoveTransition(this, MoveStatus.ILLEGAL);
+            return new MoveTransition(this, move, MoveStatus.ILLEGAL);
         }
         // get the board that would result from the move
         Board board = move.execute();
@@ -440,15 +637,33 @@ public class Board {
         assert (moveAlliance.getOpponentAlliance() == nextPlayerAlliance);
         // if player is in check
         if (board.isPlayerInCheck(moveAlliance)) {
-            return new MoveTransition(board, MoveStatus.LEAVES_PLAYER_IN_CHECK);
+            return new MoveTransition(board, move, MoveStatus.LEAVES_PLAYER_IN_CHECK);
         }
         // otherwise return status as DONE
         else {
-            return new MoveTransition(board, MoveStatus.DONE);
+            return new MoveTransition(board, move, MoveStatus.DONE);
         }
 
     }
 
+    /**
+     * pass the move to the opponent without moving a piece. It isn't a legal move, the search uses it to see if a
+     * board is so good that even doing nothing keeps it good
+     * @return the board with the same pieces, the other player to move, and no en passant pawn
+     */
+    public Board makeNullMove() {
+        Builder builder = new Builder();
+        for (Piece piece: this.allPieces) {
+            builder.addPiece(piece);
+        }
+        builder.setMover(this.nextMover.getOpponentAlliance());
+        builder.setHalfmoveClock(getHalfmoveClock() + 1);
+        builder.setPreviousHistory(this.gameHistory);
+        // the positions before the pass weren't reached by moves, so they can't be repeated
+        builder.setNullMove(true);
+        return builder.build();
+    }
+
     /**
      * the toString method
      * @return the String representation of the board
@@ -475,6 +690,9 @@ public class Board {
         Alliance nextMover;
         Collection<Piece> whitePieces;
         Collection<Piece> blackPieces;
+        int halfmoveClock;
+        GameHistory previousHistory;
+        boolean nullMove;
 
         /**
          * the constructor
@@ -550,6 +768,54 @@ public class Board {
             return this.nextMover;
         }
 
+        /**
+         * set the fifty move counter
+         * @param halfmoveClock the number of half moves since the last capture or pawn move
+         */
+        public void setHalfmoveClock(int halfmoveClock) {
+            this.halfmoveClock = halfmoveClock;
+        }
+
+        /**
+         * get the fifty move counter
+         * @return the number of half moves since the last capture or pawn move
+         */
+        int getHalfmoveClock() {
+            return this.halfmoveClock;
+        }
+
+        /**
+         * set the history of the game before the board being built
+         * @param previousHistory the game history entry of the previous board
+         */
+        public void setPreviousHistory(GameHistory previousHistory) {
+            this.previousHistory = previousHistory;
+        }
+
+        /**
+         * get the history of the game before the board being built
+         * @return the game history entry of the previous board, null if there is none
+         */
+        GameHistory getPreviousHistory() {
+            return this.previousHistory;
+        }
+
+        /**
+         * set whether the board being built comes from a null move
+         * @param nullMove true if the board is the same pieces with the other player to move
+         */
+        void setNullMove(boolean nullMove) {
+            this.nullMove = nullMove;
+        }
+
+        /**
+         * does the board being built come from a null move
+         * @return true if it does, false otherwise
+         */
+        boolean isNullMove() {
+            return this.nullMove;
+        }
+
         /**
          * get all the pieces for the given alliance
          * @param alliance the alliance of the pieces to get
@@ -0,0 +1,21 @@
+package com.chess.engine.board;
+
+/**
+ * the BoardStatus enum type, whether the next mover of a board can still move
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public enum BoardStatus {
+    /**
+     * ONGOING is used when the next mover has a legal move
+     */
+    ONGOING,
+    /**
+     * CHECKMATE is used when the next mover is in check and has no legal moves
+     */
+    CHECKMATE,
+    /**
+     * STALEMATE is used when the next mover is not in check and has no legal moves
+     */
+    STALEMATE
+}
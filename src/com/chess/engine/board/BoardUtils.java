@@ -18,6 +18,9 @@ public class BoardUtils {
     // a cache of empty tiles
     static Map<Integer, Tile> emptyTiles = createEmptyTiles();
 
+    // the algebraic name of every tile, "a8" for tile 0 through "h1" for tile 63
+    private static final String[] ALGEBRAIC_NOTATION = createAlgebraicNotation();
+
     /**
      * is the input coordinate valid
      * @param coordinate the coordinate to check the validity of
@@ -27,6 +30,41 @@ public class BoardUtils {
         return 0 <= coordinate && coordinate < NUM_TILES;
     }
 
+    /**
+     * get the algebraic name of a tile
+     * @param coordinate the coordinate of the tile
+     * @return the name of the tile, like "e4"
+     */
+    public static String getPositionAtCoordinate(int coordinate) {
+        return ALGEBRAIC_NOTATION[coordinate];
+    }
+
+    /**
+     * get the coordinate of a tile from its algebraic name
+     * @param position the name of the tile, like "e4"
+     * @return the coordinate of the tile, or -1 if the name is not a tile
+     */
+    public static int getCoordinateAtPosition(String position) {
+        for (int i = 0; i < NUM_TILES; i++) {
+            if (ALGEBRAIC_NOTATION[i].equals(position)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * create the algebraic names of the tiles
+     * @return the name of every tile, by coordinate
+     */
+    private static String[] createAlgebraicNotation() {
+        String[] names = new String[NUM_TILES];
+        for (int i = 0; i < NUM_TILES; i++) {
+            names[i] = "" + (char) ('a' + i % NUM_COLS) + (NUM_ROWS - i / NUM_COLS);
+        }
+        return names;
+    }
+
     /**
      * create the empty tile cache
      * @return a Map of empty tiles
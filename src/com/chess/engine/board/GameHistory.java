@@ -0,0 +1,95 @@
+package com.chess.engine.board;
+
+/**
+ * the GameHistory class
+ * one entry of the stack of positions that led to a board. Each board points to its own entry, and each entry points
+ * to the entry of the board before it, so boards that branch from the same position share the entries they have in
+ * common. An entry only holds the key and the fifty move counter, never the board itself. The entry of a null move,
+ * the pass the search tries, is a barrier: the positions before it weren't reached by moves, so none of the boards
+ * after it can repeat them
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public final class GameHistory {
+    // the zobrist key of the position
+    private final long zobristKey;
+    // the number of half moves since the last capture or pawn move
+    private final int halfmoveClock;
+    // the entry of the position before this one, null at the start of the game
+    private final GameHistory previous;
+    // is the position the board after a null move
+    private final boolean nullMove;
+
+    /**
+     * the constructor
+     * @param zobristKey the key of the position
+     * @param halfmoveClock the number of half moves since the last capture or pawn move
+     * @param previous the entry of the position before, null if there is none
+     * @param nullMove true if the position is the board after a null move
+     */
+    GameHistory(long zobristKey, int halfmoveClock, GameHistory previous, boolean nullMove) {
+        this.zobristKey = zobristKey;
+        this.halfmoveClock = halfmoveClock;
+        this.previous = previous;
+        this.nullMove = nullMove;
+    }
+
+    /**
+     * get the key of the position
+     * @return the zobrist key
+     */
+    public long getZobristKey() {
+        return this.zobristKey;
+    }
+
+    /**
+     * get the fifty move counter
+     * @return the number of half moves since the last capture or pawn move
+     */
+    public int getHalfmoveClock() {
+        return this.halfmoveClock;
+    }
+
+    /**
+     * get the entry of the position before this one
+     * @return the previous entry, null at the start of the game
+     */
+    public GameHistory getPrevious() {
+        return this.previous;
+    }
+
+    /**
+     * count how many times this position has occurred. A position can't repeat across a capture or pawn move, so
+     * only the entries since the last one are checked, and only every other one (the same player to move). The scan
+     * also stops at a null move
+     * @return the number of times the position has occurred, including this one
+     */
+    public int countRepetitions() {
+        int count = 1;
+        GameHistory entry = this.nullMove ? null : this.previous;
+        for (int i = 1; i <= this.halfmoveClock && entry != null; i++) {
+            if (i % 2 == 0 && entry.zobristKey == this.zobristKey) {
+                count++;
+            }
+            // nothing before a null move can be repeated
+            entry = entry.nullMove ? null : entry.previous;
+        }
+        return count;
+    }
+
+    /**
+     * has the position occurred three times
+     * @return true if the position has occurred at least three times, false otherwise
+     */
+    public boolean isThreefoldRepetition() {
+        return countRepetitions() >= 3;
+    }
+
+    /**
+     * have fifty moves passed by each player without a capture or pawn move
+     * @return true if the fifty move rule applies, false otherwise
+     */
+    public boolean isFiftyMoveRule() {
+        return this.halfmoveClock >= 100;
+    }
+}
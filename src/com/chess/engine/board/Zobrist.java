@@ -0,0 +1,73 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.PieceType;
+
+import java.util.Random;
+
+/**
+ * the Zobrist class
+ * the random numbers used to hash a board into a single long. Two boards with the same pieces on the same tiles,
+ * the same castling and en passant possibilities and the same next mover get the same key
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public class Zobrist {
+
+    // a random number for every piece type, alliance, castling flag and tile
+    private static final long[][][][] PIECE_KEYS = new long[6][2][2][BoardUtils.NUM_TILES];
+    // a random number for every tile a pawn can be taken en passant on
+    private static final long[] EN_PASSANT_KEYS = new long[BoardUtils.NUM_TILES];
+    // a random number for black being the next mover
+    private static final long BLACK_TO_MOVE_KEY;
+
+    static {
+        // a fixed seed so the keys are the same every run
+        Random random = new Random(0x5EED5EEDL);
+        for (long[][][] type : PIECE_KEYS) {
+            for (long[][] alliance : type) {
+                for (long[] firstMove : alliance) {
+                    for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+                        firstMove[i] = random.nextLong();
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            EN_PASSANT_KEYS[i] = random.nextLong();
+        }
+        BLACK_TO_MOVE_KEY = random.nextLong();
+    }
+
+    /**
+     * get the key of a single piece. Whether the piece has moved only counts for kings and rooks, where it decides
+     * if the player can still castle
+     * @param piece the piece
+     * @return the key of that piece on its tile
+     */
+    public static long pieceKey(Piece piece) {
+        PieceType type = piece.getPieceType();
+        boolean canCastle = (type == PieceType.KING || type == PieceType.ROOK) && piece.isFirstMove();
+        return PIECE_KEYS[type.ordinal()][piece.getAlliance().ordinal()][canCastle ? 1 : 0][piece.getPosition()];
+    }
+
+    /**
+     * calculate the key of a board
+     * @param board the board to hash
+     * @return the key of the board
+     */
+    static long calculateKey(Board board) {
+        long key = 0;
+        for (Piece piece : board.getAllPieces()) {
+            key ^= pieceKey(piece);
+        }
+        if (board.getEnPassantPawn() != null) {
+            key ^= EN_PASSANT_KEYS[board.getEnPassantPawn().getPosition()];
+        }
+        if (board.getCurrentPlayerAlliance() == Alliance.BLACK) {
+            key ^= BLACK_TO_MOVE_KEY;
+        }
+        return key;
+    }
+}
@@ -0,0 +1,120 @@
+package com.chess.engine.game;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * the GameNode class
+ * one position of a game tree: the tiles of the move that led to it, and the moves played from it. The first child
+ * is the main line, the others are variations. A node keeps no board, a board holds its move lists and every move
+ * holds its board, so only the GameTree keeps boards, for the one line being looked at
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public class GameNode {
+    // the node before, null for the root
+    private final GameNode parent;
+    // the tiles the move from the parent starts and ends on, -1 for the root
+    private final byte startPosition;
+    private final byte endPosition;
+    // the number of half moves from the root
+    private final int ply;
+    // the moves played from this node, the main line first
+    private final List<GameNode> children;
+
+    /**
+     * the constructor
+     * @param parent the node before, null for the root
+     * @param startPosition the tile the move from the parent starts on, -1 for the root
+     * @param endPosition the tile the move from the parent ends on, -1 for the root
+     */
+    GameNode(GameNode parent, int startPosition, int endPosition) {
+        this.parent = parent;
+        this.startPosition = (byte) startPosition;
+        this.endPosition = (byte) endPosition;
+        this.ply = parent == null ? 0 : parent.getPly() + 1;
+        this.children = new ArrayList<>(1);
+    }
+
+    /**
+     * get the node before
+     * @return the parent, null for the root
+     */
+    public GameNode getParent() {
+        return this.parent;
+    }
+
+    /**
+     * get the tile the move that led to this node starts on
+     * @return the coordinate, -1 for the root
+     */
+    public int getStartPosition() {
+        return this.startPosition;
+    }
+
+    /**
+     * get the tile the move that led to this node ends on
+     * @return the coordinate, -1 for the root
+     */
+    public int getEndPosition() {
+        return this.endPosition;
+    }
+
+    /**
+     * get the number of half moves from the root
+     * @return the ply
+     */
+    public int getPly() {
+        return this.ply;
+    }
+
+    /**
+     * get the moves played from this node
+     * @return the children, the main line first
+     */
+    public List<GameNode> getChildren() {
+        return Collections.unmodifiableList(this.children);
+    }
+
+    /**
+     * get the main line child
+     * @return the first child, null if no move has been played from this node
+     */
+    public GameNode getMainLine() {
+        return this.children.isEmpty() ? null : this.children.get(0);
+    }
+
+    /**
+     * find the child for a move
+     * @param startPosition the tile the move starts on
+     * @param endPosition the tile the move ends on
+     * @return the child, null if the move hasn't been played from this node
+     */
+    GameNode getChild(int startPosition, int endPosition) {
+        for (GameNode child : this.children) {
+            if (child.startPosition == startPosition && child.endPosition == endPosition) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * add a child
+     * @param child the child, it becomes the main line if it is the first
+     */
+    void addChild(GameNode child) {
+        this.children.add(child);
+    }
+
+    /**
+     * make a child the main line
+     * @param child one of the children
+     */
+    void promote(GameNode child) {
+        if (this.children.remove(child)) {
+            this.children.add(0, child);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.chess.engine.game;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.move.Move;
+import com.chess.engine.move.MoveStatus;
+import com.chess.engine.move.MoveTransition;
+import com.chess.engine.pieces.Piece;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * the GameTree class
+ * the moves of a game with their variations, and the position being looked at. The nodes only keep the tiles of
+ * their moves, and the tree keeps the boards, moves and taken pieces of one line, the line being looked at, from the
+ * start to the furthest position reached on it. Going back, forward or to the start along that line only moves an
+ * index, and a board is only made when the line goes somewhere new: one move when a new move is played or forward
+ * leaves the line, and the moves below the point where the lines split when jumping to another variation. Playing a
+ * move that was already played from a node goes to the existing node, and playing a new move starts a variation
+ * without losing the old line
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public class GameTree {
+
+    // the starting position
+    private final GameNode root;
+    // the nodes of the line being looked at, indexed by ply, the root first
+    private final List<GameNode> line;
+    // the board of each node of the line
+    private final List<Board> boards;
+    // the move that led to each node of the line, null for the root
+    private final List<Move> moves;
+    // the pieces taken along the line, in the order they were taken
+    private final List<Piece> takenPieces;
+    // the number of pieces taken up to each node of the line
+    private final List<Integer> takenCounts;
+    // the position being looked at, always on the line
+    private GameNode current;
+
+    /**
+     * the constructor
+     * @param board the board the game starts from
+     */
+    public GameTree(Board board) {
+        this.root = new GameNode(null, -1, -1);
+        this.line = new ArrayList<>();
+        this.boards = new ArrayList<>();
+        this.moves = new ArrayList<>();
+        this.takenPieces = new ArrayList<>();
+        this.takenCounts = new ArrayList<>();
+        this.line.add(this.root);
+        this.boards.add(board);
+        this.moves.add(null);
+        this.takenCounts.add(0);
+        this.current = this.root;
+    }
+
+    /**
+     * play a move from the current position, and go to the position after it
+     * @param move the move
+     * @return the move transition, the current position only changes if its status is DONE
+     */
+    public MoveTransition play(Move move) {
+        GameNode child = this.current.getChild(move.getStartPosition(), move.getEndPosition());
+        if (child != null) {
+            if (!isOnLine(child)) {
+                extendLine(child, getCurrentBoard().makeMove(move).getTransBoard(), move);
+            }
+            this.current = child;
+            return new MoveTransition(getCurrentBoard(), move, MoveStatus.DONE);
+        }
+        MoveTransition transition = getCurrentBoard().makeMove(move);
+        if (transition.getStatus() == MoveStatus.DONE) {
+            child = new GameNode(this.current, move.getStartPosition(), move.getEndPosition());
+            this.current.addChild(child);
+            extendLine(child, transition.getTransBoard(), move);
+            this.current = child;
+        }
+        return transition;
+    }
+
+    /**
+     * go back a move
+     * @return true if there was a move to go back, false at the start of the game
+     */
+    public boolean back() {
+        if (this.current.getParent() == null) {
+            return false;
+        }
+        this.current = this.current.getParent();
+        return true;
+    }
+
+    /**
+     * go forward a move along the main line
+     * @return true if there was a move to go forward, false at the end of the line
+     */
+    public boolean forward() {
+        GameNode next = this.current.getMainLine();
+        if (next == null) {
+            return false;
+        }
+        if (!isOnLine(next)) {
+            Move move = getCurrentBoard().getMove(next.getStartPosition(), next.getEndPosition());
+            extendLine(next, getCurrentBoard().makeMove(move).getTransBoard(), move);
+        }
+        this.current = next;
+        return true;
+    }
+
+    /**
+     * can the current position go back a move
+     * @return true if it isn't the start of the game, false otherwise
+     */
+    public boolean canGoBack() {
+        return this.current.getParent() != null;
+    }
+
+    /**
+     * can the current position go forward a move
+     * @return true if a move has been played from it, false otherwise
+     */
+    public boolean canGoForward() {
+        return this.current.getMainLine() != null;
+    }
+
+    /**
+     * go to the start of the game
+     */
+    public void goToStart() {
+        this.current = this.root;
+    }
+
+    /**
+     * go to the end of the main line from the current position
+     */
+    public void goToEnd() {
+        while (forward()) {
+            // keep following the main line
+        }
+    }
+
+    /**
+     * go to a node of the tree. The line now leads to the node, so the boards below the point where it leaves the
+     * old line are made again
+     * @param node the node, it must belong to this tree
+     */
+    public void goTo(GameNode node) {
+        List<GameNode> path = new ArrayList<>();
+        for (GameNode from = node; !isOnLine(from); from = from.getParent()) {
+            path.add(from);
+        }
+        for (int i = path.size() - 1; i >= 0; i--) {
+            GameNode next = path.get(i);
+            Board board = this.boards.get(next.getPly() - 1);
+            Move move = board.getMove(next.getStartPosition(), next.getEndPosition());
+            extendLine(next, board.makeMove(move).getTransBoard(), move);
+        }
+        this.current = node;
+    }
+
+    /**
+     * make the line leading to the current position the main line
+     */
+    public void promoteVariation() {
+        for (GameNode node = this.current; node.getParent() != null; node = node.getParent()) {
+            node.getParent().promote(node);
+        }
+    }
+
+    /**
+     * get the start of the game
+     * @return the root node
+     */
+    public GameNode getRoot() {
+        return this.root;
+    }
+
+    /**
+     * get the position being looked at
+     * @return the current node
+     */
+    public GameNode getCurrentNode() {
+        return this.current;
+    }
+
+    /**
+     * get the board being looked at
+     * @return the board of the current node
+     */
+    public Board getCurrentBoard() {
+        return this.boards.get(this.current.getPly());
+    }
+
+    /**
+     * get the board of a node. A node off the line has its board made again from the nearest node on the line, and
+     * the board isn't kept
+     * @param node the node, it must belong to this tree
+     * @return the board after the node's move
+     */
+    public Board getBoard(GameNode node) {
+        List<GameNode> path = new ArrayList<>();
+        GameNode from = node;
+        while (!isOnLine(from)) {
+            path.add(from);
+            from = from.getParent();
+        }
+        Board board = this.boards.get(from.getPly());
+        for (int i = path.size() - 1; i >= 0; i--) {
+            board = board.makeMove(board.getMove(path.get(i).getStartPosition(), path.get(i).getEndPosition()))
+                    .getTransBoard();
+        }
+        return board;
+    }
+
+    /**
+     * get the moves from the start of the game to the current position
+     * @return the moves in the order they were played
+     */
+    public List<Move> getMovesToCurrent() {
+        return new ArrayList<>(this.moves.subList(1, this.current.getPly() + 1));
+    }
+
+    /**
+     * get the pieces taken from the start of the game to the current position
+     * @return the pieces in the order they were taken
+     */
+    public List<Piece> getTakenPieces() {
+        return new ArrayList<>(this.takenPieces.subList(0, this.takenCounts.get(this.current.getPly())));
+    }
+
+    /**
+     * is a node on the line the tree keeps the boards of
+     * @param node the node
+     * @return true if the line passes through the node, false otherwise
+     */
+    private boolean isOnLine(GameNode node) {
+        return node.getPly() < this.line.size() && this.line.get(node.getPly()) == node;
+    }
+
+    /**
+     * make a node the end of the line, dropping the old line below the node's parent
+     * @param node the node, its parent must be on the line
+     * @param board the board of the node
+     * @param move the move that led to the node
+     */
+    private void extendLine(GameNode node, Board board, Move move) {
+        int size = node.getPly();
+        int taken = this.takenCounts.get(size - 1);
+        this.line.subList(size, this.line.size()).clear();
+        this.boards.subList(size, this.boards.size()).clear();
+        this.moves.subList(size, this.moves.size()).clear();
+        this.takenCounts.subList(size, this.takenCounts.size()).clear();
+        this.takenPieces.subList(taken, this.takenPieces.size()).clear();
+        this.line.add(node);
+        this.boards.add(board);
+        this.moves.add(move);
+        if (move.isAttack()) {
+            this.takenPieces.add(((Move.AttackMove) move).getAttackedPiece());
+            taken++;
+        }
+        this.takenCounts.add(taken);
+    }
+}
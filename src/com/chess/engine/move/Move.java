@@ -81,10 +81,26 @@ public class Move {
         builder.addPiece(movedPiece.movePiece(this));
         // switch the mover to the other alliance
         builder.setMover(board.getCurrentPlayerAlliance().getOpponentAlliance());
+        addHistory(builder);
         // return the resulting board
         return builder.build();
     }
 
+    /**
+     * record the history on the builder of the new board: the fifty move counter, which starts again after a
+     * capture or pawn move, and the history of the board the move happens on
+     * @param builder the builder of the new board
+     */
+    protected void addHistory(Board.Builder builder) {
+        if (isAttack() || movedPiece.getPieceType() == PieceType.PAWN) {
+            builder.setHalfmoveClock(0);
+        }
+        else {
+            builder.setHalfmoveClock(board.getHalfmoveClock() + 1);
+        }
+        builder.setPreviousHistory(board.getGameHistory());
+    }
+
     /**
      * is the move an attack move
      * @return false, a Move is not an AttackMove
@@ -170,6 +186,7 @@ public class Move {
             builder.addPiece(movedPiece.movePiece(this));
             // set the mover to the other alliance
             builder.setMover(board.getCurrentPlayerAlliance().getOpponentAlliance());
+            addHistory(builder);
             // return the resulting board
             return builder.build();
         }
@@ -300,6 +317,7 @@ public class Move {
             builder.addPiece(rook.movePiece(this));
             // set mover to other player
             builder.setMover(board.getCurrentPlayerAlliance().getOpponentAlliance());
+            addHistory(builder);
             // return the new board
             return builder.build();
         }
@@ -379,6 +397,7 @@ public class Move {
             builder.addPiece(movedPawn);
             builder.setMover(board.getCurrentPlayerAlliance().getOpponentAlliance());
             builder.setEnPassantPawn(movedPawn);
+            addHistory(builder);
             return builder.build();
         }
     }
@@ -12,16 +12,20 @@ import com.chess.engine.board.Board;
 public class MoveTransition {
     // the new board
     private final Board transBoard;
+    // the move that was made
+    private final Move move;
     // the move status
     private final MoveStatus moveStatus;
 
     /**
      * the constructor
      * @param transBoard the board that was created by a move execution
+     * @param move the move that was made
      * @param moveStatus the status of that move
      */
-    public MoveTransition (final Board transBoard, final MoveStatus moveStatus) {
+    public MoveTransition (final Board transBoard, final Move move, final MoveStatus moveStatus) {
         this.transBoard = transBoard;
+        this.move = move;
         this.moveStatus = moveStatus;
     }
 
@@ -33,6 +37,14 @@ public class MoveTransition {
         return moveStatus;
     }
 
+    /**
+     * the getter for the move
+     * @return the move that was made
+     */
+    public Move getMove() {
+        return this.move;
+    }
+
     /**
      * the getter for the new board
      * @return the new board
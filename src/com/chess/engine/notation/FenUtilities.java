@@ -0,0 +1,212 @@
+package com.chess.engine.notation;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.PieceType;
+import com.chess.engine.pieces.singletonPieces.King;
+import com.chess.engine.pieces.singletonPieces.Knight;
+import com.chess.engine.pieces.vectorPieces.Bishop;
+import com.chess.engine.pieces.vectorPieces.Queen;
+import com.chess.engine.pieces.vectorPieces.Rook;
+
+/**
+ * the FenUtilities class
+ * reads and writes boards in Forsyth-Edwards Notation. The board has no castling rights of its own, a king or rook
+ * can castle as long as it has not moved, so the castling field decides which kings and rooks are created unmoved
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public class FenUtilities {
+
+    /**
+     * create a board from a FEN string. The half move clock and full move number are optional
+     * @param fen the FEN string
+     * @return the board the FEN describes
+     * @throws IllegalArgumentException if the FEN can't be read
+     */
+    public static Board createBoard(String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 4) {
+            throw new IllegalArgumentException("not a FEN string: " + fen);
+        }
+        String castling = fields[2];
+        Alliance mover = fields[1].equals("b") ? Alliance.BLACK : Alliance.WHITE;
+        Board.Builder builder = new Board.Builder();
+        builder.setMover(mover);
+
+        // the en passant field names the tile behind the pawn that just jumped
+        int enPassantCoordinate = -1;
+        if (!fields[3].equals("-")) {
+            int target = BoardUtils.getCoordinateAtPosition(fields[3]);
+            if (target < 0) {
+                throw new IllegalArgumentException("bad en passant tile in FEN: " + fen);
+            }
+            enPassantCoordinate = target + BoardUtils.NUM_COLS * mover.getOpponentAlliance().getDirection();
+        }
+
+        // the pieces, from a8 to h1
+        int coordinate = 0;
+        for (char c : fields[0].toCharArray()) {
+            if (c == '/') {
+                continue;
+            }
+            if (Character.isDigit(c)) {
+                coordinate += c - '0';
+                continue;
+            }
+            if (coordinate >= BoardUtils.NUM_TILES) {
+                throw new IllegalArgumentException("too many tiles in FEN: " + fen);
+            }
+            Piece piece = createPiece(c, coordinate, castling);
+            builder.addPiece(piece);
+            if (coordinate == enPassantCoordinate && piece.getPieceType() == PieceType.PAWN) {
+                builder.setEnPassantPawn((Pawn) piece);
+            }
+            coordinate++;
+        }
+        if (coordinate != BoardUtils.NUM_TILES) {
+            throw new IllegalArgumentException("wrong number of tiles in FEN: " + fen);
+        }
+
+        if (fields.length > 4) {
+            builder.setHalfmoveClock(Integer.parseInt(fields[4]));
+        }
+        return builder.build();
+    }
+
+    /**
+     * create a single piece from its FEN letter
+     * @param c the letter, upper case for white
+     * @param coordinate the coordinate of the piece
+     * @param castling the castling field of the FEN
+     * @return the piece
+     */
+    private static Piece createPiece(char c, int coordinate, String castling) {
+        Alliance alliance = Character.isUpperCase(c) ? Alliance.WHITE : Alliance.BLACK;
+        switch (Character.toLowerCase(c)) {
+            case 'p':
+                boolean onStartRow = alliance.isWhite() ? coordinate / BoardUtils.NUM_COLS == 6
+                        : coordinate / BoardUtils.NUM_COLS == 1;
+                return new Pawn(coordinate, alliance, onStartRow);
+            case 'n':
+                return new Knight(coordinate, alliance, false);
+            case 'b':
+                return new Bishop(coordinate, alliance, false);
+            case 'r':
+                return new Rook(coordinate, alliance, isUnmovedRook(coordinate, alliance, castling));
+            case 'q':
+                return new Queen(coordinate, alliance, false);
+            case 'k':
+                int kingStart = alliance.isWhite() ? 60 : 4;
+                boolean canCastle = alliance.isWhite() ? castling.matches(".*[KQ].*") : castling.matches(".*[kq].*");
+                return new King(coordinate, alliance, coordinate == kingStart && canCastle);
+            default:
+                throw new IllegalArgumentException("unknown piece in FEN: " + c);
+        }
+    }
+
+    /**
+     * can a rook still castle according to the castling field
+     * @param coordinate the coordinate of the rook
+     * @param alliance the alliance of the rook
+     * @param castling the castling field of the FEN
+     * @return true if the rook is in a corner it can still castle from, false otherwise
+     */
+    private static boolean isUnmovedRook(int coordinate, Alliance alliance, String castling) {
+        if (alliance.isWhite()) {
+            return (coordinate == 63 && castling.contains("K")) || (coordinate == 56 && castling.contains("Q"));
+        }
+        return (coordinate == 7 && castling.contains("k")) || (coordinate == 0 && castling.contains("q"));
+    }
+
+    /**
+     * create a FEN string for a board. The board doesn't count full moves, so the full move number is always 1
+     * @param board the board
+     * @return the FEN string of the board
+     */
+    public static String createFEN(Board board) {
+        StringBuilder builder = new StringBuilder();
+
+        // the pieces, from a8 to h1
+        int empty = 0;
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            Piece piece = board.getTile(i).getPiece();
+            if (piece == null) {
+                empty++;
+            }
+            else {
+                if (empty > 0) {
+                    builder.append(empty);
+                    empty = 0;
+                }
+                builder.append(piece.toString());
+            }
+            if ((i + 1) % BoardUtils.NUM_COLS == 0) {
+                if (empty > 0) {
+                    builder.append(empty);
+                    empty = 0;
+                }
+                if (i + 1 < BoardUtils.NUM_TILES) {
+                    builder.append('/');
+                }
+            }
+        }
+
+        builder.append(board.getCurrentPlayerAlliance().isBlack() ? " b " : " w ");
+        builder.append(calculateCastleText(board));
+
+        // the tile behind the pawn that just jumped
+        Pawn enPassantPawn = board.getEnPassantPawn();
+        if (enPassantPawn != null) {
+            int target = enPassantPawn.getPosition() - BoardUtils.NUM_COLS * enPassantPawn.getAlliance().getDirection();
+            builder.append(' ').append(BoardUtils.getPositionAtCoordinate(target));
+        }
+        else {
+            builder.append(" -");
+        }
+
+        builder.append(' ').append(board.getHalfmoveClock()).append(" 1");
+        return builder.toString();
+    }
+
+    /**
+     * create the castling field for a board
+     * @param board the board
+     * @return the castling field, "-" if neither player can castle
+     */
+    private static String calculateCastleText(Board board) {
+        StringBuilder builder = new StringBuilder();
+        if (isUnmoved(board, 60, PieceType.KING)) {
+            if (isUnmoved(board, 63, PieceType.ROOK)) {
+                builder.append('K');
+            }
+            if (isUnmoved(board, 56, PieceType.ROOK)) {
+                builder.append('Q');
+            }
+        }
+        if (isUnmoved(board, 4, PieceType.KING)) {
+            if (isUnmoved(board, 7, PieceType.ROOK)) {
+                builder.append('k');
+            }
+            if (isUnmoved(board, 0, PieceType.ROOK)) {
+                builder.append('q');
+            }
+        }
+        return builder.length() == 0 ? "-" : builder.toString();
+    }
+
+    /**
+     * is there an unmoved piece of the given type on a tile
+     * @param board the board
+     * @param coordinate the coordinate of the tile
+     * @param pieceType the type of piece
+     * @return true if the tile holds an unmoved piece of that type, false otherwise
+     */
+    private static boolean isUnmoved(Board board, int coordinate, PieceType pieceType) {
+        Piece piece = board.getTile(coordinate).getPiece();
+        return piece != null && piece.getPieceType() == pieceType && piece.isFirstMove();
+    }
+}
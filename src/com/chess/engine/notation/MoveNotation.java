@@ -0,0 +1,185 @@
+package com.chess.engine.notation;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.move.Move;
+import com.chess.engine.move.MoveStatus;
+import com.chess.engine.move.MoveTransition;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.PieceType;
+
+import java.util.List;
+
+/**
+ * the MoveNotation class
+ * writes and reads moves in standard algebraic notation ("Nf3", "exd5", "O-O", "e8=Q+") and in coordinate notation
+ * ("g1f3"). Pawns always promote to a queen on this board, so "=Q" is the only promotion written
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public class MoveNotation {
+
+    /**
+     * write a move in standard algebraic notation
+     * @param board the board the move is made on
+     * @param move the move, one of the legal moves of the board
+     * @return the move in algebraic notation
+     */
+    public static String toAlgebraic(Board board, Move move) {
+        StringBuilder builder = new StringBuilder(toAlgebraicNoSuffix(board, move));
+
+        // the check or mate suffix
+        MoveTransition transition = board.makeMove(move);
+        Board after = transition.getTransBoard();
+        if (after.isPlayerInCheck(after.getCurrentPlayerAlliance())) {
+            builder.append(after.calculateIsPlayerInCheckmate(after.getCurrentPlayerAlliance()) ? '#' : '+');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * write a move in standard algebraic notation without the check or mate suffix
+     * @param board the board the move is made on
+     * @param move the move, one of the legal moves of the board
+     * @return the move in algebraic notation without the suffix
+     */
+    private static String toAlgebraicNoSuffix(Board board, Move move) {
+        StringBuilder builder = new StringBuilder();
+        Piece piece = move.getPiece();
+        String destination = BoardUtils.getPositionAtCoordinate(move.getEndPosition());
+
+        if (move instanceof Move.CastleMove) {
+            builder.append(move.getEndPosition() % BoardUtils.NUM_COLS == 6 ? "O-O" : "O-O-O");
+        }
+        else if (piece.getPieceType() == PieceType.PAWN) {
+            if (move.isAttack()) {
+                builder.append(BoardUtils.getPositionAtCoordinate(move.getStartPosition()).charAt(0)).append('x');
+            }
+            builder.append(destination);
+            if (isPromotion(move)) {
+                builder.append("=Q");
+            }
+        }
+        else {
+            builder.append(piece.toString().toUpperCase());
+            builder.append(calculateDisambiguation(board, move));
+            if (move.isAttack()) {
+                builder.append('x');
+            }
+            builder.append(destination);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * find the move written in standard algebraic notation. Check, mate and annotation marks are ignored, and a move
+     * in coordinate notation is accepted too
+     * @param board the board the move is made on
+     * @param text the move in algebraic notation
+     * @return the matching legal move, null if there isn't one
+     */
+    public static Move fromAlgebraic(Board board, String text) {
+        String wanted = stripSuffix(text.trim().replace('0', 'O'));
+        List<Move> legalMoves = board.calculateLegalMoves();
+        for (Move move : legalMoves) {
+            if (toAlgebraicNoSuffix(board, move).equals(wanted)) {
+                return move;
+            }
+        }
+        return fromCoordinates(board, text.trim());
+    }
+
+    /**
+     * write a move in coordinate notation
+     * @param move the move
+     * @return the start and end tile of the move, like "e2e4"
+     */
+    public static String toCoordinates(Move move) {
+        return BoardUtils.getPositionAtCoordinate(move.getStartPosition())
+                + BoardUtils.getPositionAtCoordinate(move.getEndPosition());
+    }
+
+    /**
+     * find the move written in coordinate notation
+     * @param board the board the move is made on
+     * @param text the move in coordinate notation, like "e2e4" or "e7e8q"
+     * @return the matching legal move, null if there isn't one
+     */
+    public static Move fromCoordinates(Board board, String text) {
+        if (text.length() < 4) {
+            return null;
+        }
+        int start = BoardUtils.getCoordinateAtPosition(text.substring(0, 2));
+        int end = BoardUtils.getCoordinateAtPosition(text.substring(2, 4));
+        if (start < 0 || end < 0) {
+            return null;
+        }
+        Move move = board.getMove(start, end);
+        if (move == null || board.makeMove(move).getStatus() != MoveStatus.DONE) {
+            return null;
+        }
+        return move;
+    }
+
+    /**
+     * does a move promote a pawn
+     * @param move the move
+     * @return true if a pawn reaches the last row, false otherwise
+     */
+    public static boolean isPromotion(Move move) {
+        int row = move.getEndPosition() / BoardUtils.NUM_COLS;
+        return move.getPiece().getPieceType() == PieceType.PAWN && (row == 0 || row == BoardUtils.NUM_ROWS - 1);
+    }
+
+    /**
+     * work out what is needed to tell a move apart from moves of the same kind of piece to the same tile: nothing,
+     * the file, the rank, or both
+     * @param board the board the move is made on
+     * @param move the move
+     * @return the text to put between the piece letter and the destination
+     */
+    private static String calculateDisambiguation(Board board, Move move) {
+        boolean ambiguous = false;
+        boolean sameFile = false;
+        boolean sameRank = false;
+        for (Move other : board.calculateLegalMoves()) {
+            if (other.getStartPosition() == move.getStartPosition()
+                    || other.getEndPosition() != move.getEndPosition()
+                    || other.getPiece().getPieceType() != move.getPiece().getPieceType()
+                    || other instanceof Move.CastleMove) {
+                continue;
+            }
+            ambiguous = true;
+            if (other.getStartPosition() % BoardUtils.NUM_COLS == move.getStartPosition() % BoardUtils.NUM_COLS) {
+                sameFile = true;
+            }
+            if (other.getStartPosition() / BoardUtils.NUM_COLS == move.getStartPosition() / BoardUtils.NUM_COLS) {
+                sameRank = true;
+            }
+        }
+        String start = BoardUtils.getPositionAtCoordinate(move.getStartPosition());
+        if (!ambiguous) {
+            return "";
+        }
+        if (!sameFile) {
+            return start.substring(0, 1);
+        }
+        if (!sameRank) {
+            return start.substring(1);
+        }
+        return start;
+    }
+
+    /**
+     * remove the check, mate and annotation marks from the end of a move
+     * @param text the move in algebraic notation
+     * @return the move without the marks
+     */
+    private static String stripSuffix(String text) {
+        int end = text.length();
+        while (end > 0 && "+#!?".indexOf(text.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        return text.substring(0, end);
+    }
+}
@@ -0,0 +1,728 @@
+package com.chess.engine.search;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.GameHistory;
+import com.chess.engine.move.Move;
+import com.chess.engine.move.MoveStatus;
+import com.chess.engine.move.MoveTransition;
+import com.chess.engine.notation.MoveNotation;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.PieceType;
+import com.chess.engine.tablebase.SyzygyTablebase;
+import com.chess.engine.tablebase.WdlScore;
+import com.google.common.primitives.Ints;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * the AlphaBeta class
+ * an iterative deepening alpha-beta search. Each depth starts with the best move of the depth before, which the
+ * transposition table remembers, then the captures, most valuable victim first. At the end of the depth the captures
+ * are played out by a quiescence search, so a board isn't scored in the middle of an exchange. The selective search
+ * features of the SearchOptions (null move pruning, late move reductions, futility pruning and razoring) cut the
+ * boards that are unlikely to matter, and what they did is counted in the SearchStatistics. Scores are always for
+ * the next mover of the board being searched
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public class AlphaBeta implements MoveStrategy {
+
+    // the deepest a search can go
+    public static final int MAX_DEPTH = 64;
+    // the furthest a board can be from the root
+    public static final int MAX_PLY = 128;
+    // the score for giving mate, less the number of half moves it takes
+    public static final int MATE = 100000;
+    // the score for a tablebase win, less the number of half moves it takes to reach the tablebase
+    public static final int TABLEBASE_WIN = 90000;
+    // bigger than any score
+    private static final int INFINITY = 1000000;
+
+    // the least remaining depth for a null move search, and how much less deep it searches
+    private static final int NULL_MOVE_MIN_DEPTH = 3;
+    private static final int NULL_MOVE_REDUCTION = 2;
+    // the least remaining depth for late move reductions, and the moves searched in full before reducing
+    private static final int REDUCTION_MIN_DEPTH = 3;
+    private static final int FULL_DEPTH_MOVES = 3;
+    // how far below alpha a quiet move can't reach, by remaining depth
+    private static final int[] FUTILITY_MARGINS = {0, 200, 500};
+    // how far below alpha a board is razored, by remaining depth
+    private static final int[] RAZOR_MARGINS = {0, 300, 600};
+
+    // the static evaluation of the boards at the end of the search
+    private final BoardEvaluator evaluator;
+    // the results of earlier searches
+    private final TranspositionTable transpositionTable;
+    // the endgame tablebase, null if there isn't one
+    private SyzygyTablebase tablebase;
+    // told about every finished depth, null if nobody is listening
+    private volatile SearchListener listener;
+    // the selective search features used
+    private SearchOptions options;
+    // what the last search did
+    private SearchStatistics statistics;
+
+    // set when the search has to stop
+    private volatile boolean stopped;
+    // prepareSearch was called, so the next search keeps a stop asked for before it starts
+    private boolean prepared;
+    // stop was called since prepareSearch
+    private boolean stopRequested;
+    // decides when the search has to stop, swapped by a ponder hit while the search runs
+    private volatile TimeManager timeManager;
+    // the number of boards searched
+    private long nodes;
+
+    /**
+     * create a search with the standard evaluation and a transposition table of a million entries
+     */
+    public AlphaBeta() {
+        this(new StandardBoardEvaluator(), new TranspositionTable(20));
+    }
+
+    /**
+     * the constructor
+     * @param evaluator the static evaluation
+     * @param transpositionTable the transposition table
+     */
+    public AlphaBeta(BoardEvaluator evaluator, TranspositionTable transpositionTable) {
+        this.evaluator = evaluator;
+        this.transpositionTable = transpositionTable;
+        this.options = SearchOptions.allEnabled();
+        this.statistics = new SearchStatistics();
+    }
+
+    /**
+     * set the selective search features used by the next searches
+     * @param options the options
+     */
+    public void setOptions(SearchOptions options) {
+        this.options = options;
+    }
+
+    /**
+     * get the selective search features used
+     * @return the options
+     */
+    public SearchOptions getOptions() {
+        return this.options;
+    }
+
+    /**
+     * get what the last search did, or the search going on now
+     * @return the statistics
+     */
+    public SearchStatistics getStatistics() {
+        return this.statistics;
+    }
+
+    /**
+     * use an endgame tablebase during the search
+     * @param tablebase the tablebase, null to stop using one
+     */
+    public void setTablebase(SyzygyTablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    /**
+     * set the listener told about every finished depth
+     * @param listener the listener, null for none
+     */
+    public void setListener(SearchListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * get the transposition table
+     * @return the transposition table
+     */
+    public TranspositionTable getTranspositionTable() {
+        return this.transpositionTable;
+    }
+
+    /**
+     * ask the search to stop. A stop that comes before the search starts is only kept if prepareSearch was called
+     */
+    @Override
+    public synchronized void stop() {
+        this.stopped = true;
+        this.stopRequested = true;
+    }
+
+    /**
+     * get ready for the next search, on the thread that may later call stop, before the search is handed to another
+     * thread. A stop that comes after this but before the search starts then stops the search as soon as it starts,
+     * instead of being undone by the search resetting itself. A search already running isn't touched
+     */
+    public synchronized void prepareSearch() {
+        this.prepared = true;
+        this.stopRequested = false;
+    }
+
+    /**
+     * clear the stop of the last search as a search starts, keeping a stop asked for since prepareSearch
+     */
+    private synchronized void resetStop() {
+        this.stopped = this.prepared && this.stopRequested;
+        this.prepared = false;
+    }
+
+    /**
+     * search a board for the best move of the next mover. If the search is stopped the result of the last finished
+     * depth is returned
+     * @param board the board to search
+     * @param limits when to stop searching
+     * @return the result of the search
+     */
+    @Override
+    public SearchResult search(Board board, SearchLimits limits) {
+        resetStop();
+        start(limits);
+        return iterate(board);
+    }
+
+    /**
+     * get ready to ponder, on the thread that will later call ponderHit or stop. A stop or ponder hit that comes
+     * before the ponder search gets going is kept, not undone by the search starting
+     */
+    void preparePonder() {
+        prepareSearch();
+        resetStop();
+        start(SearchLimits.infinite());
+    }
+
+    /**
+     * stop the ponder search because the opponent didn't play the expected move. Unlike stop, it isn't kept for a
+     * search that prepareSearch got ready, that one is still to come
+     */
+    void stopPonder() {
+        this.stopped = true;
+    }
+
+    /**
+     * search the board the opponent is expected to leave, with no limit until ponderHit or stop is called.
+     * preparePonder has to be called first
+     * @param board the board to search
+     * @return the result of the search
+     */
+    SearchResult ponder(Board board) {
+        return iterate(board);
+    }
+
+    /**
+     * the opponent played the expected move, so the ponder search carries on as a real search. Everything searched
+     * while pondering is kept, and the limits of the real move count from now: its clock, its boards, and its depths,
+     * starting with the depth being searched
+     * @param limits the limits of the real move
+     */
+    void ponderHit(SearchLimits limits) {
+        this.timeManager = new TimeManager(limits);
+    }
+
+    /**
+     * reset the search before it starts
+     * @param limits the limits of the search
+     */
+    private void start(SearchLimits limits) {
+        this.timeManager = new TimeManager(limits);
+        this.nodes = 0;
+        this.statistics = new SearchStatistics();
+    }
+
+    /**
+     * deepen the search one depth at a time until the limits stop it
+     * @param board the board to search
+     * @return the result of the search
+     */
+    private SearchResult iterate(Board board) {
+        // the tables know the answer already
+        if (this.tablebase != null && this.tablebase.canProbe(board)) {
+            Move move = this.tablebase.probeRoot(board);
+            WdlScore wdl = this.tablebase.probeWdl(board);
+            if (move != null && wdl != null) {
+                List<Move> principalVariation = new ArrayList<>();
+                principalVariation.add(move);
+                SearchResult result = new SearchResult(move, tablebaseScore(wdl, 0), 1, 1,
+                        this.timeManager.getElapsedMillis(), principalVariation);
+                notifyListener(result);
+                return result;
+            }
+        }
+
+        List<Move> rootMoves = board.calculateLegalMoves();
+        if (rootMoves.isEmpty()) {
+            int score = board.isPlayerInCheck(board.getCurrentPlayerAlliance()) ? -MATE : 0;
+            return new SearchResult(null, score, 0, 0, 0, new ArrayList<Move>());
+        }
+
+        SearchResult result = null;
+        for (int depth = 1; depth <= MAX_DEPTH; depth++) {
+            long nodesBefore = this.nodes;
+            List<Move> moves = orderMoves(rootMoves, this.transpositionTable.probe(board.getZobristKey()));
+            int alpha = -INFINITY;
+            Move bestMove = null;
+            for (Move move : moves) {
+                Board child = board.makeMove(move).getTransBoard();
+                int score = -negamax(child, depth - 1, -INFINITY, -alpha, 1, true);
+                if (this.stopped) {
+                    break;
+                }
+                if (score > alpha) {
+                    alpha = score;
+                    bestMove = move;
+                }
+            }
+            // an unfinished depth only counts if there is nothing better
+            if (this.stopped && result != null) {
+                break;
+            }
+            if (bestMove == null) {
+                bestMove = moves.get(0);
+            }
+            if (!this.stopped) {
+                this.statistics.depthComplete(this.nodes - nodesBefore);
+            }
+
+            this.transpositionTable.store(board.getZobristKey(), depth, alpha, TranspositionTable.EXACT,
+                    bestMove.getStartPosition(), bestMove.getEndPosition(), 0);
+            boolean bestMoveChanged = result != null && !bestMove.equals(result.getBestMove());
+            result = new SearchResult(bestMove, alpha, depth, this.nodes, this.timeManager.getElapsedMillis(),
+                    calculatePrincipalVariation(board, bestMove, depth));
+            notifyListener(result);
+
+            // a mate inside the horizon can't be improved on by searching deeper
+            if (this.stopped || (result.isMateScore() && MATE - Math.abs(alpha) <= depth)) {
+                break;
+            }
+            // read once, a ponder hit can swap it at any time
+            TimeManager manager = this.timeManager;
+            if (manager.isDepthLimitReached(depth)) {
+                break;
+            }
+            manager.depthComplete(bestMoveChanged);
+            if (!manager.canStartDepth()) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * search a board for the best few moves of the next mover. Each depth finds the lines one after the other: the
+     * best move, then the best of the other moves, and so on, each line searched with its own full window. The
+     * lines share the transposition table, so the later lines start from what the earlier ones already found. If the
+     * search is stopped the lines of the last finished depth are returned
+     * @param board the board to search
+     * @param limits when to stop searching
+     * @param lineCount the number of lines to find
+     * @param multiPvListener told about every finished depth, null if nobody is listening
+     * @return the lines, best first
+     */
+    public MultiPvResult searchMultiPv(Board board, SearchLimits limits, int lineCount,
+                                      MultiPvListener multiPvListener) {
+        resetStop();
+        this.timeManager = new TimeManager(limits);
+        this.nodes = 0;
+        this.statistics = new SearchStatistics();
+
+        List<Move> rootMoves = board.calculateLegalMoves();
+        MultiPvResult result = new MultiPvResult(new ArrayList<SearchResult>(), 0, 0, 0);
+        for (int depth = 1; depth <= limits.getMaxDepth() && !rootMoves.isEmpty(); depth++) {
+            long nodesBefore = this.nodes;
+            // the lines of the last depth are searched first, in their order
+            List<Move> remaining = orderMoves(rootMoves, this.transpositionTable.probe(board.getZobristKey()));
+            List<Move> previousMoves = new ArrayList<>();
+            for (SearchResult line : result.getLines()) {
+                previousMoves.add(line.getBestMove());
+            }
+            remaining.removeAll(previousMoves);
+            remaining.addAll(0, previousMoves);
+
+            List<SearchResult> lines = new ArrayList<>();
+            while (lines.size() < lineCount && !remaining.isEmpty()) {
+                int alpha = -INFINITY;
+                Move bestMove = null;
+                for (Move move : remaining) {
+                    Board child = board.makeMove(move).getTransBoard();
+                    int score = -negamax(child, depth - 1, -INFINITY, -alpha, 1, true);
+                    if (this.stopped) {
+                        break;
+                    }
+                    if (score > alpha) {
+                        alpha = score;
+                        bestMove = move;
+                    }
+                }
+                if (this.stopped) {
+                    break;
+                }
+                if (lines.isEmpty()) {
+                    this.transpositionTable.store(board.getZobristKey(), depth, alpha, TranspositionTable.EXACT,
+                            bestMove.getStartPosition(), bestMove.getEndPosition(), 0);
+                }
+                lines.add(new SearchResult(bestMove, alpha, depth, this.nodes, this.timeManager.getElapsedMillis(),
+                        calculatePrincipalVariation(board, bestMove, depth)));
+                remaining.remove(bestMove);
+            }
+
+            // an unfinished depth only counts if there is nothing better
+            if (this.stopped && !result.getLines().isEmpty()) {
+                break;
+            }
+            boolean bestMoveChanged = !result.getLines().isEmpty()
+                    && !lines.get(0).getBestMove().equals(result.getBestLine().getBestMove());
+            result = new MultiPvResult(lines, depth, this.nodes, this.timeManager.getElapsedMillis());
+            if (this.stopped) {
+                break;
+            }
+            this.statistics.depthComplete(this.nodes - nodesBefore);
+            this.timeManager.depthComplete(bestMoveChanged);
+            if (multiPvListener != null) {
+                multiPvListener.linesComplete(result);
+            }
+            if (!this.timeManager.canStartDepth()) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * the negamax search with alpha-beta pruning
+     * @param board the board to search
+     * @param depth the remaining depth
+     * @param alpha the score the next mover is already sure of
+     * @param beta the score the opponent is already sure of
+     * @param ply the distance from the root
+     * @param allowNullMove can the next mover pass, false straight after a pass
+     * @return the score of the board for its next mover
+     */
+    private int negamax(Board board, int depth, int alpha, int beta, int ply, boolean allowNullMove) {
+        this.nodes++;
+        if (this.stopped || this.timeManager.isOutOfTime(this.nodes)) {
+            this.stopped = true;
+            return 0;
+        }
+
+        // a repetition inside the search is as good as a draw
+        GameHistory history = board.getGameHistory();
+        if (history.isFiftyMoveRule() || history.countRepetitions() >= 2) {
+            return 0;
+        }
+
+        if (this.tablebase != null && this.tablebase.canProbe(board)) {
+            WdlScore wdl = this.tablebase.probeWdl(board);
+            if (wdl != null) {
+                return tablebaseScore(wdl, ply);
+            }
+        }
+
+        if (depth <= 0 || ply >= MAX_PLY) {
+            return quiescence(board, alpha, beta, ply);
+        }
+
+        // use the result of an earlier search of the same board
+        int originalAlpha = alpha;
+        long key = board.getZobristKey();
+        TranspositionTable.Entry entry = this.transpositionTable.probe(key);
+        if (entry != null && entry.getDepth() >= depth) {
+            int score = entry.getScore(ply);
+            if (entry.getBound() == TranspositionTable.EXACT) {
+                return score;
+            }
+            if (entry.getBound() == TranspositionTable.LOWER_BOUND) {
+                alpha = Math.max(alpha, score);
+            }
+            else {
+                beta = Math.min(beta, score);
+            }
+            if (alpha >= beta) {
+                return score;
+            }
+        }
+
+        // the selective features guess from the static evaluation, which means nothing in check or next to a mate
+        // score. Until a move has been searched alpha or beta are infinite, and the features can't guess against them
+        boolean inCheck = board.isPlayerInCheck(board.getCurrentPlayerAlliance());
+        boolean alphaKnown = Math.abs(alpha) < TABLEBASE_WIN;
+        boolean betaKnown = Math.abs(beta) < TABLEBASE_WIN;
+        int staticScore = !inCheck && (alphaKnown || betaKnown) ? evaluate(board) : 0;
+
+        // so far below alpha that only a capture could help
+        if (this.options.isRazoring() && !inCheck && alphaKnown && depth < RAZOR_MARGINS.length
+                && staticScore + RAZOR_MARGINS[depth] <= alpha) {
+            int score = quiescence(board, alpha, alpha + 1, ply);
+            if (this.stopped) {
+                return 0;
+            }
+            if (score <= alpha) {
+                this.statistics.razorCutoff();
+                return score;
+            }
+        }
+
+        // if passing still leaves the opponent below beta, a real move will too. Without pieces a pass can be
+        // better than any move, so pawn endings are left alone
+        if (this.options.isNullMove() && !inCheck && betaKnown && allowNullMove && depth >= NULL_MOVE_MIN_DEPTH
+                && staticScore >= beta && hasPieces(board)) {
+            int score = -negamax(board.makeNullMove(), depth - 1 - NULL_MOVE_REDUCTION, -beta, -beta + 1, ply + 1,
+                    false);
+            if (this.stopped) {
+                return 0;
+            }
+            if (score >= beta) {
+                this.statistics.nullMoveCutoff();
+                return score >= TABLEBASE_WIN - MAX_PLY ? beta : score;
+            }
+        }
+
+        boolean futile = this.options.isFutility() && !inCheck && alphaKnown && depth < FUTILITY_MARGINS.length
+                && staticScore + FUTILITY_MARGINS[depth] <= alpha;
+
+        int bestScore = -INFINITY;
+        Move bestMove = null;
+        int movesSearched = 0;
+        for (Move move : orderMoves(board.getMovesByAlliance(board.getCurrentPlayerAlliance()), entry)) {
+            MoveTransition transition = board.makeMove(move);
+            if (transition.getStatus() != MoveStatus.DONE) {
+                continue;
+            }
+            Board child = transition.getTransBoard();
+            boolean quiet = !move.isAttack() && !MoveNotation.isPromotion(move)
+                    && !child.isPlayerInCheck(child.getCurrentPlayerAlliance());
+
+            if (futile && quiet && movesSearched > 0) {
+                this.statistics.futilityPrune();
+                continue;
+            }
+
+            int score;
+            if (this.options.isLateMoveReductions() && !inCheck && quiet && depth >= REDUCTION_MIN_DEPTH
+                    && movesSearched >= FULL_DEPTH_MOVES) {
+                this.statistics.reduction();
+                score = -negamax(child, depth - 2, -alpha - 1, -alpha, ply + 1, true);
+                if (score > alpha && !this.stopped) {
+                    this.statistics.reSearch();
+                    score = -negamax(child, depth - 1, -beta, -alpha, ply + 1, true);
+                }
+            }
+            else {
+                score = -negamax(child, depth - 1, -beta, -alpha, ply + 1, true);
+            }
+            movesSearched++;
+            if (this.stopped) {
+                return 0;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+            if (alpha >= beta) {
+                break;
+            }
+        }
+
+        // no legal moves, checkmate or stalemate
+        if (bestMove == null) {
+            return board.isPlayerInCheck(board.getCurrentPlayerAlliance()) ? -(MATE - ply) : 0;
+        }
+
+        int bound = bestScore <= originalAlpha ? TranspositionTable.UPPER_BOUND
+                : bestScore >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+        this.transpositionTable.store(key, depth, bestScore, bound, bestMove.getStartPosition(),
+                bestMove.getEndPosition(), ply);
+        return bestScore;
+    }
+
+    /**
+     * does the next mover have a piece other than pawns and the king
+     * @param board the board
+     * @return true if it has a knight, bishop, rook or queen, false otherwise
+     */
+    private static boolean hasPieces(Board board) {
+        for (Piece piece : board.getPiecesByAlliance(board.getCurrentPlayerAlliance())) {
+            if (piece.getPieceType() != PieceType.PAWN && piece.getPieceType() != PieceType.KING) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * the quiescence search, which only plays captures and promotions until the board is quiet. The next mover can
+     * always stop capturing, so the static evaluation is a lower bound, and captures the static exchange says lose
+     * material are skipped before their boards are made. A next mover in check can't stop, so every way out of
+     * check is searched instead, and a board with none is mate
+     * @param board the board to search
+     * @param alpha the score the next mover is already sure of
+     * @param beta the score the opponent is already sure of
+     * @param ply the distance from the root
+     * @return the score of the board for its next mover
+     */
+    private int quiescence(Board board, int alpha, int beta, int ply) {
+        this.nodes++;
+        if (this.stopped || this.timeManager.isOutOfTime(this.nodes)) {
+            this.stopped = true;
+            return 0;
+        }
+
+        if (ply >= MAX_PLY) {
+            return evaluate(board);
+        }
+        // a player in check can't stand pat, every way out of check is searched and having none is mate
+        boolean inCheck = board.isPlayerInCheck(board.getCurrentPlayerAlliance());
+        List<Move> moves;
+        if (inCheck) {
+            moves = board.calculateLegalMoves();
+            if (moves.isEmpty()) {
+                return -(MATE - ply);
+            }
+        }
+        else {
+            int standPat = evaluate(board);
+            if (standPat >= beta) {
+                return standPat;
+            }
+            if (standPat > alpha) {
+                alpha = standPat;
+            }
+            moves = new ArrayList<>();
+            for (Move move : board.getMovesByAlliance(board.getCurrentPlayerAlliance())) {
+                if ((move.isAttack() || MoveNotation.isPromotion(move)) && StaticExchange.evaluate(board, move) >= 0) {
+                    moves.add(move);
+                }
+            }
+        }
+        for (Move move : orderMoves(moves, null)) {
+            MoveTransition transition = board.makeMove(move);
+            if (transition.getStatus() != MoveStatus.DONE) {
+                continue;
+            }
+            int score = -quiescence(transition.getTransBoard(), -beta, -alpha, ply + 1);
+            if (this.stopped) {
+                return 0;
+            }
+            if (score >= beta) {
+                return score;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+        }
+        return alpha;
+    }
+
+    /**
+     * evaluate a board for its next mover
+     * @param board the board to evaluate
+     * @return the score for the next mover
+     */
+    private int evaluate(Board board) {
+        int score = this.evaluator.evaluate(board);
+        return board.getCurrentPlayerAlliance().isWhite() ? score : -score;
+    }
+
+    /**
+     * turn a tablebase result into a score
+     * @param wdl the tablebase result
+     * @param ply the distance from the root
+     * @return the score for the next mover, wins reached sooner scoring higher
+     */
+    private static int tablebaseScore(WdlScore wdl, int ply) {
+        switch (wdl) {
+            case WIN:
+                return TABLEBASE_WIN - ply;
+            case LOSS:
+                return -TABLEBASE_WIN + ply;
+            default:
+                // a cursed win or blessed loss is a draw under the fifty move rule, but only just
+                return wdl.getValue();
+        }
+    }
+
+    /**
+     * sort the moves so the best candidates are searched first: the move from the transposition table, then the
+     * captures by most valuable victim and least valuable attacker, then promotions, then the rest
+     * @param moves the moves to sort
+     * @param entry the transposition table entry of the board, null if there is none
+     * @return the sorted moves
+     */
+    private static List<Move> orderMoves(Collection<Move> moves, final TranspositionTable.Entry entry) {
+        List<Move> ordered = new ArrayList<>(moves);
+        Collections.sort(ordered, new Comparator<Move>() {
+            @Override
+            public int compare(Move o1, Move o2) {
+                return Ints.compare(scoreMove(o2, entry), scoreMove(o1, entry));
+            }
+        });
+        return ordered;
+    }
+
+    /**
+     * give a move a score for sorting
+     * @param move the move
+     * @param entry the transposition table entry of the board, null if there is none
+     * @return the score, higher to be searched first
+     */
+    private static int scoreMove(Move move, TranspositionTable.Entry entry) {
+        if (entry != null && entry.getStartPosition() == move.getStartPosition()
+                && entry.getEndPosition() == move.getEndPosition()) {
+            return 3 * INFINITY;
+        }
+        if (move.isAttack()) {
+            Move.AttackMove attack = (Move.AttackMove) move;
+            return 2 * INFINITY + 10 * attack.getAttackedPiece().getPieceValue() - move.getPiece().getPieceValue();
+        }
+        if (MoveNotation.isPromotion(move)) {
+            return INFINITY;
+        }
+        return 0;
+    }
+
+    /**
+     * follow the best moves in the transposition table from the root
+     * @param board the root board
+     * @param bestMove the best move of the root
+     * @param depth the depth of the search
+     * @return the expected moves, starting with the best move
+     */
+    private List<Move> calculatePrincipalVariation(Board board, Move bestMove, int depth) {
+        List<Move> principalVariation = new ArrayList<>();
+        principalVariation.add(bestMove);
+        Board current = board.makeMove(bestMove).getTransBoard();
+        while (principalVariation.size() < depth) {
+            TranspositionTable.Entry entry = this.transpositionTable.probe(current.getZobristKey());
+            if (entry == null) {
+                break;
+            }
+            Move next = current.getMove(entry.getStartPosition(), entry.getEndPosition());
+            if (next == null) {
+                break;
+            }
+            MoveTransition transition = current.makeMove(next);
+            if (transition.getStatus() != MoveStatus.DONE) {
+                break;
+            }
+            principalVariation.add(next);
+            current = transition.getTransBoard();
+        }
+        return principalVariation;
+    }
+
+    /**
+     * tell the listener about a finished depth
+     * @param result the result of the depth
+     */
+    private void notifyListener(SearchResult result) {
+        if (this.listener != null) {
+            this.listener.iterationComplete(result);
+        }
+    }
+}
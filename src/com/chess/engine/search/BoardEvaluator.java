@@ -0,0 +1,19 @@
+package com.chess.engine.search;
+
+import com.chess.engine.board.Board;
+
+/**
+ * the BoardEvaluator interface
+ * a static score for a board, without searching any moves
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public interface BoardEvaluator {
+
+    /**
+     * evaluate a board
+     * @param board the board to evaluate
+     * @return the score in centipawns, positive if white is better, negative if black is better
+     */
+    int evaluate(Board board);
+}
@@ -0,0 +1,507 @@
+package com.chess.engine.search;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardStatus;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.GameHistory;
+import com.chess.engine.move.Move;
+import com.chess.engine.move.MoveStatus;
+import com.chess.engine.move.MoveTransition;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * the MonteCarloTreeSearch class
+ * a Monte Carlo tree search, the other engine next to AlphaBeta. Every playout walks down the tree choosing children
+ * by UCT, adds the children of the board it reaches, plays a few random moves from it and scores the board it ends
+ * on with the evaluator, turned into a chance of winning. The best move is the most visited child of the root.
+ * The tree is kept in arrays indexed by node number, with no boards in it: a playout makes the boards on its path
+ * again from the moves, so a node costs about 40 bytes and a million of them fit in 40MB. Playouts run on several
+ * threads. The tree is only touched under a lock, the boards are made and played out outside it, and every node on
+ * a running playout's path carries a virtual loss so the other threads look elsewhere. The tree is kept between
+ * searches, and a search of a board a move or two down the tree carries on from that node
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public class MonteCarloTreeSearch implements MoveStrategy {
+
+    // the number of nodes the tree has room for, to start with
+    public static final int DEFAULT_CAPACITY = 1 << 20;
+    // the number of playouts when the limits only give a depth
+    static final int DEFAULT_PLAYOUTS = 20000;
+
+    // how much UCT prefers children that have been tried less
+    private static final double EXPLORATION = 1.4;
+    // the losses added to a node while a playout through it is running
+    private static final int VIRTUAL_LOSS = 3;
+    // the random moves played before the board is scored
+    private static final int PLAYOUT_DEPTH = 4;
+    // the centipawns that make a 73% chance of winning, to turn scores into chances and back
+    private static final double SCORE_SCALE = 400.0;
+    // the listener is told about the search after this many playouts
+    private static final int REPORT_INTERVAL = 512;
+    // the children of a node that hasn't been reached yet
+    private static final int NOT_EXPANDED = -1;
+    // the longest path from the root
+    private static final int MAX_PATH = AlphaBeta.MAX_PLY;
+
+    // the static evaluation of the boards at the end of the playouts
+    private final BoardEvaluator evaluator;
+    // the threads running the playouts
+    private final ExecutorService pool;
+    // the number of threads
+    private final int threads;
+
+    // the tree, node i is described by element i of every array. The children of a node are next to each other
+    private final int capacity;
+    // the parent of each node, -1 for the first root
+    private final int[] parents;
+    // the first child of each node, NOT_EXPANDED until it is reached
+    private final int[] firstChildren;
+    // the number of children of each node
+    private final int[] childCounts;
+    // the move into each node, start coordinate * 64 + end coordinate
+    private final int[] moves;
+    // the playouts through each node
+    private final int[] visits;
+    // the sum of the results of the playouts through each node, for the player who moved into it
+    private final double[] values;
+    // the virtual losses of the playouts running through each node
+    private final int[] virtualLosses;
+    // the Zobrist key of the board of each node, 0 until a playout has made it
+    private final long[] keys;
+    // the nodes in use
+    private int nodeCount;
+    // the node of the board being searched
+    private int root;
+
+    // told about the search every REPORT_INTERVAL playouts, null if nobody is listening
+    private SearchListener listener;
+    // set when the search has to stop
+    private volatile boolean stopped;
+    // the playouts started and finished in this search, and the longest path
+    private final AtomicLong started;
+    private long playouts;
+    private int maxPathLength;
+
+    /**
+     * create a search with the standard evaluation, a thread for every processor and room for a million nodes
+     */
+    public MonteCarloTreeSearch() {
+        this(new StandardBoardEvaluator(), Runtime.getRuntime().availableProcessors(), DEFAULT_CAPACITY);
+    }
+
+    /**
+     * the constructor
+     * @param evaluator the static evaluation
+     * @param threads the number of threads running playouts
+     * @param capacity the number of nodes the tree has room for
+     */
+    public MonteCarloTreeSearch(BoardEvaluator evaluator, int threads, int capacity) {
+        this.evaluator = evaluator;
+        this.threads = threads;
+        this.capacity = capacity;
+        this.parents = new int[capacity];
+        this.firstChildren = new int[capacity];
+        this.childCounts = new int[capacity];
+        this.moves = new int[capacity];
+        this.visits = new int[capacity];
+        this.values = new double[capacity];
+        this.virtualLosses = new int[capacity];
+        this.keys = new long[capacity];
+        this.started = new AtomicLong();
+        this.pool = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "mcts");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * set the listener told about the search every few hundred playouts
+     * @param listener the listener, null for none
+     */
+    public void setListener(SearchListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * ask the search to stop
+     */
+    @Override
+    public void stop() {
+        this.stopped = true;
+    }
+
+    /**
+     * stop the playout threads once the running search finishes, the search can't be used after
+     */
+    public void shutdown() {
+        this.pool.shutdown();
+    }
+
+    /**
+     * get the number of nodes in the tree
+     * @return the nodes in use, including the ones no longer under the root
+     */
+    public synchronized int getNodeCount() {
+        return this.nodeCount;
+    }
+
+    /**
+     * get the playouts through the root
+     * @return the number of playouts, including the ones of earlier searches kept in the tree
+     */
+    public synchronized int getRootVisits() {
+        return this.visits[this.root];
+    }
+
+    /**
+     * search a board for the best move of the next mover. The search runs until the time or the node limit, which
+     * counts playouts, is reached; if the limits only give a depth it runs DEFAULT_PLAYOUTS playouts
+     * @param board the board to search
+     * @param limits when to stop searching
+     * @return the most visited move, its chance of winning as a score, and the most visited line after it
+     */
+    @Override
+    public SearchResult search(final Board board, SearchLimits limits) {
+        final TimeManager timeManager = new TimeManager(limits);
+        this.stopped = false;
+        this.started.set(0);
+        synchronized (this) {
+            this.playouts = 0;
+            this.maxPathLength = 0;
+            findRoot(board);
+        }
+        if (board.getStatus() != BoardStatus.ONGOING) {
+            int score = board.getStatus() == BoardStatus.CHECKMATE ? -AlphaBeta.MATE : 0;
+            return new SearchResult(null, score, 0, 0, 0, new ArrayList<Move>());
+        }
+
+        final long playoutLimit = limits.getNodeLimit() > 0 ? limits.getNodeLimit()
+                : limits.isTimed() ? Long.MAX_VALUE : DEFAULT_PLAYOUTS;
+        List<Future<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < this.threads; i++) {
+            futures.add(this.pool.submit(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    Random random = new Random();
+                    while (!stopped && !timeManager.isHardLimitReached()
+                            && started.incrementAndGet() <= playoutLimit) {
+                        playout(board, random, timeManager);
+                    }
+                    return null;
+                }
+            }));
+        }
+        try {
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        }
+        catch (InterruptedException | ExecutionException e) {
+            e.printStackTrace();
+        }
+        return createResult(board, timeManager);
+    }
+
+    /**
+     * make the node of a board the root. If the board is a move or two below the old root its node is kept with
+     * everything under it, otherwise, or if the tree is more than half full, the tree starts again
+     * @param board the board being searched
+     */
+    private void findRoot(Board board) {
+        long key = board.getZobristKey();
+        if (this.nodeCount > 0 && this.nodeCount < this.capacity / 2) {
+            int found = findDescendant(this.root, key, 2);
+            if (found >= 0) {
+                this.root = found;
+                return;
+            }
+        }
+        this.nodeCount = 1;
+        this.root = 0;
+        this.parents[0] = -1;
+        this.firstChildren[0] = NOT_EXPANDED;
+        this.childCounts[0] = 0;
+        this.moves[0] = 0;
+        this.visits[0] = 0;
+        this.values[0] = 0;
+        this.virtualLosses[0] = 0;
+        this.keys[0] = key;
+    }
+
+    /**
+     * find the node of a board under a node
+     * @param node the node to look under
+     * @param key the Zobrist key of the board
+     * @param depth how many moves down to look
+     * @return the node, -1 if it isn't there
+     */
+    private int findDescendant(int node, long key, int depth) {
+        if (this.keys[node] == key) {
+            return node;
+        }
+        if (depth == 0 || this.firstChildren[node] == NOT_EXPANDED) {
+            return -1;
+        }
+        for (int child = this.firstChildren[node]; child < this.firstChildren[node] + this.childCounts[node]; child++) {
+            int found = findDescendant(child, key, depth - 1);
+            if (found >= 0) {
+                return found;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * run one playout: walk down the tree, make the boards of the path, add the children of the last node, play
+     * random moves from it, and add the result to every node of the path
+     * @param rootBoard the board of the root
+     * @param random the random numbers of this thread
+     * @param timeManager the limits of the search
+     */
+    private void playout(Board rootBoard, Random random, TimeManager timeManager) {
+        int[] path = new int[MAX_PATH];
+        int length = 0;
+        synchronized (this) {
+            int node = this.root;
+            path[length++] = node;
+            while (this.firstChildren[node] != NOT_EXPANDED && this.childCounts[node] > 0 && length < MAX_PATH) {
+                node = selectChild(node);
+                this.virtualLosses[node] += VIRTUAL_LOSS;
+                path[length++] = node;
+            }
+        }
+
+        // make the boards of the path again, away from the lock
+        long[] pathKeys = new long[length];
+        Board board = rootBoard;
+        pathKeys[0] = board.getZobristKey();
+        for (int i = 1; i < length; i++) {
+            int move;
+            synchronized (this) {
+                move = this.moves[path[i]];
+            }
+            board = board.makeMove(board.getMove(move / BoardUtils.NUM_TILES, move % BoardUtils.NUM_TILES))
+                    .getTransBoard();
+            pathKeys[i] = board.getZobristKey();
+        }
+
+        int leaf = path[length - 1];
+        double result;
+        GameHistory history = board.getGameHistory();
+        if (length > 1 && (history.isFiftyMoveRule() || history.countRepetitions() >= 2)) {
+            result = 0.5;
+        }
+        else if (board.getStatus() != BoardStatus.ONGOING) {
+            // the player who moved into a checkmate won
+            result = board.getStatus() == BoardStatus.CHECKMATE ? 1.0 : 0.5;
+        }
+        else {
+            expand(leaf, board.calculateLegalMoves());
+            result = rollout(board, random);
+        }
+        backPropagate(rootBoard, path, pathKeys, length, result, timeManager);
+    }
+
+    /**
+     * choose the child to walk to by UCT. A child nobody has tried is chosen first, and the virtual losses of the
+     * running playouts count as lost visits
+     * @param node the node, which has children
+     * @return the chosen child
+     */
+    private int selectChild(int node) {
+        int first = this.firstChildren[node];
+        double logVisits = Math.log(Math.max(1, this.visits[node] + this.virtualLosses[node]));
+        int best = first;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int child = first; child < first + this.childCounts[node]; child++) {
+            int tries = this.visits[child] + this.virtualLosses[child];
+            if (tries == 0) {
+                return child;
+            }
+            double value = this.values[child] / tries + EXPLORATION * Math.sqrt(logVisits / tries);
+            if (value > bestValue) {
+                bestValue = value;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * add the children of a node, unless another playout already did or the tree is full
+     * @param node the node
+     * @param legalMoves the legal moves of the node's board
+     */
+    private synchronized void expand(int node, List<Move> legalMoves) {
+        if (this.firstChildren[node] != NOT_EXPANDED || this.nodeCount + legalMoves.size() > this.capacity) {
+            return;
+        }
+        int first = this.nodeCount;
+        for (int i = 0; i < legalMoves.size(); i++) {
+            Move move = legalMoves.get(i);
+            int child = first + i;
+            this.parents[child] = node;
+            this.firstChildren[child] = NOT_EXPANDED;
+            this.childCounts[child] = 0;
+            this.moves[child] = move.getStartPosition() * BoardUtils.NUM_TILES + move.getEndPosition();
+            this.visits[child] = 0;
+            this.values[child] = 0;
+            this.virtualLosses[child] = 0;
+            this.keys[child] = 0;
+        }
+        this.nodeCount += legalMoves.size();
+        this.childCounts[node] = legalMoves.size();
+        this.firstChildren[node] = first;
+    }
+
+    /**
+     * play random moves from a board, then score the board they end on
+     * @param board the board of the new node
+     * @param random the random numbers of this thread
+     * @return the chance of winning of the player who moved into the board
+     */
+    private double rollout(Board board, Random random) {
+        Board current = board;
+        for (int ply = 0; ply < PLAYOUT_DEPTH; ply++) {
+            Board next = playRandomMove(current, random);
+            if (next == null) {
+                break;
+            }
+            current = next;
+        }
+        if (current.getStatus() == BoardStatus.CHECKMATE) {
+            // the player mated is the one to move
+            return current.getCurrentPlayerAlliance() == board.getCurrentPlayerAlliance() ? 1.0 : 0.0;
+        }
+        double whiteChance = 1.0 / (1.0 + Math.exp(-this.evaluator.evaluate(current) / SCORE_SCALE));
+        return board.getCurrentPlayerAlliance().isWhite() ? 1.0 - whiteChance : whiteChance;
+    }
+
+    /**
+     * play a random legal move, trying the possible moves in a random order until one is legal
+     * @param board the board
+     * @param random the random numbers of this thread
+     * @return the board after the move, null if there is no legal move
+     */
+    private static Board playRandomMove(Board board, Random random) {
+        Collection<Move> possible = board.getMovesByAlliance(board.getCurrentPlayerAlliance());
+        List<Move> candidates = new ArrayList<>(possible);
+        Collections.shuffle(candidates, random);
+        for (Move move : candidates) {
+            MoveTransition transition = board.makeMove(move);
+            if (transition.getStatus() == MoveStatus.DONE) {
+                return transition.getTransBoard();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * add the result of a playout to the nodes of its path, take their virtual losses off, and tell the listener
+     * if it is time
+     * @param rootBoard the board of the root
+     * @param path the nodes of the path, from the root
+     * @param pathKeys the Zobrist keys of the boards of the path
+     * @param length the number of nodes on the path
+     * @param leafResult the result for the player who moved into the last node
+     * @param timeManager the limits of the search
+     */
+    private void backPropagate(Board rootBoard, int[] path, long[] pathKeys, int length, double leafResult,
+                               TimeManager timeManager) {
+        boolean report;
+        synchronized (this) {
+            double result = leafResult;
+            for (int i = length - 1; i >= 0; i--) {
+                int node = path[i];
+                this.visits[node]++;
+                this.values[node] += result;
+                this.keys[node] = pathKeys[i];
+                if (i > 0) {
+                    this.virtualLosses[node] -= VIRTUAL_LOSS;
+                }
+                result = 1.0 - result;
+            }
+            this.playouts++;
+            this.maxPathLength = Math.max(this.maxPathLength, length);
+            report = this.listener != null && this.playouts % REPORT_INTERVAL == 0;
+        }
+        if (report) {
+            this.listener.iterationComplete(createResult(rootBoard, timeManager));
+        }
+    }
+
+    /**
+     * describe the search so far
+     * @param board the board of the root
+     * @param timeManager the limits of the search
+     * @return the most visited move with its score and line
+     */
+    private SearchResult createResult(Board board, TimeManager timeManager) {
+        List<Integer> line = new ArrayList<>();
+        List<Integer> lineMoves = new ArrayList<>();
+        int score;
+        long playoutCount;
+        int depth;
+        synchronized (this) {
+            int node = this.root;
+            while (this.firstChildren[node] != NOT_EXPANDED && this.childCounts[node] > 0) {
+                int best = -1;
+                for (int child = this.firstChildren[node];
+                     child < this.firstChildren[node] + this.childCounts[node]; child++) {
+                    if (this.visits[child] > 0 && (best < 0 || this.visits[child] > this.visits[best])) {
+                        best = child;
+                    }
+                }
+                if (best < 0) {
+                    break;
+                }
+                line.add(best);
+                lineMoves.add(this.moves[best]);
+                node = best;
+            }
+            if (line.isEmpty()) {
+                score = 0;
+            }
+            else {
+                double chance = this.values[line.get(0)] / this.visits[line.get(0)];
+                chance = Math.max(0.001, Math.min(0.999, chance));
+                score = (int) Math.round(SCORE_SCALE * Math.log(chance / (1.0 - chance)));
+            }
+            playoutCount = this.playouts;
+            depth = this.maxPathLength - 1;
+        }
+
+        List<Move> principalVariation = new ArrayList<>();
+        Board current = board;
+        Move bestMove = null;
+        for (int move : lineMoves) {
+            Move next = current.getMove(move / BoardUtils.NUM_TILES, move % BoardUtils.NUM_TILES);
+            if (next == null) {
+                break;
+            }
+            principalVariation.add(next);
+            current = current.makeMove(next).getTransBoard();
+        }
+        if (!principalVariation.isEmpty()) {
+            bestMove = principalVariation.get(0);
+        }
+        return new SearchResult(bestMove, score, Math.max(depth, 0), playoutCount,
+                timeManager.getElapsedMillis(), principalVariation);
+    }
+}
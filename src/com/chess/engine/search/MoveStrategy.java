@@ -0,0 +1,25 @@
+package com.chess.engine.search;
+
+import com.chess.engine.board.Board;
+
+/**
+ * the MoveStrategy interface
+ * a way of choosing a move for the next mover of a board
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public interface MoveStrategy {
+
+    /**
+     * search a board for the best move of the next mover
+     * @param board the board to search
+     * @param limits when to stop searching
+     * @return the result of the search
+     */
+    SearchResult search(Board board, SearchLimits limits);
+
+    /**
+     * ask a running search to stop as soon as it can, it returns the best move found so far
+     */
+    void stop();
+}
@@ -0,0 +1,16 @@
+package com.chess.engine.search;
+
+/**
+ * the MultiPvListener interface
+ * told about the progress of a multi-PV search
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public interface MultiPvListener {
+
+    /**
+     * called every time the search finishes all the lines of a depth
+     * @param result the lines found so far
+     */
+    void linesComplete(MultiPvResult result);
+}
@@ -0,0 +1,129 @@
+package com.chess.engine.search;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.move.Move;
+import com.chess.engine.move.MoveStatus;
+import com.chess.engine.move.MoveTransition;
+import com.chess.engine.notation.MoveNotation;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * the MultiPvResult class
+ * the best few moves of a board found by a multi-PV search, best first. Each line is a SearchResult whose best move
+ * is the first move of the line, with its own score and principal variation
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public class MultiPvResult {
+    // the lines, best first
+    private final List<SearchResult> lines;
+    // the depth the search finished
+    private final int depth;
+    // the number of boards searched for all the lines
+    private final long nodes;
+    // the time the search took
+    private final long elapsedMillis;
+
+    /**
+     * the constructor
+     * @param lines the lines, best first
+     * @param depth the depth the search finished
+     * @param nodes the number of boards searched
+     * @param elapsedMillis the time the search took in milliseconds
+     */
+    public MultiPvResult(List<SearchResult> lines, int depth, long nodes, long elapsedMillis) {
+        this.lines = Collections.unmodifiableList(lines);
+        this.depth = depth;
+        this.nodes = nodes;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * get the lines
+     * @return the lines, best first, empty if the next mover has no legal moves
+     */
+    public List<SearchResult> getLines() {
+        return this.lines;
+    }
+
+    /**
+     * get the best line
+     * @return the first line, null if the next mover has no legal moves
+     */
+    public SearchResult getBestLine() {
+        return this.lines.isEmpty() ? null : this.lines.get(0);
+    }
+
+    /**
+     * get the depth of the search
+     * @return the depth the search finished
+     */
+    public int getDepth() {
+        return this.depth;
+    }
+
+    /**
+     * get the number of boards searched for all the lines
+     * @return the node count
+     */
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    /**
+     * get the time the search took
+     * @return the time in milliseconds
+     */
+    public long getElapsedMillis() {
+        return this.elapsedMillis;
+    }
+
+    /**
+     * write the lines in algebraic notation, one a line, like "1. +0.35 e4 e5 Nf3"
+     * @param board the board that was searched
+     * @return the lines
+     */
+    public String format(Board board) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < this.lines.size(); i++) {
+            if (i > 0) {
+                builder.append('\n');
+            }
+            builder.append(i + 1).append(". ").append(formatScore(this.lines.get(i)));
+            Board current = board;
+            for (Move move : this.lines.get(i).getPrincipalVariation()) {
+                MoveTransition transition = current.makeMove(move);
+                if (transition.getStatus() != MoveStatus.DONE) {
+                    break;
+                }
+                builder.append(' ').append(MoveNotation.toAlgebraic(current, move));
+                current = transition.getTransBoard();
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * write the score of a line for the next mover, in pawns or as a mate in a number of moves
+     * @param line the line
+     * @return the score, like "+0.35" or "mate 3"
+     */
+    public static String formatScore(SearchResult line) {
+        if (line.isMateScore()) {
+            return "mate " + (line.getScore() > 0 ? "" : "-")
+                    + (AlphaBeta.MATE - Math.abs(line.getScore()) + 1) / 2;
+        }
+        return String.format("%+.2f", line.getScore() / 100.0);
+    }
+
+    /**
+     * the toString method
+     * @return the String representation of the result
+     */
+    @Override
+    public String toString() {
+        return "depth " + this.depth + " nodes " + this.nodes + " lines " + this.lines;
+    }
+}
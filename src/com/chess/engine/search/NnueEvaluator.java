@@ -0,0 +1,197 @@
+package com.chess.engine.search;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.GameHistory;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.PieceType;
+
+import java.util.Arrays;
+
+/**
+ * the NnueEvaluator class
+ * scores a board with an NnueNetwork. Boards are never changed by a move, so instead of updating one hidden layer as
+ * moves are made and taken back, every thread keeps the hidden layers of the boards it evaluated by zobrist key. A new
+ * board starts from the hidden layers of its parent or grandparent, and only the tiles that differ between the two
+ * boards are added and taken away. A side whose king moved is worked out again from nothing, since every input
+ * depends on where the king stands
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public class NnueEvaluator implements BoardEvaluator {
+
+    // each thread keeps the hidden layers of 2^CACHE_BITS boards
+    private static final int CACHE_BITS = 12;
+    // how many boards back the search for a board to start from goes
+    private static final int MAX_ANCESTORS = 2;
+
+    // the network
+    private final NnueNetwork network;
+    // the boards evaluated by each thread
+    private final ThreadLocal<Accumulator[]> caches;
+
+    // the number of boards updated from an earlier board, and worked out from nothing
+    private long updates;
+    private long refreshes;
+
+    /**
+     * the constructor
+     * @param network the network
+     */
+    public NnueEvaluator(final NnueNetwork network) {
+        this.network = network;
+        this.caches = new ThreadLocal<Accumulator[]>() {
+            @Override
+            protected Accumulator[] initialValue() {
+                // one more slot than the cache, to work out a board in before it is stored
+                Accumulator[] cache = new Accumulator[(1 << CACHE_BITS) + 1];
+                for (int i = 0; i < cache.length; i++) {
+                    cache[i] = new Accumulator(network.getHiddenSize());
+                }
+                return cache;
+            }
+        };
+    }
+
+    /**
+     * get the network
+     * @return the network
+     */
+    public NnueNetwork getNetwork() {
+        return this.network;
+    }
+
+    /**
+     * get the number of boards updated from an earlier board. The count isn't exact when several threads evaluate
+     * @return the number of updates
+     */
+    public long getUpdates() {
+        return this.updates;
+    }
+
+    /**
+     * get the number of boards worked out from nothing. The count isn't exact when several threads evaluate
+     * @return the number of refreshes
+     */
+    public long getRefreshes() {
+        return this.refreshes;
+    }
+
+    /**
+     * evaluate a board
+     * @param board the board to evaluate
+     * @return the score in centipawns, positive if white is better, negative if black is better
+     */
+    @Override
+    public int evaluate(Board board) {
+        Accumulator[] cache = this.caches.get();
+        int mask = (1 << CACHE_BITS) - 1;
+        Accumulator current = cache[mask + 1];
+        current.read(board);
+
+        Accumulator stored = cache[(int) board.getZobristKey() & mask];
+        if (!stored.matches(current)) {
+            Accumulator start = null;
+            GameHistory history = board.getGameHistory().getPrevious();
+            for (int i = 0; i < MAX_ANCESTORS && history != null && start == null; i++) {
+                Accumulator candidate = cache[(int) history.getZobristKey() & mask];
+                if (candidate.valid && candidate.key == history.getZobristKey()) {
+                    start = candidate;
+                }
+                history = history.getPrevious();
+            }
+            for (int side = 0; side < 2; side++) {
+                if (start != null && start.kings[side] == current.kings[side]) {
+                    System.arraycopy(start.values[side], 0, current.values[side], 0, current.values[side].length);
+                    this.network.update(current.values[side], side, start.pieces, current.pieces,
+                            current.kings[side]);
+                }
+                else {
+                    this.network.refresh(current.values[side], side, current.pieces, current.kings[side]);
+                }
+            }
+            if (start != null) {
+                this.updates++;
+            }
+            else {
+                this.refreshes++;
+            }
+            stored.copy(current);
+        }
+
+        // the order of the hidden layers is the mover's then the opponent's
+        if (board.getCurrentPlayerAlliance() == Alliance.WHITE) {
+            return this.network.output(stored.values[0], stored.values[1]);
+        }
+        return -this.network.output(stored.values[1], stored.values[0]);
+    }
+
+    /**
+     * the Accumulator class
+     * the hidden layers of both sides for one board, with where every piece stood so the next board can be compared
+     * tile by tile
+     * @author Daniel Wakefield
+     * @version 1.0
+     */
+    private static class Accumulator {
+        // does the accumulator hold a board
+        private boolean valid;
+        // the zobrist key of the board
+        private long key;
+        // the code of the piece on every tile
+        private final byte[] pieces = new byte[BoardUtils.NUM_TILES];
+        // the tile of the white and of the black king
+        private final int[] kings = new int[2];
+        // the hidden layer seen from white's side and from black's side
+        private final short[][] values;
+
+        /**
+         * the constructor
+         * @param hiddenSize the size of each hidden layer
+         */
+        private Accumulator(int hiddenSize) {
+            this.values = new short[2][hiddenSize];
+        }
+
+        /**
+         * take the key and the pieces from a board, leaving the hidden layers to be worked out
+         * @param board the board
+         */
+        private void read(Board board) {
+            this.key = board.getZobristKey();
+            Arrays.fill(this.pieces, NnueNetwork.EMPTY);
+            for (Piece piece : board.getAllPieces()) {
+                this.pieces[piece.getPosition()] = NnueNetwork.pieceCode(piece.getPieceType(), piece.getAlliance());
+                if (piece.getPieceType() == PieceType.KING) {
+                    this.kings[piece.getAlliance() == Alliance.WHITE ? 0 : 1] = piece.getPosition();
+                }
+            }
+        }
+
+        /**
+         * does the accumulator hold the same board as another. The pieces are compared as well as the key, so two
+         * boards with the same key can't share hidden layers
+         * @param other the other accumulator
+         * @return true if both hold the same board, false otherwise
+         */
+        private boolean matches(Accumulator other) {
+            return this.valid && this.key == other.key && Arrays.equals(this.pieces, other.pieces);
+        }
+
+        /**
+         * copy another accumulator into this one
+         * @param other the accumulator to copy
+         */
+        private void copy(Accumulator other) {
+            this.valid = true;
+            this.key = other.key;
+            System.arraycopy(other.pieces, 0, this.pieces, 0, this.pieces.length);
+            this.kings[0] = other.kings[0];
+            this.kings[1] = other.kings[1];
+            for (int side = 0; side < 2; side++) {
+                System.arraycopy(other.values[side], 0, this.values[side], 0, this.values[side].length);
+            }
+        }
+    }
+}
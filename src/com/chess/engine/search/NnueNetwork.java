@@ -0,0 +1,302 @@
+package com.chess.engine.search;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.pieces.PieceType;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * the NnueNetwork class
+ * the weights of a small efficiently updatable neural network. The inputs are seen from each player's side: one for
+ * every square of the player's own king, times every kind of piece other than a king, times every square. A board
+ * turns on one input per piece, so the hidden layer of each side is the sum of a few rows of weights, and a move only
+ * adds and takes away the rows of the pieces it moves. The hidden layers of the player to move and of the opponent go
+ * through a clipped relu into the output. The weights are 16 bit, the hidden layer is in units of 1 / ACTIVATION_SCALE
+ * and the output weights in units of 1 / OUTPUT_WEIGHT_SCALE
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public class NnueNetwork {
+
+    // the start of a weights file, "NNUE"
+    public static final int MAGIC = 0x4E4E5545;
+    // the version of the weights file
+    public static final int VERSION = 1;
+    // the kinds of piece other than a king, each either the side's own or the opponent's
+    public static final int PIECE_KINDS = 10;
+    // the number of inputs of each side
+    public static final int INPUTS = BoardUtils.NUM_TILES * PIECE_KINDS * BoardUtils.NUM_TILES;
+    // the largest hidden layer, so the output can't overflow an int
+    public static final int MAX_HIDDEN = 128;
+    // a hidden value of ACTIVATION_SCALE is 1.0, and the clipped relu stops there
+    public static final int ACTIVATION_SCALE = 255;
+    // an output weight of OUTPUT_WEIGHT_SCALE is 1.0
+    public static final int OUTPUT_WEIGHT_SCALE = 64;
+    // an output of 1.0 is this many centipawns
+    public static final int CENTIPAWN_SCALE = 400;
+
+    // the code of an empty square in a piece array
+    public static final byte EMPTY = 0;
+    // the code of a white and a black king in a piece array
+    public static final byte WHITE_KING = PIECE_KINDS + 1;
+    public static final byte BLACK_KING = WHITE_KING + 1;
+
+    // the size of the hidden layer of each side
+    private final int hiddenSize;
+    // the weights of every input, hiddenSize in a row for each input
+    private final short[] featureWeights;
+    // the starting value of the hidden layer
+    private final short[] featureBiases;
+    // the output weights of the mover's hidden layer, then of the opponent's
+    private final short[] outputWeights;
+    // the output bias, in units of 1 / (ACTIVATION_SCALE * OUTPUT_WEIGHT_SCALE)
+    private final int outputBias;
+
+    /**
+     * the constructor
+     * @param hiddenSize the size of the hidden layer of each side, at most MAX_HIDDEN
+     * @param featureWeights the weights of every input, hiddenSize in a row for each input
+     * @param featureBiases the starting value of the hidden layer
+     * @param outputWeights the output weights of the mover's hidden layer, then of the opponent's
+     * @param outputBias the output bias
+     */
+    public NnueNetwork(int hiddenSize, short[] featureWeights, short[] featureBiases, short[] outputWeights,
+                       int outputBias) {
+        if (hiddenSize < 1 || hiddenSize > MAX_HIDDEN) {
+            throw new IllegalArgumentException("the hidden layer must have 1 to " + MAX_HIDDEN + " values");
+        }
+        if (featureWeights.length != INPUTS * hiddenSize || featureBiases.length != hiddenSize
+                || outputWeights.length != 2 * hiddenSize) {
+            throw new IllegalArgumentException("the weights don't match a hidden layer of " + hiddenSize);
+        }
+        this.hiddenSize = hiddenSize;
+        this.featureWeights = featureWeights;
+        this.featureBiases = featureBiases;
+        this.outputWeights = outputWeights;
+        this.outputBias = outputBias;
+    }
+
+    /**
+     * a network that only counts material, for when there is no weights file. Each side's hidden layer has one value,
+     * the side's own material in units of 16 centipawns
+     * @return the network
+     */
+    public static NnueNetwork material() {
+        short[] featureWeights = new short[INPUTS];
+        for (int feature = 0; feature < INPUTS; feature++) {
+            int kind = (feature / BoardUtils.NUM_TILES) % PIECE_KINDS;
+            if (kind % 2 == 0) {
+                featureWeights[feature] = (short) (PieceType.values()[kind / 2].getPieceValue() / 16);
+            }
+        }
+        // a hidden value of 1 is worth 16 centipawns
+        short weight = (short) (16 * ACTIVATION_SCALE * OUTPUT_WEIGHT_SCALE / CENTIPAWN_SCALE);
+        return new NnueNetwork(1, featureWeights, new short[1], new short[] {weight, (short) -weight}, 0);
+    }
+
+    /**
+     * read a network from a weights file: the magic number, the version and the hidden size as ints, the feature
+     * weights, the feature biases and the output weights as shorts, then the output bias as an int, all big endian
+     * @param path the path of the file
+     * @return the network
+     * @throws IOException if the file can't be read or isn't a weights file
+     */
+    public static NnueNetwork load(String path) throws IOException {
+        DataInputStream input = new DataInputStream(new FileInputStream(path));
+        try {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                throw new IOException(path + " is not a network weights file");
+            }
+            int hiddenSize = input.readInt();
+            if (hiddenSize < 1 || hiddenSize > MAX_HIDDEN) {
+                throw new IOException(path + " has a hidden layer of " + hiddenSize);
+            }
+            short[] featureWeights = readShorts(input, INPUTS * hiddenSize);
+            short[] featureBiases = readShorts(input, hiddenSize);
+            short[] outputWeights = readShorts(input, 2 * hiddenSize);
+            return new NnueNetwork(hiddenSize, featureWeights, featureBiases, outputWeights, input.readInt());
+        }
+        finally {
+            input.close();
+        }
+    }
+
+    /**
+     * write the network to a weights file, in the format read by load
+     * @param path the path of the file
+     * @throws IOException if the file can't be written
+     */
+    public void save(String path) throws IOException {
+        DataOutputStream output = new DataOutputStream(new FileOutputStream(path));
+        try {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(this.hiddenSize);
+            writeShorts(output, this.featureWeights);
+            writeShorts(output, this.featureBiases);
+            writeShorts(output, this.outputWeights);
+            output.writeInt(this.outputBias);
+        }
+        finally {
+            output.close();
+        }
+    }
+
+    /**
+     * read a block of big endian shorts in one go
+     * @param input the stream to read from
+     * @param count the number of shorts
+     * @return the shorts
+     * @throws IOException if the stream ends first
+     */
+    private static short[] readShorts(DataInputStream input, int count) throws IOException {
+        byte[] bytes = new byte[2 * count];
+        input.readFully(bytes);
+        short[] values = new short[count];
+        ByteBuffer.wrap(bytes).asShortBuffer().get(values);
+        return values;
+    }
+
+    /**
+     * write a block of big endian shorts in one go
+     * @param output the stream to write to
+     * @param values the shorts
+     * @throws IOException if the stream can't be written
+     */
+    private static void writeShorts(DataOutputStream output, short[] values) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(2 * values.length);
+        buffer.asShortBuffer().put(values);
+        output.write(buffer.array());
+    }
+
+    /**
+     * get the size of the hidden layer of each side
+     * @return the number of hidden values
+     */
+    public int getHiddenSize() {
+        return this.hiddenSize;
+    }
+
+    /**
+     * the code of a piece in a piece array: 1 to 10 for the pieces other than kings, two codes for each piece type,
+     * white then black, and WHITE_KING or BLACK_KING for the kings
+     * @param pieceType the type of the piece
+     * @param alliance the colour of the piece
+     * @return the code
+     */
+    public static byte pieceCode(PieceType pieceType, Alliance alliance) {
+        return (byte) (2 * pieceType.ordinal() + (alliance == Alliance.WHITE ? 1 : 2));
+    }
+
+    /**
+     * the input of a piece seen from one side. Black sees the board turned upside down, so the same inputs mean the
+     * same thing for both sides
+     * @param side 0 for white, 1 for black
+     * @param kingPosition the tile of the side's king
+     * @param code the code of the piece, not a king
+     * @param position the tile of the piece
+     * @return the index of the input
+     */
+    private static int feature(int side, int kingPosition, int code, int position) {
+        int flip = side == 0 ? 0 : 56;
+        int pieceSide = (code - 1) & 1;
+        int kind = ((code - 1) & ~1) + (pieceSide == side ? 0 : 1);
+        return (((kingPosition ^ flip) * PIECE_KINDS + kind) << 6) | (position ^ flip);
+    }
+
+    /**
+     * work out one side's hidden layer from nothing
+     * @param accumulator the hidden layer to fill
+     * @param side 0 for white, 1 for black
+     * @param pieces the code of the piece on every tile
+     * @param kingPosition the tile of the side's king
+     */
+    void refresh(short[] accumulator, int side, byte[] pieces, int kingPosition) {
+        System.arraycopy(this.featureBiases, 0, accumulator, 0, this.hiddenSize);
+        for (int position = 0; position < BoardUtils.NUM_TILES; position++) {
+            int code = pieces[position];
+            if (code != EMPTY && code < WHITE_KING) {
+                add(accumulator, feature(side, kingPosition, code, position));
+            }
+        }
+    }
+
+    /**
+     * change one side's hidden layer for the tiles whose piece changed between two boards with the side's king on
+     * the same tile
+     * @param accumulator the hidden layer of the old board, changed to the hidden layer of the new board
+     * @param side 0 for white, 1 for black
+     * @param oldPieces the code of the piece on every tile of the old board
+     * @param newPieces the code of the piece on every tile of the new board
+     * @param kingPosition the tile of the side's king on both boards
+     */
+    void update(short[] accumulator, int side, byte[] oldPieces, byte[] newPieces, int kingPosition) {
+        for (int position = 0; position < BoardUtils.NUM_TILES; position++) {
+            int oldCode = oldPieces[position];
+            int newCode = newPieces[position];
+            if (oldCode == newCode) {
+                continue;
+            }
+            if (oldCode != EMPTY && oldCode < WHITE_KING) {
+                subtract(accumulator, feature(side, kingPosition, oldCode, position));
+            }
+            if (newCode != EMPTY && newCode < WHITE_KING) {
+                add(accumulator, feature(side, kingPosition, newCode, position));
+            }
+        }
+    }
+
+    /**
+     * add the weights of an input to a hidden layer, in 16 bit arithmetic
+     * @param accumulator the hidden layer
+     * @param feature the input
+     */
+    private void add(short[] accumulator, int feature) {
+        int offset = feature * this.hiddenSize;
+        for (int i = 0; i < this.hiddenSize; i++) {
+            accumulator[i] += this.featureWeights[offset + i];
+        }
+    }
+
+    /**
+     * take the weights of an input away from a hidden layer, in 16 bit arithmetic
+     * @param accumulator the hidden layer
+     * @param feature the input
+     */
+    private void subtract(short[] accumulator, int feature) {
+        int offset = feature * this.hiddenSize;
+        for (int i = 0; i < this.hiddenSize; i++) {
+            accumulator[i] -= this.featureWeights[offset + i];
+        }
+    }
+
+    /**
+     * work out the output from the two hidden layers
+     * @param mover the hidden layer of the player to move
+     * @param opponent the hidden layer of the opponent
+     * @return the score in centipawns for the player to move
+     */
+    int output(short[] mover, short[] opponent) {
+        int sum = this.outputBias;
+        for (int i = 0; i < this.hiddenSize; i++) {
+            sum += clippedRelu(mover[i]) * this.outputWeights[i]
+                    + clippedRelu(opponent[i]) * this.outputWeights[this.hiddenSize + i];
+        }
+        return (int) ((long) sum * CENTIPAWN_SCALE / (ACTIVATION_SCALE * OUTPUT_WEIGHT_SCALE));
+    }
+
+    /**
+     * keep a hidden value between 0 and 1.0
+     * @param value the hidden value
+     * @return the value clipped to 0 to ACTIVATION_SCALE
+     */
+    private static int clippedRelu(short value) {
+        return value < 0 ? 0 : (value > ACTIVATION_SCALE ? ACTIVATION_SCALE : value);
+    }
+}
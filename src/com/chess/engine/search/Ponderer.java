@@ -0,0 +1,177 @@
+package com.chess.engine.search;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardStatus;
+import com.chess.engine.move.Move;
+import com.chess.engine.move.MoveStatus;
+import com.chess.engine.move.MoveTransition;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * the Ponderer class
+ * an AlphaBeta search that thinks on the opponent's time. After the engine moves, the second move of its principal
+ * variation is the reply it expects, and the board after that reply is searched on a background thread with no
+ * limit. If the opponent plays it, a ponder hit, the running search is given the real limits with its clock starting
+ * then, so the depths it finished while pondering cost the engine's clock nothing. Otherwise the ponder search is
+ * stopped and the real board searched as usual, still with the transposition table the ponder search filled.
+ * search, ponder, stopPondering and shutdown are called from one thread, the player's; stop can be called from any
+ * thread
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public class Ponderer implements MoveStrategy {
+
+    // the search, used for both the ponder searches and the real ones
+    private final AlphaBeta search;
+    // the thread the ponder search runs on
+    private final ExecutorService executor;
+    // the running ponder search, null when not pondering
+    private Future<SearchResult> ponderSearch;
+    // the key of the board being pondered
+    private long ponderKey;
+    // the number of times the opponent played the expected move, and didn't
+    private int ponderHits;
+    private int ponderMisses;
+
+    /**
+     * the constructor
+     * @param search the search, it shouldn't be used by anything else
+     */
+    public Ponderer(AlphaBeta search) {
+        this.search = search;
+        this.executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "ponder");
+                thread.setDaemon(true);
+                // thinking on the opponent's time shouldn't slow the opponent down
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * search a board for the best move of the next mover. If it is the board being pondered the ponder search
+     * carries on with these limits, otherwise the ponder search is thrown away
+     * @param board the board to search
+     * @param limits when to stop searching
+     * @return the result of the search
+     */
+    @Override
+    public SearchResult search(Board board, SearchLimits limits) {
+        if (this.ponderSearch != null) {
+            if (board.getZobristKey() == this.ponderKey) {
+                this.ponderHits++;
+                this.search.ponderHit(limits);
+                SearchResult result = awaitPonderSearch();
+                if (result != null && result.getBestMove() != null) {
+                    return result;
+                }
+            }
+            else {
+                this.ponderMisses++;
+                stopPondering();
+            }
+        }
+        return this.search.search(board, limits);
+    }
+
+    /**
+     * start pondering the reply the engine expects to the move it just played
+     * @param board the board after the engine's move
+     * @param result the search that chose the move, its principal variation gives the expected reply
+     */
+    public void ponder(Board board, SearchResult result) {
+        stopPondering();
+        List<Move> principalVariation = result.getPrincipalVariation();
+        if (principalVariation.size() < 2) {
+            return;
+        }
+        Move expected = principalVariation.get(1);
+        Move reply = board.getMove(expected.getStartPosition(), expected.getEndPosition());
+        if (reply == null) {
+            return;
+        }
+        MoveTransition transition = board.makeMove(reply);
+        if (transition.getStatus() != MoveStatus.DONE
+                || transition.getTransBoard().getStatus() != BoardStatus.ONGOING) {
+            return;
+        }
+        final Board ponderBoard = transition.getTransBoard();
+        this.ponderKey = ponderBoard.getZobristKey();
+        // before the task is submitted, so a stop or ponder hit can't come before the search is reset
+        this.search.preparePonder();
+        this.ponderSearch = this.executor.submit(new Callable<SearchResult>() {
+            public SearchResult call() {
+                return search.ponder(ponderBoard);
+            }
+        });
+    }
+
+    /**
+     * ask the running search to stop, a ponder search or a real one
+     */
+    @Override
+    public void stop() {
+        this.search.stop();
+    }
+
+    /**
+     * stop pondering and the background thread
+     */
+    public void shutdown() {
+        stopPondering();
+        this.executor.shutdown();
+    }
+
+    /**
+     * get the number of times the opponent played the expected move
+     * @return the ponder hits
+     */
+    public int getPonderHits() {
+        return this.ponderHits;
+    }
+
+    /**
+     * get the number of times the opponent played something else
+     * @return the ponder misses
+     */
+    public int getPonderMisses() {
+        return this.ponderMisses;
+    }
+
+    /**
+     * stop the ponder search if there is one and wait for it, the next search is searched afresh
+     */
+    public void stopPondering() {
+        if (this.ponderSearch != null) {
+            this.search.stopPonder();
+            awaitPonderSearch();
+        }
+    }
+
+    /**
+     * wait for the ponder search to finish
+     * @return its result, null if it failed
+     */
+    private SearchResult awaitPonderSearch() {
+        Future<SearchResult> running = this.ponderSearch;
+        this.ponderSearch = null;
+        try {
+            // the search has to be finished before it is used again, even if this thread is interrupted
+            return Uninterruptibles.getUninterruptibly(running);
+        }
+        catch (ExecutionException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,159 @@
+package com.chess.engine.search;
+
+/**
+ * the SearchLimits class
+ * when a search should stop: after a depth, after an amount of time, after a number of boards, or when the time
+ * given to a move from the player's clock runs out, whichever comes first
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public class SearchLimits {
+    // the deepest the search goes
+    private final int maxDepth;
+    // the most time the search takes in milliseconds, 0 for no limit
+    private final long moveTimeMillis;
+    // the most boards the search looks at, 0 for no limit
+    private final long nodeLimit;
+    // the time left on the player's clock in milliseconds, 0 if the game has no clock
+    private final long remainingMillis;
+    // the time added to the clock after every move in milliseconds
+    private final long incrementMillis;
+    // the moves to play before the clock gets more time, 0 if the time is for the rest of the game
+    private final int movesToGo;
+
+    /**
+     * the constructor
+     * @param maxDepth the deepest the search goes
+     * @param moveTimeMillis the most time the search takes in milliseconds, 0 for no limit
+     */
+    public SearchLimits(int maxDepth, long moveTimeMillis) {
+        this(maxDepth, moveTimeMillis, 0, 0, 0, 0);
+    }
+
+    /**
+     * the constructor with every limit
+     * @param maxDepth the deepest the search goes
+     * @param moveTimeMillis the most time the search takes in milliseconds, 0 for no limit
+     * @param nodeLimit the most boards the search looks at, 0 for no limit
+     * @param remainingMillis the time left on the player's clock in milliseconds, 0 if the game has no clock
+     * @param incrementMillis the time added to the clock after every move in milliseconds
+     * @param movesToGo the moves to play before the clock gets more time, 0 if the time is for the rest of the game
+     */
+    private SearchLimits(int maxDepth, long moveTimeMillis, long nodeLimit, long remainingMillis,
+                         long incrementMillis, int movesToGo) {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("the search depth must be at least 1");
+        }
+        this.maxDepth = maxDepth;
+        this.moveTimeMillis = moveTimeMillis;
+        this.nodeLimit = nodeLimit;
+        this.remainingMillis = remainingMillis;
+        this.incrementMillis = incrementMillis;
+        this.movesToGo = movesToGo;
+    }
+
+    /**
+     * limits for a search to a fixed depth
+     * @param depth the depth to search to
+     * @return the limits
+     */
+    public static SearchLimits fixedDepth(int depth) {
+        return new SearchLimits(depth, 0);
+    }
+
+    /**
+     * limits for a search that runs for a fixed time
+     * @param moveTimeMillis the time to search for in milliseconds
+     * @return the limits
+     */
+    public static SearchLimits fixedTime(long moveTimeMillis) {
+        return new SearchLimits(AlphaBeta.MAX_DEPTH, moveTimeMillis);
+    }
+
+    /**
+     * limits for a search that only stops when it is told to or reaches the deepest depth, for pondering
+     * @return the limits
+     */
+    public static SearchLimits infinite() {
+        return new SearchLimits(AlphaBeta.MAX_DEPTH, 0);
+    }
+
+    /**
+     * limits for a search that looks at a fixed number of boards. The search stops on the same board every time,
+     * however loaded the machine is, so the result can be used to compare builds
+     * @param nodeLimit the number of boards to search
+     * @return the limits
+     */
+    public static SearchLimits fixedNodes(long nodeLimit) {
+        return new SearchLimits(AlphaBeta.MAX_DEPTH, 0, nodeLimit, 0, 0, 0);
+    }
+
+    /**
+     * limits for a search in a game played with a clock. The time manager decides how much of the clock the move
+     * gets
+     * @param remainingMillis the time left on the player's clock in milliseconds
+     * @param incrementMillis the time added to the clock after every move in milliseconds
+     * @param movesToGo the moves to play before the clock gets more time, 0 if the time is for the rest of the game
+     * @return the limits
+     */
+    public static SearchLimits clock(long remainingMillis, long incrementMillis, int movesToGo) {
+        return new SearchLimits(AlphaBeta.MAX_DEPTH, 0, 0, Math.max(1, remainingMillis), incrementMillis,
+                movesToGo);
+    }
+
+    /**
+     * get the deepest the search goes
+     * @return the maximum depth
+     */
+    public int getMaxDepth() {
+        return this.maxDepth;
+    }
+
+    /**
+     * get the most time the search takes
+     * @return the time in milliseconds, 0 for no limit
+     */
+    public long getMoveTimeMillis() {
+        return this.moveTimeMillis;
+    }
+
+    /**
+     * get the most boards the search looks at
+     * @return the number of boards, 0 for no limit
+     */
+    public long getNodeLimit() {
+        return this.nodeLimit;
+    }
+
+    /**
+     * get the time left on the player's clock
+     * @return the time in milliseconds, 0 if the game has no clock
+     */
+    public long getRemainingMillis() {
+        return this.remainingMillis;
+    }
+
+    /**
+     * get the time added to the clock after every move
+     * @return the increment in milliseconds
+     */
+    public long getIncrementMillis() {
+        return this.incrementMillis;
+    }
+
+    /**
+     * get the moves to play before the clock gets more time
+     * @return the number of moves, 0 if the time is for the rest of the game
+     */
+    public int getMovesToGo() {
+        return this.movesToGo;
+    }
+
+    /**
+     * does the search have a time limit
+     * @return true if there is a time limit or a clock, false otherwise
+     */
+    public boolean isTimed() {
+        return this.moveTimeMillis > 0 || this.remainingMillis > 0;
+    }
+}
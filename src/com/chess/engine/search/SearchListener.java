@@ -0,0 +1,16 @@
+package com.chess.engine.search;
+
+/**
+ * the SearchListener interface
+ * told about the progress of a search
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public interface SearchListener {
+
+    /**
+     * called every time the search finishes a depth
+     * @param result the result of the search so far
+     */
+    void iterationComplete(SearchResult result);
+}
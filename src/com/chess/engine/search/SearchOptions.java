@@ -0,0 +1,152 @@
+package com.chess.engine.search;
+
+/**
+ * the SearchOptions class
+ * which of the selective search features the search uses. Each of them skips or shortens the search of moves that
+ * are unlikely to matter, so the search gets deeper in the same time at the risk of missing something
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public class SearchOptions {
+    // search a pass first, and stop if the board is still too good for the opponent
+    private final boolean nullMove;
+    // search the quiet moves late in the move order less deep
+    private final boolean lateMoveReductions;
+    // skip quiet moves near the end of the search that can't bring the score up to alpha
+    private final boolean futility;
+    // drop straight into the quiescence search near the end if the board is far below alpha
+    private final boolean razoring;
+
+    /**
+     * create the options from the builder
+     * @param builder the builder
+     */
+    private SearchOptions(Builder builder) {
+        this.nullMove = builder.nullMove;
+        this.lateMoveReductions = builder.lateMoveReductions;
+        this.futility = builder.futility;
+        this.razoring = builder.razoring;
+    }
+
+    /**
+     * the options with every feature on
+     * @return the options
+     */
+    public static SearchOptions allEnabled() {
+        return new Builder().build();
+    }
+
+    /**
+     * the options with every feature off, a plain alpha-beta search
+     * @return the options
+     */
+    public static SearchOptions allDisabled() {
+        Builder builder = new Builder();
+        builder.setNullMove(false);
+        builder.setLateMoveReductions(false);
+        builder.setFutility(false);
+        builder.setRazoring(false);
+        return builder.build();
+    }
+
+    /**
+     * is null move pruning used
+     * @return true if it is used, false otherwise
+     */
+    public boolean isNullMove() {
+        return this.nullMove;
+    }
+
+    /**
+     * are late move reductions used
+     * @return true if they are used, false otherwise
+     */
+    public boolean isLateMoveReductions() {
+        return this.lateMoveReductions;
+    }
+
+    /**
+     * is futility pruning used
+     * @return true if it is used, false otherwise
+     */
+    public boolean isFutility() {
+        return this.futility;
+    }
+
+    /**
+     * is razoring used
+     * @return true if it is used, false otherwise
+     */
+    public boolean isRazoring() {
+        return this.razoring;
+    }
+
+    /**
+     * the toString method
+     * @return the features that are on
+     */
+    @Override
+    public String toString() {
+        return "null move " + onOff(this.nullMove) + ", late move reductions " + onOff(this.lateMoveReductions)
+                + ", futility " + onOff(this.futility) + ", razoring " + onOff(this.razoring);
+    }
+
+    /**
+     * write a feature as on or off
+     * @param on is the feature on
+     * @return "on" or "off"
+     */
+    private static String onOff(boolean on) {
+        return on ? "on" : "off";
+    }
+
+    /**
+     * the builder class for the options, every feature is on unless it is turned off
+     */
+    public static class Builder {
+        boolean nullMove = true;
+        boolean lateMoveReductions = true;
+        boolean futility = true;
+        boolean razoring = true;
+
+        /**
+         * turn null move pruning on or off
+         * @param nullMove true to use it
+         */
+        public void setNullMove(boolean nullMove) {
+            this.nullMove = nullMove;
+        }
+
+        /**
+         * turn late move reductions on or off
+         * @param lateMoveReductions true to use them
+         */
+        public void setLateMoveReductions(boolean lateMoveReductions) {
+            this.lateMoveReductions = lateMoveReductions;
+        }
+
+        /**
+         * turn futility pruning on or off
+         * @param futility true to use it
+         */
+        public void setFutility(boolean futility) {
+            this.futility = futility;
+        }
+
+        /**
+         * turn razoring on or off
+         * @param razoring true to use it
+         */
+        public void setRazoring(boolean razoring) {
+            this.razoring = razoring;
+        }
+
+        /**
+         * get the options for this builder
+         * @return the options
+         */
+        public SearchOptions build() {
+            return new SearchOptions(this);
+        }
+    }
+}
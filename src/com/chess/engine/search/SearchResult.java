@@ -0,0 +1,120 @@
+package com.chess.engine.search;
+
+import com.chess.engine.move.Move;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * the SearchResult class
+ * the best move a search found and what it cost to find it
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public class SearchResult {
+    // the best move, null if the next mover has no legal moves
+    private final Move bestMove;
+    // the score of the best move for the next mover, in centipawns
+    private final int score;
+    // the depth the search finished
+    private final int depth;
+    // the number of boards searched
+    private final long nodes;
+    // the time the search took
+    private final long elapsedMillis;
+    // the moves both players are expected to make, starting with the best move
+    private final List<Move> principalVariation;
+
+    /**
+     * the constructor
+     * @param bestMove the best move, null if there are no legal moves
+     * @param score the score of the best move for the next mover
+     * @param depth the depth the search finished
+     * @param nodes the number of boards searched
+     * @param elapsedMillis the time the search took in milliseconds
+     * @param principalVariation the expected moves, starting with the best move
+     */
+    public SearchResult(Move bestMove, int score, int depth, long nodes, long elapsedMillis,
+                        List<Move> principalVariation) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.elapsedMillis = elapsedMillis;
+        this.principalVariation = Collections.unmodifiableList(principalVariation);
+    }
+
+    /**
+     * get the best move
+     * @return the best move, null if the next mover has no legal moves
+     */
+    public Move getBestMove() {
+        return this.bestMove;
+    }
+
+    /**
+     * get the score of the best move
+     * @return the score in centipawns for the next mover
+     */
+    public int getScore() {
+        return this.score;
+    }
+
+    /**
+     * get the depth of the search
+     * @return the depth the search finished
+     */
+    public int getDepth() {
+        return this.depth;
+    }
+
+    /**
+     * get the number of boards searched
+     * @return the node count
+     */
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    /**
+     * get the time the search took
+     * @return the time in milliseconds
+     */
+    public long getElapsedMillis() {
+        return this.elapsedMillis;
+    }
+
+    /**
+     * get the principal variation
+     * @return the moves both players are expected to make, starting with the best move
+     */
+    public List<Move> getPrincipalVariation() {
+        return this.principalVariation;
+    }
+
+    /**
+     * get the speed of the search
+     * @return the number of boards searched per second
+     */
+    public long getNodesPerSecond() {
+        return this.nodes * 1000 / Math.max(1, this.elapsedMillis);
+    }
+
+    /**
+     * is the score a forced mate
+     * @return true if one of the players can force mate, false otherwise
+     */
+    public boolean isMateScore() {
+        return Math.abs(this.score) >= AlphaBeta.MATE - AlphaBeta.MAX_PLY;
+    }
+
+    /**
+     * the toString method
+     * @return the String representation of the result
+     */
+    @Override
+    public String toString() {
+        return "depth " + this.depth + " score " + this.score + " nodes " + this.nodes + " nps "
+                + getNodesPerSecond() + " best " + this.bestMove;
+    }
+}
@@ -0,0 +1,149 @@
+package com.chess.engine.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * the SearchStatistics class
+ * counts what the selective search features did during a search, and the boards searched for each depth. The
+ * effective branching factor, how many times more boards a depth takes than the depth before, shows how much the
+ * features cut the tree
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public class SearchStatistics {
+    // the boards searched for each finished depth, starting with depth 1
+    private final List<Long> nodesPerDepth;
+    // the null move searches that cut the search off
+    private long nullMoveCutoffs;
+    // the moves searched less deep
+    private long reductions;
+    // the reduced moves that had to be searched again at full depth
+    private long reSearches;
+    // the quiet moves skipped by futility pruning
+    private long futilityPrunes;
+    // the boards razored down to the quiescence search
+    private long razorCutoffs;
+
+    /**
+     * the constructor, with everything at zero
+     */
+    public SearchStatistics() {
+        this.nodesPerDepth = new ArrayList<>();
+    }
+
+    /**
+     * record the boards searched for a finished depth
+     * @param nodes the boards searched for the depth alone
+     */
+    void depthComplete(long nodes) {
+        this.nodesPerDepth.add(nodes);
+    }
+
+    /**
+     * count a null move cutoff
+     */
+    void nullMoveCutoff() {
+        this.nullMoveCutoffs++;
+    }
+
+    /**
+     * count a reduced move
+     */
+    void reduction() {
+        this.reductions++;
+    }
+
+    /**
+     * count a reduced move searched again
+     */
+    void reSearch() {
+        this.reSearches++;
+    }
+
+    /**
+     * count a move skipped by futility pruning
+     */
+    void futilityPrune() {
+        this.futilityPrunes++;
+    }
+
+    /**
+     * count a razored board
+     */
+    void razorCutoff() {
+        this.razorCutoffs++;
+    }
+
+    /**
+     * get the boards searched for each finished depth
+     * @return the counts, starting with depth 1
+     */
+    public List<Long> getNodesPerDepth() {
+        return Collections.unmodifiableList(this.nodesPerDepth);
+    }
+
+    /**
+     * get the effective branching factor, the boards of the last finished depth over the boards of the depth before
+     * @return the branching factor, 0 if fewer than two depths finished
+     */
+    public double getEffectiveBranchingFactor() {
+        int depths = this.nodesPerDepth.size();
+        if (depths < 2 || this.nodesPerDepth.get(depths - 2) == 0) {
+            return 0;
+        }
+        return (double) this.nodesPerDepth.get(depths - 1) / this.nodesPerDepth.get(depths - 2);
+    }
+
+    /**
+     * get the null move cutoffs
+     * @return the number of cutoffs
+     */
+    public long getNullMoveCutoffs() {
+        return this.nullMoveCutoffs;
+    }
+
+    /**
+     * get the reduced moves
+     * @return the number of reduced moves
+     */
+    public long getReductions() {
+        return this.reductions;
+    }
+
+    /**
+     * get the reduced moves searched again
+     * @return the number of searches again
+     */
+    public long getReSearches() {
+        return this.reSearches;
+    }
+
+    /**
+     * get the quiet moves skipped by futility pruning
+     * @return the number of skipped moves
+     */
+    public long getFutilityPrunes() {
+        return this.futilityPrunes;
+    }
+
+    /**
+     * get the razored boards
+     * @return the number of razored boards
+     */
+    public long getRazorCutoffs() {
+        return this.razorCutoffs;
+    }
+
+    /**
+     * the toString method
+     * @return the counts on one line
+     */
+    @Override
+    public String toString() {
+        return String.format("ebf %.2f, null move cutoffs %d, reductions %d (%d searched again), "
+                        + "futility prunes %d, razor cutoffs %d", getEffectiveBranchingFactor(), this.nullMoveCutoffs,
+                this.reductions, this.reSearches, this.futilityPrunes, this.razorCutoffs);
+    }
+}
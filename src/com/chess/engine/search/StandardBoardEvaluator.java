@@ -0,0 +1,205 @@
+package com.chess.engine.search;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.PieceType;
+
+import java.util.Arrays;
+
+/**
+ * the StandardBoardEvaluator class
+ * scores a board by material, by where each piece stands, and by how many moves each player has.
+ * the square tables are written from white's side with a8 first, the same order as the board coordinates, and are
+ * mirrored for black. The score is a sum of weights times features, so the weights can be tuned: the values of the
+ * pieces other than the king, a square table for every piece type, the mobility bonus and the check bonus, in that
+ * order. The default weights are the piece values and the tables below
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public class StandardBoardEvaluator implements BoardEvaluator {
+
+    // the bonus for every possible move
+    private static final int MOBILITY_BONUS = 2;
+    // the bonus for putting the opponent in check
+    private static final int CHECK_BONUS = 30;
+
+    // where each group of weights starts
+    public static final int PIECE_VALUE_WEIGHTS = 0;
+    public static final int SQUARE_TABLE_WEIGHTS = PIECE_VALUE_WEIGHTS + PieceType.values().length - 1;
+    public static final int MOBILITY_WEIGHT = SQUARE_TABLE_WEIGHTS + PieceType.values().length * BoardUtils.NUM_TILES;
+    public static final int CHECK_WEIGHT = MOBILITY_WEIGHT + 1;
+    // the number of weights
+    public static final int WEIGHT_COUNT = CHECK_WEIGHT + 1;
+
+    private static final int[] PAWN_TABLE = {
+             0,   0,   0,   0,   0,   0,   0,   0,
+            50,  50,  50,  50,  50,  50,  50,  50,
+            10,  10,  20,  30,  30,  20,  10,  10,
+             5,   5,  10,  25,  25,  10,   5,   5,
+             0,   0,   0,  20,  20,   0,   0,   0,
+             5,  -5, -10,   0,   0, -10,  -5,   5,
+             5,  10,  10, -20, -20,  10,  10,   5,
+             0,   0,   0,   0,   0,   0,   0,   0
+    };
+
+    private static final int[] KNIGHT_TABLE = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20,   0,   0,   0,   0, -20, -40,
+            -30,   0,  10,  15,  15,  10,   0, -30,
+            -30,   5,  15,  20,  20,  15,   5, -30,
+            -30,   0,  15,  20,  20,  15,   0, -30,
+            -30,   5,  10,  15,  15,  10,   5, -30,
+            -40, -20,   0,   5,   5,   0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50
+    };
+
+    private static final int[] BISHOP_TABLE = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10,   0,   0,   0,   0,   0,   0, -10,
+            -10,   0,   5,  10,  10,   5,   0, -10,
+            -10,   5,   5,  10,  10,   5,   5, -10,
+            -10,   0,  10,  10,  10,  10,   0, -10,
+            -10,  10,  10,  10,  10,  10,  10, -10,
+            -10,   5,   0,   0,   0,   0,   5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20
+    };
+
+    private static final int[] ROOK_TABLE = {
+             0,   0,   0,   0,   0,   0,   0,   0,
+             5,  10,  10,  10,  10,  10,  10,   5,
+            -5,   0,   0,   0,   0,   0,   0,  -5,
+            -5,   0,   0,   0,   0,   0,   0,  -5,
+            -5,   0,   0,   0,   0,   0,   0,  -5,
+            -5,   0,   0,   0,   0,   0,   0,  -5,
+            -5,   0,   0,   0,   0,   0,   0,  -5,
+             0,   0,   0,   5,   5,   0,   0,   0
+    };
+
+    private static final int[] QUEEN_TABLE = {
+            -20, -10, -10,  -5,  -5, -10, -10, -20,
+            -10,   0,   0,   0,   0,   0,   0, -10,
+            -10,   0,   5,   5,   5,   5,   0, -10,
+             -5,   0,   5,   5,   5,   5,   0,  -5,
+              0,   0,   5,   5,   5,   5,   0,  -5,
+            -10,   5,   5,   5,   5,   5,   0, -10,
+            -10,   0,   5,   0,   0,   0,   0, -10,
+            -20, -10, -10,  -5,  -5, -10, -10, -20
+    };
+
+    private static final int[] KING_TABLE = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+             20,  20,   0,   0,   0,   0,  20,  20,
+             20,  30,  10,   0,   0,  10,  30,  20
+    };
+
+    // the weights of every feature
+    private final int[] weights;
+
+    /**
+     * the constructor, with the default weights
+     */
+    public StandardBoardEvaluator() {
+        this(defaultWeights());
+    }
+
+    /**
+     * the constructor
+     * @param weights the weights of every feature, WEIGHT_COUNT of them
+     */
+    public StandardBoardEvaluator(int[] weights) {
+        if (weights.length != WEIGHT_COUNT) {
+            throw new IllegalArgumentException("there must be " + WEIGHT_COUNT + " weights");
+        }
+        this.weights = weights.clone();
+    }
+
+    /**
+     * get the default weights, the piece values and the square tables the evaluator was written with
+     * @return the weights
+     */
+    public static int[] defaultWeights() {
+        int[][] tables = {PAWN_TABLE, KNIGHT_TABLE, BISHOP_TABLE, ROOK_TABLE, QUEEN_TABLE, KING_TABLE};
+        int[] weights = new int[WEIGHT_COUNT];
+        for (PieceType pieceType : PieceType.values()) {
+            if (pieceType != PieceType.KING) {
+                weights[PIECE_VALUE_WEIGHTS + pieceType.ordinal()] = pieceType.getPieceValue();
+            }
+            System.arraycopy(tables[pieceType.ordinal()], 0, weights,
+                    SQUARE_TABLE_WEIGHTS + pieceType.ordinal() * BoardUtils.NUM_TILES, BoardUtils.NUM_TILES);
+        }
+        weights[MOBILITY_WEIGHT] = MOBILITY_BONUS;
+        weights[CHECK_WEIGHT] = CHECK_BONUS;
+        return weights;
+    }
+
+    /**
+     * get the weights
+     * @return a copy of the weights
+     */
+    public int[] getWeights() {
+        return this.weights.clone();
+    }
+
+    /**
+     * evaluate a board
+     * @param board the board to evaluate
+     * @return the score in centipawns, positive if white is better, negative if black is better
+     */
+    @Override
+    public int evaluate(Board board) {
+        int score = 0;
+        for (Piece piece : board.getAllPieces()) {
+            int pieceScore = this.weights[squareWeight(piece)];
+            if (piece.getPieceType() != PieceType.KING) {
+                pieceScore += this.weights[PIECE_VALUE_WEIGHTS + piece.getPieceType().ordinal()];
+            }
+            score += piece.getAlliance().isWhite() ? pieceScore : -pieceScore;
+        }
+        score += this.weights[MOBILITY_WEIGHT] * (board.getMovesByAlliance(Alliance.WHITE).size()
+                - board.getMovesByAlliance(Alliance.BLACK).size());
+        if (board.isPlayerInCheck(Alliance.BLACK)) {
+            score += this.weights[CHECK_WEIGHT];
+        }
+        if (board.isPlayerInCheck(Alliance.WHITE)) {
+            score -= this.weights[CHECK_WEIGHT];
+        }
+        return score;
+    }
+
+    /**
+     * count the features of a board, so that the score is the sum of every count times its weight
+     * @param board the board
+     * @param counts filled with the count of every feature, WEIGHT_COUNT of them, white's minus black's
+     */
+    public static void countFeatures(Board board, int[] counts) {
+        Arrays.fill(counts, 0);
+        for (Piece piece : board.getAllPieces()) {
+            int sign = piece.getAlliance().isWhite() ? 1 : -1;
+            counts[squareWeight(piece)] += sign;
+            if (piece.getPieceType() != PieceType.KING) {
+                counts[PIECE_VALUE_WEIGHTS + piece.getPieceType().ordinal()] += sign;
+            }
+        }
+        counts[MOBILITY_WEIGHT] = board.getMovesByAlliance(Alliance.WHITE).size()
+                - board.getMovesByAlliance(Alliance.BLACK).size();
+        counts[CHECK_WEIGHT] = (board.isPlayerInCheck(Alliance.BLACK) ? 1 : 0)
+                - (board.isPlayerInCheck(Alliance.WHITE) ? 1 : 0);
+    }
+
+    /**
+     * get the weight for where a piece stands
+     * @param piece the piece
+     * @return the index of the weight in the piece type's square table
+     */
+    private static int squareWeight(Piece piece) {
+        int index = piece.getAlliance().isWhite() ? piece.getPosition() : piece.getPosition() ^ 56;
+        return SQUARE_TABLE_WEIGHTS + piece.getPieceType().ordinal() * BoardUtils.NUM_TILES + index;
+    }
+}
@@ -0,0 +1,166 @@
+package com.chess.engine.search;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.move.Move;
+import com.chess.engine.notation.MoveNotation;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.PieceType;
+
+/**
+ * the StaticExchange class
+ * works out what a capture wins once both players have captured on its tile with their cheapest pieces for as long
+ * as it pays them. It only looks at where the pieces stand, so no board is made: a piece that has captured is taken
+ * off the tiles, which lets the pieces lined up behind it join in. Pinned pieces are counted as if they could move
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public class StaticExchange {
+
+    // the longest exchange, every piece on the board
+    private static final int MAX_EXCHANGE = 32;
+
+    /**
+     * work out the material a move wins for its player
+     * @param board the board the move is made on
+     * @param move a capture or promotion of the next mover
+     * @return the material won, negative if the move loses material
+     */
+    public static int evaluate(Board board, Move move) {
+        Piece[] pieces = new Piece[BoardUtils.NUM_TILES];
+        boolean[] occupied = new boolean[BoardUtils.NUM_TILES];
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            pieces[i] = board.getTile(i).getPiece();
+            occupied[i] = pieces[i] != null;
+        }
+
+        int target = move.getEndPosition();
+        int[] gain = new int[MAX_EXCHANGE + 1];
+        int attackerValue = move.getPiece().getPieceValue();
+        if (move.isAttack()) {
+            Piece attacked = ((Move.AttackMove) move).getAttackedPiece();
+            gain[0] = attacked.getPieceValue();
+            // en passant takes a pawn off another tile
+            occupied[attacked.getPosition()] = false;
+        }
+        if (MoveNotation.isPromotion(move)) {
+            gain[0] += PieceType.QUEEN.getPieceValue() - PieceType.PAWN.getPieceValue();
+            attackerValue = PieceType.QUEEN.getPieceValue();
+        }
+        occupied[move.getStartPosition()] = false;
+        occupied[target] = true;
+
+        Alliance side = move.getAlliance().getOpponentAlliance();
+        int depth = 0;
+        while (depth < MAX_EXCHANGE) {
+            int attacker = findCheapestAttacker(pieces, occupied, target, side);
+            if (attacker < 0) {
+                break;
+            }
+            // the king can only take if nothing can take it back
+            if (pieces[attacker].getPieceType() == PieceType.KING
+                    && findCheapestAttacker(pieces, removed(occupied, attacker), target,
+                    side.getOpponentAlliance()) >= 0) {
+                break;
+            }
+            depth++;
+            gain[depth] = attackerValue - gain[depth - 1];
+            attackerValue = pieces[attacker].getPieceValue();
+            occupied[attacker] = false;
+            side = side.getOpponentAlliance();
+        }
+
+        // each player stops capturing when it would lose by going on
+        while (depth > 0) {
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+            depth--;
+        }
+        return gain[0];
+    }
+
+    /**
+     * find the cheapest piece of a player that attacks a tile
+     * @param pieces the pieces of the board by coordinate
+     * @param occupied the tiles that still have a piece on them
+     * @param target the coordinate of the tile
+     * @param alliance the player
+     * @return the coordinate of the piece, -1 if nothing attacks the tile
+     */
+    private static int findCheapestAttacker(Piece[] pieces, boolean[] occupied, int target, Alliance alliance) {
+        int cheapest = -1;
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            if (i == target || !occupied[i] || pieces[i] == null || pieces[i].getAlliance() != alliance) {
+                continue;
+            }
+            if ((cheapest < 0 || pieces[i].getPieceValue() < pieces[cheapest].getPieceValue())
+                    && attacks(pieces[i], i, target, occupied)) {
+                cheapest = i;
+            }
+        }
+        return cheapest;
+    }
+
+    /**
+     * does a piece attack a tile
+     * @param piece the piece
+     * @param from the coordinate of the piece
+     * @param target the coordinate of the tile
+     * @param occupied the tiles that still have a piece on them
+     * @return true if the piece could capture on the tile, false otherwise
+     */
+    private static boolean attacks(Piece piece, int from, int target, boolean[] occupied) {
+        int rowChange = target / BoardUtils.NUM_ROWS - from / BoardUtils.NUM_ROWS;
+        int columnChange = target % BoardUtils.NUM_COLS - from % BoardUtils.NUM_COLS;
+        int rows = Math.abs(rowChange);
+        int columns = Math.abs(columnChange);
+        switch (piece.getPieceType()) {
+            case PAWN:
+                return rowChange == piece.getAlliance().getDirection() && columns == 1;
+            case KNIGHT:
+                return (rows == 1 && columns == 2) || (rows == 2 && columns == 1);
+            case KING:
+                return Math.max(rows, columns) == 1;
+            case BISHOP:
+                return rows == columns && isClear(from, target, rowChange, columnChange, occupied);
+            case ROOK:
+                return (rows == 0 || columns == 0) && isClear(from, target, rowChange, columnChange, occupied);
+            case QUEEN:
+                return (rows == columns || rows == 0 || columns == 0)
+                        && isClear(from, target, rowChange, columnChange, occupied);
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * are the tiles between two tiles on a line empty
+     * @param from the coordinate of the first tile
+     * @param target the coordinate of the second tile
+     * @param rowChange the rows from the first tile to the second
+     * @param columnChange the columns from the first tile to the second
+     * @param occupied the tiles that still have a piece on them
+     * @return true if nothing stands between the tiles, false otherwise
+     */
+    private static boolean isClear(int from, int target, int rowChange, int columnChange, boolean[] occupied) {
+        int step = Integer.signum(rowChange) * BoardUtils.NUM_COLS + Integer.signum(columnChange);
+        for (int i = from + step; i != target; i += step) {
+            if (occupied[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * copy the occupied tiles without one of them
+     * @param occupied the tiles that have a piece on them
+     * @param coordinate the tile to empty
+     * @return the copy
+     */
+    private static boolean[] removed(boolean[] occupied, int coordinate) {
+        boolean[] copy = occupied.clone();
+        copy[coordinate] = false;
+        return copy;
+    }
+}
@@ -0,0 +1,163 @@
+package com.chess.engine.search;
+
+/**
+ * the TimeManager class
+ * decides how long a search may run and tells it when to stop. A move in a game with a clock gets a share of the
+ * time left plus most of the increment, and the search doesn't start a depth after that time. If the best move keeps
+ * changing between depths the share grows, up to a hard limit the search never goes past. The clock is only read
+ * every few boards, so the limits cost almost nothing to check. A node limit stops the search on the same board
+ * every time, for benchmarks that have to give the same answer however loaded the machine is. The node and depth
+ * limits count from the first board and depth the time manager is asked about, so a ponder search that is handed a
+ * new time manager on a ponder hit gets its full limits from then on
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public class TimeManager {
+
+    // the clock is read once every this many boards, a power of two
+    static final int CHECK_INTERVAL = 128;
+    // the time kept back from the clock for sending the move, in milliseconds
+    static final long MOVE_OVERHEAD = 30;
+    // the moves the time left is shared between when the clock doesn't say
+    static final int DEFAULT_MOVES_TO_GO = 30;
+    // the hard limit is at most this many times the share of the time
+    private static final int HARD_LIMIT_RATIO = 4;
+    // the most the share of the time grows when the best move keeps changing
+    private static final double MAX_EXTENSION = 2.0;
+
+    // when the search started, from System.nanoTime
+    private final long startNanos;
+    // the time after which no depth is started, in nanoseconds from the start, 0 for no limit
+    private final long softLimitNanos;
+    // the time the search stops, in nanoseconds from the start, 0 for no limit
+    private final long hardLimitNanos;
+    // the most boards the search looks at, 0 for no limit
+    private final long nodeLimit;
+    // the deepest the search goes, counted in depths finished since the start
+    private final int maxDepth;
+    // the boards searched before the start, -1 until the first board is counted
+    private long startNodes;
+    // the first depth finished since the start, 0 until one finishes
+    private int firstDepth;
+    // how much the soft limit has grown because the best move changed
+    private double extension;
+
+    /**
+     * start timing a search
+     * @param limits the limits of the search
+     */
+    public TimeManager(SearchLimits limits) {
+        this.startNanos = System.nanoTime();
+        this.nodeLimit = limits.getNodeLimit();
+        this.maxDepth = limits.getMaxDepth();
+        this.startNodes = -1;
+        this.extension = 1.0;
+        long softMillis = 0;
+        long hardMillis = 0;
+        if (limits.getMoveTimeMillis() > 0) {
+            softMillis = limits.getMoveTimeMillis();
+            hardMillis = limits.getMoveTimeMillis();
+        }
+        else if (limits.getRemainingMillis() > 0) {
+            long available = Math.max(1, limits.getRemainingMillis() - MOVE_OVERHEAD);
+            int movesToGo = limits.getMovesToGo() > 0 ? limits.getMovesToGo() : DEFAULT_MOVES_TO_GO;
+            // never plan on more than three quarters of the clock, the increment only comes after the move
+            hardMillis = Math.max(1, Math.min(available * 3 / 4,
+                    HARD_LIMIT_RATIO * (available / movesToGo + limits.getIncrementMillis())));
+            softMillis = Math.max(1, Math.min(hardMillis,
+                    available / movesToGo + limits.getIncrementMillis() * 3 / 4));
+        }
+        this.softLimitNanos = softMillis * 1000000;
+        this.hardLimitNanos = hardMillis * 1000000;
+    }
+
+    /**
+     * should the search stop now. Called for every board, it only compares the boards with the node limit, and
+     * reads the clock every CHECK_INTERVAL boards
+     * @param nodes the boards searched so far, counting this one
+     * @return true if the search has to stop, false otherwise
+     */
+    public boolean isOutOfTime(long nodes) {
+        if (this.nodeLimit > 0) {
+            if (this.startNodes < 0) {
+                this.startNodes = nodes - 1;
+            }
+            if (nodes - this.startNodes >= this.nodeLimit) {
+                return true;
+            }
+        }
+        if (this.hardLimitNanos == 0 || (nodes & (CHECK_INTERVAL - 1)) != 0) {
+            return false;
+        }
+        return System.nanoTime() - this.startNanos >= this.hardLimitNanos;
+    }
+
+    /**
+     * has the hard limit passed, reading the clock every time. For searches whose steps are slow enough that
+     * reading the clock costs nothing next to them
+     * @return true if the search has to stop, false otherwise
+     */
+    public boolean isHardLimitReached() {
+        return this.hardLimitNanos != 0 && System.nanoTime() - this.startNanos >= this.hardLimitNanos;
+    }
+
+    /**
+     * has the search gone as deep as it may
+     * @param depth the depth that just finished
+     * @return true if no deeper depth is searched, false otherwise
+     */
+    public boolean isDepthLimitReached(int depth) {
+        if (this.firstDepth == 0) {
+            this.firstDepth = depth;
+        }
+        return depth - this.firstDepth + 1 >= this.maxDepth;
+    }
+
+    /**
+     * is there time to start another depth
+     * @return true if the share of the time isn't used up, false otherwise
+     */
+    public boolean canStartDepth() {
+        return this.softLimitNanos == 0
+                || System.nanoTime() - this.startNanos < Math.min(this.hardLimitNanos,
+                (long) (this.softLimitNanos * this.extension));
+    }
+
+    /**
+     * tell the time manager a depth finished. A new best move means the search isn't sure yet, so it gets more time,
+     * and the extra time shrinks again while the best move stays the same
+     * @param bestMoveChanged did the depth find a different best move to the depth before
+     */
+    public void depthComplete(boolean bestMoveChanged) {
+        if (bestMoveChanged) {
+            this.extension = Math.min(MAX_EXTENSION, this.extension + 0.5);
+        }
+        else {
+            this.extension = Math.max(1.0, this.extension - 0.25);
+        }
+    }
+
+    /**
+     * get the time since the search started
+     * @return the time in milliseconds
+     */
+    public long getElapsedMillis() {
+        return (System.nanoTime() - this.startNanos) / 1000000;
+    }
+
+    /**
+     * get the time after which no depth is started, before any extension
+     * @return the time in milliseconds, 0 for no limit
+     */
+    public long getSoftLimitMillis() {
+        return this.softLimitNanos / 1000000;
+    }
+
+    /**
+     * get the time the search stops
+     * @return the time in milliseconds, 0 for no limit
+     */
+    public long getHardLimitMillis() {
+        return this.hardLimitNanos / 1000000;
+    }
+}
@@ -0,0 +1,206 @@
+package com.chess.engine.search;
+
+/**
+ * the TranspositionTable class
+ * remembers the result of searching a board by its zobrist key, so a board reached by a different order of moves is
+ * not searched again. The best move is kept as its start and end coordinate, so the table holds on to no boards
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public class TranspositionTable {
+
+    // the score is exact
+    public static final int EXACT = 0;
+    // the score is at least this high, the search failed high
+    public static final int LOWER_BOUND = 1;
+    // the score is at most this high, the search failed low
+    public static final int UPPER_BOUND = 2;
+
+    // the entries, indexed by the low bits of the key
+    private final Entry[] entries;
+    // the mask for the low bits of the key
+    private final int mask;
+
+    // the number of lookups, and how many of them found their board, since the statistics were last reset
+    private long probes;
+    private long hits;
+
+    /**
+     * the constructor
+     * @param sizeBits the table holds 2^sizeBits entries
+     */
+    public TranspositionTable(int sizeBits) {
+        this.entries = new Entry[1 << sizeBits];
+        this.mask = (1 << sizeBits) - 1;
+    }
+
+    /**
+     * look up a board
+     * @param key the zobrist key of the board
+     * @return the entry for the board, null if the board isn't in the table
+     */
+    public Entry probe(long key) {
+        this.probes++;
+        Entry entry = this.entries[(int) key & this.mask];
+        if (entry != null && entry.key == key) {
+            this.hits++;
+            return entry;
+        }
+        return null;
+    }
+
+    /**
+     * store the result of a search, replacing whatever was in the slot unless it was a deeper search of the same
+     * board
+     * @param key the zobrist key of the board
+     * @param depth the depth of the search
+     * @param score the score for the next mover
+     * @param bound EXACT, LOWER_BOUND or UPPER_BOUND
+     * @param startPosition the start of the best move, -1 if there is none
+     * @param endPosition the end of the best move, -1 if there is none
+     * @param ply the distance of the board from the root, used to store mate scores relative to the board
+     */
+    public void store(long key, int depth, int score, int bound, int startPosition, int endPosition, int ply) {
+        int index = (int) key & this.mask;
+        Entry old = this.entries[index];
+        if (old != null && old.key == key && old.depth > depth && bound != EXACT) {
+            return;
+        }
+        this.entries[index] = new Entry(key, depth, toTableScore(score, ply), bound, startPosition, endPosition);
+    }
+
+    /**
+     * get the share of lookups that found their board. When the table is kept from one position to the next, this
+     * shows how much of the earlier search was used again
+     * @return the hit rate, from 0 to 1
+     */
+    public double getHitRate() {
+        return this.probes == 0 ? 0 : (double) this.hits / this.probes;
+    }
+
+    /**
+     * get the number of lookups
+     * @return the number of lookups since the statistics were last reset
+     */
+    public long getProbes() {
+        return this.probes;
+    }
+
+    /**
+     * get the number of lookups that found their board
+     * @return the number of hits since the statistics were last reset
+     */
+    public long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * start counting lookups and hits again
+     */
+    public void resetStatistics() {
+        this.probes = 0;
+        this.hits = 0;
+    }
+
+    /**
+     * empty the table
+     */
+    public void clear() {
+        for (int i = 0; i < this.entries.length; i++) {
+            this.entries[i] = null;
+        }
+    }
+
+    /**
+     * mate scores count from the root, but in the table they count from the board itself
+     * @param score the score counted from the root
+     * @param ply the distance of the board from the root
+     * @return the score counted from the board
+     */
+    private static int toTableScore(int score, int ply) {
+        if (score >= AlphaBeta.MATE - AlphaBeta.MAX_PLY) {
+            return score + ply;
+        }
+        if (score <= -AlphaBeta.MATE + AlphaBeta.MAX_PLY) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    /**
+     * an entry in the table
+     */
+    public static class Entry {
+        private final long key;
+        private final int depth;
+        private final int score;
+        private final int bound;
+        private final int startPosition;
+        private final int endPosition;
+
+        /**
+         * the constructor
+         * @param key the zobrist key of the board
+         * @param depth the depth of the search
+         * @param score the score counted from the board
+         * @param bound EXACT, LOWER_BOUND or UPPER_BOUND
+         * @param startPosition the start of the best move
+         * @param endPosition the end of the best move
+         */
+        private Entry(long key, int depth, int score, int bound, int startPosition, int endPosition) {
+            this.key = key;
+            this.depth = depth;
+            this.score = score;
+            this.bound = bound;
+            this.startPosition = startPosition;
+            this.endPosition = endPosition;
+        }
+
+        /**
+         * get the depth of the search
+         * @return the depth
+         */
+        public int getDepth() {
+            return this.depth;
+        }
+
+        /**
+         * get the score, with mate scores counted from the root again
+         * @param ply the distance of the board from the root
+         * @return the score for the next mover
+         */
+        public int getScore(int ply) {
+            if (this.score >= AlphaBeta.MATE - AlphaBeta.MAX_PLY) {
+                return this.score - ply;
+            }
+            if (this.score <= -AlphaBeta.MATE + AlphaBeta.MAX_PLY) {
+                return this.score + ply;
+            }
+            return this.score;
+        }
+
+        /**
+         * get the kind of score
+         * @return EXACT, LOWER_BOUND or UPPER_BOUND
+         */
+        public int getBound() {
+            return this.bound;
+        }
+
+        /**
+         * get the start of the best move
+         * @return the start coordinate, -1 if there is no move
+         */
+        public int getStartPosition() {
+            return this.startPosition;
+        }
+
+        /**
+         * get the end of the best move
+         * @return the end coordinate, -1 if there is no move
+         */
+        public int getEndPosition() {
+            return this.endPosition;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.chess.engine.tablebase;
+
+/**
+ * the ProbeResult class
+ * holds the state of a probe while it searches through captures and probes several tables
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+class ProbeResult {
+    // the state of the probe
+    ProbeState state = ProbeState.OK;
+}
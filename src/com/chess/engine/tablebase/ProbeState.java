@@ -0,0 +1,25 @@
+package com.chess.engine.tablebase;
+
+/**
+ * the ProbeState enum type, the outcome of a single table lookup
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+enum ProbeState {
+    /**
+     * FAIL is used when the table is missing or can't be read
+     */
+    FAIL,
+    /**
+     * OK is used when the probe succeeded
+     */
+    OK,
+    /**
+     * CHANGE_STM is used when a dtz table only stores the other side to move, so the caller has to search one ply
+     */
+    CHANGE_STM,
+    /**
+     * ZEROING_BEST_MOVE is used when the best move is a capture or pawn move, so the table value can't be trusted
+     */
+    ZEROING_BEST_MOVE
+}
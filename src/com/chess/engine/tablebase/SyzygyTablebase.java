@@ -0,0 +1,382 @@
+package com.chess.engine.tablebase;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.move.Move;
+import com.chess.engine.move.MoveStatus;
+import com.chess.engine.move.MoveTransition;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.PieceType;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * the SyzygyTablebase class
+ * probes syzygy endgame tablebases for the win/draw/loss value (wdl) and the distance to zeroing the fifty move
+ * counter (dtz) of positions with few pieces. At startup the directory is only listed, every table file is memory
+ * mapped the first time a position with its material is probed
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public class SyzygyTablebase {
+    // the tables, by material key with either side as white
+    private final Map<String, TablebaseTable> wdlTables;
+    private final Map<String, TablebaseTable> dtzTables;
+
+    // the most pieces in any available table
+    private int maxCardinality;
+
+    /**
+     * find the tables in a directory, without reading them
+     * @param directory the directory holding the .rtbw and .rtbz files
+     */
+    public SyzygyTablebase(String directory) {
+        this.wdlTables = new HashMap<>();
+        this.dtzTables = new HashMap<>();
+        this.maxCardinality = 0;
+
+        File tableDirectory = new File(directory);
+        String[] fileNames = tableDirectory.list();
+        if (fileNames == null) {
+            return;
+        }
+
+        // only the wdl file is checked, a missing dtz file fails when it is first probed
+        for (String fileName : fileNames) {
+            if (!fileName.matches("K[QRBNP]*vK[QRBNP]*\\.rtbw")) {
+                continue;
+            }
+            String code = fileName.substring(0, fileName.length() - ".rtbw".length());
+            TablebaseTable wdlTable = new TablebaseTable(tableDirectory, code, false);
+            if (wdlTable.getPieceCount() > TablebaseUtils.MAX_PIECES) {
+                continue;
+            }
+            TablebaseTable dtzTable = new TablebaseTable(tableDirectory, code, true);
+            this.wdlTables.put(wdlTable.getKey(), wdlTable);
+            this.wdlTables.put(wdlTable.getKey2(), wdlTable);
+            this.dtzTables.put(dtzTable.getKey(), dtzTable);
+            this.dtzTables.put(dtzTable.getKey2(), dtzTable);
+            this.maxCardinality = Math.max(this.maxCardinality, wdlTable.getPieceCount());
+        }
+    }
+
+    /**
+     * get the most pieces in any available table
+     * @return the number of pieces in the biggest table, 0 if there are no tables
+     */
+    public int getMaxCardinality() {
+        return this.maxCardinality;
+    }
+
+    /**
+     * is the board small enough to be probed, with no castling left
+     * @param board the board to check
+     * @return true if the board can be probed, false otherwise
+     */
+    public boolean canProbe(Board board) {
+        return board.getAllPieces().size() <= this.maxCardinality && !hasCastlingRights(board);
+    }
+
+    /**
+     * probe the win/draw/loss value of a board
+     * @param board the board to probe
+     * @return the value for the side to move, or null if the board can't be probed
+     */
+    public WdlScore probeWdl(Board board) {
+        if (!canProbe(board)) {
+            return null;
+        }
+        ProbeResult result = new ProbeResult();
+        WdlScore score = search(board, result, false);
+        return result.state == ProbeState.FAIL ? null : score;
+    }
+
+    /**
+     * probe the distance to zeroing the fifty move counter of a board, in plies
+     * @param board the board to probe
+     * @return positive if the side to move wins, negative if it loses, 0 for a draw, or null if the board can't
+     * be probed. A value above 100 (or below -100) is a win (or loss) that the fifty move rule turns into a draw
+     */
+    public Integer probeDtz(Board board) {
+        if (!canProbe(board)) {
+            return null;
+        }
+        ProbeResult result = new ProbeResult();
+        int dtz = probeDtz(board, result);
+        return result.state == ProbeState.FAIL ? null : dtz;
+    }
+
+    /**
+     * pick the best move of a board from the tables: the fastest win, a draw, or the slowest loss
+     * @param board the board to pick a move for
+     * @return the best move, or null if the board can't be probed
+     */
+    public Move probeRoot(Board board) {
+        if (!canProbe(board)) {
+            return null;
+        }
+
+        Move bestMove = null;
+        int bestRank = Integer.MIN_VALUE;
+        for (MoveTransition transition : getLegalTransitions(board)) {
+            Board child = transition.getTransBoard();
+            Move move = transition.getMove();
+            ProbeResult result = new ProbeResult();
+            int dtz;
+
+            // after a capture or pawn move the dtz counts from the move itself
+            if (isZeroing(move)) {
+                dtz = dtzBeforeZeroing(search(child, result, false).negate());
+            }
+            else {
+                dtz = -probeDtz(child, result);
+                dtz = dtz > 0 ? dtz + 1 : dtz < 0 ? dtz - 1 : 0;
+            }
+            if (result.state == ProbeState.FAIL) {
+                return null;
+            }
+
+            // a mating move always has a dtz of 1
+            if (child.calculateIsPlayerInCheckmate(child.getCurrentPlayerAlliance())) {
+                dtz = 1;
+            }
+
+            int rank = rankDtz(dtz);
+            if (rank > bestRank) {
+                bestRank = rank;
+                bestMove = move;
+            }
+        }
+        return bestMove;
+    }
+
+    /**
+     * rank a dtz so that fast wins come first and slow losses come before fast ones
+     * @param dtz the dtz of a move, from the point of view of the mover
+     * @return the rank, higher is better
+     */
+    private static int rankDtz(int dtz) {
+        if (dtz > 100) {
+            return 1;
+        }
+        if (dtz > 0) {
+            return 1000 - dtz;
+        }
+        if (dtz < -100) {
+            return -1;
+        }
+        if (dtz < 0) {
+            return -1000 - dtz;
+        }
+        return 0;
+    }
+
+    /**
+     * find the wdl value of a board. Captures are searched first because the tables store a "don't care" value
+     * when the side to move has a winning capture
+     * @param board the board to search
+     * @param result the state of the probe
+     * @param checkZeroingMoves should pawn moves be searched along with captures
+     * @return the wdl value for the side to move
+     */
+    private WdlScore search(Board board, ProbeResult result, boolean checkZeroingMoves) {
+        WdlScore bestValue = WdlScore.LOSS;
+        WdlScore value;
+        List<MoveTransition> legalTransitions = getLegalTransitions(board);
+        int moveCount = 0;
+
+        for (MoveTransition transition : legalTransitions) {
+            Move move = transition.getMove();
+            if (!move.isAttack() && (!checkZeroingMoves || move.getPiece().getPieceType() != PieceType.PAWN)) {
+                continue;
+            }
+            moveCount++;
+
+            value = search(transition.getTransBoard(), result, false).negate();
+            if (result.state == ProbeState.FAIL) {
+                return WdlScore.DRAW;
+            }
+
+            if (value.compareTo(bestValue) > 0) {
+                bestValue = value;
+                if (value == WdlScore.WIN) {
+                    result.state = ProbeState.ZEROING_BEST_MOVE;
+                    return value;
+                }
+            }
+        }
+
+        // if every legal move was searched the table isn't needed, and it might be wrong (en passant isn't stored)
+        boolean noMoreMoves = moveCount > 0 && moveCount == legalTransitions.size();
+        if (noMoreMoves) {
+            value = bestValue;
+        }
+        else {
+            value = WdlScore.fromValue(probeTable(board, false, WdlScore.DRAW, result));
+            if (result.state == ProbeState.FAIL) {
+                return WdlScore.DRAW;
+            }
+        }
+
+        // the table stores a "don't care" value if a capture is at least as good
+        if (bestValue.compareTo(value) >= 0) {
+            result.state = bestValue.compareTo(WdlScore.DRAW) > 0 || noMoreMoves
+                    ? ProbeState.ZEROING_BEST_MOVE : ProbeState.OK;
+            return bestValue;
+        }
+        result.state = ProbeState.OK;
+        return value;
+    }
+
+    /**
+     * find the dtz of a board
+     * @param board the board to probe
+     * @param result the state of the probe
+     * @return the dtz in plies for the side to move
+     */
+    private int probeDtz(Board board, ProbeResult result) {
+        result.state = ProbeState.OK;
+        WdlScore wdl = search(board, result, true);
+
+        // dtz tables don't store draws
+        if (result.state == ProbeState.FAIL || wdl == WdlScore.DRAW) {
+            return 0;
+        }
+
+        // the best move is a capture or pawn move, so the dtz is known without the table
+        if (result.state == ProbeState.ZEROING_BEST_MOVE) {
+            return dtzBeforeZeroing(wdl);
+        }
+
+        int dtz = probeTable(board, true, wdl, result);
+        if (result.state == ProbeState.FAIL) {
+            return 0;
+        }
+        if (result.state != ProbeState.CHANGE_STM) {
+            boolean cursed = wdl == WdlScore.BLESSED_LOSS || wdl == WdlScore.CURSED_WIN;
+            return (dtz + (cursed ? 100 : 0)) * Integer.signum(wdl.getValue());
+        }
+
+        // the table only stores the other side to move, so search one ply for the move that minimizes the dtz
+        int minDtz = 0xFFFF;
+        for (MoveTransition transition : getLegalTransitions(board)) {
+            Board child = transition.getTransBoard();
+            boolean zeroing = isZeroing(transition.getMove());
+
+            dtz = zeroing ? -dtzBeforeZeroing(search(child, result, false)) : -probeDtz(child, result);
+
+            // a mating move has a dtz of 1
+            if (dtz == 1 && child.calculateIsPlayerInCheckmate(child.getCurrentPlayerAlliance())) {
+                minDtz = 1;
+            }
+            if (!zeroing) {
+                dtz += Integer.signum(dtz);
+            }
+            if (dtz < minDtz && Integer.signum(dtz) == Integer.signum(wdl.getValue())) {
+                minDtz = dtz;
+            }
+            if (result.state == ProbeState.FAIL) {
+                return 0;
+            }
+        }
+
+        // with no legal moves the side to move is mated
+        return minDtz == 0xFFFF ? -1 : minDtz;
+    }
+
+    /**
+     * look up a board in its table
+     * @param board the board to look up
+     * @param isDtz use the dtz table instead of the wdl table
+     * @param wdl the wdl score of the board, only used by dtz tables
+     * @param result the state of the probe
+     * @return the stored wdl value or dtz
+     */
+    private int probeTable(Board board, boolean isDtz, WdlScore wdl, ProbeResult result) {
+        TablebasePosition position = new TablebasePosition(board);
+        // two bare kings is always a draw
+        if (position.getPieceCount() == 2) {
+            return 0;
+        }
+
+        TablebaseTable table = (isDtz ? this.dtzTables : this.wdlTables).get(position.getMaterialKey());
+        if (table == null || !table.isMapped()) {
+            result.state = ProbeState.FAIL;
+            return 0;
+        }
+        return table.probe(position, wdl, result);
+    }
+
+    /**
+     * the dtz of a position right before a capture or pawn move with the given result
+     * @param wdl the wdl score after the move
+     * @return the dtz
+     */
+    private static int dtzBeforeZeroing(WdlScore wdl) {
+        switch (wdl) {
+            case WIN:
+                return 1;
+            case CURSED_WIN:
+                return 101;
+            case BLESSED_LOSS:
+                return -101;
+            case LOSS:
+                return -1;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * does a move reset the fifty move counter
+     * @param move the move
+     * @return true if the move is a capture or a pawn move, false otherwise
+     */
+    private static boolean isZeroing(Move move) {
+        return move.isAttack() || move.getPiece().getPieceType() == PieceType.PAWN;
+    }
+
+    /**
+     * get the legal moves of the side to move along with the boards they lead to
+     * @param board the board to get the moves for
+     * @return the transitions of every legal move
+     */
+    private static List<MoveTransition> getLegalTransitions(Board board) {
+        List<MoveTransition> transitions = new ArrayList<>();
+        for (Move move : board.getMovesByAlliance(board.getCurrentPlayerAlliance())) {
+            MoveTransition transition = board.makeMove(move);
+            if (transition.getStatus() == MoveStatus.DONE) {
+                transitions.add(transition);
+            }
+        }
+        return transitions;
+    }
+
+    /**
+     * the tables don't store castling, so a board where either side could still castle can't be probed
+     * @param board the board to check
+     * @return true if a king and a rook of the same alliance have both not moved, false otherwise
+     */
+    private static boolean hasCastlingRights(Board board) {
+        for (Alliance alliance : Alliance.values()) {
+            boolean kingUnmoved = false;
+            boolean rookUnmoved = false;
+            for (Piece piece : board.getPiecesByAlliance(alliance)) {
+                if (piece.getPieceType() == PieceType.KING && piece.isFirstMove()) {
+                    kingUnmoved = true;
+                }
+                else if (piece.getPieceType() == PieceType.ROOK && piece.isFirstMove()) {
+                    rookUnmoved = true;
+                }
+            }
+            if (kingUnmoved && rookUnmoved) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,114 @@
+package com.chess.engine.tablebase;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * the TablebaseFile class
+ * a read only memory mapping of a single .rtbw or .rtbz file. A MappedByteBuffer can only hold 2GB, so bigger files
+ * are mapped as several consecutive chunks, and every number is read byte by byte so it can cross a chunk boundary
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+class TablebaseFile {
+    // the size of a single mapped chunk
+    private static final int CHUNK_BITS = 30;
+    private static final long CHUNK_SIZE = 1L << CHUNK_BITS;
+
+    // the magic numbers at the start of every wdl and dtz file
+    private static final int[] WDL_MAGIC = {0x71, 0xE8, 0x23, 0x5D};
+    private static final int[] DTZ_MAGIC = {0xD7, 0x66, 0x0C, 0xA5};
+
+    // the mapped chunks of the file
+    private final MappedByteBuffer[] chunks;
+    // the size of the file in bytes
+    private final long size;
+
+    /**
+     * map the file read only, and make sure it starts with the right magic number
+     * @param file the file to map
+     * @param isDtz is the file a dtz file
+     * @throws IOException if the file can't be mapped, or is not a tablebase file
+     */
+    TablebaseFile(File file, boolean isDtz) throws IOException {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+             FileChannel channel = randomAccessFile.getChannel()) {
+            this.size = channel.size();
+            int numChunks = (int) ((this.size + CHUNK_SIZE - 1) / CHUNK_SIZE);
+            this.chunks = new MappedByteBuffer[numChunks];
+            for (int i = 0; i < numChunks; i++) {
+                long start = i * CHUNK_SIZE;
+                this.chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, start,
+                        Math.min(CHUNK_SIZE, this.size - start));
+            }
+        }
+
+        // the file must be at least as big as the magic number, and 16 byte aligned
+        int[] magic = isDtz ? DTZ_MAGIC : WDL_MAGIC;
+        if (this.size < magic.length || this.size % 64 != 16) {
+            throw new IOException("corrupted table in file " + file);
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if (getByte(i) != magic[i]) {
+                throw new IOException("corrupted table in file " + file);
+            }
+        }
+    }
+
+    /**
+     * read an unsigned byte
+     * @param offset the offset into the file
+     * @return the byte at the offset
+     */
+    int getByte(long offset) {
+        return this.chunks[(int) (offset >>> CHUNK_BITS)].get((int) (offset & (CHUNK_SIZE - 1))) & 0xFF;
+    }
+
+    /**
+     * read an unsigned little endian 16 bit number
+     * @param offset the offset into the file
+     * @return the number at the offset
+     */
+    int getShortLittleEndian(long offset) {
+        return getByte(offset) | getByte(offset + 1) << 8;
+    }
+
+    /**
+     * read an unsigned little endian 32 bit number
+     * @param offset the offset into the file
+     * @return the number at the offset
+     */
+    long getIntLittleEndian(long offset) {
+        return (long) getShortLittleEndian(offset) | (long) getShortLittleEndian(offset + 2) << 16;
+    }
+
+    /**
+     * read an unsigned big endian 32 bit number
+     * @param offset the offset into the file
+     * @return the number at the offset
+     */
+    long getIntBigEndian(long offset) {
+        return (long) getByte(offset) << 24 | getByte(offset + 1) << 16
+                | getByte(offset + 2) << 8 | getByte(offset + 3);
+    }
+
+    /**
+     * read a big endian 64 bit number
+     * @param offset the offset into the file
+     * @return the number at the offset
+     */
+    long getLongBigEndian(long offset) {
+        return getIntBigEndian(offset) << 32 | getIntBigEndian(offset + 4);
+    }
+
+    /**
+     * get the size of the file
+     * @return the size of the file in bytes
+     */
+    long getSize() {
+        return this.size;
+    }
+}
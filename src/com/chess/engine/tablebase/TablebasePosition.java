@@ -0,0 +1,87 @@
+package com.chess.engine.tablebase;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.pieces.Piece;
+
+/**
+ * the TablebasePosition class
+ * a snapshot of a board in the form the tables need: a piece code for each tablebase square, the side to move, and
+ * the material key (for example "KRvK", with the white pieces first)
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+class TablebasePosition {
+    // the piece code on every tablebase square, 0 if empty
+    private final int[] pieceCodes;
+    // is it white's turn
+    private final boolean whiteToMove;
+    // the number of pieces on the board
+    private final int pieceCount;
+    // the material key, white pieces first
+    private final String materialKey;
+
+    /**
+     * create the snapshot
+     * @param board the board to take the snapshot of
+     */
+    TablebasePosition(Board board) {
+        this.pieceCodes = new int[64];
+        int[][] counts = new int[2][TablebaseUtils.KING + 1];
+        for (Piece piece : board.getAllPieces()) {
+            int code = TablebaseUtils.pieceCode(piece);
+            this.pieceCodes[TablebaseUtils.toTablebaseSquare(piece.getPosition())] = code;
+            counts[piece.getAlliance().isBlack() ? 1 : 0][code & ~TablebaseUtils.COLOR_BIT]++;
+        }
+        this.whiteToMove = board.getCurrentPlayerAlliance().isWhite();
+        this.pieceCount = board.getAllPieces().size();
+        this.materialKey = materialString(counts[0]) + "v" + materialString(counts[1]);
+    }
+
+    /**
+     * turn the piece counts of one side into a string, strongest piece first
+     * @param counts the count of each piece type
+     * @return the material string, like "KRP"
+     */
+    private static String materialString(int[] counts) {
+        StringBuilder builder = new StringBuilder();
+        for (int type = TablebaseUtils.KING; type >= TablebaseUtils.PAWN; type--) {
+            for (int i = 0; i < counts[type]; i++) {
+                builder.append(TablebaseUtils.PIECE_CHARS.charAt(type));
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * get the piece code on a square
+     * @param square the tablebase square
+     * @return the piece code, 0 if the square is empty
+     */
+    int getPieceCode(int square) {
+        return this.pieceCodes[square];
+    }
+
+    /**
+     * is it white's turn
+     * @return true if white is to move, false otherwise
+     */
+    boolean isWhiteToMove() {
+        return this.whiteToMove;
+    }
+
+    /**
+     * get the number of pieces
+     * @return the number of pieces on the board
+     */
+    int getPieceCount() {
+        return this.pieceCount;
+    }
+
+    /**
+     * get the material key
+     * @return the material key, white pieces first
+     */
+    String getMaterialKey() {
+        return this.materialKey;
+    }
+}
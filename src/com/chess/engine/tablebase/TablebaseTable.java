@@ -0,0 +1,777 @@
+package com.chess.engine.tablebase;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * the TablebaseTable class
+ * one wdl or dtz table, like KRvK. At startup only the material of the table is known, the file is memory mapped and
+ * its indexing information is read the first time the table is probed
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+class TablebaseTable {
+
+    // the flags stored for every PairsData
+    private static final int STM = 1;
+    private static final int MAPPED = 2;
+    private static final int WIN_PLIES = 4;
+    private static final int LOSS_PLIES = 8;
+    private static final int WIDE = 16;
+    private static final int SINGLE_VALUE = 128;
+
+    // maps a wdl score to the dtz map it uses
+    private static final int[] WDL_MAP = {1, 3, 0, 2, 0};
+
+    // the file of the table
+    private final File path;
+    // is it a dtz table
+    private final boolean isDtz;
+
+    // the material key with the stronger side as white, and as black
+    private final String key;
+    private final String key2;
+
+    // information about the material of the table
+    private final int pieceCount;
+    private final boolean hasPawns;
+    private boolean hasUniquePieces;
+    // the number of pawns of the leading side, and of the other side
+    private final int[] pawnCount;
+
+    // has the file been mapped yet, and the mapped file (null if mapping failed)
+    private volatile boolean ready;
+    private TablebaseFile file;
+
+    // the indexing information, by side to move and by file of the leading pawn
+    private final PairsData[][] items;
+    // the offset of the dtz map
+    private long map;
+
+    /**
+     * the constructor, nothing is read from disk here
+     * @param directory the directory of the table files
+     * @param code the material of the table, like "KRvK"
+     * @param isDtz is it a dtz table
+     */
+    TablebaseTable(File directory, String code, boolean isDtz) {
+        this.path = new File(directory, code + (isDtz ? ".rtbz" : ".rtbw"));
+        this.isDtz = isDtz;
+
+        String[] sides = code.split("v");
+        this.key = sides[0] + "v" + sides[1];
+        this.key2 = sides[1] + "v" + sides[0];
+        this.pieceCount = sides[0].length() + sides[1].length();
+
+        int whitePawns = countPawns(sides[0]);
+        int blackPawns = countPawns(sides[1]);
+        this.hasPawns = whitePawns + blackPawns > 0;
+
+        // a piece is unique if it is the only one of its type and color, not counting the kings
+        this.hasUniquePieces = false;
+        for (String side : sides) {
+            for (int type = TablebaseUtils.PAWN; type < TablebaseUtils.KING; type++) {
+                char pieceChar = TablebaseUtils.PIECE_CHARS.charAt(type);
+                if (side.indexOf(pieceChar) >= 0 && side.indexOf(pieceChar) == side.lastIndexOf(pieceChar)) {
+                    this.hasUniquePieces = true;
+                }
+            }
+        }
+
+        // the leading side is the one with fewer pawns, it compresses better
+        boolean whiteLeads = blackPawns == 0 || (whitePawns > 0 && blackPawns >= whitePawns);
+        this.pawnCount = new int[] {whiteLeads ? whitePawns : blackPawns, whiteLeads ? blackPawns : whitePawns};
+
+        this.items = new PairsData[isDtz ? 1 : 2][4];
+    }
+
+    /**
+     * count the pawns in one side of a material key
+     * @param side the side, like "KRP"
+     * @return the number of pawns
+     */
+    private static int countPawns(String side) {
+        int count = 0;
+        for (char c : side.toCharArray()) {
+            if (c == 'P') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * get the material key with the stronger side as white
+     * @return the material key
+     */
+    String getKey() {
+        return this.key;
+    }
+
+    /**
+     * get the material key with the stronger side as black
+     * @return the material key
+     */
+    String getKey2() {
+        return this.key2;
+    }
+
+    /**
+     * get the number of pieces in the table
+     * @return the number of pieces
+     */
+    int getPieceCount() {
+        return this.pieceCount;
+    }
+
+    /**
+     * map the file the first time the table is used, only one thread does the work. A file that can't be used is
+     * reported once, in one line, and the table is never tried again
+     * @return true if the file is mapped, false if it is missing or corrupted
+     */
+    boolean isMapped() {
+        if (!this.ready) {
+            synchronized (this) {
+                if (!this.ready) {
+                    try {
+                        this.file = new TablebaseFile(this.path, this.isDtz);
+                        initialize();
+                    } catch (IOException | RuntimeException e) {
+                        System.err.println("can't use the tablebase file " + this.path.getName() + ": "
+                                + e.getMessage());
+                        this.file = null;
+                    }
+                    this.ready = true;
+                }
+            }
+        }
+        return this.file != null;
+    }
+
+    /**
+     * get the PairsData for a side to move and leading pawn file
+     * @param stm 0 if white is to move, 1 if black is
+     * @param tbFile the file of the leading pawn
+     * @return the PairsData
+     */
+    private PairsData get(int stm, int tbFile) {
+        return this.items[stm % this.items.length][this.hasPawns ? tbFile : 0];
+    }
+
+    /**
+     * read the indexing information from the file
+     */
+    private void initialize() {
+        // skip the magic number, and the flags byte
+        long offset = 5;
+
+        int sides = !this.isDtz && !this.key.equals(this.key2) ? 2 : 1;
+        int maxFile = this.hasPawns ? 3 : 0;
+        // are there pawns on both sides
+        boolean pp = this.hasPawns && this.pawnCount[1] > 0;
+
+        for (int f = 0; f <= maxFile; f++) {
+            for (int i = 0; i < sides; i++) {
+                this.items[i][f] = new PairsData();
+            }
+
+            int first = this.file.getByte(offset);
+            int second = pp ? this.file.getByte(offset + 1) : 0;
+            int[][] order = {{first & 0xF, pp ? second & 0xF : 0xF}, {first >> 4, pp ? second >> 4 : 0xF}};
+            offset += pp ? 2 : 1;
+
+            for (int k = 0; k < this.pieceCount; k++, offset++) {
+                int pieces = this.file.getByte(offset);
+                for (int i = 0; i < sides; i++) {
+                    this.items[i][f].pieces[k] = i != 0 ? pieces >> 4 : pieces & 0xF;
+                }
+            }
+
+            for (int i = 0; i < sides; i++) {
+                setGroups(this.items[i][f], order[i], f);
+            }
+        }
+        offset += offset & 1;
+
+        for (int f = 0; f <= maxFile; f++) {
+            for (int i = 0; i < sides; i++) {
+                offset = setSizes(this.items[i][f], offset);
+            }
+        }
+
+        if (this.isDtz) {
+            offset = setDtzMap(offset, maxFile);
+        }
+
+        for (int f = 0; f <= maxFile; f++) {
+            for (int i = 0; i < sides; i++) {
+                this.items[i][f].sparseIndex = offset;
+                offset += this.items[i][f].sparseIndexSize * 6;
+            }
+        }
+
+        for (int f = 0; f <= maxFile; f++) {
+            for (int i = 0; i < sides; i++) {
+                this.items[i][f].blockLength = offset;
+                offset += this.items[i][f].blockLengthSize * 2;
+            }
+        }
+
+        for (int f = 0; f <= maxFile; f++) {
+            for (int i = 0; i < sides; i++) {
+                // the compressed data is 64 byte aligned
+                offset = (offset + 0x3F) & ~0x3F;
+                this.items[i][f].data = offset;
+                offset += this.items[i][f].numBlocks * this.items[i][f].sizeofBlock;
+            }
+        }
+    }
+
+    /**
+     * group together the pieces that are encoded together, and find the index multiplier of each group
+     * @param d the PairsData to fill in
+     * @param order the order the groups are encoded in
+     * @param tbFile the file of the leading pawn
+     */
+    private void setGroups(PairsData d, int[] order, int tbFile) {
+        int n = 0;
+        int firstLength = this.hasPawns ? 0 : this.hasUniquePieces ? 3 : 2;
+        d.groupLength[n] = 1;
+
+        // pieces of the same type and color form a group, except for the leading group
+        for (int i = 1; i < this.pieceCount; i++) {
+            if (--firstLength > 0 || d.pieces[i] == d.pieces[i - 1]) {
+                d.groupLength[n]++;
+            }
+            else {
+                d.groupLength[++n] = 1;
+            }
+        }
+        d.groupLength[++n] = 0;
+
+        boolean pp = this.hasPawns && this.pawnCount[1] > 0;
+        int next = pp ? 2 : 1;
+        int freeSquares = 64 - d.groupLength[0] - (pp ? d.groupLength[1] : 0);
+        long index = 1;
+
+        for (int k = 0; next < n || k == order[0] || k == order[1]; k++) {
+            // the leading pawns or pieces
+            if (k == order[0]) {
+                d.groupIndex[0] = index;
+                index *= this.hasPawns ? TablebaseUtils.LEAD_PAWNS_SIZE[d.groupLength[0]][tbFile]
+                        : this.hasUniquePieces ? 31332 : 462;
+            }
+            // the remaining pawns
+            else if (k == order[1]) {
+                d.groupIndex[1] = index;
+                index *= TablebaseUtils.BINOMIAL[d.groupLength[1]][48 - d.groupLength[0]];
+            }
+            // the remaining pieces
+            else {
+                d.groupIndex[next] = index;
+                index *= TablebaseUtils.BINOMIAL[d.groupLength[next]][freeSquares];
+                freeSquares -= d.groupLength[next++];
+            }
+        }
+        d.groupIndex[n] = index;
+    }
+
+    /**
+     * read the block sizes and the huffman code of a PairsData
+     * @param d the PairsData to fill in
+     * @param offset the offset of the information in the file
+     * @return the offset just past the information
+     */
+    private long setSizes(PairsData d, long offset) {
+        d.flags = this.file.getByte(offset++);
+
+        // every position has the same value, it is stored in place of the minimum symbol length
+        if ((d.flags & SINGLE_VALUE) != 0) {
+            d.minSymLength = this.file.getByte(offset++);
+            return offset;
+        }
+
+        int groups = 0;
+        while (d.groupLength[groups] != 0) {
+            groups++;
+        }
+        long tableSize = d.groupIndex[groups];
+
+        d.sizeofBlock = 1L << this.file.getByte(offset++);
+        d.span = 1L << this.file.getByte(offset++);
+        d.sparseIndexSize = (tableSize + d.span - 1) / d.span;
+        int padding = this.file.getByte(offset++);
+        d.numBlocks = this.file.getIntLittleEndian(offset);
+        offset += 4;
+        d.blockLengthSize = d.numBlocks + padding;
+        d.maxSymLength = this.file.getByte(offset++);
+        d.minSymLength = this.file.getByte(offset++);
+        d.lowestSym = offset;
+
+        // base64[i] is the lowest symbol of length i + minSymLength, padded to 64 bits
+        d.base64 = new long[d.maxSymLength - d.minSymLength + 1];
+        for (int i = d.base64.length - 2; i >= 0; i--) {
+            d.base64[i] = (d.base64[i + 1] + this.file.getShortLittleEndian(d.lowestSym + 2L * i)
+                    - this.file.getShortLittleEndian(d.lowestSym + 2L * (i + 1))) / 2;
+        }
+        for (int i = 0; i < d.base64.length; i++) {
+            d.base64[i] <<= 64 - i - d.minSymLength;
+        }
+        offset += d.base64.length * 2L;
+
+        // every symbol expands to a pair of symbols, find how many values each symbol stands for
+        int symbols = this.file.getShortLittleEndian(offset);
+        offset += 2;
+        d.btree = offset;
+        d.symLength = new int[symbols];
+        boolean[] visited = new boolean[symbols];
+        for (int sym = 0; sym < symbols; sym++) {
+            if (!visited[sym]) {
+                d.symLength[sym] = setSymLength(d, sym, visited);
+            }
+        }
+
+        return offset + symbols * 3L + (symbols & 1);
+    }
+
+    /**
+     * find the number of values (minus one) a symbol stands for
+     * @param d the PairsData
+     * @param sym the symbol
+     * @param visited the symbols that are already done
+     * @return the number of values the symbol stands for, minus one
+     */
+    private int setSymLength(PairsData d, int sym, boolean[] visited) {
+        visited[sym] = true;
+        int right = getRight(d, sym);
+        if (right == 0xFFF) {
+            return 0;
+        }
+
+        int left = getLeft(d, sym);
+        if (!visited[left]) {
+            d.symLength[left] = setSymLength(d, left, visited);
+        }
+        if (!visited[right]) {
+            d.symLength[right] = setSymLength(d, right, visited);
+        }
+        return d.symLength[left] + d.symLength[right] + 1;
+    }
+
+    /**
+     * get the left symbol a symbol expands to, or the value if the symbol is a leaf
+     * @param d the PairsData
+     * @param sym the symbol
+     * @return the left symbol
+     */
+    private int getLeft(PairsData d, int sym) {
+        long entry = d.btree + 3L * sym;
+        return (this.file.getByte(entry + 1) & 0xF) << 8 | this.file.getByte(entry);
+    }
+
+    /**
+     * get the right symbol a symbol expands to
+     * @param d the PairsData
+     * @param sym the symbol
+     * @return the right symbol, 0xFFF if the symbol is a leaf
+     */
+    private int getRight(PairsData d, int sym) {
+        long entry = d.btree + 3L * sym;
+        return this.file.getByte(entry + 2) << 4 | this.file.getByte(entry + 1) >> 4;
+    }
+
+    /**
+     * read the maps that turn a stored dtz value back into a real one
+     * @param offset the offset of the maps
+     * @param maxFile the last leading pawn file
+     * @return the offset just past the maps
+     */
+    private long setDtzMap(long offset, int maxFile) {
+        this.map = offset;
+        for (int f = 0; f <= maxFile; f++) {
+            PairsData d = get(0, f);
+            if ((d.flags & MAPPED) != 0) {
+                if ((d.flags & WIDE) != 0) {
+                    offset += offset & 1;
+                    for (int i = 0; i < 4; i++) {
+                        d.mapIndex[i] = (int) ((offset - this.map) / 2 + 1);
+                        offset += 2L * this.file.getShortLittleEndian(offset) + 2;
+                    }
+                }
+                else {
+                    for (int i = 0; i < 4; i++) {
+                        d.mapIndex[i] = (int) (offset - this.map + 1);
+                        offset += this.file.getByte(offset) + 1;
+                    }
+                }
+            }
+        }
+        return offset + (offset & 1);
+    }
+
+    /**
+     * look up a position in the table
+     * @param position the position to look up
+     * @param wdl the wdl score of the position, only used by dtz tables
+     * @param result set to CHANGE_STM if a dtz table doesn't store this side to move
+     * @return the wdl value (-2 to 2) or the dtz in plies
+     */
+    int probe(TablebasePosition position, WdlScore wdl, ProbeResult result) {
+        int[] squares = new int[TablebaseUtils.MAX_PIECES];
+        int[] pieces = new int[TablebaseUtils.MAX_PIECES];
+        int size = 0;
+        int leadPawnsCount = 0;
+        long leadPawns = 0;
+        int tbFile = 0;
+
+        // tables with the same material on both sides only store white to move, and every table stores the
+        // stronger side as white, so in those cases swap the colors and flip the board
+        boolean symmetricBlackToMove = this.key.equals(this.key2) && !position.isWhiteToMove();
+        boolean blackStronger = !position.getMaterialKey().equals(this.key);
+        boolean flip = symmetricBlackToMove || blackStronger;
+        int flipColor = flip ? TablebaseUtils.COLOR_BIT : 0;
+        int flipSquares = flip ? 56 : 0;
+        int stm = (flip ? 1 : 0) ^ (position.isWhiteToMove() ? 0 : 1);
+
+        // with pawns there are 4 tables, one for each file a to d of the leading pawn
+        if (this.hasPawns) {
+            int pawn = get(0, 0).pieces[0] ^ flipColor;
+            for (int s = 0; s < 64; s++) {
+                if (position.getPieceCode(s) == pawn) {
+                    squares[size++] = s ^ flipSquares;
+                    leadPawns |= 1L << s;
+                }
+            }
+            leadPawnsCount = size;
+
+            int lead = 0;
+            for (int i = 1; i < leadPawnsCount; i++) {
+                if (TablebaseUtils.MAP_PAWNS[squares[i]] > TablebaseUtils.MAP_PAWNS[squares[lead]]) {
+                    lead = i;
+                }
+            }
+            swap(squares, 0, lead);
+            tbFile = Math.min(TablebaseUtils.fileOf(squares[0]), 7 - TablebaseUtils.fileOf(squares[0]));
+        }
+
+        // dtz tables only store one side to move
+        if (this.isDtz && !checkDtzStm(stm, tbFile)) {
+            result.state = ProbeState.CHANGE_STM;
+            return 0;
+        }
+
+        for (int s = 0; s < 64; s++) {
+            if (position.getPieceCode(s) != 0 && (leadPawns & (1L << s)) == 0) {
+                squares[size] = s ^ flipSquares;
+                pieces[size++] = position.getPieceCode(s) ^ flipColor;
+            }
+        }
+
+        PairsData d = get(stm, tbFile);
+
+        // put the pieces in the same order as the table
+        for (int i = leadPawnsCount; i < size - 1; i++) {
+            for (int j = i + 1; j < size; j++) {
+                if (d.pieces[i] == pieces[j]) {
+                    swap(pieces, i, j);
+                    swap(squares, i, j);
+                    break;
+                }
+            }
+        }
+
+        // mirror the board so the leading piece is on the a to d files
+        if (TablebaseUtils.fileOf(squares[0]) > 3) {
+            for (int i = 0; i < size; i++) {
+                squares[i] ^= 7;
+            }
+        }
+
+        long index;
+        if (this.hasPawns) {
+            index = TablebaseUtils.LEAD_PAWN_INDEX[leadPawnsCount][squares[0]];
+            sortByPawnMap(squares, 1, leadPawnsCount);
+            for (int i = 1; i < leadPawnsCount; i++) {
+                index += TablebaseUtils.BINOMIAL[i][TablebaseUtils.MAP_PAWNS[squares[i]]];
+            }
+        }
+        else {
+            index = encodeLeadingPieces(d, squares, size);
+        }
+
+        // encode the remaining groups, each in ascending square order
+        index *= d.groupIndex[0];
+        int groupStart = d.groupLength[0];
+        boolean remainingPawns = this.hasPawns && this.pawnCount[1] > 0;
+        int next = 0;
+        while (d.groupLength[++next] != 0) {
+            int groupLength = d.groupLength[next];
+            Arrays.sort(squares, groupStart, groupStart + groupLength);
+            long n = 0;
+            for (int i = 0; i < groupLength; i++) {
+                int square = squares[groupStart + i];
+                // squares taken by the earlier groups don't count
+                int adjust = 0;
+                for (int j = 0; j < groupStart; j++) {
+                    if (square > squares[j]) {
+                        adjust++;
+                    }
+                }
+                n += TablebaseUtils.BINOMIAL[i + 1][square - adjust - (remainingPawns ? 8 : 0)];
+            }
+            remainingPawns = false;
+            index += n * d.groupIndex[next];
+            groupStart += groupLength;
+        }
+
+        return mapScore(tbFile, decompressPairs(d, index), wdl);
+    }
+
+    /**
+     * find the index of the leading group of a table without pawns
+     * @param d the PairsData
+     * @param squares the squares of the pieces, in table order
+     * @param size the number of pieces
+     * @return the index of the leading group
+     */
+    private long encodeLeadingPieces(PairsData d, int[] squares, int size) {
+        // mirror the board so the leading piece is below the 5th rank
+        if (TablebaseUtils.rankOf(squares[0]) > 3) {
+            for (int i = 0; i < size; i++) {
+                squares[i] ^= 56;
+            }
+        }
+
+        // the first piece of the leading group that is off the a1-h8 diagonal goes below it
+        for (int i = 0; i < d.groupLength[0]; i++) {
+            if (TablebaseUtils.offA1H8(squares[i]) == 0) {
+                continue;
+            }
+            if (TablebaseUtils.offA1H8(squares[i]) > 0) {
+                for (int j = i; j < size; j++) {
+                    squares[j] = ((squares[j] >> 3) | (squares[j] << 3)) & 63;
+                }
+            }
+            break;
+        }
+
+        // without a unique piece only the kings are encoded together
+        if (!this.hasUniquePieces) {
+            return TablebaseUtils.MAP_KK[TablebaseUtils.MAP_A1D1D4[squares[0]]][squares[1]];
+        }
+
+        int adjust1 = squares[1] > squares[0] ? 1 : 0;
+        int adjust2 = (squares[2] > squares[0] ? 1 : 0) + (squares[2] > squares[1] ? 1 : 0);
+
+        if (TablebaseUtils.offA1H8(squares[0]) != 0) {
+            return (TablebaseUtils.MAP_A1D1D4[squares[0]] * 63L + (squares[1] - adjust1)) * 62
+                    + squares[2] - adjust2;
+        }
+        if (TablebaseUtils.offA1H8(squares[1]) != 0) {
+            return (6 * 63 + TablebaseUtils.rankOf(squares[0]) * 28 + TablebaseUtils.MAP_B1H1H7[squares[1]]) * 62L
+                    + squares[2] - adjust2;
+        }
+        if (TablebaseUtils.offA1H8(squares[2]) != 0) {
+            return 6 * 63 * 62 + 4 * 28 * 62
+                    + TablebaseUtils.rankOf(squares[0]) * 7 * 28
+                    + (TablebaseUtils.rankOf(squares[1]) - adjust1) * 28
+                    + TablebaseUtils.MAP_B1H1H7[squares[2]];
+        }
+        return 6 * 63 * 62 + 4 * 28 * 62 + 4 * 7 * 28
+                + TablebaseUtils.rankOf(squares[0]) * 7 * 6
+                + (TablebaseUtils.rankOf(squares[1]) - adjust1) * 6
+                + (TablebaseUtils.rankOf(squares[2]) - adjust2);
+    }
+
+    /**
+     * does a dtz table store the given side to move
+     * @param stm 0 if white is to move, 1 if black is
+     * @param tbFile the file of the leading pawn
+     * @return true if the side to move is stored, false otherwise
+     */
+    private boolean checkDtzStm(int stm, int tbFile) {
+        return (get(stm, tbFile).flags & STM) == stm || (this.key.equals(this.key2) && !this.hasPawns);
+    }
+
+    /**
+     * turn a stored value into a wdl value or a dtz in plies
+     * @param tbFile the file of the leading pawn
+     * @param value the stored value
+     * @param wdl the wdl score of the position
+     * @return the wdl value or the dtz
+     */
+    private int mapScore(int tbFile, int value, WdlScore wdl) {
+        if (!this.isDtz) {
+            return value - 2;
+        }
+
+        PairsData d = get(0, tbFile);
+        // dtz values are stored by frequency, the map turns them back into real values
+        if ((d.flags & MAPPED) != 0) {
+            int index = d.mapIndex[WDL_MAP[wdl.getValue() + 2]] + value;
+            if ((d.flags & WIDE) != 0) {
+                value = this.file.getShortLittleEndian(this.map + 2L * index);
+            }
+            else {
+                value = this.file.getByte(this.map + index);
+            }
+        }
+
+        // some tables store moves instead of plies
+        if ((wdl == WdlScore.WIN && (d.flags & WIN_PLIES) == 0)
+                || (wdl == WdlScore.LOSS && (d.flags & LOSS_PLIES) == 0)
+                || wdl == WdlScore.CURSED_WIN
+                || wdl == WdlScore.BLESSED_LOSS) {
+            value *= 2;
+        }
+        return value + 1;
+    }
+
+    /**
+     * find the value stored at an index
+     * @param d the PairsData
+     * @param index the index of the position
+     * @return the stored value
+     */
+    private int decompressPairs(PairsData d, long index) {
+        if ((d.flags & SINGLE_VALUE) != 0) {
+            return d.minSymLength;
+        }
+
+        // the sparse index points to a block close to the one holding the index
+        long k = index / d.span;
+        long block = this.file.getIntLittleEndian(d.sparseIndex + 6 * k);
+        int offset = this.file.getShortLittleEndian(d.sparseIndex + 6 * k + 4);
+        offset += (int) (index % d.span - d.span / 2);
+
+        // walk to the block that holds the index
+        while (offset < 0) {
+            offset += getBlockLength(d, --block) + 1;
+        }
+        while (offset > getBlockLength(d, block)) {
+            offset -= getBlockLength(d, block++) + 1;
+        }
+
+        // read the huffman symbols of the block until we reach the one holding the offset
+        long pointer = d.data + block * d.sizeofBlock;
+        long buffer = this.file.getLongBigEndian(pointer);
+        pointer += 8;
+        int bufferSize = 64;
+        int sym;
+
+        while (true) {
+            int length = 0;
+            while (Long.compareUnsigned(buffer, d.base64[length]) < 0) {
+                length++;
+            }
+            sym = (int) ((buffer - d.base64[length]) >>> (64 - length - d.minSymLength));
+            sym = (sym + this.file.getShortLittleEndian(d.lowestSym + 2L * length)) & 0xFFFF;
+
+            if (offset < d.symLength[sym] + 1) {
+                break;
+            }
+
+            offset -= d.symLength[sym] + 1;
+            length += d.minSymLength;
+            buffer <<= length;
+            bufferSize -= length;
+
+            // refill the buffer
+            if (bufferSize <= 32) {
+                bufferSize += 32;
+                buffer |= this.file.getIntBigEndian(pointer) << (64 - bufferSize);
+                pointer += 4;
+            }
+        }
+
+        // expand the symbol into its pairs until we reach the single value at the offset
+        while (d.symLength[sym] != 0) {
+            int left = getLeft(d, sym);
+            if (offset < d.symLength[left] + 1) {
+                sym = left;
+            }
+            else {
+                offset -= d.symLength[left] + 1;
+                sym = getRight(d, sym);
+            }
+        }
+        return getLeft(d, sym);
+    }
+
+    /**
+     * get the number of values in a block, minus one
+     * @param d the PairsData
+     * @param block the block
+     * @return the number of values in the block, minus one
+     */
+    private int getBlockLength(PairsData d, long block) {
+        return this.file.getShortLittleEndian(d.blockLength + 2 * block);
+    }
+
+    /**
+     * sort part of an array of pawn squares by their MAP_PAWNS value, keeping the order of equal values
+     * @param squares the squares
+     * @param from the first index to sort
+     * @param to the index after the last one to sort
+     */
+    private static void sortByPawnMap(int[] squares, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            int square = squares[i];
+            int j = i - 1;
+            while (j >= from && TablebaseUtils.MAP_PAWNS[squares[j]] > TablebaseUtils.MAP_PAWNS[square]) {
+                squares[j + 1] = squares[j];
+                j--;
+            }
+            squares[j + 1] = square;
+        }
+    }
+
+    /**
+     * swap two entries of an array
+     * @param array the array
+     * @param i the first index
+     * @param j the second index
+     */
+    private static void swap(int[] array, int i, int j) {
+        int temp = array[i];
+        array[i] = array[j];
+        array[j] = temp;
+    }
+
+    /**
+     * the PairsData class, the indexing information for one side to move and leading pawn file
+     */
+    static class PairsData {
+        // the flags of the table
+        int flags;
+        // the longest and shortest huffman symbols, in bits
+        int maxSymLength;
+        int minSymLength;
+        // the number of blocks, and the size of each
+        long numBlocks;
+        long sizeofBlock;
+        // there is a sparse index entry about every span values
+        long span;
+        // offsets into the file
+        long lowestSym;
+        long btree;
+        long blockLength;
+        long sparseIndex;
+        long data;
+        // the sizes of the block length and sparse index tables
+        long blockLengthSize;
+        long sparseIndexSize;
+        // the lowest symbol of each length, padded to 64 bits
+        long[] base64;
+        // the number of values (minus one) each symbol stands for
+        int[] symLength;
+        // the pieces, in the order they are encoded
+        int[] pieces = new int[TablebaseUtils.MAX_PIECES];
+        // the index multiplier and length of each group
+        long[] groupIndex = new long[TablebaseUtils.MAX_PIECES + 1];
+        int[] groupLength = new int[TablebaseUtils.MAX_PIECES + 1];
+        // where each wdl score's map starts, for dtz tables
+        int[] mapIndex = new int[4];
+    }
+}
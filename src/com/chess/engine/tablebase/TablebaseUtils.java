@@ -0,0 +1,208 @@
+package com.chess.engine.tablebase;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.PieceType;
+
+/**
+ * the TablebaseUtils class
+ * the lookup tables used to turn a position into an index into a syzygy table.
+ * syzygy numbers the squares from a1 = 0 to h8 = 63, where the board numbers them from a8 = 0 to h1 = 63, so every
+ * square is converted with toTablebaseSquare before it is used here
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+class TablebaseUtils {
+
+    // the most pieces a syzygy table can hold
+    static final int MAX_PIECES = 7;
+
+    // the piece codes used inside the table files, black pieces have the COLOR_BIT set
+    static final int PAWN = 1;
+    static final int KING = 6;
+    static final int COLOR_BIT = 8;
+
+    // the piece letters by piece code, in the order they appear in a file name
+    static final String PIECE_CHARS = " PNBRQK";
+
+    // maps the squares a2-h7 to 0..47
+    static final int[] MAP_PAWNS = new int[64];
+    // maps a square below the a1-h8 diagonal to 0..27
+    static final int[] MAP_B1H1H7 = new int[64];
+    // maps a square in the a1-d1-d4 triangle to 0..9
+    static final int[] MAP_A1D1D4 = new int[64];
+    // maps the 462 legal placements of two kings, the first in the a1-d1-d4 triangle
+    static final int[][] MAP_KK = new int[10][64];
+    // BINOMIAL[k][n] is the number of ways to choose k elements from n elements
+    static final long[][] BINOMIAL = new long[MAX_PIECES - 1][64];
+    // the index of the leading pawn, by number of leading pawns and square
+    static final int[][] LEAD_PAWN_INDEX = new int[MAX_PIECES - 1][64];
+    // the number of leading pawn placements, by number of leading pawns and file
+    static final int[][] LEAD_PAWNS_SIZE = new int[MAX_PIECES - 1][4];
+
+    static {
+        initialize();
+    }
+
+    /**
+     * convert a board coordinate (a8 = 0) to a tablebase square (a1 = 0)
+     * @param coordinate the board coordinate
+     * @return the tablebase square
+     */
+    static int toTablebaseSquare(int coordinate) {
+        return coordinate ^ 56;
+    }
+
+    /**
+     * get the rank of a tablebase square
+     * @param square the square
+     * @return the rank, 0 for the first rank
+     */
+    static int rankOf(int square) {
+        return square >> 3;
+    }
+
+    /**
+     * get the file of a tablebase square
+     * @param square the square
+     * @return the file, 0 for the a file
+     */
+    static int fileOf(int square) {
+        return square & 7;
+    }
+
+    /**
+     * how far a square is above the a1-h8 diagonal
+     * @param square the square
+     * @return positive if above the diagonal, 0 if on it, negative if below it
+     */
+    static int offA1H8(int square) {
+        return rankOf(square) - fileOf(square);
+    }
+
+    /**
+     * get the code of a piece as it is stored in the table files
+     * @param piece the piece
+     * @return the piece code
+     */
+    static int pieceCode(Piece piece) {
+        return typeCode(piece.getPieceType()) | (piece.getAlliance().isBlack() ? COLOR_BIT : 0);
+    }
+
+    /**
+     * get the code of a piece type as it is stored in the table files
+     * @param pieceType the piece type
+     * @return the piece type code, 1 for a pawn up to 6 for a king
+     */
+    static int typeCode(PieceType pieceType) {
+        switch (pieceType) {
+            case PAWN:
+                return 1;
+            case KNIGHT:
+                return 2;
+            case BISHOP:
+                return 3;
+            case ROOK:
+                return 4;
+            case QUEEN:
+                return 5;
+            default:
+                return 6;
+        }
+    }
+
+    /**
+     * get the alliance of a piece code
+     * @param code the piece code
+     * @return the alliance of the piece
+     */
+    static Alliance allianceOf(int code) {
+        return (code & COLOR_BIT) != 0 ? Alliance.BLACK : Alliance.WHITE;
+    }
+
+    /**
+     * fill in the lookup tables, in the same order the table generator does
+     */
+    private static void initialize() {
+        // the squares below the diagonal
+        int code = 0;
+        for (int s = 0; s < 64; s++) {
+            if (offA1H8(s) < 0) {
+                MAP_B1H1H7[s] = code++;
+            }
+        }
+
+        // the a1-d1-d4 triangle, with the squares on the diagonal coming last
+        code = 0;
+        int[] diagonal = new int[4];
+        int diagonalCount = 0;
+        for (int s = 0; s <= 27; s++) {
+            if (offA1H8(s) < 0 && fileOf(s) <= 3) {
+                MAP_A1D1D4[s] = code++;
+            }
+            else if (offA1H8(s) == 0 && fileOf(s) <= 3) {
+                diagonal[diagonalCount++] = s;
+            }
+        }
+        for (int i = 0; i < diagonalCount; i++) {
+            MAP_A1D1D4[diagonal[i]] = code++;
+        }
+
+        // the king pairs, with the pairs where both kings are on the diagonal coming last
+        code = 0;
+        int[][] bothOnDiagonal = new int[64][2];
+        int bothCount = 0;
+        for (int index = 0; index < 10; index++) {
+            for (int s1 = 0; s1 <= 27; s1++) {
+                if (MAP_A1D1D4[s1] != index || (index == 0 && s1 != 1)) {
+                    continue;
+                }
+                for (int s2 = 0; s2 < 64; s2++) {
+                    // the kings can't be next to each other
+                    if (Math.abs(rankOf(s1) - rankOf(s2)) <= 1 && Math.abs(fileOf(s1) - fileOf(s2)) <= 1) {
+                        continue;
+                    }
+                    if (offA1H8(s1) == 0 && offA1H8(s2) > 0) {
+                        continue;
+                    }
+                    if (offA1H8(s1) == 0 && offA1H8(s2) == 0) {
+                        bothOnDiagonal[bothCount][0] = index;
+                        bothOnDiagonal[bothCount++][1] = s2;
+                    }
+                    else {
+                        MAP_KK[index][s2] = code++;
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < bothCount; i++) {
+            MAP_KK[bothOnDiagonal[i][0]][bothOnDiagonal[i][1]] = code++;
+        }
+
+        // pascal's triangle
+        BINOMIAL[0][0] = 1;
+        for (int n = 1; n < 64; n++) {
+            for (int k = 0; k < MAX_PIECES - 1 && k <= n; k++) {
+                BINOMIAL[k][n] = (k > 0 ? BINOMIAL[k - 1][n - 1] : 0) + (k < n ? BINOMIAL[k][n - 1] : 0);
+            }
+        }
+
+        // the leading pawns, the pawn with the highest MAP_PAWNS value is the one nearest the edge and lowest rank
+        int availableSquares = 47;
+        for (int leadPawns = 1; leadPawns < MAX_PIECES - 1; leadPawns++) {
+            for (int file = 0; file < 4; file++) {
+                int index = 0;
+                for (int rank = 1; rank <= 6; rank++) {
+                    int square = rank * 8 + file;
+                    if (leadPawns == 1) {
+                        MAP_PAWNS[square] = availableSquares--;
+                        MAP_PAWNS[square ^ 7] = availableSquares--;
+                    }
+                    LEAD_PAWN_INDEX[leadPawns][square] = index;
+                    index += BINOMIAL[leadPawns - 1][MAP_PAWNS[square]];
+                }
+                LEAD_PAWNS_SIZE[leadPawns][file] = index;
+            }
+        }
+    }
+}
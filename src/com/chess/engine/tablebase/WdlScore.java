@@ -0,0 +1,65 @@
+package com.chess.engine.tablebase;
+
+/**
+ * the WdlScore enum type, the win/draw/loss value of a position for the side to move
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public enum WdlScore {
+    /**
+     * LOSS is used when the side to move loses
+     */
+    LOSS(-2),
+    /**
+     * BLESSED_LOSS is used when the side to move loses, but can hold a draw with the fifty move rule
+     */
+    BLESSED_LOSS(-1),
+    /**
+     * DRAW is used when the position is a draw
+     */
+    DRAW(0),
+    /**
+     * CURSED_WIN is used when the side to move wins, but the opponent can hold a draw with the fifty move rule
+     */
+    CURSED_WIN(1),
+    /**
+     * WIN is used when the side to move wins
+     */
+    WIN(2);
+
+    // the value of the score, as it is stored in the table files
+    private final int value;
+
+    /**
+     * the constructor
+     * @param value the value of the score
+     */
+    WdlScore(int value) {
+        this.value = value;
+    }
+
+    /**
+     * get the value of the score
+     * @return -2 for a loss up to 2 for a win
+     */
+    public int getValue() {
+        return this.value;
+    }
+
+    /**
+     * get the score from the point of view of the opponent
+     * @return the negated score
+     */
+    public WdlScore negate() {
+        return fromValue(-this.value);
+    }
+
+    /**
+     * get the score for a value
+     * @param value the value, from -2 to 2
+     * @return the score with that value
+     */
+    public static WdlScore fromValue(int value) {
+        return values()[value + 2];
+    }
+}
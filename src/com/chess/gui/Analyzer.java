@@ -0,0 +1,109 @@
+package com.chess.gui;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardStatus;
+import com.chess.engine.search.AlphaBeta;
+import com.chess.engine.search.MultiPvListener;
+import com.chess.engine.search.MultiPvResult;
+import com.chess.engine.search.SearchLimits;
+import com.chess.engine.search.TranspositionTable;
+
+import javax.swing.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * the Analyzer class
+ * searches the current board in the background until the board changes. The same search, and so the same
+ * transposition table, is used for every board, so the boards the last search already looked at are not searched
+ * again. How much was reused shows in the hit rate of the table, which is counted again for every board. The best
+ * few moves are searched, so the other good moves can be compared with the best one
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+class Analyzer {
+
+    /**
+     * told about the analysis, always on the event dispatch thread
+     */
+    interface Listener {
+
+        /**
+         * the analysis finished a depth
+         * @param board the board being analysed
+         * @param result the best lines found so far
+         * @param hitRate the share of transposition table lookups that found their board, from 0 to 1
+         */
+        void analysisProgress(Board board, MultiPvResult result, double hitRate);
+    }
+
+    // the number of lines the analysis shows
+    private static final int ANALYSIS_LINES = 3;
+
+    // the search, kept for every board so its transposition table is reused
+    private final AlphaBeta search;
+    // the thread the search runs on
+    private final ExecutorService executor;
+    // counts the boards analysed, the results of an out of date board are dropped
+    private final AtomicLong generation;
+
+    /**
+     * the constructor
+     */
+    Analyzer() {
+        this.search = new AlphaBeta();
+        this.generation = new AtomicLong();
+        this.executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "analyzer");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * stop analysing the last board and start analysing a new one
+     * @param board the board to analyse
+     * @param listener told about the analysis
+     */
+    void analyze(final Board board, final Listener listener) {
+        final long boardGeneration = this.generation.incrementAndGet();
+        this.search.stop();
+        // so a stop that comes before the new analysis starts isn't lost
+        this.search.prepareSearch();
+        this.executor.submit(new Runnable() {
+            public void run() {
+                if (boardGeneration != generation.get() || board.getStatus() != BoardStatus.ONGOING) {
+                    return;
+                }
+                final TranspositionTable table = search.getTranspositionTable();
+                table.resetStatistics();
+                MultiPvListener progress = new MultiPvListener() {
+                    public void linesComplete(final MultiPvResult result) {
+                        final double hitRate = table.getHitRate();
+                        SwingUtilities.invokeLater(new Runnable() {
+                            public void run() {
+                                if (boardGeneration == generation.get()) {
+                                    listener.analysisProgress(board, result, hitRate);
+                                }
+                            }
+                        });
+                    }
+                };
+                search.searchMultiPv(board, SearchLimits.fixedDepth(AlphaBeta.MAX_DEPTH), ANALYSIS_LINES, progress);
+            }
+        });
+    }
+
+    /**
+     * stop analysing
+     */
+    void stop() {
+        this.generation.incrementAndGet();
+        this.search.stop();
+    }
+}
@@ -0,0 +1,173 @@
+package com.chess.gui;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardStatus;
+import com.chess.engine.move.Move;
+import com.chess.engine.search.AlphaBeta;
+import com.chess.engine.search.Ponderer;
+import com.chess.engine.search.SearchLimits;
+import com.chess.engine.search.SearchListener;
+import com.chess.engine.search.SearchResult;
+
+import javax.swing.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * the ComputerPlayer class
+ * the engine opponent of the gui. The search runs on its own low priority thread, and everything it reports is
+ * handed back on the event dispatch thread, so the window keeps drawing while the engine thinks. After its move the
+ * engine ponders the reply it expects while the player thinks, and carries on from there if the player makes it
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+class ComputerPlayer {
+
+    /**
+     * told about the engine's thinking, always on the event dispatch thread
+     */
+    interface Listener {
+
+        /**
+         * the engine finished a depth
+         * @param result the result of the search so far
+         */
+        void searchProgress(SearchResult result);
+
+        /**
+         * the engine chose a move
+         * @param board the board the engine searched
+         * @param move the move, null if the game is over
+         */
+        void moveChosen(Board board, Move move);
+    }
+
+    // the search, kept between moves so its transposition table is reused
+    private final AlphaBeta search;
+    // thinks on the player's time, only used on the search thread apart from stop
+    private final Ponderer ponderer;
+    // the thread the search runs on
+    private final ExecutorService executor;
+    // the time the engine takes for a move
+    private volatile long timePerMove;
+    // counts the searches started and cancelled, a search whose number is out of date has its move thrown away
+    private final AtomicLong generation;
+    // is the engine thinking, only used on the event dispatch thread
+    private boolean thinking;
+
+    /**
+     * the constructor
+     * @param timePerMove the time the engine takes for a move in milliseconds
+     */
+    ComputerPlayer(long timePerMove) {
+        this.search = new AlphaBeta();
+        this.ponderer = new Ponderer(this.search);
+        this.timePerMove = timePerMove;
+        this.generation = new AtomicLong();
+        this.executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "computer-player");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * start thinking about a board in the background
+     * @param board the board, the engine plays its next mover
+     * @param listener told about the progress and the chosen move
+     */
+    void think(final Board board, final Listener listener) {
+        final long searchGeneration = this.generation.incrementAndGet();
+        this.thinking = true;
+        // so a move now that comes before the search starts isn't lost
+        this.search.prepareSearch();
+        this.executor.submit(new Runnable() {
+            public void run() {
+                search.setListener(new SearchListener() {
+                    public void iterationComplete(final SearchResult result) {
+                        SwingUtilities.invokeLater(new Runnable() {
+                            public void run() {
+                                if (searchGeneration == generation.get()) {
+                                    listener.searchProgress(result);
+                                }
+                            }
+                        });
+                    }
+                });
+                Move move = null;
+                if (searchGeneration == generation.get() && board.getStatus() == BoardStatus.ONGOING
+                        && !board.isThreefoldRepetition() && !board.isFiftyMoveRule()) {
+                    SearchResult result = ponderer.search(board, SearchLimits.fixedTime(timePerMove));
+                    move = result.getBestMove();
+                    if (move != null && searchGeneration == generation.get()) {
+                        // the ponder search is the player's time, it isn't shown as the engine's thinking
+                        search.setListener(null);
+                        ponderer.ponder(board.makeMove(move).getTransBoard(), result);
+                    }
+                }
+                final Move chosen = move;
+                SwingUtilities.invokeLater(new Runnable() {
+                    public void run() {
+                        if (searchGeneration == generation.get()) {
+                            thinking = false;
+                            listener.moveChosen(board, chosen);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * stop thinking and play the best move found so far
+     */
+    void moveNow() {
+        // while the player is to move the only search is the ponder search, which has nothing to play
+        if (this.thinking) {
+            this.ponderer.stop();
+        }
+    }
+
+    /**
+     * stop thinking and throw the move away, and stop pondering since the game has gone somewhere else
+     */
+    void cancel() {
+        this.generation.incrementAndGet();
+        this.thinking = false;
+        this.ponderer.stop();
+        this.executor.submit(new Runnable() {
+            public void run() {
+                ponderer.stopPondering();
+            }
+        });
+    }
+
+    /**
+     * is the engine thinking
+     * @return true if a search is running, false otherwise
+     */
+    boolean isThinking() {
+        return this.thinking;
+    }
+
+    /**
+     * set the time the engine takes for a move
+     * @param timePerMove the time in milliseconds
+     */
+    void setTimePerMove(long timePerMove) {
+        this.timePerMove = timePerMove;
+    }
+
+    /**
+     * get the time the engine takes for a move
+     * @return the time in milliseconds
+     */
+    long getTimePerMove() {
+        return this.timePerMove;
+    }
+}
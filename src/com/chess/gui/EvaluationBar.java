@@ -0,0 +1,54 @@
+package com.chess.gui;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * the EvaluationBar class
+ * a bar beside the board that is white for white's share of the evaluation and black for black's share
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+class EvaluationBar extends JPanel {
+
+    // the dimension of the bar
+    private static final Dimension EVALUATION_BAR_DIMENSION = new Dimension(20, 80);
+    // the score that fills the bar to the top or bottom
+    private static final int SCALE = 1000;
+
+    // the evaluation in centipawns for white
+    private int score;
+
+    /**
+     * the constructor
+     */
+    EvaluationBar() {
+        setPreferredSize(EVALUATION_BAR_DIMENSION);
+        setBorder(BorderFactory.createLineBorder(Color.GRAY));
+        setVisible(false);
+    }
+
+    /**
+     * set the evaluation
+     * @param score the evaluation in centipawns, positive if white is better
+     */
+    void setScore(int score) {
+        this.score = Math.max(-SCALE, Math.min(SCALE, score));
+        repaint();
+    }
+
+    /**
+     * paint the bar, white from the bottom
+     * @param g the graphics to paint with
+     */
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        int height = getHeight();
+        int whiteHeight = (int) (height * (0.5 + this.score / (2.0 * SCALE)));
+        g.setColor(Color.BLACK);
+        g.fillRect(0, 0, getWidth(), height - whiteHeight);
+        g.setColor(Color.WHITE);
+        g.fillRect(0, height - whiteHeight, getWidth(), whiteHeight);
+    }
+}
@@ -0,0 +1,102 @@
+package com.chess.gui;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardStatus;
+
+/**
+ * the GameStatus class
+ * whether a game is over and how, worked out once per move. Checkmate and stalemate try every move of the next
+ * mover, so the status is calculated away from the event dispatch thread and handed to the panels when it is ready
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+class GameStatus {
+    // the board the status is for
+    private final Board board;
+    // is the next mover checkmated
+    private final boolean checkmate;
+    // is the next mover stalemated
+    private final boolean stalemate;
+    // has the position occurred three times
+    private final boolean threefoldRepetition;
+    // have fifty moves been made by each player without a capture or pawn move, and the last move wasn't mate
+    private final boolean fiftyMoveRule;
+
+    /**
+     * the constructor
+     * @param board the board the status is for
+     * @param checkmate is the next mover checkmated
+     * @param stalemate is the next mover stalemated
+     * @param threefoldRepetition has the position occurred three times
+     * @param fiftyMoveRule does the fifty move rule apply
+     */
+    private GameStatus(Board board, boolean checkmate, boolean stalemate, boolean threefoldRepetition,
+                       boolean fiftyMoveRule) {
+        this.board = board;
+        this.checkmate = checkmate;
+        this.stalemate = stalemate;
+        this.threefoldRepetition = threefoldRepetition;
+        this.fiftyMoveRule = fiftyMoveRule;
+    }
+
+    /**
+     * work out the status of a board
+     * @param board the board
+     * @return the status of the board
+     */
+    static GameStatus calculate(Board board) {
+        boolean checkmate = board.getStatus() == BoardStatus.CHECKMATE;
+        boolean stalemate = board.getStatus() == BoardStatus.STALEMATE;
+        return new GameStatus(board, checkmate, stalemate, board.isThreefoldRepetition(),
+                board.isFiftyMoveRule() && !checkmate);
+    }
+
+    /**
+     * get the board the status is for
+     * @return the board
+     */
+    Board getBoard() {
+        return this.board;
+    }
+
+    /**
+     * is the next mover checkmated
+     * @return true if checkmate, false otherwise
+     */
+    boolean isCheckmate() {
+        return this.checkmate;
+    }
+
+    /**
+     * is the next mover stalemated
+     * @return true if stalemate, false otherwise
+     */
+    boolean isStalemate() {
+        return this.stalemate;
+    }
+
+    /**
+     * has the position occurred three times
+     * @return true if it is a draw by threefold repetition, false otherwise
+     */
+    boolean isThreefoldRepetition() {
+        return this.threefoldRepetition;
+    }
+
+    /**
+     * does the fifty move rule apply
+     * @return true if it is a draw by the fifty move rule, false otherwise
+     */
+    boolean isFiftyMoveRule() {
+        return this.fiftyMoveRule;
+    }
+
+    /**
+     * get the alliance of the winner
+     * @return the winner, null if nobody has won
+     */
+    Alliance getWinner() {
+        return this.checkmate ? this.board.getCurrentPlayerAlliance().getOpponentAlliance() : null;
+    }
+}
@@ -2,12 +2,14 @@ package com.chess.gui;
 
 import com.chess.engine.Alliance;
 import com.chess.engine.board.Board;
+import com.chess.engine.search.AlphaBeta;
+import com.chess.engine.search.SearchResult;
 
 import javax.swing.*;
 import java.awt.*;
 
 /**
- * the results panel, shows who wins, if there is a stalemate, and who is the next mover
+ * the results panel, shows who wins, if there is a stalemate or a draw, and who is the next mover
  * @author Daniel Wakefield
  * @version 1.0
  */
@@ -24,6 +26,9 @@ class ResultsPanel extends JPanel {
     private JLabel whiteWin;
     private JLabel blackWin;
     private JLabel stalemate;
+    private JLabel draw;
+    // what the computer is thinking
+    private JLabel searchInfo;
 
     /**
      * draw the results panel
@@ -52,14 +57,19 @@ class ResultsPanel extends JPanel {
         this.stalemate = new JLabel("Stalemate");
         add(this.blackWin);
         add(this.whiteWin);
+        this.draw = new JLabel("Draw");
         add(this.stalemate);
+        add(this.draw);
+        this.searchInfo = new JLabel("");
+        add(this.searchInfo);
         redo(board);
 
         setVisible(true);
     }
 
     /**
-     * whenever we redraw the board get the results again
+     * whenever we redraw the board show the next mover and the checks straight away, the result is shown by
+     * showStatus once it has been worked out
      * @param board the board we get the results for
      */
     void redo(Board board) {
@@ -86,18 +96,68 @@ class ResultsPanel extends JPanel {
         else {
             turnOff(this.whiteInCheck);
         }
+    }
 
-        if (board.calculateIsPlayerInCheckmate(currentPlayerAlliance)) {
-            if (currentPlayerAlliance.isWhite()) {
-                turnOn(this.blackWin);
-            }
-            else if (currentPlayerAlliance.isBlack()) {
-                turnOn(this.whiteWin);
-            }
-        }
+    /**
+     * show the result of the game
+     * @param status the status of the current board
+     */
+    void showStatus(GameStatus status) {
+        // a position reached by going back through the game may no longer be over
+        setOn(this.blackWin, status.getWinner() == Alliance.BLACK);
+        setOn(this.whiteWin, status.getWinner() == Alliance.WHITE);
+        setOn(this.stalemate, status.isStalemate());
+        setOn(this.draw, status.isThreefoldRepetition() || status.isFiftyMoveRule());
+    }
+
+    /**
+     * show the progress of the computer's search
+     * @param result the result of the last finished depth
+     */
+    void showSearchInfo(SearchResult result) {
+        this.searchInfo.setText("| Computer: " + describe(result));
+    }
+
+    /**
+     * show the progress of the analysis
+     * @param result the result of the last finished depth
+     * @param hitRate the share of transposition table lookups that found their board
+     */
+    void showAnalysisInfo(SearchResult result, double hitRate) {
+        this.searchInfo.setText("| Analysis: " + describe(result)
+                + String.format(", %.0f%% table hits", hitRate * 100));
+    }
 
-        if (board.calculateIsPlayerInStalemate(currentPlayerAlliance)) {
-            turnOn(this.stalemate);
+    /**
+     * describe a search result
+     * @param result the result
+     * @return the depth, score and speed of the search
+     */
+    private static String describe(SearchResult result) {
+        String score = result.isMateScore()
+                ? "mate " + (result.getScore() > 0 ? "" : "-") + (AlphaBeta.MATE - Math.abs(result.getScore()) + 1) / 2
+                : String.format("%+.2f", result.getScore() / 100.0);
+        return "depth " + result.getDepth() + ", " + score + ", " + result.getNodesPerSecond() + " nps";
+    }
+
+    /**
+     * stop showing the computer's search or the analysis
+     */
+    void clearSearchInfo() {
+        this.searchInfo.setText("");
+    }
+
+    /**
+     * highlight a label or turn it off
+     * @param label the label
+     * @param on true to highlight it, false to turn it off
+     */
+    private void setOn(JLabel label, boolean on) {
+        if (on) {
+            turnOn(label);
+        }
+        else {
+            turnOff(label);
         }
     }
 
@@ -0,0 +1,115 @@
+package com.chess.gui;
+
+import com.chess.engine.pieces.Piece;
+
+import javax.imageio.ImageIO;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * the SpriteCache class
+ * every image under art/ is read from disk and decoded the first time it is asked for, then served from memory.
+ * The small versions of the pieces shown by the TakenPiecesPanel are scaled once and kept too
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+class SpriteCache {
+    // the folder of the piece images
+    private static final String PIECES_PATH = "art/simple/";
+    // the green dot on a legal destination
+    static final String LEGAL_MOVE_PATH = "art/misc/green_dot.png";
+    // the alert on a king in check
+    static final String CHECK_PATH = "art/misc/illegal.png";
+    // how much smaller the taken pieces are drawn
+    private static final int TAKEN_PIECE_SHRINK = 15;
+
+    // the decoded images by path
+    private static final Map<String, ImageIcon> ICONS = new ConcurrentHashMap<>();
+    // the scaled piece images by path
+    private static final Map<String, ImageIcon> SMALL_ICONS = new ConcurrentHashMap<>();
+
+    /**
+     * get the icon of an image
+     * @param path the path of the image
+     * @return the icon, an empty icon if the image can't be read
+     */
+    static ImageIcon getIcon(String path) {
+        ImageIcon icon = ICONS.get(path);
+        if (icon == null) {
+            icon = readIcon(path);
+            ICONS.put(path, icon);
+        }
+        return icon;
+    }
+
+    /**
+     * get the icon of a piece
+     * @param piece the piece
+     * @return the icon of the piece
+     */
+    static ImageIcon getPieceIcon(Piece piece) {
+        return getIcon(piecePath(piece));
+    }
+
+    /**
+     * get the small icon of a piece, as shown in the taken pieces panel
+     * @param piece the piece
+     * @return the scaled icon of the piece
+     */
+    static ImageIcon getTakenPieceIcon(Piece piece) {
+        String path = piecePath(piece);
+        ImageIcon small = SMALL_ICONS.get(path);
+        if (small == null) {
+            ImageIcon icon = getIcon(path);
+            int size = Math.max(1, icon.getIconWidth() - TAKEN_PIECE_SHRINK);
+            small = icon.getImage() == null ? icon
+                    : new ImageIcon(icon.getImage().getScaledInstance(size, size, Image.SCALE_SMOOTH));
+            SMALL_ICONS.put(path, small);
+        }
+        return small;
+    }
+
+    /**
+     * read every piece and overlay image, so the first clicks don't wait for the disk
+     */
+    static void preload() {
+        for (String alliance : new String[] {"W", "B"}) {
+            for (String type : new String[] {"P", "N", "B", "R", "Q", "K"}) {
+                getIcon(PIECES_PATH + alliance + type + ".gif");
+            }
+        }
+        getIcon(LEGAL_MOVE_PATH);
+        getIcon(CHECK_PATH);
+    }
+
+    /**
+     * get the path of the image of a piece
+     * @param piece the piece
+     * @return the path, like "art/simple/WN.gif"
+     */
+    private static String piecePath(Piece piece) {
+        return PIECES_PATH + piece.getAlliance().toString().substring(0, 1) + piece.toString().toUpperCase() + ".gif";
+    }
+
+    /**
+     * read and decode an image
+     * @param path the path of the image
+     * @return the icon, an empty icon if the image can't be read
+     */
+    private static ImageIcon readIcon(String path) {
+        try {
+            BufferedImage image = ImageIO.read(new File(path));
+            if (image != null) {
+                return new ImageIcon(image);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return new ImageIcon();
+    }
+}
@@ -4,25 +4,29 @@ import com.chess.engine.Alliance;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Tile;
+import com.chess.engine.game.GameTree;
 import com.chess.engine.move.Move;
 import com.chess.engine.move.MoveStatus;
 import com.chess.engine.move.MoveTransition;
 import com.chess.engine.pieces.Piece;
 import com.chess.engine.pieces.PieceType;
+import com.chess.engine.search.MultiPvResult;
+import com.chess.engine.search.SearchResult;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
 
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
-import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 import static javax.swing.SwingUtilities.isLeftMouseButton;
 import static javax.swing.SwingUtilities.isRightMouseButton;
@@ -35,6 +39,8 @@ import static javax.swing.SwingUtilities.isRightMouseButton;
 public class Table {
     // the board to be drawn
     private Board board;
+    // every move played, with the variations, and the position shown
+    private final GameTree gameTree;
 
     // the tile colors
     private final Color lightTileColor = Color.decode("#FFFACD");
@@ -60,6 +66,26 @@ public class Table {
     // do we want to show the legal moves
     private boolean showLegalMoves;
 
+    // works out the game status after every move, away from the event dispatch thread
+    private final ExecutorService statusExecutor;
+
+    // the engine opponent, and the side it plays when it is switched on (null when it is off)
+    private final ComputerPlayer computerPlayer;
+    private Alliance computerAlliance;
+
+    // the time the engine takes for a move, to start with
+    private static final long DEFAULT_TIME_PER_MOVE = 3000;
+
+    // the background analysis, the best move it found so far, and the bar showing its evaluation
+    private final Analyzer analyzer;
+    private boolean analysisMode;
+    private Move analysisMove;
+    private EvaluationBar evaluationBar;
+    // the best few lines found by the analysis
+    private JTextArea analysisLines;
+    // the border of the tiles of the best move found by the analysis
+    private static final Color ANALYSIS_COLOR = Color.decode("#1E90FF");
+
     /**
      * the constructor for the table
      */
@@ -68,8 +94,20 @@ public class Table {
         JFrame gameFrame;
         // set this to true
         this.showLegalMoves = true;
+        this.statusExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "game-status");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        this.computerPlayer = new ComputerPlayer(DEFAULT_TIME_PER_MOVE);
+        this.analyzer = new Analyzer();
         // create a standard board
         this.board = Board.createStandardBoard();
+        this.gameTree = new GameTree(this.board);
+        // decode the images before the board is drawn
+        SpriteCache.preload();
         // name the JFrame chess
         gameFrame = new JFrame("Chess");
         // set so the frame closes on exit
@@ -85,6 +123,12 @@ public class Table {
         gameFrame.add(this.resultsPanel, BorderLayout.NORTH);
         this.takenPiecesPanel = new TakenPiecesPanel();
         gameFrame.add(this.takenPiecesPanel,BorderLayout.WEST);
+        this.evaluationBar = new EvaluationBar();
+        gameFrame.add(this.evaluationBar, BorderLayout.EAST);
+        this.analysisLines = new JTextArea(3, 40);
+        this.analysisLines.setEditable(false);
+        this.analysisLines.setVisible(false);
+        gameFrame.add(this.analysisLines, BorderLayout.SOUTH);
         gameFrame.setVisible(true);
     }
 
@@ -94,10 +138,69 @@ public class Table {
      */
     private JMenuBar createMenuBar() {
         final JMenuBar menuBar = new JMenuBar();
+        menuBar.add(createGameMenu());
         menuBar.add(createOptionsMenu());
         return menuBar;
     }
 
+    /**
+     * create the game menu, to step back and forward through the moves played
+     * @return the game menu
+     */
+    private JMenu createGameMenu() {
+        final JMenu gameMenu = new JMenu("Game");
+        final JMenuItem undo = new JMenuItem("Undo Move");
+        undo.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_Z, InputEvent.CTRL_DOWN_MASK));
+        undo.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                if (gameTree.back()) {
+                    showCurrentPosition();
+                }
+            }
+        });
+        gameMenu.add(undo);
+
+        final JMenuItem redo = new JMenuItem("Redo Move");
+        redo.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_Y, InputEvent.CTRL_DOWN_MASK));
+        redo.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                if (gameTree.forward()) {
+                    showCurrentPosition();
+                }
+            }
+        });
+        gameMenu.add(redo);
+
+        final JMenuItem start = new JMenuItem("Go To Start");
+        start.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                gameTree.goToStart();
+                showCurrentPosition();
+            }
+        });
+        gameMenu.add(start);
+
+        final JMenuItem end = new JMenuItem("Go To End");
+        end.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                gameTree.goToEnd();
+                showCurrentPosition();
+            }
+        });
+        gameMenu.add(end);
+        gameMenu.addSeparator();
+
+        // a move played after going back starts a variation, this makes it the line redo follows
+        final JMenuItem mainLine = new JMenuItem("Make Main Line");
+        mainLine.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                gameTree.promoteVariation();
+            }
+        });
+        gameMenu.add(mainLine);
+        return gameMenu;
+    }
+
     /**
      * create the options menu
      * @return the options menu
@@ -111,6 +214,67 @@ public class Table {
             }
         });
         optionsMenu.add(showMoves);
+        optionsMenu.addSeparator();
+
+        // the computer plays whoever isn't to move when it is switched on
+        final JCheckBox playComputer = new JCheckBox("Play Against Computer", false);
+        playComputer.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                if (playComputer.isSelected()) {
+                    computerAlliance = board.getCurrentPlayerAlliance().getOpponentAlliance();
+                }
+                else {
+                    computerAlliance = null;
+                    computerPlayer.cancel();
+                    resultsPanel.clearSearchInfo();
+                }
+            }
+        });
+        optionsMenu.add(playComputer);
+
+        final JMenuItem timePerMove = new JMenuItem("Time Per Move...");
+        timePerMove.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                String seconds = JOptionPane.showInputDialog(null, "Seconds per move:",
+                        computerPlayer.getTimePerMove() / 1000.0);
+                try {
+                    if (seconds != null && Double.parseDouble(seconds) > 0) {
+                        computerPlayer.setTimePerMove((long) (Double.parseDouble(seconds) * 1000));
+                    }
+                } catch (NumberFormatException exception) {
+                    JOptionPane.showMessageDialog(null, "Not a number of seconds: " + seconds);
+                }
+            }
+        });
+        optionsMenu.add(timePerMove);
+
+        final JCheckBox analysis = new JCheckBox("Analysis Mode", false);
+        analysis.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                analysisMode = analysis.isSelected();
+                evaluationBar.setVisible(analysisMode);
+                analysisLines.setVisible(analysisMode);
+                analysisLines.setText("");
+                if (analysisMode) {
+                    startAnalysis();
+                }
+                else {
+                    analyzer.stop();
+                    analysisMove = null;
+                    resultsPanel.clearSearchInfo();
+                    boardPanel.drawBoard();
+                }
+            }
+        });
+        optionsMenu.add(analysis);
+
+        final JMenuItem moveNow = new JMenuItem("Move Now");
+        moveNow.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                computerPlayer.moveNow();
+            }
+        });
+        optionsMenu.add(moveNow);
         return optionsMenu;
     }
 
@@ -146,22 +310,30 @@ public class Table {
         }
 
         /**
-         * draw the board
+         * draw the board. The tiles are kept for the life of the frame, and only the tiles whose piece, check
+         * alert, legal move dot or analysis outline changed are redrawn
          */
         void drawBoard() {
-            removeAll();
-            this.boardTiles = new ArrayList<> ();
-            for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
-                final TilePanel tilePanel = new TilePanel(this, i);
-                this.boardTiles.add(tilePanel);
-                add(tilePanel);
-            }
+            boolean[] legalDestinations = calculateLegalDestinations();
             for (final TilePanel panel: boardTiles) {
-                panel.drawTile();
-                add(panel);
+                boolean analysisTile = analysisMove != null && (analysisMove.getStartPosition() == panel.tileCoordinate
+                        || analysisMove.getEndPosition() == panel.tileCoordinate);
+                panel.drawTile(legalDestinations[panel.tileCoordinate], analysisTile);
             }
-            validate();
-            repaint();
+        }
+
+        /**
+         * find the tiles the selected piece can move to without leaving its king in check
+         * @return for every tile, true if the legal move dot is shown on it
+         */
+        private boolean[] calculateLegalDestinations() {
+            boolean[] legalDestinations = new boolean[BoardUtils.NUM_TILES];
+            if (showLegalMoves && playerMovedPiece != null) {
+                for (final Move move : board.getLegalMovesFrom(playerMovedPiece.getPosition())) {
+                    legalDestinations[move.getEndPosition()] = true;
+                }
+            }
+            return legalDestinations;
         }
     }
 
@@ -172,6 +344,12 @@ public class Table {
         // the coordinate of the tile
         private int tileCoordinate;
 
+        // what the tile shows now, so it is only redrawn when one of them changes
+        private ImageIcon shownPieceIcon;
+        private boolean shownCheck;
+        private boolean shownLegalMove;
+        private boolean shownAnalysisMove;
+
         /**
          * create the tile JPanel
          * @param boardPanel the board panel
@@ -182,11 +360,14 @@ public class Table {
             this.tileCoordinate = tileCoordinate;
             setPreferredSize(TILE_DIMENSION);
             assignColor();
-            assignIcon();
 
             addMouseListener(new MouseListener() {
                 @Override
                 public void mouseClicked(MouseEvent e) {
+                    // the board is the computer's while it thinks
+                    if (computerPlayer.isThinking()) {
+                        return;
+                    }
                     if (isRightMouseButton(e)) {
                         sourceTile = null;
                         playerMovedPiece = null;
@@ -207,25 +388,15 @@ public class Table {
                             }
                         }
                         else {
-                            Move move = board.getMove(playerMovedPiece, tileCoordinate);
-                            if (move != null) {
-                                MoveTransition moveTrans = board.makeMove(move);
-                                if (moveTrans.getStatus() == MoveStatus.DONE) {
-                                    board = moveTrans.getTransBoard();
-                                    resultsPanel.redo(board);
-                                    if(move.isAttack()) {
-                                        Move.AttackMove attackMove = (Move.AttackMove) move;
-                                        takenPiecesPanel.addPiece(attackMove.getAttackedPiece());
-                                        takenPiecesPanel.redo();
-                                    }
-                                }
-                            }
+                            Move move = board.getLegalMove(playerMovedPiece.getPosition(), tileCoordinate);
                             sourceTile = null;
                             playerMovedPiece = null;
+                            if (move != null && playMove(move)) {
+                                startComputerMove();
+                            }
                         }
                     }
                     boardPanel.drawBoard();
-                    checkForWinner();
                 }
 
                 @Override
@@ -252,33 +423,38 @@ public class Table {
         }
 
         /**
-         * draw the tile
+         * draw the tile, if it shows something different from before
+         * @param legalMove is the legal move dot shown on the tile
+         * @param analysisMove is the tile part of the best move found by the analysis
          */
-        void drawTile() {
-            assignColor();
-            assignIcon();
-            highlightLegalMoves();
-            validate();
-            repaint();
-        }
+        void drawTile(boolean legalMove, boolean analysisMove) {
+            if (analysisMove != this.shownAnalysisMove) {
+                this.shownAnalysisMove = analysisMove;
+                setBorder(analysisMove ? BorderFactory.createLineBorder(ANALYSIS_COLOR, 3) : null);
+            }
+            final Piece piece = board.getTile(this.tileCoordinate).getPiece();
+            final ImageIcon pieceIcon = piece == null ? null : SpriteCache.getPieceIcon(piece);
+            final boolean check = piece != null && piece.getPieceType() == PieceType.KING
+                    && board.isPlayerInCheck(piece.getAlliance());
+            if (pieceIcon == this.shownPieceIcon && check == this.shownCheck && legalMove == this.shownLegalMove) {
+                return;
+            }
+            this.shownPieceIcon = pieceIcon;
+            this.shownCheck = check;
+            this.shownLegalMove = legalMove;
 
-        /**
-         * highlight the legal moves
-         */
-        private void highlightLegalMoves () {
-            if (showLegalMoves) {
-                if (playerMovedPiece != null) {
-                    for (final Move move : board.getMovesForPiece(playerMovedPiece)) {
-                        if (move.getEndPosition() == this.tileCoordinate) {
-                            try {
-                                add(new JLabel(new ImageIcon(ImageIO.read(new File("art/misc/green_dot.png")))));
-                            } catch (Exception e) {
-                                e.printStackTrace();
-                            }
-                        }
-                    }
-                }
+            removeAll();
+            if (pieceIcon != null) {
+                add(new JLabel(pieceIcon));
+            }
+            if (check) {
+                add(new JLabel(SpriteCache.getIcon(SpriteCache.CHECK_PATH)));
             }
+            if (legalMove) {
+                add(new JLabel(SpriteCache.getIcon(SpriteCache.LEGAL_MOVE_PATH)));
+            }
+            validate();
+            repaint();
         }
 
         /**
@@ -292,53 +468,143 @@ public class Table {
                 setBackground(this.tileCoordinate % 2 == 0 ? darkTileColor: lightTileColor);
             }
         }
+    }
 
-        /**
-         * assign the icon
-         */
-        private void assignIcon () {
-            String imagesPath = "art/simple/";
-            this.removeAll();
-            if(board.getTile(this.tileCoordinate).isTileOccupied()) {
-                try {
-                    final Piece piece = board.getTile(this.tileCoordinate).getPiece();
-                        if (piece != null) {
-                            final BufferedImage image =
-                                    ImageIO.read(new File(imagesPath
-                                            + piece.getAlliance().toString().substring(0, 1)
-                                            + piece.toString().toUpperCase()
-                                            + ".gif"));
-                            add(new JLabel(new ImageIcon(image)));
-                            if (piece.getPieceType() == PieceType.KING && board.isPlayerInCheck(piece.getAlliance())) {
-                                final BufferedImage alert =
-                                        ImageIO.read(new File("art/misc/illegal.png"));
-                                add (new JLabel(new ImageIcon(alert)));
-                            }
-                        }
-                } catch (IOException e) {
-                    e.printStackTrace();
+    /**
+     * make a move on the board and update the panels
+     * @param move the move to make
+     * @return true if the move was legal and made, false otherwise
+     */
+    private boolean playMove(Move move) {
+        MoveTransition moveTrans = gameTree.play(move);
+        if (moveTrans.getStatus() != MoveStatus.DONE) {
+            return false;
+        }
+        board = moveTrans.getTransBoard();
+        resultsPanel.redo(board);
+        updateGameStatus();
+        if (analysisMode) {
+            startAnalysis();
+        }
+        if(move.isAttack()) {
+            Move.AttackMove attackMove = (Move.AttackMove) move;
+            takenPiecesPanel.addPiece(attackMove.getAttackedPiece());
+            takenPiecesPanel.redo();
+        }
+        return true;
+    }
+
+    /**
+     * show the position the game tree has moved to. The computer stops thinking about the old position, and starts
+     * thinking about the new one if it is its turn. The game tree keeps the pieces taken on the way to the new one
+     */
+    private void showCurrentPosition() {
+        computerPlayer.cancel();
+        resultsPanel.clearSearchInfo();
+        sourceTile = null;
+        playerMovedPiece = null;
+        board = gameTree.getCurrentBoard();
+        takenPiecesPanel.clear();
+        for (final Piece piece : gameTree.getTakenPieces()) {
+            takenPiecesPanel.addPiece(piece);
+        }
+        takenPiecesPanel.redo();
+        resultsPanel.redo(board);
+        updateGameStatus();
+        if (analysisMode) {
+            startAnalysis();
+        }
+        boardPanel.drawBoard();
+        startComputerMove();
+    }
+
+    /**
+     * if the computer is to move, start it thinking. Its move is played when the search finishes
+     */
+    private void startComputerMove() {
+        if (computerAlliance == null || board.getCurrentPlayerAlliance() != computerAlliance) {
+            return;
+        }
+        computerPlayer.think(board, new ComputerPlayer.Listener() {
+            public void searchProgress(SearchResult result) {
+                resultsPanel.showSearchInfo(result);
+            }
+
+            public void moveChosen(Board searchedBoard, Move move) {
+                if (move != null && searchedBoard == board) {
+                    playMove(move);
+                    boardPanel.drawBoard();
                 }
             }
-        }
+        });
     }
 
     /**
-     * check for a winner, show message dialogue if winner is found, or stalemate occurs
+     * start analysing the current board, the best move is outlined on the board and the evaluation shown on the bar
      */
-    private void checkForWinner() {
-        Alliance currentPlayerAlliance = board.getCurrentPlayerAlliance();
-        if (board.calculateIsPlayerInCheckmate(currentPlayerAlliance)) {
-            if (currentPlayerAlliance.isBlack()) {
-                JOptionPane.showMessageDialog(null, "White Wins");
+    private void startAnalysis() {
+        analysisMove = null;
+        analysisLines.setText("");
+        analyzer.analyze(board, new Analyzer.Listener() {
+            public void analysisProgress(Board analysedBoard, MultiPvResult result, double hitRate) {
+                if (analysedBoard != board) {
+                    return;
+                }
+                SearchResult best = result.getBestLine();
+                analysisMove = best.getBestMove();
+                evaluationBar.setScore(board.getCurrentPlayerAlliance().isWhite() ? best.getScore()
+                        : -best.getScore());
+                resultsPanel.showAnalysisInfo(best, hitRate);
+                analysisLines.setText(result.format(board));
+                boardPanel.drawBoard();
             }
-            else if (currentPlayerAlliance.isWhite()) {
-                JOptionPane.showMessageDialog(null, "Black Wins");
+        });
+    }
+
+    /**
+     * work out the status of the current board in the background, then show it. If another move has been made by
+     * the time the status is ready, the status is out of date and is dropped
+     */
+    private void updateGameStatus() {
+        final Board statusBoard = this.board;
+        this.statusExecutor.submit(new Runnable() {
+            public void run() {
+                final GameStatus status = GameStatus.calculate(statusBoard);
+                SwingUtilities.invokeLater(new Runnable() {
+                    public void run() {
+                        if (status.getBoard() == board) {
+                            resultsPanel.showStatus(status);
+                            checkForWinner(status);
+                        }
+                    }
+                });
             }
+        });
+    }
+
+    /**
+     * check for a winner, show message dialogue if winner is found, or stalemate or another draw occurs
+     * @param status the status of the current board
+     */
+    private void checkForWinner(GameStatus status) {
+        if (status.getWinner() == Alliance.WHITE) {
+            JOptionPane.showMessageDialog(null, "White Wins");
+        }
+        else if (status.getWinner() == Alliance.BLACK) {
+            JOptionPane.showMessageDialog(null, "Black Wins");
         }
 
-        else if (board.calculateIsPlayerInStalemate(board.getCurrentPlayerAlliance())) {
+        else if (status.isStalemate()) {
             JOptionPane.showMessageDialog(null, "Stalemate");
         }
+
+        else if (status.isThreefoldRepetition()) {
+            JOptionPane.showMessageDialog(null, "Draw by threefold repetition");
+        }
+
+        else if (status.isFiftyMoveRule()) {
+            JOptionPane.showMessageDialog(null, "Draw by the fifty move rule");
+        }
     }
 
 }
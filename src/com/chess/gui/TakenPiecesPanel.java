@@ -3,15 +3,11 @@ package com.chess.gui;
 import com.chess.engine.pieces.Piece;
 import com.google.common.primitives.Ints;
 
-import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import javax.swing.border.EtchedBorder;
 import java.awt.*;
@@ -68,6 +64,14 @@ class TakenPiecesPanel extends JPanel{
         }
     }
 
+    /**
+     * take every piece off the panel, before the pieces taken on the way to another position are added
+     */
+    void clear() {
+        this.blackPieces.clear();
+        this.whitePieces.clear();
+    }
+
     /**
      * redo the panel with every move
      */
@@ -93,33 +97,11 @@ class TakenPiecesPanel extends JPanel{
         });
 
         for (final Piece piece: this.whitePieces) {
-            try {
-                final BufferedImage image = ImageIO.read (new File("art/simple/"
-                        + piece.getAlliance().toString().substring(0,1)
-                        + piece.toString().toUpperCase()
-                        + ".gif"));
-                final ImageIcon icon = new ImageIcon(image);
-                final JLabel imageLabel = new JLabel(new ImageIcon(icon.getImage().getScaledInstance(
-                        icon.getIconWidth() - 15, icon.getIconWidth() - 15, Image.SCALE_SMOOTH)));
-                this.southPanel.add(imageLabel);
-            }catch (final IOException e) {
-                e.printStackTrace();
-            }
+            this.southPanel.add(new JLabel(SpriteCache.getTakenPieceIcon(piece)));
         }
 
         for (final Piece piece: this.blackPieces) {
-            try {
-                final BufferedImage image = ImageIO.read (new File("art/simple/"
-                        + piece.getAlliance().toString().substring(0,1)
-                        + piece.toString().toUpperCase()
-                        + ".gif"));
-                final ImageIcon icon = new ImageIcon(image);
-                final JLabel imageLabel = new JLabel(new ImageIcon(icon.getImage().getScaledInstance(
-                        icon.getIconWidth() - 15, icon.getIconWidth() - 15, Image.SCALE_SMOOTH)));
-                this.northPanel.add(imageLabel);
-            }catch (final IOException e) {
-                e.printStackTrace();
-            }
+            this.northPanel.add(new JLabel(SpriteCache.getTakenPieceIcon(piece)));
         }
         validate();
     }
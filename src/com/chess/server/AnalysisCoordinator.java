@@ -0,0 +1,605 @@
+package com.chess.server;
+
+import com.chess.engine.search.SearchLimits;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * the AnalysisCoordinator class
+ * shares a queue of positions out to analysis workers that connect over a local socket. Each worker says how many
+ * searches it runs at once and is given that many positions; the analysis of every depth is streamed back as it is
+ * found, and the worker gets the next position as soon as one is finished. When a worker's connection is lost its
+ * unfinished positions go back to the front of the queue for another worker, up to MAX_ATTEMPTS times. The protocol
+ * is one line of text per message:
+ *   worker:      HELLO name threads
+ *   coordinator: JOB id maxDepth moveTimeMillis nodeLimit fen
+ *   worker:      INFO id bestMove score depth nodes millis       after every depth
+ *   worker:      RESULT id bestMove score depth nodes millis     when the position is finished
+ *   worker:      ERROR id message                                when the position can't be analysed
+ *   coordinator: QUIT
+ * usage: AnalysisCoordinator positions.txt [-port N] [-depth N | -time MILLISECONDS | -nodes N]
+ *                                          [-spawn WORKERS] [-threads N]
+ * -spawn starts that many worker processes on this machine, each running -threads searches
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public class AnalysisCoordinator {
+
+    // the number of times a position is handed out before it is given up on
+    public static final int MAX_ATTEMPTS = 3;
+    // how long the dispatcher of a worker waits for a position before checking its connection again
+    private static final long POLL_MILLIS = 100;
+
+    // the socket the workers connect to
+    private final ServerSocket serverSocket;
+    // the limits of every search
+    private final SearchLimits limits;
+    // the threads that accept, read from and write to the workers
+    private final ExecutorService connections;
+    // the positions waiting for a worker
+    private final BlockingDeque<Job> queue;
+    // the finished analysis by id
+    private final ConcurrentMap<Long, AnalysisResult> results;
+    // the connections to the workers, to tell them to quit
+    private final Set<PrintWriter> workerOutputs;
+    // the id of the next position
+    private final AtomicLong nextId;
+    // told about the analysis as it arrives
+    private volatile AnalysisListener listener;
+    // set when the coordinator stops
+    private volatile boolean stopped;
+
+    // the number of positions submitted, given up on and handed out again, guarded by this
+    private int submitted;
+    private int failed;
+    private int retries;
+    // the boards searched for the finished positions, and the positions finished by each worker, guarded by this
+    private long nodes;
+    private final Map<String, Integer> completedByWorker;
+    // when the coordinator started
+    private long startMillis;
+
+    /**
+     * the constructor
+     * @param port the local port the workers connect to, 0 for any free port
+     * @param limits the limits of every search
+     * @throws IOException if the port can't be opened
+     */
+    public AnalysisCoordinator(int port, SearchLimits limits) throws IOException {
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        this.limits = limits;
+        this.connections = Executors.newCachedThreadPool();
+        this.queue = new LinkedBlockingDeque<>();
+        this.results = new ConcurrentHashMap<>();
+        this.workerOutputs = Collections.newSetFromMap(new ConcurrentHashMap<PrintWriter, Boolean>());
+        this.nextId = new AtomicLong(1);
+        this.completedByWorker = new TreeMap<>();
+    }
+
+    /**
+     * analyse a file of positions from the command line
+     * @param args the positions file, then the options
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("usage: AnalysisCoordinator positions.txt [-port N] "
+                    + "[-depth N | -time MILLISECONDS | -nodes N] [-spawn WORKERS] [-threads N]");
+            return;
+        }
+        int port = 0;
+        SearchLimits limits = SearchLimits.fixedDepth(4);
+        int spawn = 0;
+        int threads = 1;
+        for (int i = 1; i + 1 < args.length; i += 2) {
+            if (args[i].equals("-port")) {
+                port = Integer.parseInt(args[i + 1]);
+            }
+            else if (args[i].equals("-depth")) {
+                limits = SearchLimits.fixedDepth(Integer.parseInt(args[i + 1]));
+            }
+            else if (args[i].equals("-time")) {
+                limits = SearchLimits.fixedTime(Long.parseLong(args[i + 1]));
+            }
+            else if (args[i].equals("-nodes")) {
+                limits = SearchLimits.fixedNodes(Long.parseLong(args[i + 1]));
+            }
+            else if (args[i].equals("-spawn")) {
+                spawn = Integer.parseInt(args[i + 1]);
+            }
+            else if (args[i].equals("-threads")) {
+                threads = Integer.parseInt(args[i + 1]);
+            }
+        }
+
+        List<Process> workers = new ArrayList<>();
+        try {
+            final AnalysisCoordinator coordinator = new AnalysisCoordinator(port, limits);
+            coordinator.setListener(new AnalysisListener() {
+                @Override
+                public void analysisProgress(AnalysisResult result) {
+                }
+
+                @Override
+                public void analysisComplete(AnalysisResult result) {
+                    System.out.println(result);
+                }
+            });
+            for (String fen : readPositions(args[0])) {
+                coordinator.submit(fen);
+            }
+            coordinator.start();
+            System.out.println("coordinator listening on port " + coordinator.getPort());
+            for (int i = 0; i < spawn; i++) {
+                workers.add(spawnWorker(coordinator.getPort(), threads, "worker-" + (i + 1)));
+            }
+            coordinator.awaitCompletion(0);
+            System.out.println(coordinator.getMetrics());
+            coordinator.stop();
+        }
+        catch (IOException | InterruptedException e) {
+            e.printStackTrace();
+        }
+        finally {
+            for (Process worker : workers) {
+                worker.destroy();
+            }
+        }
+    }
+
+    /**
+     * read a file with a FEN on each line, skipping empty lines and comments
+     * @param path the path of the file
+     * @return the positions
+     * @throws IOException if the file can't be read
+     */
+    public static List<String> readPositions(String path) throws IOException {
+        List<String> positions = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new FileReader(path));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    positions.add(line);
+                }
+            }
+        }
+        finally {
+            reader.close();
+        }
+        return positions;
+    }
+
+    /**
+     * start a worker process on this machine with the same java and class path
+     * @param port the port of the coordinator
+     * @param threads the number of searches the worker runs at once
+     * @param name the name of the worker
+     * @return the worker process
+     * @throws IOException if the process can't be started
+     */
+    public static Process spawnWorker(int port, int threads, String name) throws IOException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                AnalysisWorker.class.getName(), "localhost", String.valueOf(port), "-threads",
+                String.valueOf(threads), "-name", name);
+        builder.inheritIO();
+        return builder.start();
+    }
+
+    /**
+     * set the listener told about the analysis as it arrives. It is called from the connection threads
+     * @param listener the listener, null for none
+     */
+    public void setListener(AnalysisListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * get the port the workers connect to
+     * @return the port
+     */
+    public int getPort() {
+        return this.serverSocket.getLocalPort();
+    }
+
+    /**
+     * add a position to the queue
+     * @param fen the position
+     * @return the id of the position
+     */
+    public long submit(String fen) {
+        long id = this.nextId.getAndIncrement();
+        synchronized (this) {
+            this.submitted++;
+        }
+        this.queue.addLast(new Job(id, fen));
+        return id;
+    }
+
+    /**
+     * start accepting workers
+     */
+    public synchronized void start() {
+        this.startMillis = System.currentTimeMillis();
+        this.connections.submit(new Runnable() {
+            @Override
+            public void run() {
+                while (!stopped) {
+                    try {
+                        final Socket socket = serverSocket.accept();
+                        connections.submit(new Runnable() {
+                            @Override
+                            public void run() {
+                                serve(socket);
+                            }
+                        });
+                    }
+                    catch (IOException e) {
+                        if (!stopped) {
+                            e.printStackTrace();
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * tell the workers to quit and stop accepting new ones
+     */
+    public void stop() {
+        this.stopped = true;
+        for (PrintWriter output : this.workerOutputs) {
+            send(output, "QUIT");
+        }
+        try {
+            this.serverSocket.close();
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+        }
+        this.connections.shutdownNow();
+    }
+
+    /**
+     * wait until every submitted position is finished or given up on
+     * @param timeoutMillis the most time to wait in milliseconds, 0 to wait for as long as it takes
+     * @return true if every position is done, false if the time ran out
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public synchronized boolean awaitCompletion(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (this.results.size() + this.failed < this.submitted) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (timeoutMillis > 0 && remaining <= 0) {
+                return false;
+            }
+            wait(timeoutMillis > 0 ? remaining : 0);
+        }
+        return true;
+    }
+
+    /**
+     * talk to one worker until its connection is closed. This thread reads the worker's messages, and a second
+     * thread hands out positions whenever the worker has a free search
+     * @param socket the connection to the worker
+     */
+    private void serve(final Socket socket) {
+        final ConcurrentMap<Long, Job> inFlight = new ConcurrentHashMap<>();
+        PrintWriter output = null;
+        String name = socket.getRemoteSocketAddress().toString();
+        try {
+            BufferedReader input = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                    StandardCharsets.UTF_8));
+            output = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+            String line = input.readLine();
+            if (line == null || !line.startsWith("HELLO ")) {
+                return;
+            }
+            String[] hello = line.split(" ");
+            name = hello[1];
+            final Semaphore freeSearches = new Semaphore(Integer.parseInt(hello[2]));
+            this.workerOutputs.add(output);
+            final PrintWriter dispatchOutput = output;
+            this.connections.submit(new Runnable() {
+                @Override
+                public void run() {
+                    dispatch(socket, dispatchOutput, freeSearches, inFlight);
+                }
+            });
+
+            while ((line = input.readLine()) != null) {
+                String[] words = line.split(" ", 3);
+                Job job = words.length > 1 ? inFlight.get(Long.parseLong(words[1])) : null;
+                if (job == null) {
+                    continue;
+                }
+                if (words[0].equals("INFO")) {
+                    notifyProgress(parseResult(job, words[2], name));
+                }
+                else if (words[0].equals("RESULT")) {
+                    inFlight.remove(job.id);
+                    complete(parseResult(job, words[2], name));
+                    freeSearches.release();
+                }
+                else if (words[0].equals("ERROR")) {
+                    inFlight.remove(job.id);
+                    System.out.println("position " + job.id + " failed: " + (words.length > 2 ? words[2] : ""));
+                    giveUp(job);
+                    freeSearches.release();
+                }
+            }
+        }
+        catch (IOException | RuntimeException e) {
+            // the worker is lost, its positions are handed out again below
+        }
+        finally {
+            if (output != null) {
+                this.workerOutputs.remove(output);
+            }
+            try {
+                socket.close();
+            }
+            catch (IOException e) {
+                e.printStackTrace();
+            }
+            List<Job> lost = new ArrayList<>(inFlight.values());
+            Collections.sort(lost, new Comparator<Job>() {
+                @Override
+                public int compare(Job o1, Job o2) {
+                    return Long.compare(o2.id, o1.id);
+                }
+            });
+            for (Job job : lost) {
+                if (inFlight.remove(job.id) != null) {
+                    retry(job);
+                }
+            }
+        }
+    }
+
+    /**
+     * hand out positions to one worker whenever it has a free search, until its connection is closed
+     * @param socket the connection to the worker
+     * @param output the writer of the connection
+     * @param freeSearches the searches the worker has free
+     * @param inFlight the positions the worker has and hasn't finished
+     */
+    private void dispatch(Socket socket, PrintWriter output, Semaphore freeSearches,
+                          ConcurrentMap<Long, Job> inFlight) {
+        try {
+            while (!this.stopped && !socket.isClosed()) {
+                if (!freeSearches.tryAcquire(POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    continue;
+                }
+                Job job = this.queue.pollFirst(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (job == null) {
+                    freeSearches.release();
+                    continue;
+                }
+                inFlight.put(job.id, job);
+                job.attempts++;
+                if (socket.isClosed()) {
+                    // the reader may have handed out the lost positions already, whoever removes it puts it back
+                    if (inFlight.remove(job.id) != null) {
+                        retry(job);
+                    }
+                    break;
+                }
+                send(output, "JOB " + job.id + " " + this.limits.getMaxDepth() + " " + this.limits.getMoveTimeMillis()
+                        + " " + this.limits.getNodeLimit() + " " + job.fen);
+            }
+        }
+        catch (InterruptedException e) {
+            // the coordinator is stopping
+        }
+    }
+
+    /**
+     * send one message to a worker
+     * @param output the writer of the worker's connection
+     * @param message the message
+     */
+    private static void send(PrintWriter output, String message) {
+        synchronized (output) {
+            output.println(message);
+            output.flush();
+        }
+    }
+
+    /**
+     * read the analysis in an INFO or RESULT message
+     * @param job the position the analysis is for
+     * @param text the message after the id: bestMove score depth nodes millis
+     * @param worker the name of the worker
+     * @return the analysis
+     */
+    private static AnalysisResult parseResult(Job job, String text, String worker) {
+        String[] words = text.split(" ");
+        return new AnalysisResult(job.id, job.fen, words[0], Integer.parseInt(words[1]), Integer.parseInt(words[2]),
+                Long.parseLong(words[3]), Long.parseLong(words[4]), worker);
+    }
+
+    /**
+     * pass progress on to the listener
+     * @param result the analysis so far
+     */
+    private void notifyProgress(AnalysisResult result) {
+        AnalysisListener current = this.listener;
+        if (current != null) {
+            current.analysisProgress(result);
+        }
+    }
+
+    /**
+     * record a finished position
+     * @param result the final analysis
+     */
+    private void complete(AnalysisResult result) {
+        if (this.results.putIfAbsent(result.getId(), result) != null) {
+            return;
+        }
+        synchronized (this) {
+            this.nodes += result.getNodes();
+            Integer count = this.completedByWorker.get(result.getWorker());
+            this.completedByWorker.put(result.getWorker(), count == null ? 1 : count + 1);
+            notifyAll();
+        }
+        AnalysisListener current = this.listener;
+        if (current != null) {
+            current.analysisComplete(result);
+        }
+    }
+
+    /**
+     * put a position a worker didn't finish back at the front of the queue, or give up on it after MAX_ATTEMPTS
+     * @param job the position
+     */
+    private void retry(Job job) {
+        if (job.attempts >= MAX_ATTEMPTS) {
+            giveUp(job);
+            return;
+        }
+        synchronized (this) {
+            this.retries++;
+        }
+        this.queue.addFirst(job);
+    }
+
+    /**
+     * give up on a position
+     * @param job the position
+     */
+    private synchronized void giveUp(Job job) {
+        this.failed++;
+        notifyAll();
+    }
+
+    /**
+     * get the finished analysis
+     * @return the analysis of every finished position, by id
+     */
+    public List<AnalysisResult> getResults() {
+        List<AnalysisResult> list = new ArrayList<>(this.results.values());
+        Collections.sort(list, new Comparator<AnalysisResult>() {
+            @Override
+            public int compare(AnalysisResult o1, AnalysisResult o2) {
+                return Long.compare(o1.getId(), o2.getId());
+            }
+        });
+        return list;
+    }
+
+    /**
+     * get the analysis of one position
+     * @param id the id of the position
+     * @return the analysis, null if the position isn't finished
+     */
+    public AnalysisResult getResult(long id) {
+        return this.results.get(id);
+    }
+
+    /**
+     * get the number of positions given up on
+     * @return the number of failed positions
+     */
+    public synchronized int getFailedCount() {
+        return this.failed;
+    }
+
+    /**
+     * get the number of times a position was handed out again after its worker was lost
+     * @return the number of retries
+     */
+    public synchronized int getRetryCount() {
+        return this.retries;
+    }
+
+    /**
+     * get the number of positions each worker finished
+     * @return the count of finished positions by worker name
+     */
+    public synchronized Map<String, Integer> getCompletedByWorker() {
+        return new TreeMap<>(this.completedByWorker);
+    }
+
+    /**
+     * get the number of positions finished per second since the coordinator started
+     * @return the positions per second
+     */
+    public synchronized double getPositionsPerSecond() {
+        long elapsed = Math.max(1, System.currentTimeMillis() - this.startMillis);
+        return this.results.size() * 1000.0 / elapsed;
+    }
+
+    /**
+     * get the number of boards searched per second, over all workers, since the coordinator started
+     * @return the nodes per second
+     */
+    public synchronized double getNodesPerSecond() {
+        long elapsed = Math.max(1, System.currentTimeMillis() - this.startMillis);
+        return this.nodes * 1000.0 / elapsed;
+    }
+
+    /**
+     * describe the throughput so far
+     * @return the positions finished, failed and retried, the speed, and the positions finished by each worker
+     */
+    public synchronized String getMetrics() {
+        return String.format("%d of %d positions finished, %d failed, %d retries, %.2f positions/s, %.0f nodes/s, "
+                + "by worker %s", this.results.size(), this.submitted, this.failed, this.retries,
+                getPositionsPerSecond(), getNodesPerSecond(), this.completedByWorker);
+    }
+
+    /**
+     * the Job class
+     * a position in the queue
+     * @author Daniel Wakefield
+     * @version 1.0
+     */
+    private static class Job {
+        // the id of the position
+        private final long id;
+        // the position
+        private final String fen;
+        // the number of times the position was handed out
+        private int attempts;
+
+        /**
+         * the constructor
+         * @param id the id of the position
+         * @param fen the position
+         */
+        private Job(long id, String fen) {
+            this.id = id;
+            this.fen = fen;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.chess.server;
+
+/**
+ * the AnalysisListener interface
+ * told about the analysis streamed back from the workers
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public interface AnalysisListener {
+
+    /**
+     * called every time a worker finishes a depth of a position
+     * @param result the analysis of the position so far
+     */
+    void analysisProgress(AnalysisResult result);
+
+    /**
+     * called when a position is finished
+     * @param result the final analysis of the position
+     */
+    void analysisComplete(AnalysisResult result);
+}
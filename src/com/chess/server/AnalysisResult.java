@@ -0,0 +1,124 @@
+package com.chess.server;
+
+/**
+ * the AnalysisResult class
+ * the analysis of one position by a worker, as it is sent over the socket: the best move in coordinate notation, the
+ * score for the player to move, and how much searching it took
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public class AnalysisResult {
+    // the id of the position in the coordinator's queue
+    private final long id;
+    // the position
+    private final String fen;
+    // the best move in coordinate notation, "none" if the position has no moves
+    private final String bestMove;
+    // the score in centipawns for the player to move
+    private final int score;
+    // the depth searched
+    private final int depth;
+    // the number of boards searched
+    private final long nodes;
+    // the time the search took in milliseconds
+    private final long elapsedMillis;
+    // the name of the worker that searched the position
+    private final String worker;
+
+    /**
+     * the constructor
+     * @param id the id of the position in the coordinator's queue
+     * @param fen the position
+     * @param bestMove the best move in coordinate notation, "none" if the position has no moves
+     * @param score the score in centipawns for the player to move
+     * @param depth the depth searched
+     * @param nodes the number of boards searched
+     * @param elapsedMillis the time the search took in milliseconds
+     * @param worker the name of the worker that searched the position
+     */
+    public AnalysisResult(long id, String fen, String bestMove, int score, int depth, long nodes,
+                          long elapsedMillis, String worker) {
+        this.id = id;
+        this.fen = fen;
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.elapsedMillis = elapsedMillis;
+        this.worker = worker;
+    }
+
+    /**
+     * get the id of the position in the coordinator's queue
+     * @return the id
+     */
+    public long getId() {
+        return this.id;
+    }
+
+    /**
+     * get the position
+     * @return the FEN of the position
+     */
+    public String getFen() {
+        return this.fen;
+    }
+
+    /**
+     * get the best move
+     * @return the move in coordinate notation, "none" if the position has no moves
+     */
+    public String getBestMove() {
+        return this.bestMove;
+    }
+
+    /**
+     * get the score
+     * @return the score in centipawns for the player to move
+     */
+    public int getScore() {
+        return this.score;
+    }
+
+    /**
+     * get the depth searched
+     * @return the depth
+     */
+    public int getDepth() {
+        return this.depth;
+    }
+
+    /**
+     * get the number of boards searched
+     * @return the number of boards
+     */
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    /**
+     * get the time the search took
+     * @return the time in milliseconds
+     */
+    public long getElapsedMillis() {
+        return this.elapsedMillis;
+    }
+
+    /**
+     * get the name of the worker that searched the position
+     * @return the name of the worker
+     */
+    public String getWorker() {
+        return this.worker;
+    }
+
+    /**
+     * the String representation of the analysis
+     * @return the position, the best move and the score
+     */
+    @Override
+    public String toString() {
+        return String.format("%d %s: %s %d (depth %d, %d nodes, %d ms, %s)", this.id, this.fen, this.bestMove,
+                this.score, this.depth, this.nodes, this.elapsedMillis, this.worker);
+    }
+}
@@ -0,0 +1,202 @@
+package com.chess.server;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.notation.FenUtilities;
+import com.chess.engine.notation.MoveNotation;
+import com.chess.engine.search.AlphaBeta;
+import com.chess.engine.search.SearchLimits;
+import com.chess.engine.search.SearchListener;
+import com.chess.engine.search.SearchResult;
+import com.chess.engine.search.StandardBoardEvaluator;
+import com.chess.engine.search.TranspositionTable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * the AnalysisWorker class
+ * connects to an AnalysisCoordinator, searches the positions it is given on its own pool of threads, and streams the
+ * analysis of every depth back. The worker runs until the coordinator says QUIT or the connection is closed
+ * usage: AnalysisWorker [host] port [-threads N] [-name NAME]
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public class AnalysisWorker implements Runnable {
+
+    // the size of each search's transposition table, 2^18 entries
+    private static final int TABLE_BITS = 18;
+
+    // where the coordinator is
+    private final String host;
+    private final int port;
+    // the number of searches run at once
+    private final int threads;
+    // the name the coordinator knows the worker by
+    private final String name;
+    // the connection to the coordinator, null until the worker runs
+    private volatile Socket socket;
+
+    /**
+     * the constructor
+     * @param host the host of the coordinator
+     * @param port the port of the coordinator
+     * @param threads the number of searches run at once
+     * @param name the name the coordinator knows the worker by, without spaces
+     */
+    public AnalysisWorker(String host, int port, int threads, String name) {
+        this.host = host;
+        this.port = port;
+        this.threads = threads;
+        this.name = name;
+    }
+
+    /**
+     * run a worker from the command line
+     * @param args the host, the port, then the options
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("usage: AnalysisWorker [host] port [-threads N] [-name NAME]");
+            return;
+        }
+        int first = args.length > 1 && !args[1].startsWith("-") ? 2 : 1;
+        String host = first == 2 ? args[0] : "localhost";
+        int port = Integer.parseInt(args[first - 1]);
+        int threads = Runtime.getRuntime().availableProcessors();
+        String name = "worker";
+        for (int i = first; i + 1 < args.length; i += 2) {
+            if (args[i].equals("-threads")) {
+                threads = Integer.parseInt(args[i + 1]);
+            }
+            else if (args[i].equals("-name")) {
+                name = args[i + 1];
+            }
+        }
+        new AnalysisWorker(host, port, threads, name).run();
+    }
+
+    /**
+     * connect to the coordinator and search its positions until it says QUIT or the connection is closed
+     */
+    @Override
+    public void run() {
+        ExecutorService searches = Executors.newFixedThreadPool(this.threads);
+        try {
+            this.socket = new Socket(this.host, this.port);
+            BufferedReader input = new BufferedReader(new InputStreamReader(this.socket.getInputStream(),
+                    StandardCharsets.UTF_8));
+            final PrintWriter output = new PrintWriter(new OutputStreamWriter(this.socket.getOutputStream(),
+                    StandardCharsets.UTF_8));
+            send(output, "HELLO " + this.name + " " + this.threads);
+
+            String line;
+            while ((line = input.readLine()) != null && !line.equals("QUIT")) {
+                if (!line.startsWith("JOB ")) {
+                    continue;
+                }
+                // JOB id maxDepth moveTimeMillis nodeLimit fen
+                final String[] words = line.split(" ", 6);
+                searches.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        analyse(output, Long.parseLong(words[1]), createLimits(Integer.parseInt(words[2]),
+                                Long.parseLong(words[3]), Long.parseLong(words[4])), words[5]);
+                    }
+                });
+            }
+        }
+        catch (IOException e) {
+            if (this.socket == null || !this.socket.isClosed()) {
+                e.printStackTrace();
+            }
+        }
+        finally {
+            searches.shutdownNow();
+            close();
+        }
+    }
+
+    /**
+     * close the connection, the coordinator hands the unfinished positions to another worker
+     */
+    public void close() {
+        Socket current = this.socket;
+        if (current != null) {
+            try {
+                current.close();
+            }
+            catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * make the limits sent by the coordinator
+     * @param maxDepth the deepest the search goes
+     * @param moveTimeMillis the most time the search takes in milliseconds, 0 for no limit
+     * @param nodeLimit the most boards the search looks at, 0 for no limit
+     * @return the limits
+     */
+    private static SearchLimits createLimits(int maxDepth, long moveTimeMillis, long nodeLimit) {
+        if (nodeLimit > 0) {
+            return SearchLimits.fixedNodes(nodeLimit);
+        }
+        return new SearchLimits(maxDepth, moveTimeMillis);
+    }
+
+    /**
+     * search one position and send the analysis back
+     * @param output the writer of the connection
+     * @param id the id of the position
+     * @param limits the limits of the search
+     * @param fen the position
+     */
+    private void analyse(final PrintWriter output, final long id, SearchLimits limits, String fen) {
+        try {
+            Board board = FenUtilities.createBoard(fen);
+            AlphaBeta search = new AlphaBeta(new StandardBoardEvaluator(), new TranspositionTable(TABLE_BITS));
+            search.setListener(new SearchListener() {
+                @Override
+                public void iterationComplete(SearchResult result) {
+                    send(output, "INFO " + id + " " + describe(result));
+                }
+            });
+            send(output, "RESULT " + id + " " + describe(search.search(board, limits)));
+        }
+        catch (RuntimeException e) {
+            // a FEN that can't be read, or a position the search can't handle such as one without a king
+            send(output, "ERROR " + id + " " + e);
+        }
+    }
+
+    /**
+     * write the analysis part of an INFO or RESULT message
+     * @param result the result of the search
+     * @return bestMove score depth nodes millis
+     */
+    private static String describe(SearchResult result) {
+        String move = result.getBestMove() == null ? "none" : MoveNotation.toCoordinates(result.getBestMove());
+        return move + " " + result.getScore() + " " + result.getDepth() + " " + result.getNodes() + " "
+                + result.getElapsedMillis();
+    }
+
+    /**
+     * send one message to the coordinator
+     * @param output the writer of the connection
+     * @param message the message
+     */
+    private static void send(PrintWriter output, String message) {
+        synchronized (output) {
+            output.println(message);
+            output.flush();
+        }
+    }
+}
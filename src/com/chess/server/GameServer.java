@@ -0,0 +1,281 @@
+package com.chess.server;
+
+import com.chess.engine.archive.GameResult;
+import com.chess.engine.board.Board;
+import com.chess.engine.notation.FenUtilities;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * the GameServer class
+ * hosts many games at once over HTTP on the local machine, without the GUI:
+ *   POST /games                 start a game, the body may hold a FEN to start from
+ *   GET  /games/{id}            the state of a game
+ *   POST /games/{id}/moves      play the move in the body, "e2e4" or "Nf3"
+ *   DELETE /games/{id}          end a game and forget it
+ * every reply is the game in JSON. The games live in a map and no thread belongs to a game, the requests are
+ * handled by a small pool of worker threads, so thousands of waiting games cost nothing but their boards. A finished
+ * game is kept for FINISHED_GAME_LIFETIME after its last move so its result can still be read, then forgotten. A game
+ * nobody has played a move in for ABANDONED_GAME_LIFETIME is forgotten too, finished or not, so clients that walk
+ * away don't fill the server up
+ * usage: GameServer [port] [threads]
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public class GameServer {
+
+    // how long a finished game is kept after its last move, in milliseconds
+    public static final long FINISHED_GAME_LIFETIME = 10 * 60 * 1000;
+    // how long an unfinished game is kept after its last move, in milliseconds
+    public static final long ABANDONED_GAME_LIFETIME = 24 * 60 * 60 * 1000;
+
+    // the games being played, by id
+    private final ConcurrentMap<Long, ServerGame> games;
+    // the id of the next game
+    private final AtomicLong nextId;
+    // the http server
+    private final HttpServer server;
+    // the threads handling the requests
+    private final ExecutorService workers;
+    // the thread forgetting finished and abandoned games
+    private final ScheduledExecutorService evictor;
+
+    /**
+     * create a server on a local port
+     * @param port the port, 0 for any free port
+     * @param threads the number of worker threads
+     * @throws IOException if the port can't be opened
+     */
+    public GameServer(int port, int threads) throws IOException {
+        this.games = new ConcurrentHashMap<>();
+        this.nextId = new AtomicLong(1);
+        this.workers = Executors.newFixedThreadPool(threads);
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        this.server.setExecutor(this.workers);
+        this.evictor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "game-evictor");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        this.server.createContext("/games", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                handleRequest(exchange);
+            }
+        });
+    }
+
+    /**
+     * run the server from the command line
+     * @param args the port and the number of worker threads
+     */
+    public static void main(String[] args) {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors() * 2;
+        try {
+            GameServer gameServer = new GameServer(port, threads);
+            gameServer.start();
+            System.out.println("game server listening on port " + gameServer.getPort());
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * start accepting requests
+     */
+    public void start() {
+        this.server.start();
+        this.evictor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                evictIdleGames(FINISHED_GAME_LIFETIME, ABANDONED_GAME_LIFETIME);
+            }
+        }, 1, 1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * stop accepting requests and let the worker threads finish
+     */
+    public void stop() {
+        this.server.stop(0);
+        this.workers.shutdown();
+        this.evictor.shutdown();
+    }
+
+    /**
+     * get the port the server is listening on
+     * @return the port
+     */
+    public int getPort() {
+        return this.server.getAddress().getPort();
+    }
+
+    /**
+     * start a new game
+     * @param board the board the game starts from
+     * @return the new game
+     */
+    public ServerGame createGame(Board board) {
+        long id = this.nextId.getAndIncrement();
+        ServerGame game = new ServerGame(id, board);
+        this.games.put(id, game);
+        return game;
+    }
+
+    /**
+     * get a game
+     * @param id the id of the game
+     * @return the game, null if there is no game with that id
+     */
+    public ServerGame getGame(long id) {
+        return this.games.get(id);
+    }
+
+    /**
+     * end a game and forget it
+     * @param id the id of the game
+     * @return the game, null if there is no game with that id
+     */
+    public ServerGame removeGame(long id) {
+        return this.games.remove(id);
+    }
+
+    /**
+     * forget the games nobody has played a move in for a while
+     * @param finishedMillis how long since its last move a finished game is kept, in milliseconds
+     * @param unfinishedMillis how long since its last move an unfinished game is kept, in milliseconds
+     * @return the number of games forgotten
+     */
+    public int evictIdleGames(long finishedMillis, long unfinishedMillis) {
+        long now = System.currentTimeMillis();
+        int evicted = 0;
+        for (ServerGame game : this.games.values()) {
+            long idleMillis = game.getResult() != GameResult.UNKNOWN ? finishedMillis : unfinishedMillis;
+            if (now - game.getLastActivity() >= idleMillis && this.games.remove(game.getId(), game)) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * get the number of games hosted
+     * @return the number of games
+     */
+    public int getGameCount() {
+        return this.games.size();
+    }
+
+    /**
+     * route a request to the right game
+     * @param exchange the request
+     * @throws IOException if the reply can't be sent
+     */
+    private void handleRequest(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String[] path = exchange.getRequestURI().getPath().split("/");
+        String body = readBody(exchange.getRequestBody()).trim();
+        try {
+            // POST /games
+            if (path.length == 2 && method.equals("POST")) {
+                Board board;
+                try {
+                    board = body.isEmpty() ? Board.createStandardBoard() : FenUtilities.createBoard(body);
+                }
+                catch (RuntimeException e) {
+                    // not a FEN, or a board that can't be played such as one without a king
+                    reply(exchange, 400, "{\"error\":\"bad position\"}");
+                    return;
+                }
+                reply(exchange, 201, createGame(board).toJson());
+                return;
+            }
+            ServerGame game = path.length >= 3 ? getGame(Long.parseLong(path[2])) : null;
+            if (game == null) {
+                reply(exchange, 404, "{\"error\":\"no such game\"}");
+            }
+            // GET /games/{id}
+            else if (path.length == 3 && method.equals("GET")) {
+                reply(exchange, 200, game.toJson());
+            }
+            // DELETE /games/{id}
+            else if (path.length == 3 && method.equals("DELETE")) {
+                removeGame(game.getId());
+                reply(exchange, 200, game.toJson());
+            }
+            // POST /games/{id}/moves
+            else if (path.length == 4 && path[3].equals("moves") && method.equals("POST")) {
+                if (game.playMove(body)) {
+                    reply(exchange, 200, game.toJson());
+                }
+                else {
+                    reply(exchange, 409, "{\"error\":\"illegal move\",\"game\":" + game.toJson() + "}");
+                }
+            }
+            else {
+                reply(exchange, 405, "{\"error\":\"unsupported request\"}");
+            }
+        }
+        catch (IllegalArgumentException e) {
+            // a bad game id
+            reply(exchange, 400, "{\"error\":\"bad request\"}");
+        }
+        catch (RuntimeException e) {
+            e.printStackTrace();
+            reply(exchange, 500, "{\"error\":\"server error\"}");
+        }
+    }
+
+    /**
+     * read the body of a request
+     * @param input the body
+     * @return the body as text
+     * @throws IOException if the body can't be read
+     */
+    private static String readBody(InputStream input) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int read;
+        while ((read = input.read(buffer)) > 0) {
+            bytes.write(buffer, 0, read);
+        }
+        input.close();
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * send a reply
+     * @param exchange the request
+     * @param status the http status
+     * @param json the body of the reply
+     * @throws IOException if the reply can't be sent
+     */
+    private static void reply(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        OutputStream output = exchange.getResponseBody();
+        output.write(bytes);
+        output.close();
+    }
+}
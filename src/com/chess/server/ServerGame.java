@@ -0,0 +1,165 @@
+package com.chess.server;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.archive.GameResult;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.move.Move;
+import com.chess.engine.move.MoveStatus;
+import com.chess.engine.move.MoveTransition;
+import com.chess.engine.notation.FenUtilities;
+import com.chess.engine.notation.MoveNotation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * the ServerGame class
+ * one game hosted by the game server: its board, which carries the history of the game, and the moves played.
+ * A game is only touched while a request for it is being handled, so a waiting game costs nothing but its board
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public class ServerGame {
+    // the id of the game
+    private final long id;
+    // the current board
+    private Board board;
+    // the moves played, in algebraic notation
+    private final List<String> moves;
+    // the result, UNKNOWN while the game is being played
+    private GameResult result;
+    // when the game was started or last had a move played, from System.currentTimeMillis
+    private long lastActivity;
+
+    /**
+     * the constructor
+     * @param id the id of the game
+     * @param board the board the game starts from
+     */
+    public ServerGame(long id, Board board) {
+        this.id = id;
+        this.board = board;
+        this.moves = new ArrayList<>();
+        this.result = GameResult.UNKNOWN;
+        this.lastActivity = System.currentTimeMillis();
+    }
+
+    /**
+     * play a move, if it is legal
+     * @param text the move in coordinate notation ("e2e4") or algebraic notation ("Nf3")
+     * @return true if the move was played, false if the game is over or the move is not legal
+     */
+    public synchronized boolean playMove(String text) {
+        if (this.result != GameResult.UNKNOWN) {
+            return false;
+        }
+        Move move = findMove(text);
+        if (move == null) {
+            return false;
+        }
+        MoveTransition transition = this.board.makeMove(move);
+        if (transition.getStatus() != MoveStatus.DONE) {
+            return false;
+        }
+        this.moves.add(MoveNotation.toAlgebraic(this.board, move));
+        this.board = transition.getTransBoard();
+        this.result = calculateResult(this.board);
+        this.lastActivity = System.currentTimeMillis();
+        return true;
+    }
+
+    /**
+     * find the move the text describes, going through Board.getMove for coordinate notation
+     * @param text the move
+     * @return the move, null if the board has no such move
+     */
+    private Move findMove(String text) {
+        if (text.length() >= 4) {
+            int start = BoardUtils.getCoordinateAtPosition(text.substring(0, 2));
+            int end = BoardUtils.getCoordinateAtPosition(text.substring(2, 4));
+            if (start >= 0 && end >= 0) {
+                return this.board.getMove(start, end);
+            }
+        }
+        return MoveNotation.fromAlgebraic(this.board, text);
+    }
+
+    /**
+     * work out if a game is over
+     * @param board the board after the last move
+     * @return the result of the game, UNKNOWN if it isn't over
+     */
+    static GameResult calculateResult(Board board) {
+        Alliance mover = board.getCurrentPlayerAlliance();
+        if (board.calculateIsPlayerInCheckmate(mover)) {
+            return mover.isWhite() ? GameResult.BLACK_WINS : GameResult.WHITE_WINS;
+        }
+        if (board.calculateIsDraw(mover)) {
+            return GameResult.DRAW;
+        }
+        return GameResult.UNKNOWN;
+    }
+
+    /**
+     * get the id of the game
+     * @return the id
+     */
+    public long getId() {
+        return this.id;
+    }
+
+    /**
+     * get the current board
+     * @return the board
+     */
+    public synchronized Board getBoard() {
+        return this.board;
+    }
+
+    /**
+     * get the result of the game
+     * @return the result, UNKNOWN while the game is being played
+     */
+    public synchronized GameResult getResult() {
+        return this.result;
+    }
+
+    /**
+     * get when the game was started or last had a move played
+     * @return the time from System.currentTimeMillis
+     */
+    public synchronized long getLastActivity() {
+        return this.lastActivity;
+    }
+
+    /**
+     * get the moves played
+     * @return a copy of the moves in algebraic notation
+     */
+    public synchronized List<String> getMoves() {
+        return Collections.unmodifiableList(new ArrayList<>(this.moves));
+    }
+
+    /**
+     * describe the game in JSON
+     * @return the id, FEN, result and moves of the game
+     */
+    public synchronized String toJson() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("{\"id\":").append(this.id);
+        builder.append(",\"fen\":\"").append(FenUtilities.createFEN(this.board)).append('"');
+        builder.append(",\"toMove\":\"").append(this.board.getCurrentPlayerAlliance()).append('"');
+        builder.append(",\"result\":\"").append(this.result).append('"');
+        builder.append(",\"moves\":[");
+        for (int i = 0; i < this.moves.size(); i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append('"').append(this.moves.get(i)).append('"');
+        }
+        builder.append("]}");
+        return builder.toString();
+    }
+}
@@ -0,0 +1,88 @@
+package com.chess.tests;
+
+import com.chess.engine.search.SearchLimits;
+import com.chess.server.AnalysisCoordinator;
+import com.chess.server.AnalysisWorker;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * the test class for the distributed analysis
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public class AnalysisTests {
+
+    /**
+     * a worker takes two positions and disconnects, so they go back in the queue and a second worker analyses
+     * everything; a bad FEN is given up on instead of being retried
+     * @throws Exception if the sockets fail or the test is interrupted
+     */
+    @Test
+    public void workerLoss() throws Exception {
+        AnalysisCoordinator coordinator = new AnalysisCoordinator(0, SearchLimits.fixedDepth(2));
+        long mate = coordinator.submit("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        coordinator.submit("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1");
+        coordinator.submit("4k3/8/8/8/8/8/4P3/4K3 w - - 0 1");
+        coordinator.submit("not a position");
+        coordinator.submit("8/8/8/8/8/8/8/4K3 w - - 0 1");
+        coordinator.start();
+
+        Socket lost = new Socket("localhost", coordinator.getPort());
+        PrintWriter output = new PrintWriter(lost.getOutputStream(), true);
+        BufferedReader input = new BufferedReader(new InputStreamReader(lost.getInputStream(),
+                StandardCharsets.UTF_8));
+        output.println("HELLO lost 2");
+        assertTrue(input.readLine().startsWith("JOB "));
+        assertTrue(input.readLine().startsWith("JOB "));
+        lost.close();
+
+        AnalysisWorker worker = new AnalysisWorker("localhost", coordinator.getPort(), 2, "local");
+        Thread thread = new Thread(worker);
+        thread.start();
+        try {
+            assertTrue(coordinator.awaitCompletion(60000));
+            assertEquals(3, coordinator.getResults().size());
+            assertEquals(2, coordinator.getFailedCount());
+            assertTrue(coordinator.getRetryCount() >= 2);
+            assertEquals("a1a8", coordinator.getResult(mate).getBestMove());
+            assertEquals(Integer.valueOf(3), coordinator.getCompletedByWorker().get("local"));
+            assertTrue(coordinator.getPositionsPerSecond() > 0);
+        }
+        finally {
+            coordinator.stop();
+            worker.close();
+            thread.join(10000);
+        }
+    }
+
+    /**
+     * the positions file skips comments and empty lines
+     * @throws IOException if the file can't be written or read
+     */
+    @Test
+    public void readPositions() throws IOException {
+        File file = File.createTempFile("positions", ".txt");
+        PrintWriter writer = new PrintWriter(file, "UTF-8");
+        writer.println("# a comment");
+        writer.println("");
+        writer.println("4k3/8/8/8/8/8/4P3/4K3 w - - 0 1");
+        writer.close();
+        try {
+            assertEquals(1, AnalysisCoordinator.readPositions(file.getPath()).size());
+        }
+        finally {
+            file.delete();
+        }
+    }
+}
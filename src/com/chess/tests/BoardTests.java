@@ -3,6 +3,7 @@ import com.chess.engine.Alliance;
 import com.chess.engine.board.Board;
 import com.chess.engine.move.CastleType;
 import com.chess.engine.move.Move;
+import com.chess.engine.move.MoveStatus;
 import com.chess.engine.pieces.Pawn;
 import com.chess.engine.pieces.Piece;
 import com.chess.engine.pieces.singletonPieces.King;
@@ -16,7 +17,9 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -272,4 +275,61 @@ public class BoardTests {
 
     }
 
+    /**
+     * moves are found by their start and end tile
+     */
+    @Test
+    public void moveLookup() {
+        Board board = Board.createStandardBoard();
+        Move jump = board.getMove(52, 36);
+        assertTrue(jump instanceof Move.PawnJump);
+        assertTrue(jump == board.getMove(board.getTile(52).getPiece(), 36));
+        assertEquals(2, board.getMovesForPiece(board.getTile(62).getPiece()).size());
+        assertNull(board.getMove(52, 28));
+        assertNull(board.getMove(36, 28));
+        // black's moves can be looked up too, but not made
+        Move blackJump = board.getMove(12, 28);
+        assertTrue(blackJump != null);
+        assertTrue(board.makeMove(blackJump).getStatus() == MoveStatus.ILLEGAL);
+        assertTrue(board.makeMove(jump).getStatus() == MoveStatus.DONE);
+    }
+
+    /**
+     * tests that only the legal moves of a tile are given, so a pinned piece has none
+     */
+    @Test
+    public void legalMovesFromTile() {
+        Board.Builder builder = new Board.Builder();
+        builder.addPiece(new King(60, Alliance.WHITE, false));
+        builder.addPiece(new Bishop(52, Alliance.WHITE, false));
+        builder.addPiece(new Rook(4, Alliance.BLACK, false));
+        builder.addPiece(new King(0, Alliance.BLACK, false));
+        builder.setMover(Alliance.WHITE);
+        Board board = builder.build();
+
+        assertFalse(board.getMovesForPiece(board.getTile(52).getPiece()).isEmpty());
+        assertTrue(board.getLegalMovesFrom(52).isEmpty());
+        assertNull(board.getLegalMove(52, 43));
+        assertTrue(board.getLegalMove(60, 61) != null);
+        assertNull(board.getLegalMove(60, 52));
+        // the opponent's pieces have no legal moves until it is their turn
+        assertTrue(board.getLegalMovesFrom(4).isEmpty());
+        assertTrue(board.getLegalMovesFrom(60) == board.getLegalMovesFrom(60));
+    }
+
+    /**
+     * tests that a null move only passes the turn, and forgets the en passant pawn
+     */
+    @Test
+    public void nullMove() {
+        Board board = Board.createStandardBoard();
+        Board afterJump = board.makeMove(board.getMove(52, 36)).getTransBoard();
+        assertTrue(afterJump.getEnPassantPawn() != null);
+        Board passed = afterJump.makeNullMove();
+        assertEquals(Alliance.WHITE, passed.getCurrentPlayerAlliance());
+        assertNull(passed.getEnPassantPawn());
+        assertEquals(afterJump.toString(), passed.toString());
+        assertEquals(afterJump.getAllPieces().size(), passed.getAllPieces().size());
+        assertFalse(passed.getZobristKey() == afterJump.getZobristKey());
+    }
 }
@@ -2,14 +2,19 @@ package com.chess.tests;
 
 import com.chess.engine.Alliance;
 import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardStatus;
 import com.chess.engine.move.Move;
 import com.chess.engine.move.MoveStatus;
 import com.chess.engine.move.MoveTransition;
 import com.chess.engine.pieces.Piece;
 import com.chess.engine.pieces.PieceType;
+import com.chess.engine.pieces.singletonPieces.King;
+import com.chess.engine.pieces.vectorPieces.Queen;
 import org.junit.Test;
 
 import static junit.framework.TestCase.assertFalse;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -57,6 +62,8 @@ public class CheckmateTests {
         assertFalse(board.calculateIsPlayerInCheckmate(Alliance.BLACK));
         assertFalse(board.isPlayerInCheck(Alliance.BLACK));
         assertFalse(board.calculateIsPlayerInStalemate(Alliance.WHITE));
+        assertEquals(BoardStatus.CHECKMATE, board.getStatus());
+        assertEquals(0, board.getLegalMoveCount());
     }
 
     /**
@@ -404,6 +411,27 @@ public class CheckmateTests {
         assertFalse(board.calculateIsPlayerInStalemate(Alliance.WHITE));
     }
 
+    /**
+     * the status of a board is worked out once and remembered
+     */
+    @Test
+    public void statusIsRemembered() {
+        Board board = Board.createStandardBoard();
+        assertEquals(BoardStatus.ONGOING, board.getStatus());
+        assertEquals(20, board.getLegalMoveCount());
+        assertSame(board.calculateLegalMoves(), board.calculateLegalMoves());
+
+        // a lone king in the corner with nowhere to go
+        Board.Builder builder = new Board.Builder();
+        builder.addPiece(new King(0, Alliance.BLACK, false));
+        builder.addPiece(new Queen(17, Alliance.WHITE, false));
+        builder.addPiece(new King(18, Alliance.WHITE, false));
+        builder.setMover(Alliance.BLACK);
+        board = builder.build();
+        assertEquals(BoardStatus.STALEMATE, board.getStatus());
+        assertTrue(board.calculateIsPlayerInStalemate(Alliance.BLACK));
+    }
+
     /**
      * a test to make sure neither of the kings are in check, checkmate, or stalemate
      * @param board
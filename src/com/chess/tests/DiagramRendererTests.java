@@ -0,0 +1,62 @@
+package com.chess.tests;
+import com.chess.engine.board.Board;
+import com.chess.tools.DiagramRenderer;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * the test class for the diagram renderer
+ */
+public class DiagramRendererTests {
+    /**
+     * an empty tile is drawn in its color, and a tile with a piece isn't only its color
+     */
+    @Test
+    public void renderBoard() throws IOException {
+        DiagramRenderer renderer = new DiagramRenderer(40);
+        BufferedImage image = renderer.render(Board.createStandardBoard());
+        assertEquals(320, image.getWidth());
+        // a3 is dark and empty, e1 is light and holds the king
+        assertEquals(Color.decode("#593E1A").getRGB(), image.getRGB(5, 5 * 40 + 5));
+        boolean kingDrawn = false;
+        for (int x = 4 * 40; x < 5 * 40; x++) {
+            if (image.getRGB(x, 7 * 40 + 20) != Color.decode("#FFFACD").getRGB()) {
+                kingDrawn = true;
+            }
+        }
+        assertTrue(kingDrawn);
+    }
+
+    /**
+     * a batch writes a diagram for every good position and skips the bad ones
+     */
+    @Test
+    public void renderBatch() throws IOException {
+        File folder = Files.createTempDirectory("diagrams").toFile();
+        try {
+            DiagramRenderer renderer = new DiagramRenderer(32);
+            int rendered = renderer.renderAll(Arrays.asList("4k3/8/8/8/8/8/8/4K2R w K -",
+                    "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3", "not a position"), folder, 2);
+            assertEquals(2, rendered);
+            BufferedImage second = ImageIO.read(new File(folder, "diagram-2.png"));
+            assertEquals(256, second.getHeight());
+            assertTrue(!new File(folder, "diagram-3.png").exists());
+        }
+        finally {
+            for (File file : folder.listFiles()) {
+                file.delete();
+            }
+            folder.delete();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.chess.tests;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.move.Move;
+import com.chess.engine.move.MoveStatus;
+import com.chess.engine.move.MoveTransition;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.singletonPieces.King;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * test threefold repetition and the fifty move rule
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public class DrawTests {
+
+    /**
+     * move the knights out and back twice, the position after the first return repeats three times
+     */
+    @Test
+    public void threefoldRepetition() {
+        Board board = Board.createStandardBoard();
+        long startKey = board.getZobristKey();
+        int[][] shuffle = {{62, 45}, {6, 21}, {45, 62}, {21, 6}};
+
+        for (int round = 0; round < 2; round++) {
+            for (int[] squares : shuffle) {
+                assertFalse(board.isThreefoldRepetition());
+                assertFalse(board.calculateIsDraw(board.getCurrentPlayerAlliance()));
+                board = makeMove(board, squares[0], squares[1]);
+            }
+        }
+        // the castling rights didn't change, so the start position is back
+        assertEquals(startKey, board.getZobristKey());
+        assertEquals(3, board.getGameHistory().countRepetitions());
+        assertTrue(board.isThreefoldRepetition());
+        assertTrue(board.calculateIsDraw(board.getCurrentPlayerAlliance()));
+        assertEquals(8, board.getHalfmoveClock());
+    }
+
+    /**
+     * two passes of the search bring back the start position with white to move, but a position before a pass
+     * wasn't reached by moves, so it doesn't count as a repetition
+     */
+    @Test
+    public void nullMoveIsRepetitionBarrier() {
+        Board board = Board.createStandardBoard();
+        for (int[] squares : new int[][] {{62, 45}, {6, 21}, {45, 62}, {21, 6}}) {
+            board = makeMove(board, squares[0], squares[1]);
+        }
+        assertEquals(2, board.getGameHistory().countRepetitions());
+        long startKey = board.getZobristKey();
+
+        board = makeMove(board.makeNullMove(), 6, 21);
+        board = makeMove(board.makeNullMove(), 21, 6);
+        assertEquals(startKey, board.getZobristKey());
+        assertEquals(1, board.getGameHistory().countRepetitions());
+    }
+
+    /**
+     * a capture or pawn move resets the counter, and a hundred half moves without one is a draw
+     */
+    @Test
+    public void fiftyMoveRule() {
+        Board.Builder builder = new Board.Builder();
+        builder.addPiece(new King(4, Alliance.BLACK, false));
+        builder.addPiece(new King(60, Alliance.WHITE, false));
+        builder.addPiece(new Pawn(52, Alliance.WHITE, false));
+        builder.setMover(Alliance.WHITE);
+        builder.setHalfmoveClock(99);
+        Board board = builder.build();
+        assertFalse(board.isFiftyMoveRule());
+
+        Board kingMove = makeMove(board, 60, 59);
+        assertEquals(100, kingMove.getHalfmoveClock());
+        assertTrue(kingMove.isFiftyMoveRule());
+        assertTrue(kingMove.calculateIsDraw(Alliance.BLACK));
+
+        Board pawnMove = makeMove(board, 52, 44);
+        assertEquals(0, pawnMove.getHalfmoveClock());
+        assertFalse(pawnMove.isFiftyMoveRule());
+        assertFalse(pawnMove.calculateIsDraw(Alliance.BLACK));
+    }
+
+    /**
+     * make the move between two tiles, and make sure it is legal
+     * @param board the board to make the move on
+     * @param start the start tile
+     * @param end the end tile
+     * @return the board after the move
+     */
+    private Board makeMove(Board board, int start, int end) {
+        Move move = board.getMove(board.getTile(start).getPiece(), end);
+        MoveTransition trans = board.makeMove(move);
+        assertTrue(trans.getStatus() == MoveStatus.DONE);
+        return trans.getTransBoard();
+    }
+}
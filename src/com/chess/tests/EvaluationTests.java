@@ -0,0 +1,156 @@
+package com.chess.tests;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.notation.FenUtilities;
+import com.chess.engine.notation.MoveNotation;
+import com.chess.engine.search.NnueEvaluator;
+import com.chess.engine.search.NnueNetwork;
+import com.chess.engine.search.StandardBoardEvaluator;
+import com.chess.tools.TexelTuner;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * the test class for the network evaluation
+ */
+public class EvaluationTests {
+
+    /**
+     * make a network with random weights
+     * @param seed the seed of the random weights
+     * @return the network
+     */
+    private static NnueNetwork randomNetwork(long seed) {
+        Random random = new Random(seed);
+        int hiddenSize = 16;
+        short[] featureWeights = new short[NnueNetwork.INPUTS * hiddenSize];
+        for (int i = 0; i < featureWeights.length; i++) {
+            featureWeights[i] = (short) (random.nextInt(65) - 32);
+        }
+        short[] featureBiases = new short[hiddenSize];
+        for (int i = 0; i < hiddenSize; i++) {
+            featureBiases[i] = (short) random.nextInt(128);
+        }
+        short[] outputWeights = new short[2 * hiddenSize];
+        for (int i = 0; i < outputWeights.length; i++) {
+            outputWeights[i] = (short) (random.nextInt(257) - 128);
+        }
+        return new NnueNetwork(hiddenSize, featureWeights, featureBiases, outputWeights, 1000);
+    }
+
+    /**
+     * a board updated from the board before it scores the same as the board worked out from nothing, through
+     * captures, castling, en passant, a promotion and king moves
+     */
+    @Test
+    public void incrementalUpdate() {
+        NnueNetwork network = randomNetwork(7);
+        NnueEvaluator evaluator = new NnueEvaluator(network);
+        Board board = FenUtilities.createBoard("r3k2r/1P4pp/8/3pP3/8/8/6PP/R3K2R w KQkq d6 0 1");
+        String[] moves = {"exd6", "O-O", "bxa8=Q", "Rxa8", "O-O-O", "Rd8", "d7", "Kf7", "Kb1", "Ke6", "Rhe1+", "Kf5"};
+        evaluator.evaluate(board);
+        for (String text : moves) {
+            board = board.makeMove(MoveNotation.fromAlgebraic(board, text)).getTransBoard();
+            assertEquals(text, new NnueEvaluator(network).evaluate(board), evaluator.evaluate(board));
+        }
+        assertTrue(evaluator.getUpdates() >= moves.length / 2);
+        assertEquals(1, evaluator.getRefreshes());
+    }
+
+    /**
+     * a network written to a weights file and read back scores boards the same
+     */
+    @Test
+    public void weightsFile() throws IOException {
+        NnueNetwork network = randomNetwork(11);
+        File file = File.createTempFile("network", ".nnue");
+        try {
+            network.save(file.getPath());
+            NnueNetwork loaded = NnueNetwork.load(file.getPath());
+            Board board = FenUtilities.createBoard("r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3");
+            assertEquals(new NnueEvaluator(network).evaluate(board), new NnueEvaluator(loaded).evaluate(board));
+        }
+        finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * the material network scores the starting board even, a board a queen up at about a queen, and the same board
+     * with the colours swapped the other way round
+     */
+    @Test
+    public void materialNetwork() {
+        NnueEvaluator evaluator = new NnueEvaluator(NnueNetwork.material());
+        assertEquals(0, evaluator.evaluate(Board.createStandardBoard()));
+        int score = evaluator.evaluate(FenUtilities.createBoard("3qk3/8/8/8/8/8/8/4K3 b - - 0 1"));
+        assertTrue(score < -850 && score > -950);
+        assertEquals(-score, evaluator.evaluate(FenUtilities.createBoard("4k3/8/8/8/8/8/8/3QK3 w - - 0 1")));
+    }
+
+    /**
+     * the standard evaluation is the sum of its weights times the feature counts the tuner uses
+     */
+    @Test
+    public void standardFeatures() {
+        StandardBoardEvaluator evaluator = new StandardBoardEvaluator();
+        int[] weights = StandardBoardEvaluator.defaultWeights();
+        int[] counts = new int[StandardBoardEvaluator.WEIGHT_COUNT];
+        String[] fens = {"rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                "r1bqkb1r/pppp1Qpp/2n2n2/4p3/2B1P3/8/PPPP1PPP/RNB1K1NR b KQkq - 0 4",
+                "8/5k2/3p4/1p1Pp2p/pP2Pp1P/P4P1K/8/8 b - - 99 50"};
+        for (String fen : fens) {
+            Board board = FenUtilities.createBoard(fen);
+            StandardBoardEvaluator.countFeatures(board, counts);
+            int score = 0;
+            for (int i = 0; i < counts.length; i++) {
+                score += weights[i] * counts[i];
+            }
+            assertEquals(fen, evaluator.evaluate(board), score);
+        }
+    }
+
+    /**
+     * the tuner reads the results in every format, skips positions that aren't quiet, and makes the error smaller
+     */
+    @Test
+    public void texelTuning() throws IOException {
+        File file = File.createTempFile("positions", ".txt");
+        PrintWriter writer = new PrintWriter(new FileWriter(file));
+        writer.println("4k3/8/8/8/8/8/3N4/4K3 w - - 0 1 1-0");
+        writer.println("4k3/8/8/8/8/2n5/8/4K3 w - - 0 1 [0.0]");
+        writer.println("4k3/pp6/8/8/8/8/PP6/4K3 b - - 0 1 c9 \"1/2-1/2\";");
+        writer.println("4k3/8/8/8/8/8/3r4/4K3 w - - 0 1 \"0-1\"");
+        writer.println("4k3/8/8/8/8/8/8/r3K2R w - - 0 1 1-0");
+        writer.println("not a position 1-0");
+        writer.close();
+        TexelTuner tuner = new TexelTuner(2);
+        try {
+            // the last two boards aren't quiet: a rook hangs, and the white king is in check
+            assertEquals(3, tuner.loadPositions(file.getPath()));
+            for (int i = 0; i < 20; i++) {
+                tuner.addPosition(FenUtilities.createBoard("4k3/8/8/8/8/8/3Q4/4K3 w - - 0 1"), 1);
+                tuner.addPosition(FenUtilities.createBoard("4k3/8/2b5/8/8/8/8/4K3 w - - 0 1"), 0.5);
+            }
+            assertEquals(43, tuner.getPositionCount());
+            tuner.fitScale();
+            double before = tuner.computeError();
+            for (int i = 0; i < 30; i++) {
+                tuner.step(2.0);
+            }
+            assertTrue(tuner.computeError() < before);
+        }
+        finally {
+            tuner.shutdown();
+            file.delete();
+        }
+    }
+}
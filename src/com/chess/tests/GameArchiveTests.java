@@ -0,0 +1,78 @@
+package com.chess.tests;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.archive.GameArchiveReader;
+import com.chess.engine.archive.GameArchiveWriter;
+import com.chess.engine.archive.GameResult;
+import com.chess.engine.board.Board;
+import com.chess.engine.move.Move;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * the test class for the binary game archive
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public class GameArchiveTests {
+
+    /**
+     * write a few games and read them back by id
+     * @throws IOException if the archive can't be written
+     */
+    @Test
+    public void writeAndRead() throws IOException {
+        File file = File.createTempFile("games", ".bin");
+        file.deleteOnExit();
+
+        List<Move> foolsmate = playMoves(new int[][] {{54, 38}, {12, 28}, {53, 45}, {3, 39}});
+        List<Move> knights = playMoves(new int[][] {{62, 45}, {6, 21}});
+
+        try (GameArchiveWriter writer = new GameArchiveWriter(file)) {
+            assertEquals(0, writer.addGame(foolsmate, GameResult.BLACK_WINS));
+            assertEquals(1, writer.addGame(new ArrayList<Move>(), GameResult.UNKNOWN));
+            assertEquals(2, writer.addGame(knights, GameResult.DRAW));
+        }
+
+        // the header, three games of 3 bytes plus a byte per move, and the index
+        assertEquals(20 + 3 * 3 + 6 + 3 * 8, file.length());
+
+        try (GameArchiveReader reader = new GameArchiveReader(file)) {
+            assertEquals(3, reader.getGameCount());
+
+            assertEquals(GameResult.BLACK_WINS, reader.getResult(0));
+            assertEquals(4, reader.getMoveCount(0));
+            assertEquals(foolsmate, reader.getMoves(0));
+            assertTrue(reader.getFinalBoard(0).calculateIsPlayerInCheckmate(Alliance.WHITE));
+
+            assertEquals(GameResult.UNKNOWN, reader.getResult(1));
+            assertEquals(0, reader.getMoveIndices(1).length);
+
+            assertEquals(GameResult.DRAW, reader.getResult(2));
+            assertEquals(knights, reader.getMoves(2));
+        }
+    }
+
+    /**
+     * play moves from the standard board
+     * @param squares the start and end tile of every move
+     * @return the moves that were played
+     */
+    private List<Move> playMoves(int[][] squares) {
+        List<Move> moves = new ArrayList<>();
+        Board board = Board.createStandardBoard();
+        for (int[] move : squares) {
+            Move next = board.getMove(board.getTile(move[0]).getPiece(), move[1]);
+            moves.add(next);
+            board = board.makeMove(next).getTransBoard();
+        }
+        return moves;
+    }
+}
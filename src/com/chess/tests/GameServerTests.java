@@ -0,0 +1,141 @@
+package com.chess.tests;
+
+import com.chess.engine.archive.GameResult;
+import com.chess.engine.board.Board;
+import com.chess.server.GameServer;
+import com.chess.server.ServerGame;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * the test class for the headless game server
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public class GameServerTests {
+
+    /**
+     * play fool's mate over http, with an illegal move, a missing game and bad positions along the way, then delete
+     * the game
+     * @throws IOException if the server can't be reached
+     */
+    @Test
+    public void playOverHttp() throws IOException {
+        GameServer server = new GameServer(0, 4);
+        server.start();
+        try {
+            String base = "http://localhost:" + server.getPort() + "/games";
+            assertEquals(201, request("POST", base, "").getResponseCode());
+            assertEquals(1, server.getGameCount());
+
+            assertEquals(200, request("POST", base + "/1/moves", "f2f3").getResponseCode());
+            assertEquals(200, request("POST", base + "/1/moves", "e5").getResponseCode());
+            // it is white's turn
+            assertEquals(409, request("POST", base + "/1/moves", "d7d6").getResponseCode());
+            assertEquals(200, request("POST", base + "/1/moves", "g4").getResponseCode());
+            assertEquals(200, request("POST", base + "/1/moves", "Qh4").getResponseCode());
+
+            HttpURLConnection connection = request("GET", base + "/1", null);
+            assertEquals(200, connection.getResponseCode());
+            String json = readBody(connection.getInputStream());
+            assertTrue(json.contains("\"result\":\"BLACK_WINS\""));
+            assertTrue(json.contains("\"moves\":[\"f3\",\"e5\",\"g4\",\"Qh4#\"]"));
+
+            assertEquals(404, request("GET", base + "/7", null).getResponseCode());
+            assertEquals(400, request("GET", base + "/seven", null).getResponseCode());
+            assertEquals(400, request("POST", base, "not a position").getResponseCode());
+            assertEquals(400, request("POST", base, "8/8/8/8/8/8/8/4K3 w - - 0 1").getResponseCode());
+
+            assertEquals(200, request("DELETE", base + "/1", null).getResponseCode());
+            assertEquals(404, request("GET", base + "/1", null).getResponseCode());
+            assertEquals(0, server.getGameCount());
+        }
+        finally {
+            server.stop();
+        }
+    }
+
+    /**
+     * every game keeps its own board, a finished game takes no more moves, finished games are forgotten, and so are
+     * unfinished games nobody plays any more
+     * @throws IOException if the server can't be created
+     */
+    @Test
+    public void manyGames() throws IOException {
+        GameServer server = new GameServer(0, 1);
+        for (int i = 0; i < 1000; i++) {
+            ServerGame game = server.createGame(Board.createStandardBoard());
+            if (i % 2 == 0) {
+                assertTrue(game.playMove("e2e4"));
+            }
+        }
+        assertEquals(1000, server.getGameCount());
+        assertEquals(1, server.getGame(1).getMoves().size());
+        assertEquals(0, server.getGame(2).getMoves().size());
+
+        ServerGame game = server.getGame(3);
+        for (String move : new String[] {"e5", "Bc4", "Nc6", "Qh5", "Nf6", "Qxf7"}) {
+            assertTrue(game.playMove(move));
+        }
+        assertEquals(GameResult.WHITE_WINS, game.getResult());
+        assertFalse(game.playMove("Ke7"));
+
+        // only the finished game is forgotten
+        assertEquals(1, server.evictIdleGames(0, GameServer.ABANDONED_GAME_LIFETIME));
+        assertEquals(999, server.getGameCount());
+        assertTrue(server.getGame(3) == null);
+
+        // abandoned games go too, however few moves they had
+        assertEquals(999, server.evictIdleGames(0, 0));
+        assertEquals(0, server.getGameCount());
+        server.stop();
+    }
+
+    /**
+     * send a request
+     * @param method the http method
+     * @param url the url
+     * @param body the body, null for none
+     * @return the connection, after the request was sent
+     * @throws IOException if the request can't be sent
+     */
+    private static HttpURLConnection request(String method, String url, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            OutputStream output = connection.getOutputStream();
+            output.write(body.getBytes(StandardCharsets.UTF_8));
+            output.close();
+        }
+        return connection;
+    }
+
+    /**
+     * read the body of a reply
+     * @param input the body
+     * @return the body as text
+     * @throws IOException if the body can't be read
+     */
+    private static String readBody(InputStream input) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int read;
+        while ((read = input.read(buffer)) > 0) {
+            bytes.write(buffer, 0, read);
+        }
+        input.close();
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,156 @@
+package com.chess.tests;
+import com.chess.engine.board.Board;
+import com.chess.engine.game.GameNode;
+import com.chess.engine.game.GameTree;
+import com.chess.engine.move.Move;
+import com.chess.engine.move.MoveStatus;
+import com.chess.engine.notation.MoveNotation;
+import com.chess.engine.pieces.PieceType;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * the test class for the game tree
+ */
+public class GameTreeTests {
+    /**
+     * going back and forward returns the same boards, without making them again
+     */
+    @Test
+    public void backAndForward() {
+        Board start = Board.createStandardBoard();
+        GameTree tree = new GameTree(start);
+        assertFalse(tree.canGoBack());
+        play(tree, "e4");
+        play(tree, "e5");
+        Board afterE5 = tree.getCurrentBoard();
+
+        assertTrue(tree.back());
+        assertTrue(tree.back());
+        assertSame(start, tree.getCurrentBoard());
+        assertFalse(tree.back());
+
+        tree.goToEnd();
+        assertSame(afterE5, tree.getCurrentBoard());
+        assertEquals(2, tree.getCurrentNode().getPly());
+        assertEquals(2, tree.getMovesToCurrent().size());
+        assertFalse(tree.forward());
+    }
+
+    /**
+     * a new move after going back starts a variation, playing an old move again follows the old line
+     */
+    @Test
+    public void variations() {
+        GameTree tree = new GameTree(Board.createStandardBoard());
+        play(tree, "e4");
+        play(tree, "e5");
+        GameNode e5 = tree.getCurrentNode();
+        tree.back();
+        play(tree, "c5");
+        GameNode c5 = tree.getCurrentNode();
+
+        GameNode afterE4 = c5.getParent();
+        assertEquals(2, afterE4.getChildren().size());
+        assertSame(e5, afterE4.getMainLine());
+
+        // replaying e5 goes back to the node that is already there
+        tree.back();
+        play(tree, "e5");
+        assertSame(e5, tree.getCurrentNode());
+
+        tree.goTo(c5);
+        tree.promoteVariation();
+        assertSame(c5, afterE4.getMainLine());
+        tree.goToStart();
+        tree.goToEnd();
+        assertSame(c5, tree.getCurrentNode());
+    }
+
+    /**
+     * the boards of the line being looked at are kept however far back the game goes, and a jump to another
+     * variation makes its boards again with the same position and history
+     */
+    @Test
+    public void lineKeepsBoards() {
+        GameTree tree = new GameTree(Board.createStandardBoard());
+        String[] shuffle = {"Nf3", "Nf6", "Ng1", "Ng8"};
+        for (int i = 0; i < 40; i++) {
+            play(tree, shuffle[i % shuffle.length]);
+        }
+        GameNode end = tree.getCurrentNode();
+        Board endBoard = tree.getCurrentBoard();
+        for (int i = 0; i < 30; i++) {
+            tree.back();
+        }
+        Board middle = tree.getCurrentBoard();
+        tree.goToStart();
+        tree.goToEnd();
+        assertSame(endBoard, tree.getCurrentBoard());
+        assertTrue(tree.getCurrentBoard().isThreefoldRepetition());
+        assertEquals(40, tree.getMovesToCurrent().size());
+
+        // a variation from the middle leaves the old line, going back to its end makes the boards again
+        for (int i = 0; i < 30; i++) {
+            tree.back();
+        }
+        assertSame(middle, tree.getCurrentBoard());
+        play(tree, "e4");
+        tree.goTo(end);
+        assertEquals(endBoard.getZobristKey(), tree.getCurrentBoard().getZobristKey());
+        assertEquals(endBoard.getGameHistory().getHalfmoveClock(),
+                tree.getCurrentBoard().getGameHistory().getHalfmoveClock());
+        assertTrue(tree.getCurrentBoard().isThreefoldRepetition());
+    }
+
+    /**
+     * the taken pieces follow the position being looked at
+     */
+    @Test
+    public void takenPieces() {
+        GameTree tree = new GameTree(Board.createStandardBoard());
+        play(tree, "e4");
+        play(tree, "d5");
+        play(tree, "exd5");
+        assertEquals(1, tree.getTakenPieces().size());
+        assertEquals(PieceType.PAWN, tree.getTakenPieces().get(0).getPieceType());
+        tree.back();
+        assertTrue(tree.getTakenPieces().isEmpty());
+        play(tree, "Nc3");
+        assertTrue(tree.getTakenPieces().isEmpty());
+        tree.back();
+        tree.forward();
+        assertEquals(1, tree.getTakenPieces().size());
+    }
+
+    /**
+     * an illegal move leaves the tree where it was
+     */
+    @Test
+    public void illegalMove() {
+        Board start = Board.createStandardBoard();
+        GameTree tree = new GameTree(start);
+        // e7e5 is a move of the board after e4, but it isn't white's to play
+        Board afterE4 = start.makeMove(MoveNotation.fromAlgebraic(start, "e4")).getTransBoard();
+        Move blackMove = afterE4.getMove(12, 28);
+        assertNotNull(blackMove);
+        assertTrue(tree.play(blackMove).getStatus() != MoveStatus.DONE);
+        assertSame(start, tree.getCurrentBoard());
+        assertFalse(tree.canGoForward());
+    }
+
+    /**
+     * play a move in algebraic notation
+     * @param tree the tree
+     * @param move the move
+     */
+    private static void play(GameTree tree, String move) {
+        assertEquals(MoveStatus.DONE,
+                tree.play(MoveNotation.fromAlgebraic(tree.getCurrentBoard(), move)).getStatus());
+    }
+}
@@ -0,0 +1,97 @@
+package com.chess.tests;
+
+import com.chess.engine.search.SearchLimits;
+import com.chess.tools.MatchRunner;
+import com.chess.tools.Sprt;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * the test class for the match runner and the sequential probability ratio test
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public class MatchTests {
+
+    /**
+     * the test decides for the first engine when it keeps winning, against it when it keeps losing, and goes on while
+     * the results are even
+     */
+    @Test
+    public void sprtDecisions() {
+        Sprt sprt = new Sprt(0, 10, 0.05, 0.05);
+        assertEquals(Math.log(19), sprt.getUpperBound(), 1e-9);
+        assertEquals(-Math.log(19), sprt.getLowerBound(), 1e-9);
+        assertEquals(Sprt.Decision.CONTINUE, sprt.getDecision());
+        for (int i = 0; i < 100; i++) {
+            sprt.addResult(i % 3 == 0 ? 0.5 : (i % 3 == 1 ? 1 : 0));
+        }
+        assertEquals(Sprt.Decision.CONTINUE, sprt.getDecision());
+
+        Sprt winning = new Sprt(0, 10, 0.05, 0.05);
+        Sprt losing = new Sprt(0, 10, 0.05, 0.05);
+        for (int i = 0; i < 400; i++) {
+            winning.addResult(i % 4 == 0 ? 0 : (i % 4 == 1 ? 0.5 : 1));
+            losing.addResult(i % 4 == 0 ? 1 : (i % 4 == 1 ? 0.5 : 0));
+        }
+        assertEquals(Sprt.Decision.ACCEPT_H1, winning.getDecision());
+        assertEquals(Sprt.Decision.ACCEPT_H0, losing.getDecision());
+        assertTrue(winning.getElo() > 80 && winning.getElo() - winning.getEloError() > 0);
+        assertEquals(-winning.getElo(), losing.getElo(), 1e-9);
+    }
+
+    /**
+     * a run of wins or of losses has no variance of its own, but it is still decided
+     */
+    @Test
+    public void sprtOneSided() {
+        Sprt winning = new Sprt(0, 10, 0.05, 0.05);
+        Sprt losing = new Sprt(0, 10, 0.05, 0.05);
+        for (int i = 0; i < 30; i++) {
+            winning.addResult(1);
+            losing.addResult(0);
+        }
+        assertEquals(Sprt.Decision.ACCEPT_H1, winning.getDecision());
+        assertEquals(Sprt.Decision.ACCEPT_H0, losing.getDecision());
+    }
+
+    /**
+     * every opening is played with both colours: the side to move mates from the first opening, and the second
+     * opening is drawn because neither side can mate
+     */
+    @Test
+    public void matchGames() throws IOException {
+        List<MatchRunner.Opening> openings = new ArrayList<>();
+        openings.add(MatchRunner.Opening.parse("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1"));
+        openings.add(MatchRunner.Opening.parse("4k3/8/8/8/8/8/8/4K2N w - - 0 1"));
+        MatchRunner runner = new MatchRunner(MatchRunner.EngineConfig.parse("alphabeta"),
+                MatchRunner.EngineConfig.parse("alphabeta:no-nullmove:no-lmr"), SearchLimits.fixedDepth(1), 0, 0, 2,
+                new Sprt(0, 10, 0.05, 0.05));
+        MatchRunner.MatchReport report = runner.run(openings, 4);
+        assertEquals(4, report.getSprt().getGames());
+        assertEquals(1, report.getSprt().getWins());
+        assertEquals(2, report.getSprt().getDraws());
+        assertEquals(1, report.getSprt().getLosses());
+        assertEquals(Sprt.Decision.CONTINUE, report.getDecision());
+        assertEquals(0, report.getFailedGames());
+        assertTrue(report.getGamesPerHour() > 0);
+
+        MatchRunner.Opening opening = MatchRunner.Opening.parse("1. e4 e5 2. Nf3");
+        assertEquals(3, opening.getMoves().size());
+    }
+
+    /**
+     * an engine name that isn't known is rejected instead of becoming the alpha-beta search
+     * @throws IOException if a network file can't be read
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownEngine() throws IOException {
+        MatchRunner.EngineConfig.parse("mtcs");
+    }
+}
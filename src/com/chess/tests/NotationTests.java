@@ -0,0 +1,75 @@
+package com.chess.tests;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.move.Move;
+import com.chess.engine.notation.FenUtilities;
+import com.chess.engine.notation.MoveNotation;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * the test class for FEN and algebraic notation
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public class NotationTests {
+
+    private static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    /**
+     * the standard board and a board read from its FEN are the same position
+     */
+    @Test
+    public void standardBoardFen() {
+        Board board = Board.createStandardBoard();
+        assertEquals(START, FenUtilities.createFEN(board));
+        assertEquals(board.getZobristKey(), FenUtilities.createBoard(START).getZobristKey());
+        assertEquals(20, FenUtilities.createBoard(START).calculateLegalMoves().size());
+    }
+
+    /**
+     * castling rights, the en passant tile and the half move clock survive a round trip
+     */
+    @Test
+    public void fenRoundTrip() {
+        String fen = "r3k2r/ppp2ppp/8/3pP3/8/8/PPP2PPP/R3K2R w Kq d6 3 1";
+        Board board = FenUtilities.createBoard(fen);
+        assertEquals(fen, FenUtilities.createFEN(board));
+        assertEquals(3, board.getHalfmoveClock());
+        // white can take en passant
+        assertEquals("exd6", MoveNotation.toAlgebraic(board, MoveNotation.fromCoordinates(board, "e5d6")));
+    }
+
+    /**
+     * moves are written and read in algebraic notation
+     */
+    @Test
+    public void algebraicNotation() {
+        Board board = Board.createStandardBoard();
+        Move move = MoveNotation.fromAlgebraic(board, "Nf3");
+        assertEquals(62, move.getStartPosition());
+        assertEquals(45, move.getEndPosition());
+        assertEquals("e4", MoveNotation.toAlgebraic(board, MoveNotation.fromCoordinates(board, "e2e4")));
+        assertNull(MoveNotation.fromAlgebraic(board, "Nd4"));
+
+        // both rooks can reach d1
+        board = FenUtilities.createBoard("4k3/8/8/8/8/8/8/R4RK1 w - - 0 1");
+        assertEquals("Rad1", MoveNotation.toAlgebraic(board, MoveNotation.fromCoordinates(board, "a1d1")));
+        assertEquals("Rfd1", MoveNotation.toAlgebraic(board, MoveNotation.fromCoordinates(board, "f1d1")));
+
+        // both sides can castle
+        board = FenUtilities.createBoard("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+        assertEquals("O-O", MoveNotation.toAlgebraic(board, MoveNotation.fromCoordinates(board, "e1g1")));
+        assertEquals("O-O-O", MoveNotation.toAlgebraic(board, MoveNotation.fromAlgebraic(board, "0-0-0")));
+
+        // mate is marked
+        board = FenUtilities.createBoard("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        Move mate = MoveNotation.fromAlgebraic(board, "Ra8");
+        assertEquals("Ra8#", MoveNotation.toAlgebraic(board, mate));
+        assertTrue(board.makeMove(mate).getTransBoard().calculateIsPlayerInCheckmate(Alliance.BLACK));
+    }
+}
@@ -0,0 +1,357 @@
+package com.chess.tests;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.move.Move;
+import com.chess.engine.move.MoveStatus;
+import com.chess.engine.notation.FenUtilities;
+import com.chess.engine.notation.MoveNotation;
+import com.chess.engine.search.AlphaBeta;
+import com.chess.engine.search.MonteCarloTreeSearch;
+import com.chess.engine.search.MultiPvResult;
+import com.chess.engine.search.Ponderer;
+import com.chess.engine.search.SearchLimits;
+import com.chess.engine.search.SearchListener;
+import com.chess.engine.search.SearchOptions;
+import com.chess.engine.search.SearchResult;
+import com.chess.engine.search.StandardBoardEvaluator;
+import com.chess.engine.search.StaticExchange;
+import com.chess.engine.search.TimeManager;
+import com.chess.tools.EpdRunner;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * the test class for the search and the EPD runner
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public class SearchTests {
+
+    /**
+     * the static exchange counts the recaptures, including the pieces lined up behind the first attacker
+     */
+    @Test
+    public void staticExchange() {
+        Board board = FenUtilities.createBoard("4k3/8/4p3/3n4/4P3/8/8/Q3K3 w - - 0 1");
+        // exd5 exd5 wins a knight for a pawn
+        assertEquals(200, StaticExchange.evaluate(board, board.getMove(36, 27)));
+        board = FenUtilities.createBoard("4k3/8/4p3/3p4/8/8/8/3QK3 w - - 0 1");
+        assertEquals(-800, StaticExchange.evaluate(board, board.getMove(59, 27)));
+        // the second rook on the file wins the exchange back
+        board = FenUtilities.createBoard("3rk3/8/8/3p4/8/8/3R4/3RK3 w - - 0 1");
+        assertEquals(100, StaticExchange.evaluate(board, board.getMove(51, 27)));
+        board = FenUtilities.createBoard("3rk3/8/8/3p4/8/8/3R4/4K3 w - - 0 1");
+        assertEquals(-400, StaticExchange.evaluate(board, board.getMove(51, 27)));
+    }
+
+    /**
+     * a shallow search doesn't take a defended pawn with its queen, because the quiescence search sees the recapture
+     */
+    @Test
+    public void quiescenceSeesRecapture() {
+        Board board = FenUtilities.createBoard("4k3/8/4p3/3p4/8/8/8/3QK3 w - - 0 1");
+        SearchResult result = new AlphaBeta().search(board, SearchLimits.fixedDepth(1));
+        assertFalse("Qxd5".equals(MoveNotation.toAlgebraic(board, result.getBestMove())));
+    }
+
+    /**
+     * the selective search features search fewer boards for the same depth, and count what they did
+     */
+    @Test
+    public void selectiveSearch() {
+        Board board = FenUtilities.createBoard("r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3");
+        AlphaBeta plain = new AlphaBeta();
+        plain.setOptions(SearchOptions.allDisabled());
+        SearchResult plainResult = plain.search(board, SearchLimits.fixedDepth(4));
+        assertEquals(0, plain.getStatistics().getReductions() + plain.getStatistics().getFutilityPrunes());
+
+        AlphaBeta selective = new AlphaBeta();
+        SearchResult selectiveResult = selective.search(board, SearchLimits.fixedDepth(4));
+        assertTrue(selectiveResult.getNodes() < plainResult.getNodes());
+        assertTrue(selective.getStatistics().getReductions() > 0);
+        assertEquals(4, selective.getStatistics().getNodesPerDepth().size());
+        assertTrue(selective.getStatistics().getEffectiveBranchingFactor()
+                < plain.getStatistics().getEffectiveBranchingFactor());
+    }
+
+    /**
+     * a clock's time is shared between the moves to come, and a move never plans on most of the clock
+     */
+    @Test
+    public void timeAllocation() {
+        TimeManager manager = new TimeManager(SearchLimits.clock(60030, 0, 0));
+        assertEquals(2000, manager.getSoftLimitMillis());
+        assertEquals(8000, manager.getHardLimitMillis());
+        manager = new TimeManager(SearchLimits.clock(10030, 2000, 1));
+        assertEquals(7500, manager.getHardLimitMillis());
+        assertEquals(7500, manager.getSoftLimitMillis());
+        manager = new TimeManager(SearchLimits.fixedDepth(3));
+        assertEquals(0, manager.getHardLimitMillis());
+        assertFalse(manager.isOutOfTime(1 << 20));
+    }
+
+    /**
+     * the node and depth limits count from the first board and depth the time manager is asked about, as they are
+     * after a ponder hit
+     */
+    @Test
+    public void limitsCountFromStart() {
+        TimeManager manager = new TimeManager(SearchLimits.fixedNodes(100));
+        assertFalse(manager.isOutOfTime(5001));
+        assertFalse(manager.isOutOfTime(5099));
+        assertTrue(manager.isOutOfTime(5100));
+        manager = new TimeManager(SearchLimits.fixedDepth(2));
+        assertFalse(manager.isDepthLimitReached(5));
+        assertTrue(manager.isDepthLimitReached(6));
+    }
+
+    /**
+     * a node limit stops the search on the same board every time, and a time limit stops it soon after the time
+     * by the search's own clock
+     */
+    @Test
+    public void searchLimits() {
+        Board board = Board.createStandardBoard();
+        SearchResult first = new AlphaBeta().search(board, SearchLimits.fixedNodes(1500));
+        SearchResult second = new AlphaBeta().search(board, SearchLimits.fixedNodes(1500));
+        assertTrue(first.getNodes() <= 1500);
+        assertEquals(first.getNodes(), second.getNodes());
+        assertEquals(first.getDepth(), second.getDepth());
+        assertEquals(first.getBestMove(), second.getBestMove());
+        assertEquals(first.getScore(), second.getScore());
+
+        TimeManager manager = new TimeManager(SearchLimits.fixedTime(200));
+        assertEquals(200, manager.getHardLimitMillis());
+        SearchResult timed = new AlphaBeta().search(board, SearchLimits.fixedTime(200));
+        // the clock is only read every few boards, so the search can run a little past the hard limit
+        assertTrue(timed.getElapsedMillis() < 200 * 5);
+    }
+
+    /**
+     * a multi-PV search gives different moves for its lines, best first, each with its own variation
+     */
+    @Test
+    public void multiPv() {
+        Board board = FenUtilities.createBoard("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1");
+        MultiPvResult result = new AlphaBeta().searchMultiPv(board, SearchLimits.fixedDepth(3), 3, null);
+        assertEquals(3, result.getLines().size());
+        assertEquals(3, result.getDepth());
+        assertEquals("Rxd5", MoveNotation.toAlgebraic(board, result.getBestLine().getBestMove()));
+        for (int i = 1; i < result.getLines().size(); i++) {
+            SearchResult line = result.getLines().get(i);
+            assertTrue(line.getScore() <= result.getLines().get(i - 1).getScore());
+            assertFalse(line.getBestMove().equals(result.getBestLine().getBestMove()));
+            assertEquals(line.getBestMove(), line.getPrincipalVariation().get(0));
+        }
+        assertTrue(result.format(board).startsWith("1. +"));
+
+        // a board with fewer moves than lines gives a line for every move
+        board = FenUtilities.createBoard("7k/8/8/8/8/8/8/K7 w - - 0 1");
+        assertEquals(3, new AlphaBeta().searchMultiPv(board, SearchLimits.fixedDepth(2), 5, null).getLines().size());
+    }
+
+    /**
+     * the Monte Carlo tree search takes a hanging queen, and keeps the tree of the board it reaches two moves later
+     */
+    @Test
+    public void monteCarloTreeSearch() {
+        MonteCarloTreeSearch search = new MonteCarloTreeSearch(new StandardBoardEvaluator(), 2, 1 << 16);
+        try {
+            Board board = FenUtilities.createBoard("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1");
+            SearchResult result = search.search(board, SearchLimits.fixedNodes(600));
+            assertEquals("Rxd5", MoveNotation.toAlgebraic(board, result.getBestMove()));
+            assertEquals(600, result.getNodes());
+            assertTrue(result.getScore() > 200);
+
+            Board next = board.makeMove(result.getBestMove()).getTransBoard();
+            next = next.makeMove(result.getPrincipalVariation().size() > 1 ? result.getPrincipalVariation().get(1)
+                    : next.calculateLegalMoves().get(0)).getTransBoard();
+            search.search(next, SearchLimits.fixedNodes(1));
+            assertTrue(search.getRootVisits() > 1);
+        }
+        finally {
+            search.shutdown();
+        }
+    }
+
+    /**
+     * the search finds a back rank mate and scores it as a mate
+     */
+    @Test
+    public void findsMateInOne() {
+        Board board = FenUtilities.createBoard("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        SearchResult result = new AlphaBeta().search(board, SearchLimits.fixedDepth(3));
+        assertEquals("Ra8#", MoveNotation.toAlgebraic(board, result.getBestMove()));
+        assertEquals(AlphaBeta.MATE - 1, result.getScore());
+        assertTrue(result.isMateScore());
+    }
+
+    /**
+     * the search takes a hanging queen
+     */
+    @Test
+    public void takesHangingQueen() {
+        Board board = FenUtilities.createBoard("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1");
+        SearchResult result = new AlphaBeta().search(board, SearchLimits.fixedDepth(2));
+        assertEquals("Rxd5", MoveNotation.toAlgebraic(board, result.getBestMove()));
+    }
+
+    /**
+     * a search of the position after the best move finds much of its work in the table of the first search
+     */
+    @Test
+    public void transpositionTableReuse() {
+        AlphaBeta search = new AlphaBeta();
+        Board board = Board.createStandardBoard();
+        SearchResult result = search.search(board, SearchLimits.fixedDepth(3));
+        Board next = board.makeMove(result.getBestMove()).getTransBoard();
+
+        search.getTranspositionTable().resetStatistics();
+        search.search(next, SearchLimits.fixedDepth(2));
+        double reusedHitRate = search.getTranspositionTable().getHitRate();
+
+        AlphaBeta fresh = new AlphaBeta();
+        fresh.search(next, SearchLimits.fixedDepth(2));
+        assertTrue(reusedHitRate > fresh.getTranspositionTable().getHitRate());
+    }
+
+    /**
+     * EPD lines are read with their operations, and the runner scores them on a worker pool
+     */
+    @Test
+    public void epdRunner() {
+        List<EpdRunner.EpdPosition> positions = new ArrayList<>();
+        positions.add(EpdRunner.EpdPosition.parse("6k1/5ppp/8/8/8/8/8/R5K1 w - - bm Ra8#; id \"back rank\";"));
+        positions.add(EpdRunner.EpdPosition.parse("4k3/8/8/3q4/8/8/3R4/4K3 w - - am Kf1; id \"queen\";"));
+        positions.add(EpdRunner.EpdPosition.parse("4k3/8/8/3q4/8/8/3R4/4K3 w - - bm Kf1; id \"wrong\";"));
+        assertEquals("back rank", positions.get(0).getId());
+
+        List<EpdRunner.EpdResult> results = new EpdRunner(SearchLimits.fixedDepth(2), 2).run(positions);
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).isSolved());
+        assertTrue(results.get(0).getTimeToSolution() >= 0);
+        assertTrue(results.get(1).isSolved());
+        assertFalse(results.get(2).isSolved());
+        assertEquals(-1, results.get(2).getTimeToSolution());
+    }
+
+    /**
+     * a line of an EPD file that isn't a position is skipped, and a position whose search fails counts as not solved
+     * without stopping the others
+     * @throws IOException if the file can't be written or read
+     */
+    @Test
+    public void epdFile() throws IOException {
+        File file = File.createTempFile("suite", ".epd");
+        PrintWriter writer = new PrintWriter(file, "UTF-8");
+        writer.println("# a comment");
+        writer.println("6k1/5ppp/8/8/8/8/8/R5K1 w - - bm Ra8#; id \"back rank\";");
+        writer.println("8/8/8/8/8/8/8/4K3 w - - bm Kd1; id \"no black king\";");
+        writer.println("not a position");
+        writer.close();
+        try {
+            List<EpdRunner.EpdPosition> positions = EpdRunner.readPositions(file.getPath());
+            assertEquals(2, positions.size());
+            List<EpdRunner.EpdResult> results = new EpdRunner(SearchLimits.fixedDepth(2), 2).run(positions);
+            assertEquals(2, results.size());
+            assertTrue(results.get(0).isSolved());
+            assertFalse(results.get(1).isSolved());
+            assertEquals("error", results.get(1).getFoundMove());
+        }
+        finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * a capture that mates at the end of a one depth search is seen by the quiescence search, which can't stand pat
+     * in check
+     */
+    @Test
+    public void quiescenceSeesMate() {
+        Board board = FenUtilities.createBoard("r1bqkb1r/pppp1ppp/2n2n2/4p2Q/2B1P3/8/PPPP1PPP/RNB1K1NR w KQkq - 4 4");
+        SearchResult result = new AlphaBeta().search(board, SearchLimits.fixedDepth(1));
+        assertEquals("Qxf7#", MoveNotation.toAlgebraic(board, result.getBestMove()));
+        assertTrue(result.isMateScore());
+    }
+
+    /**
+     * a stop that comes after prepareSearch but before the search starts stops the search at once, and a search
+     * that wasn't prepared starts afresh
+     */
+    @Test
+    public void stopBeforeSearch() {
+        Board board = Board.createStandardBoard();
+        AlphaBeta search = new AlphaBeta();
+        search.prepareSearch();
+        search.stop();
+        SearchResult stopped = search.search(board, SearchLimits.fixedDepth(AlphaBeta.MAX_DEPTH));
+        assertEquals(1, stopped.getDepth());
+        assertTrue(stopped.getBestMove() != null);
+
+        search.stop();
+        assertEquals(3, search.search(board, SearchLimits.fixedDepth(3)).getDepth());
+    }
+
+    /**
+     * after a ponder hit the search carries on from the depths it finished while pondering, so even a one depth
+     * search answers deeper; after a miss the real board is searched as usual
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    public void pondering() throws InterruptedException {
+        AlphaBeta search = new AlphaBeta();
+        Ponderer ponderer = new Ponderer(search);
+        try {
+            Board board = Board.createStandardBoard();
+            SearchResult result = ponderer.search(board, SearchLimits.fixedDepth(3));
+            Board played = board.makeMove(result.getBestMove()).getTransBoard();
+            final CountDownLatch pondered = new CountDownLatch(1);
+            search.setListener(new SearchListener() {
+                public void iterationComplete(SearchResult progress) {
+                    if (progress.getDepth() >= 2) {
+                        pondered.countDown();
+                    }
+                }
+            });
+            ponderer.ponder(played, result);
+            assertTrue(pondered.await(60, TimeUnit.SECONDS));
+            search.setListener(null);
+            Move expected = result.getPrincipalVariation().get(1);
+            Board reply = played.makeMove(played.getMove(expected.getStartPosition(), expected.getEndPosition()))
+                    .getTransBoard();
+            SearchResult hit = ponderer.search(reply, SearchLimits.fixedDepth(1));
+            assertEquals(1, ponderer.getPonderHits());
+            assertTrue(hit.getDepth() >= 2);
+            assertEquals(MoveStatus.DONE, reply.makeMove(hit.getBestMove()).getStatus());
+
+            Board next = reply.makeMove(hit.getBestMove()).getTransBoard();
+            ponderer.ponder(next, hit);
+            Move predicted = hit.getPrincipalVariation().get(1);
+            Board other = null;
+            for (Move move : next.calculateLegalMoves()) {
+                if (move.getEndPosition() != predicted.getEndPosition()) {
+                    other = next.makeMove(move).getTransBoard();
+                    break;
+                }
+            }
+            SearchResult miss = ponderer.search(other, SearchLimits.fixedDepth(2));
+            assertEquals(1, ponderer.getPonderMisses());
+            assertEquals(2, miss.getDepth());
+        }
+        finally {
+            ponderer.shutdown();
+        }
+    }
+}
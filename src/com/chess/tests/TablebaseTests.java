@@ -0,0 +1,149 @@
+package com.chess.tests;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.move.Move;
+import com.chess.engine.pieces.singletonPieces.King;
+import com.chess.engine.pieces.vectorPieces.Queen;
+import com.chess.engine.tablebase.SyzygyTablebase;
+import com.chess.engine.tablebase.WdlScore;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * the test class for the syzygy tablebase
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public class TablebaseTests {
+
+    /**
+     * with no tables nothing can be probed
+     */
+    @Test
+    public void missingDirectory() {
+        SyzygyTablebase tablebase = new SyzygyTablebase("no/such/directory");
+        assertEquals(0, tablebase.getMaxCardinality());
+        assertFalse(tablebase.canProbe(Board.createStandardBoard()));
+        assertNull(tablebase.probeWdl(Board.createStandardBoard()));
+        assertNull(tablebase.probeRoot(Board.createStandardBoard()));
+    }
+
+    /**
+     * the tables are only found at startup, a broken file is only noticed when it is first probed
+     * @throws IOException if the temporary files can't be written
+     */
+    @Test
+    public void lazyMapping() throws IOException {
+        File directory = Files.createTempDirectory("syzygy").toFile();
+        try {
+            File table = new File(directory, "KQvK.rtbw");
+            try (FileOutputStream out = new FileOutputStream(table)) {
+                out.write(new byte[] {1, 2, 3, 4});
+            }
+            new File(directory, "README.txt").createNewFile();
+
+            SyzygyTablebase tablebase = new SyzygyTablebase(directory.getPath());
+            assertEquals(3, tablebase.getMaxCardinality());
+
+            // two bare kings is a draw without reading any table
+            Board.Builder builder = new Board.Builder();
+            builder.addPiece(new King(4, Alliance.BLACK, false));
+            builder.addPiece(new King(60, Alliance.WHITE, false));
+            builder.setMover(Alliance.WHITE);
+            assertTrue(tablebase.probeWdl(builder.build()) == WdlScore.DRAW);
+
+            // the broken table can't be probed
+            builder.addPiece(new Queen(35, Alliance.WHITE, false));
+            Board board = builder.build();
+            assertTrue(tablebase.canProbe(board));
+            assertNull(tablebase.probeWdl(board));
+            assertNull(tablebase.probeDtz(board));
+
+            // an unmoved king and rook could still castle
+            assertFalse(tablebase.canProbe(Board.createStandardBoard()));
+        }
+        finally {
+            for (File file : directory.listFiles()) {
+                file.delete();
+            }
+            directory.delete();
+        }
+    }
+
+    /**
+     * the KQvK tables in the syzygy folder next to this class give the known results: a mate, a stalemate, a queen
+     * that can be taken, and the longest win, mate in ten. Black to move isn't in the dtz table, so those are found
+     * by a search of one ply
+     * @throws URISyntaxException if the folder of the tables can't be found
+     */
+    @Test
+    public void kingAndQueen() throws URISyntaxException {
+        SyzygyTablebase tablebase = new SyzygyTablebase(
+                new File(TablebaseTests.class.getResource("syzygy").toURI()).getPath());
+        assertEquals(3, tablebase.getMaxCardinality());
+
+        // Qb8 is the only mate
+        Board mateInOne = createBoard(22, 57, 7, Alliance.WHITE, Alliance.WHITE);
+        assertEquals(WdlScore.WIN, tablebase.probeWdl(mateInOne));
+        assertEquals(Integer.valueOf(1), tablebase.probeDtz(mateInOne));
+        Move mate = tablebase.probeRoot(mateInOne);
+        assertNotNull(mate);
+        assertEquals(57, mate.getStartPosition());
+        assertEquals(1, mate.getEndPosition());
+
+        // the same with the colors swapped, so the table is read upside down
+        Board blackMates = createBoard(46, 1, 63, Alliance.BLACK, Alliance.BLACK);
+        assertEquals(WdlScore.WIN, tablebase.probeWdl(blackMates));
+        assertEquals(Integer.valueOf(1), tablebase.probeDtz(blackMates));
+        assertEquals(57, tablebase.probeRoot(blackMates).getEndPosition());
+
+        Board mated = createBoard(17, 9, 0, Alliance.WHITE, Alliance.BLACK);
+        assertEquals(WdlScore.LOSS, tablebase.probeWdl(mated));
+        assertEquals(Integer.valueOf(-1), tablebase.probeDtz(mated));
+
+        Board matedNextMove = createBoard(22, 49, 7, Alliance.WHITE, Alliance.BLACK);
+        assertEquals(WdlScore.LOSS, tablebase.probeWdl(matedNextMove));
+        assertEquals(Integer.valueOf(-2), tablebase.probeDtz(matedNextMove));
+
+        Board stalemate = createBoard(17, 10, 0, Alliance.WHITE, Alliance.BLACK);
+        assertEquals(WdlScore.DRAW, tablebase.probeWdl(stalemate));
+        assertEquals(Integer.valueOf(0), tablebase.probeDtz(stalemate));
+
+        Board hangingQueen = createBoard(63, 36, 28, Alliance.WHITE, Alliance.BLACK);
+        assertEquals(WdlScore.DRAW, tablebase.probeWdl(hangingQueen));
+
+        Board longestWin = createBoard(56, 49, 29, Alliance.WHITE, Alliance.WHITE);
+        assertEquals(WdlScore.WIN, tablebase.probeWdl(longestWin));
+        assertEquals(Integer.valueOf(19), tablebase.probeDtz(longestWin));
+    }
+
+    /**
+     * make a board with a king and queen against a king
+     * @param king the coordinate of the stronger side's king
+     * @param queen the coordinate of the queen
+     * @param loneKing the coordinate of the other king
+     * @param stronger the side with the queen
+     * @param mover the side to move
+     * @return the board
+     */
+    private static Board createBoard(int king, int queen, int loneKing, Alliance stronger, Alliance mover) {
+        Board.Builder builder = new Board.Builder();
+        builder.addPiece(new King(king, stronger, false));
+        builder.addPiece(new Queen(queen, stronger, false));
+        builder.addPiece(new King(loneKing, stronger.getOpponentAlliance(), false));
+        builder.setMover(mover);
+        return builder.build();
+    }
+}
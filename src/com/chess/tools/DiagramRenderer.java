@@ -0,0 +1,281 @@
+package com.chess.tools;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.notation.FenUtilities;
+import com.chess.engine.pieces.Piece;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.IndexColorModel;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * the DiagramRenderer class
+ * draws boards as PNG diagrams without a window, using the piece images of the gui. The images are decoded once
+ * when the renderer is made and shared by all the workers, and each worker draws every one of its diagrams on the
+ * same image, so a batch only costs the drawing and the PNG encoding. The pieces and tiles only use a handful of
+ * colors, so the diagrams are drawn with a palette of those colors, which makes the PNGs quicker to encode
+ * usage: DiagramRenderer positions.txt outputFolder [-threads N] [-tile PIXELS]
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public class DiagramRenderer {
+
+    // the folder of the piece images
+    private static final String PIECES_PATH = "art/simple/";
+    // the tile colors, the same as the gui
+    private static final Color LIGHT_TILE_COLOR = Color.decode("#FFFACD");
+    private static final Color DARK_TILE_COLOR = Color.decode("#593E1A");
+    // the width of a tile, to start with
+    private static final int DEFAULT_TILE_SIZE = 48;
+
+    // the width and height of a tile in pixels
+    private final int tileSize;
+    // the decoded piece images, by the piece's alliance letter and type letter, like "WN"
+    private final Map<String, BufferedImage> sprites;
+    // the colors of the tiles and the pieces, null if there are too many for a palette
+    private final IndexColorModel palette;
+
+    /**
+     * the constructor, reads the piece images
+     * @param tileSize the width and height of a tile in pixels
+     * @throws IOException if a piece image can't be read
+     */
+    public DiagramRenderer(int tileSize) throws IOException {
+        this.tileSize = tileSize;
+        this.sprites = new HashMap<>();
+        Set<Integer> colors = new LinkedHashSet<>();
+        colors.add(LIGHT_TILE_COLOR.getRGB());
+        colors.add(DARK_TILE_COLOR.getRGB());
+        for (String alliance : new String[] {"W", "B"}) {
+            for (String type : new String[] {"P", "N", "B", "R", "Q", "K"}) {
+                BufferedImage sprite = ImageIO.read(new File(PIECES_PATH + alliance + type + ".gif"));
+                if (sprite == null) {
+                    throw new IOException("can't decode " + PIECES_PATH + alliance + type + ".gif");
+                }
+                this.sprites.put(alliance + type, sprite);
+                addColors(sprite, colors);
+            }
+        }
+        this.palette = colors.size() > 256 ? null : createPalette(colors);
+    }
+
+    /**
+     * add the colors of the opaque pixels of an image to a set
+     * @param image the image
+     * @param colors the set of colors
+     */
+    private static void addColors(BufferedImage image, Set<Integer> colors) {
+        for (int x = 0; x < image.getWidth(); x++) {
+            for (int y = 0; y < image.getHeight(); y++) {
+                int rgb = image.getRGB(x, y);
+                if ((rgb >>> 24) != 0) {
+                    colors.add(rgb | 0xFF000000);
+                }
+            }
+        }
+    }
+
+    /**
+     * create a palette of colors
+     * @param colors the colors, no more than 256
+     * @return the palette
+     */
+    private static IndexColorModel createPalette(Set<Integer> colors) {
+        int[] rgbs = new int[colors.size()];
+        int i = 0;
+        for (int rgb : colors) {
+            rgbs[i++] = rgb;
+        }
+        return new IndexColorModel(8, rgbs.length, rgbs, 0, false, -1, DataBuffer.TYPE_BYTE);
+    }
+
+    /**
+     * render a file of positions from the command line, one FEN a line
+     * @param args the file of positions and the output folder, then the options
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("usage: DiagramRenderer positions.txt outputFolder [-threads N] [-tile PIXELS]");
+            return;
+        }
+        System.setProperty("java.awt.headless", "true");
+        // the PNGs are small, so they are encoded in memory rather than through a temporary file
+        ImageIO.setUseCache(false);
+        int threads = Runtime.getRuntime().availableProcessors();
+        int tileSize = DEFAULT_TILE_SIZE;
+        for (int i = 2; i + 1 < args.length; i += 2) {
+            if (args[i].equals("-threads")) {
+                threads = Integer.parseInt(args[i + 1]);
+            }
+            else if (args[i].equals("-tile")) {
+                tileSize = Integer.parseInt(args[i + 1]);
+            }
+        }
+
+        try {
+            List<String> positions = readPositions(args[0]);
+            File folder = new File(args[1]);
+            if (!folder.isDirectory() && !folder.mkdirs()) {
+                throw new IOException("can't create " + folder);
+            }
+            long start = System.currentTimeMillis();
+            int rendered = new DiagramRenderer(tileSize).renderAll(positions, folder, threads);
+            long millis = Math.max(1, System.currentTimeMillis() - start);
+            System.out.println("rendered " + rendered + " of " + positions.size() + " positions in " + millis
+                    + " ms, " + rendered * 1000 / millis + " diagrams per second");
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * read the positions of a file, skipping empty lines and comments
+     * @param path the path of the file
+     * @return the FEN of every position
+     * @throws IOException if the file can't be read
+     */
+    public static List<String> readPositions(String path) throws IOException {
+        List<String> positions = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new FileReader(path));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    positions.add(line);
+                }
+            }
+        }
+        finally {
+            reader.close();
+        }
+        return positions;
+    }
+
+    /**
+     * render positions to PNG files on a pool of workers. The diagram of the nth position is written to
+     * "diagram-n.png", counting from 1
+     * @param positions the FEN of every position
+     * @param folder the folder the diagrams are written to
+     * @param threads the number of workers
+     * @return the number of diagrams written, a position that can't be read or written is skipped
+     */
+    public int renderAll(final List<String> positions, final File folder, int threads) {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int worker = 0; worker < threads; worker++) {
+            final int first = worker;
+            final int step = threads;
+            futures.add(pool.submit(new Callable<Integer>() {
+                @Override
+                public Integer call() {
+                    // every diagram of this worker is drawn on the same image
+                    BufferedImage image = createImage();
+                    int rendered = 0;
+                    for (int i = first; i < positions.size(); i += step) {
+                        try {
+                            render(FenUtilities.createBoard(positions.get(i)), image);
+                            ImageIO.write(image, "png", new File(folder, "diagram-" + (i + 1) + ".png"));
+                            rendered++;
+                        }
+                        catch (IOException | RuntimeException e) {
+                            System.err.println("position " + (i + 1) + " failed: " + positions.get(i));
+                            e.printStackTrace();
+                        }
+                    }
+                    return rendered;
+                }
+            }));
+        }
+
+        int rendered = 0;
+        try {
+            for (Future<Integer> future : futures) {
+                rendered += future.get();
+            }
+        }
+        catch (InterruptedException | ExecutionException e) {
+            e.printStackTrace();
+        }
+        finally {
+            pool.shutdown();
+        }
+        return rendered;
+    }
+
+    /**
+     * create an image the size of a diagram
+     * @return the image
+     */
+    public BufferedImage createImage() {
+        int size = this.tileSize * BoardUtils.NUM_ROWS;
+        if (this.palette == null) {
+            return new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        }
+        return new BufferedImage(size, size, BufferedImage.TYPE_BYTE_INDEXED, this.palette);
+    }
+
+    /**
+     * draw a board, white at the bottom, over whatever the image showed before
+     * @param board the board to draw
+     * @param image the image to draw on, made by createImage
+     */
+    public void render(Board board, BufferedImage image) {
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            for (int coordinate = 0; coordinate < BoardUtils.NUM_TILES; coordinate++) {
+                int row = coordinate / BoardUtils.NUM_ROWS;
+                int column = coordinate % BoardUtils.NUM_ROWS;
+                int x = column * this.tileSize;
+                int y = row * this.tileSize;
+                graphics.setColor((row + column) % 2 == 0 ? LIGHT_TILE_COLOR : DARK_TILE_COLOR);
+                graphics.fillRect(x, y, this.tileSize, this.tileSize);
+
+                Piece piece = board.getTile(coordinate).getPiece();
+                if (piece != null) {
+                    BufferedImage sprite = this.sprites.get(piece.getAlliance().toString().substring(0, 1)
+                            + piece.toString().toUpperCase());
+                    // the sprites are smaller than a tile, so they are centred rather than stretched when they fit
+                    int width = Math.min(sprite.getWidth(), this.tileSize);
+                    int height = Math.min(sprite.getHeight(), this.tileSize);
+                    graphics.drawImage(sprite, x + (this.tileSize - width) / 2, y + (this.tileSize - height) / 2,
+                            width, height, null);
+                }
+            }
+        }
+        finally {
+            graphics.dispose();
+        }
+    }
+
+    /**
+     * draw a board on a new image
+     * @param board the board to draw
+     * @return the diagram
+     */
+    public BufferedImage render(Board board) {
+        BufferedImage image = createImage();
+        render(board, image);
+        return image;
+    }
+}
@@ -0,0 +1,623 @@
+package com.chess.tools;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.move.Move;
+import com.chess.engine.notation.FenUtilities;
+import com.chess.engine.notation.MoveNotation;
+import com.chess.engine.search.AlphaBeta;
+import com.chess.engine.search.BoardEvaluator;
+import com.chess.engine.search.MonteCarloTreeSearch;
+import com.chess.engine.search.NnueEvaluator;
+import com.chess.engine.search.NnueNetwork;
+import com.chess.engine.search.SearchLimits;
+import com.chess.engine.search.SearchListener;
+import com.chess.engine.search.SearchOptions;
+import com.chess.engine.search.SearchResult;
+import com.chess.engine.search.SearchStatistics;
+import com.chess.engine.search.StandardBoardEvaluator;
+import com.chess.engine.search.TranspositionTable;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * the EpdRunner class
+ * runs the engine over a test suite in EPD format. Every position is searched on a pool of worker threads, each with
+ * its own search, and a position is solved when the search ends on one of the "bm" moves and none of the "am" moves.
+ * Since the search is limited by depth or time, fewer solved positions or a longer time to solution between two
+ * builds means the search got slower. The selective search features can be turned off one by one, to compare the
+ * effective branching factor with and without them, and the Monte Carlo tree search can be run instead of the
+ * alpha-beta search under the same limits, to compare the two engines. A network weights file replaces the standard
+ * evaluation with the network's
+ * usage: EpdRunner file.epd [-depth N | -time MILLISECONDS | -nodes N] [-threads N]
+ *                           [-disable nullmove,lmr,futility,razoring] [-engine alphabeta | mcts] [-nnue FILE]
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public class EpdRunner {
+
+    // the size of each worker's transposition table or tree, 2^18 entries
+    private static final int TABLE_BITS = 18;
+
+    // the limits of every search
+    private final SearchLimits limits;
+    // the number of worker threads
+    private final int threads;
+    // the selective search features of every search
+    private final SearchOptions options;
+    // search with the Monte Carlo tree search instead of the alpha-beta search
+    private boolean monteCarlo;
+    // the network every search evaluates with, null for the standard evaluation
+    private NnueNetwork network;
+
+    /**
+     * the constructor, every search uses all the selective search features
+     * @param limits the limits of every search
+     * @param threads the number of worker threads
+     */
+    public EpdRunner(SearchLimits limits, int threads) {
+        this(limits, threads, SearchOptions.allEnabled());
+    }
+
+    /**
+     * the constructor
+     * @param limits the limits of every search
+     * @param threads the number of worker threads
+     * @param options the selective search features of every search
+     */
+    public EpdRunner(SearchLimits limits, int threads, SearchOptions options) {
+        this.limits = limits;
+        this.threads = threads;
+        this.options = options;
+    }
+
+    /**
+     * search with the Monte Carlo tree search instead of the alpha-beta search. Each position gets one playout
+     * thread, so both engines use the same threads, and the node limit counts playouts
+     * @param monteCarlo true for the Monte Carlo tree search
+     */
+    public void setMonteCarlo(boolean monteCarlo) {
+        this.monteCarlo = monteCarlo;
+    }
+
+    /**
+     * evaluate with a network instead of the standard evaluation
+     * @param network the network, null for the standard evaluation
+     */
+    public void setNetwork(NnueNetwork network) {
+        this.network = network;
+    }
+
+    /**
+     * run a test suite from the command line
+     * @param args the EPD file, then the options
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("usage: EpdRunner file.epd [-depth N | -time MILLISECONDS | -nodes N] [-threads N] "
+                    + "[-disable nullmove,lmr,futility,razoring] [-engine alphabeta | mcts] [-nnue FILE]");
+            return;
+        }
+        SearchLimits limits = SearchLimits.fixedDepth(4);
+        int threads = Runtime.getRuntime().availableProcessors();
+        SearchOptions.Builder options = new SearchOptions.Builder();
+        boolean monteCarlo = false;
+        String networkPath = null;
+        for (int i = 1; i + 1 < args.length; i += 2) {
+            if (args[i].equals("-depth")) {
+                limits = SearchLimits.fixedDepth(Integer.parseInt(args[i + 1]));
+            }
+            else if (args[i].equals("-time")) {
+                limits = SearchLimits.fixedTime(Long.parseLong(args[i + 1]));
+            }
+            else if (args[i].equals("-nodes")) {
+                limits = SearchLimits.fixedNodes(Long.parseLong(args[i + 1]));
+            }
+            else if (args[i].equals("-threads")) {
+                threads = Integer.parseInt(args[i + 1]);
+            }
+            else if (args[i].equals("-engine")) {
+                if (!args[i + 1].equals("alphabeta") && !args[i + 1].equals("mcts")) {
+                    throw new IllegalArgumentException("unknown engine: " + args[i + 1]);
+                }
+                monteCarlo = args[i + 1].equals("mcts");
+            }
+            else if (args[i].equals("-nnue")) {
+                networkPath = args[i + 1];
+            }
+            else if (args[i].equals("-disable")) {
+                for (String feature : args[i + 1].split(",")) {
+                    if (feature.equals("nullmove")) {
+                        options.setNullMove(false);
+                    }
+                    else if (feature.equals("lmr")) {
+                        options.setLateMoveReductions(false);
+                    }
+                    else if (feature.equals("futility")) {
+                        options.setFutility(false);
+                    }
+                    else if (feature.equals("razoring")) {
+                        options.setRazoring(false);
+                    }
+                    else {
+                        throw new IllegalArgumentException("unknown search feature: " + feature);
+                    }
+                }
+            }
+        }
+
+        try {
+            List<EpdPosition> positions = readPositions(args[0]);
+            EpdRunner runner = new EpdRunner(limits, threads, options.build());
+            runner.setMonteCarlo(monteCarlo);
+            if (networkPath != null) {
+                runner.setNetwork(NnueNetwork.load(networkPath));
+            }
+            System.out.println(monteCarlo ? "monte carlo tree search" : runner.options.toString());
+            printReport(runner.run(positions));
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * read the positions of an EPD file, skipping empty lines, comments and lines that aren't positions
+     * @param path the path of the file
+     * @return the positions in the file
+     * @throws IOException if the file can't be read
+     */
+    public static List<EpdPosition> readPositions(String path) throws IOException {
+        List<EpdPosition> positions = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new FileReader(path));
+        try {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                // a line that isn't a position is skipped, the rest of the suite can still run
+                try {
+                    positions.add(EpdPosition.parse(line));
+                }
+                catch (RuntimeException e) {
+                    System.out.println("skipping line " + lineNumber + ": " + e.getMessage());
+                }
+            }
+        }
+        finally {
+            reader.close();
+        }
+        return positions;
+    }
+
+    /**
+     * search every position on the worker pool. A position whose search fails counts as not solved, and the others
+     * are still searched
+     * @param positions the positions to search
+     * @return the results, in the same order as the positions
+     */
+    public List<EpdResult> run(List<EpdPosition> positions) {
+        ExecutorService pool = Executors.newFixedThreadPool(this.threads);
+        // each worker makes one tree, with its arrays and thread, and searches all of its positions with it
+        final List<MonteCarloTreeSearch> trees = new ArrayList<>();
+        final ThreadLocal<MonteCarloTreeSearch> workerTree = new ThreadLocal<MonteCarloTreeSearch>() {
+            @Override
+            protected MonteCarloTreeSearch initialValue() {
+                MonteCarloTreeSearch tree = createTree();
+                synchronized (trees) {
+                    trees.add(tree);
+                }
+                return tree;
+            }
+        };
+        List<Future<EpdResult>> futures = new ArrayList<>();
+        for (final EpdPosition position : positions) {
+            futures.add(pool.submit(new Callable<EpdResult>() {
+                @Override
+                public EpdResult call() {
+                    return solve(position, monteCarlo ? workerTree.get() : null);
+                }
+            }));
+        }
+
+        List<EpdResult> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.add(futures.get(i).get());
+                }
+                catch (ExecutionException e) {
+                    e.getCause().printStackTrace();
+                    results.add(EpdResult.failed(positions.get(i)));
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pool.shutdownNow();
+            throw new IllegalStateException("the test suite was interrupted", e);
+        }
+        finally {
+            pool.shutdown();
+            synchronized (trees) {
+                for (MonteCarloTreeSearch tree : trees) {
+                    tree.shutdown();
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * search one position. The time to solution is the time of the first depth from which the search kept choosing
+     * a correct move
+     * @param position the position to search
+     * @return the result of the search
+     */
+    public EpdResult solve(EpdPosition position) {
+        if (!this.monteCarlo) {
+            return solve(position, null);
+        }
+        MonteCarloTreeSearch tree = createTree();
+        try {
+            return solve(position, tree);
+        }
+        finally {
+            tree.shutdown();
+        }
+    }
+
+    /**
+     * search one position with the alpha-beta search, or with a tree kept by the caller
+     * @param position the position to search
+     * @param tree the Monte Carlo tree search to use, null for a new alpha-beta search
+     * @return the result of the search
+     */
+    private EpdResult solve(final EpdPosition position, MonteCarloTreeSearch tree) {
+        final Board board = position.getBoard();
+        final long[] timeToSolution = {-1};
+        SearchListener listener = new SearchListener() {
+            @Override
+            public void iterationComplete(SearchResult result) {
+                if (position.isCorrect(board, result.getBestMove())) {
+                    if (timeToSolution[0] < 0) {
+                        timeToSolution[0] = result.getElapsedMillis();
+                    }
+                }
+                else {
+                    timeToSolution[0] = -1;
+                }
+            }
+        };
+        SearchResult result;
+        SearchStatistics statistics;
+        if (tree != null) {
+            tree.setListener(listener);
+            result = tree.search(board, this.limits);
+            statistics = new SearchStatistics();
+        }
+        else {
+            AlphaBeta search = new AlphaBeta(createEvaluator(), new TranspositionTable(TABLE_BITS));
+            search.setOptions(this.options);
+            search.setListener(listener);
+            result = search.search(board, this.limits);
+            statistics = search.getStatistics();
+        }
+        String found = result.getBestMove() == null ? "none" : MoveNotation.toAlgebraic(board, result.getBestMove());
+        return new EpdResult(position, found, position.isCorrect(board, result.getBestMove()), timeToSolution[0],
+                result, statistics);
+    }
+
+    /**
+     * make a Monte Carlo tree search with one thread, it has to be shut down after use
+     * @return the tree search
+     */
+    private MonteCarloTreeSearch createTree() {
+        return new MonteCarloTreeSearch(createEvaluator(), 1, 1 << TABLE_BITS);
+    }
+
+    /**
+     * make the evaluation for one search
+     * @return the network's evaluation if there is a network, the standard evaluation otherwise
+     */
+    private BoardEvaluator createEvaluator() {
+        if (this.network != null) {
+            return new NnueEvaluator(this.network);
+        }
+        return new StandardBoardEvaluator();
+    }
+
+    /**
+     * print a line for every position and a summary
+     * @param results the results to print
+     */
+    public static void printReport(List<EpdResult> results) {
+        int solved = 0;
+        long nodes = 0;
+        long millis = 0;
+        double branchingFactors = 0;
+        int branchingCount = 0;
+        long nullMoveCutoffs = 0;
+        long reductions = 0;
+        long futilityPrunes = 0;
+        long razorCutoffs = 0;
+        for (EpdResult result : results) {
+            System.out.println(result);
+            if (result.isSolved()) {
+                solved++;
+            }
+            nodes += result.getSearchResult().getNodes();
+            millis += result.getSearchResult().getElapsedMillis();
+            SearchStatistics statistics = result.getStatistics();
+            if (statistics.getEffectiveBranchingFactor() > 0) {
+                branchingFactors += statistics.getEffectiveBranchingFactor();
+                branchingCount++;
+            }
+            nullMoveCutoffs += statistics.getNullMoveCutoffs();
+            reductions += statistics.getReductions();
+            futilityPrunes += statistics.getFutilityPrunes();
+            razorCutoffs += statistics.getRazorCutoffs();
+        }
+        System.out.println();
+        System.out.println("solved " + solved + " of " + results.size() + ", " + nodes + " nodes in " + millis
+                + " ms, " + nodes * 1000 / Math.max(1, millis) + " nodes per second");
+        System.out.println(String.format("average ebf %.2f, null move cutoffs %d, reductions %d, futility prunes %d, "
+                        + "razor cutoffs %d", branchingCount == 0 ? 0 : branchingFactors / branchingCount,
+                nullMoveCutoffs, reductions, futilityPrunes, razorCutoffs));
+    }
+
+    /**
+     * a position of the test suite
+     */
+    public static class EpdPosition {
+        // the id of the position
+        private final String id;
+        // the position in FEN, without the move counters
+        private final String fen;
+        // the best moves, in algebraic notation
+        private final List<String> bestMoves;
+        // the moves to avoid, in algebraic notation
+        private final List<String> avoidMoves;
+
+        /**
+         * the constructor
+         * @param id the id of the position
+         * @param fen the position in FEN
+         * @param bestMoves the best moves
+         * @param avoidMoves the moves to avoid
+         */
+        public EpdPosition(String id, String fen, List<String> bestMoves, List<String> avoidMoves) {
+            this.id = id;
+            this.fen = fen;
+            this.bestMoves = bestMoves;
+            this.avoidMoves = avoidMoves;
+        }
+
+        /**
+         * read a line of an EPD file: four FEN fields, then operations ending with ';'
+         * @param line the line
+         * @return the position
+         */
+        public static EpdPosition parse(String line) {
+            String[] fields = line.split("\\s+", 5);
+            if (fields.length < 4) {
+                throw new IllegalArgumentException("not an EPD line: " + line);
+            }
+            String fen = fields[0] + " " + fields[1] + " " + fields[2] + " " + fields[3];
+            String id = fen;
+            List<String> bestMoves = new ArrayList<>();
+            List<String> avoidMoves = new ArrayList<>();
+            if (fields.length == 5) {
+                for (String operation : fields[4].split(";")) {
+                    String[] parts = operation.trim().split("\\s+", 2);
+                    if (parts.length < 2) {
+                        continue;
+                    }
+                    String operand = parts[1].trim().replace("\"", "");
+                    if (parts[0].equals("bm")) {
+                        addMoves(bestMoves, operand);
+                    }
+                    else if (parts[0].equals("am")) {
+                        addMoves(avoidMoves, operand);
+                    }
+                    else if (parts[0].equals("id")) {
+                        id = operand;
+                    }
+                }
+            }
+            return new EpdPosition(id, fen, bestMoves, avoidMoves);
+        }
+
+        /**
+         * add the moves of an operand to a list
+         * @param moves the list
+         * @param operand the moves, separated by spaces
+         */
+        private static void addMoves(List<String> moves, String operand) {
+            for (String move : operand.split("\\s+")) {
+                if (!move.isEmpty()) {
+                    moves.add(move);
+                }
+            }
+        }
+
+        /**
+         * is a move a correct answer for the position
+         * @param board the board of the position
+         * @param move the move, may be null
+         * @return true if the move is one of the best moves (if there are any) and none of the moves to avoid
+         */
+        public boolean isCorrect(Board board, Move move) {
+            if (move == null) {
+                return false;
+            }
+            for (String avoid : this.avoidMoves) {
+                if (move.equals(MoveNotation.fromAlgebraic(board, avoid))) {
+                    return false;
+                }
+            }
+            if (this.bestMoves.isEmpty()) {
+                return !this.avoidMoves.isEmpty();
+            }
+            for (String best : this.bestMoves) {
+                if (move.equals(MoveNotation.fromAlgebraic(board, best))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * create the board of the position
+         * @return the board
+         */
+        public Board getBoard() {
+            return FenUtilities.createBoard(this.fen);
+        }
+
+        /**
+         * get the id of the position
+         * @return the id, or the FEN if the position has no id
+         */
+        public String getId() {
+            return this.id;
+        }
+
+        /**
+         * get the best moves
+         * @return the best moves in algebraic notation
+         */
+        public List<String> getBestMoves() {
+            return this.bestMoves;
+        }
+
+        /**
+         * get the moves to avoid
+         * @return the moves to avoid in algebraic notation
+         */
+        public List<String> getAvoidMoves() {
+            return this.avoidMoves;
+        }
+    }
+
+    /**
+     * the result of searching a position
+     */
+    public static class EpdResult {
+        // the position searched
+        private final EpdPosition position;
+        // the move found, in algebraic notation
+        private final String foundMove;
+        // was the found move correct
+        private final boolean solved;
+        // the time until the search settled on a correct move, -1 if it didn't
+        private final long timeToSolution;
+        // the result of the search
+        private final SearchResult searchResult;
+        // what the selective search features did
+        private final SearchStatistics statistics;
+
+        /**
+         * the constructor
+         * @param position the position searched
+         * @param foundMove the move found
+         * @param solved was the move correct
+         * @param timeToSolution the time to solution in milliseconds, -1 if not solved
+         * @param searchResult the result of the search
+         * @param statistics what the selective search features did
+         */
+        EpdResult(EpdPosition position, String foundMove, boolean solved, long timeToSolution,
+                  SearchResult searchResult, SearchStatistics statistics) {
+            this.position = position;
+            this.foundMove = foundMove;
+            this.solved = solved;
+            this.timeToSolution = timeToSolution;
+            this.searchResult = searchResult;
+            this.statistics = statistics;
+        }
+
+        /**
+         * the result of a position whose search failed, it counts as not solved
+         * @param position the position searched
+         * @return the result
+         */
+        static EpdResult failed(EpdPosition position) {
+            return new EpdResult(position, "error", false, -1,
+                    new SearchResult(null, 0, 0, 0, 0, new ArrayList<Move>()), new SearchStatistics());
+        }
+
+        /**
+         * was the position solved
+         * @return true if the search found a correct move, false otherwise
+         */
+        public boolean isSolved() {
+            return this.solved;
+        }
+
+        /**
+         * get the time to solution
+         * @return the time in milliseconds, -1 if not solved
+         */
+        public long getTimeToSolution() {
+            return this.timeToSolution;
+        }
+
+        /**
+         * get the move found
+         * @return the move in algebraic notation
+         */
+        public String getFoundMove() {
+            return this.foundMove;
+        }
+
+        /**
+         * get the position searched
+         * @return the position
+         */
+        public EpdPosition getPosition() {
+            return this.position;
+        }
+
+        /**
+         * get the result of the search
+         * @return the search result
+         */
+        public SearchResult getSearchResult() {
+            return this.searchResult;
+        }
+
+        /**
+         * get what the selective search features did
+         * @return the statistics of the search
+         */
+        public SearchStatistics getStatistics() {
+            return this.statistics;
+        }
+
+        /**
+         * the toString method
+         * @return one line describing the result
+         */
+        @Override
+        public String toString() {
+            return String.format("%-20s %-7s found %-8s expected %-12s time %6d ms  nodes %9d  nps %8d",
+                    this.position.getId(), this.solved ? "solved" : "failed", this.foundMove,
+                    this.position.getBestMoves().isEmpty() ? "not " + this.position.getAvoidMoves()
+                            : this.position.getBestMoves().toString(),
+                    this.solved ? this.timeToSolution : -1, this.searchResult.getNodes(),
+                    this.searchResult.getNodesPerSecond());
+        }
+    }
+}
@@ -0,0 +1,795 @@
+package com.chess.tools;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.archive.GameArchiveWriter;
+import com.chess.engine.archive.GameResult;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardStatus;
+import com.chess.engine.move.Move;
+import com.chess.engine.move.MoveStatus;
+import com.chess.engine.move.MoveTransition;
+import com.chess.engine.notation.FenUtilities;
+import com.chess.engine.notation.MoveNotation;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.PieceType;
+import com.chess.engine.search.AlphaBeta;
+import com.chess.engine.search.BoardEvaluator;
+import com.chess.engine.search.MonteCarloTreeSearch;
+import com.chess.engine.search.MoveStrategy;
+import com.chess.engine.search.NnueEvaluator;
+import com.chess.engine.search.NnueNetwork;
+import com.chess.engine.search.Ponderer;
+import com.chess.engine.search.SearchLimits;
+import com.chess.engine.search.SearchOptions;
+import com.chess.engine.search.SearchResult;
+import com.chess.engine.search.StandardBoardEvaluator;
+import com.chess.engine.search.TranspositionTable;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * the MatchRunner class
+ * plays two engine configurations against each other without a board on screen. Every opening is played twice, once
+ * with each engine as white, and many games are played at once on a pool of threads, each game with its own searches.
+ * A game ends on checkmate, stalemate, threefold repetition, the fifty move rule, too little material to mate, a
+ * flag falling, or after MAX_PLIES. After every game a sequential probability ratio test decides whether the match
+ * can stop early
+ * usage: MatchRunner FIRST SECOND [-openings FILE] [-games N] [-concurrency N]
+ *                                 [-nodes N | -depth N | -time MILLISECONDS | -tc MILLISECONDS+INCREMENT]
+ *                                 [-sprt ELO0,ELO1] [-archive FILE]
+ * an engine is "alphabeta" or "mcts", followed by any of ":no-nullmove", ":no-lmr", ":no-futility", ":no-razoring",
+ * ":nnue=FILE" and ":ponder". An alpha-beta engine that ponders thinks on its opponent's time on a thread of its own,
+ * so a match between pondering engines wants half the concurrency. An openings file has a FEN or a list of moves from
+ * the standard board on each line
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public class MatchRunner {
+
+    // the size of each search's transposition table or tree, 2^18 entries
+    private static final int TABLE_BITS = 18;
+    // the longest game, it is a draw after this many plies
+    private static final int MAX_PLIES = 400;
+    // the chance of each wrong decision of the probability ratio test
+    private static final double SPRT_ERROR = 0.05;
+
+    // the two engines
+    private final EngineConfig first;
+    private final EngineConfig second;
+    // the limits of every move, used when there is no clock
+    private final SearchLimits limits;
+    // the time on each clock at the start of a game and the increment in milliseconds, 0 for no clock
+    private final long clockMillis;
+    private final long incrementMillis;
+    // the number of games played at once
+    private final int concurrency;
+    // the test that decides when the match can stop
+    private final Sprt sprt;
+    // where the games are written, null to not keep them
+    private GameArchiveWriter archive;
+    // set when the match is over, so the games still being played give up
+    private volatile boolean stopped;
+
+    /**
+     * the constructor
+     * @param first the first engine
+     * @param second the second engine
+     * @param limits the limits of every move, used when there is no clock
+     * @param clockMillis the time on each clock at the start of a game in milliseconds, 0 for no clock
+     * @param incrementMillis the time added to a clock after every move in milliseconds
+     * @param concurrency the number of games played at once
+     * @param sprt the test that decides when the match can stop
+     */
+    public MatchRunner(EngineConfig first, EngineConfig second, SearchLimits limits, long clockMillis,
+                       long incrementMillis, int concurrency, Sprt sprt) {
+        this.first = first;
+        this.second = second;
+        this.limits = limits;
+        this.clockMillis = clockMillis;
+        this.incrementMillis = incrementMillis;
+        this.concurrency = concurrency;
+        this.sprt = sprt;
+    }
+
+    /**
+     * write every game to an archive as it finishes
+     * @param archive the archive, null to not keep the games
+     */
+    public void setArchive(GameArchiveWriter archive) {
+        this.archive = archive;
+    }
+
+    /**
+     * play a match from the command line
+     * @param args the two engines, then the options
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("usage: MatchRunner FIRST SECOND [-openings FILE] [-games N] [-concurrency N] "
+                    + "[-nodes N | -depth N | -time MILLISECONDS | -tc MILLISECONDS+INCREMENT] [-sprt ELO0,ELO1] "
+                    + "[-archive FILE]");
+            return;
+        }
+        String openingsPath = null;
+        int games = 1000;
+        int concurrency = Runtime.getRuntime().availableProcessors();
+        SearchLimits limits = SearchLimits.fixedNodes(5000);
+        long clockMillis = 0;
+        long incrementMillis = 0;
+        double elo0 = 0;
+        double elo1 = 10;
+        String archivePath = null;
+        for (int i = 2; i + 1 < args.length; i += 2) {
+            if (args[i].equals("-openings")) {
+                openingsPath = args[i + 1];
+            }
+            else if (args[i].equals("-games")) {
+                games = Integer.parseInt(args[i + 1]);
+            }
+            else if (args[i].equals("-concurrency")) {
+                concurrency = Integer.parseInt(args[i + 1]);
+            }
+            else if (args[i].equals("-nodes")) {
+                limits = SearchLimits.fixedNodes(Long.parseLong(args[i + 1]));
+            }
+            else if (args[i].equals("-depth")) {
+                limits = SearchLimits.fixedDepth(Integer.parseInt(args[i + 1]));
+            }
+            else if (args[i].equals("-time")) {
+                limits = SearchLimits.fixedTime(Long.parseLong(args[i + 1]));
+            }
+            else if (args[i].equals("-tc")) {
+                String[] parts = args[i + 1].split("\\+");
+                clockMillis = Long.parseLong(parts[0]);
+                incrementMillis = parts.length > 1 ? Long.parseLong(parts[1]) : 0;
+            }
+            else if (args[i].equals("-sprt")) {
+                String[] parts = args[i + 1].split(",");
+                elo0 = Double.parseDouble(parts[0]);
+                elo1 = Double.parseDouble(parts[1]);
+            }
+            else if (args[i].equals("-archive")) {
+                archivePath = args[i + 1];
+            }
+        }
+
+        try {
+            List<Opening> openings = openingsPath == null ? null : readOpenings(openingsPath);
+            if (openings == null || openings.isEmpty()) {
+                openings = new ArrayList<>();
+                openings.add(Opening.parse(""));
+            }
+            MatchRunner runner = new MatchRunner(EngineConfig.parse(args[0]), EngineConfig.parse(args[1]), limits,
+                    clockMillis, incrementMillis, concurrency, new Sprt(elo0, elo1, SPRT_ERROR, SPRT_ERROR));
+            GameArchiveWriter archive = archivePath == null ? null : new GameArchiveWriter(new File(archivePath));
+            runner.setArchive(archive);
+            try {
+                MatchReport report = runner.run(openings, games);
+                System.out.println(report);
+            }
+            finally {
+                if (archive != null) {
+                    archive.close();
+                }
+            }
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * read an openings file, skipping empty lines, comments and lines that can't be read
+     * @param path the path of the file
+     * @return the openings
+     * @throws IOException if the file can't be read
+     */
+    public static List<Opening> readOpenings(String path) throws IOException {
+        List<Opening> openings = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new FileReader(path));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                Opening opening = Opening.parse(line);
+                if (opening != null) {
+                    openings.add(opening);
+                }
+            }
+        }
+        finally {
+            reader.close();
+        }
+        return openings;
+    }
+
+    /**
+     * play the match, stopping when the probability ratio test decides or after a number of games. A game whose
+     * engine throws is counted as failed, left out of the test, and the match goes on
+     * @param openings the openings, each played twice
+     * @param maxGames the most games to play
+     * @return the report of the match
+     */
+    public MatchReport run(List<Opening> openings, int maxGames) {
+        ExecutorService pool = Executors.newFixedThreadPool(this.concurrency);
+        CompletionService<GameRecord> games = new ExecutorCompletionService<>(pool);
+        long startMillis = System.currentTimeMillis();
+        long startCpu = getProcessCpuNanos();
+        for (int i = 0; i < maxGames; i++) {
+            final Opening opening = openings.get((i / 2) % openings.size());
+            final boolean firstIsWhite = i % 2 == 0;
+            games.submit(new Callable<GameRecord>() {
+                @Override
+                public GameRecord call() {
+                    return playGame(opening, firstIsWhite);
+                }
+            });
+        }
+
+        Sprt.Decision decision = Sprt.Decision.CONTINUE;
+        int failedGames = 0;
+        try {
+            for (int i = 0; i < maxGames; i++) {
+                GameRecord record;
+                try {
+                    record = games.take().get();
+                }
+                catch (ExecutionException e) {
+                    e.getCause().printStackTrace();
+                    failedGames++;
+                    continue;
+                }
+                if (record == null) {
+                    continue;
+                }
+                this.sprt.addResult(record.getFirstScore());
+                saveGame(record);
+                decision = this.sprt.getDecision();
+                System.out.println(record.getDescription() + ", " + this.sprt);
+                if (decision != Sprt.Decision.CONTINUE) {
+                    break;
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("the match was interrupted", e);
+        }
+        finally {
+            this.stopped = true;
+            pool.shutdownNow();
+        }
+        long elapsedMillis = Math.max(1, System.currentTimeMillis() - startMillis);
+        long cpuNanos = startCpu < 0 ? -1 : getProcessCpuNanos() - startCpu;
+        return new MatchReport(this.sprt, decision, failedGames, elapsedMillis, cpuNanos);
+    }
+
+    /**
+     * play one game
+     * @param opening the opening to start from
+     * @param firstIsWhite true if the first engine plays white
+     * @return the record of the game, null if the match ended before the game did
+     */
+    GameRecord playGame(Opening opening, boolean firstIsWhite) {
+        MoveStrategy white = (firstIsWhite ? this.first : this.second).createStrategy();
+        MoveStrategy black = (firstIsWhite ? this.second : this.first).createStrategy();
+        List<Move> moves = new ArrayList<>();
+        long[] clocks = {this.clockMillis, this.clockMillis};
+        Board board = opening.getBoard();
+        GameResult result = null;
+        String reason = null;
+        try {
+            while (result == null) {
+                if (this.stopped) {
+                    return null;
+                }
+                if (board.getStatus() == BoardStatus.CHECKMATE) {
+                    result = board.getCurrentPlayerAlliance() == Alliance.WHITE ? GameResult.BLACK_WINS
+                            : GameResult.WHITE_WINS;
+                    reason = "checkmate";
+                }
+                else if (board.getStatus() == BoardStatus.STALEMATE) {
+                    result = GameResult.DRAW;
+                    reason = "stalemate";
+                }
+                else if (board.isThreefoldRepetition()) {
+                    result = GameResult.DRAW;
+                    reason = "threefold repetition";
+                }
+                else if (board.isFiftyMoveRule()) {
+                    result = GameResult.DRAW;
+                    reason = "fifty move rule";
+                }
+                else if (isInsufficientMaterial(board)) {
+                    result = GameResult.DRAW;
+                    reason = "insufficient material";
+                }
+                else if (moves.size() >= MAX_PLIES) {
+                    result = GameResult.DRAW;
+                    reason = "move limit";
+                }
+                else {
+                    int side = board.getCurrentPlayerAlliance() == Alliance.WHITE ? 0 : 1;
+                    MoveStrategy strategy = side == 0 ? white : black;
+                    SearchLimits moveLimits = this.clockMillis > 0
+                            ? SearchLimits.clock(clocks[side], this.incrementMillis, 0) : this.limits;
+                    long start = System.currentTimeMillis();
+                    SearchResult searchResult = strategy.search(board, moveLimits);
+                    clocks[side] -= System.currentTimeMillis() - start;
+                    MoveTransition transition = searchResult.getBestMove() == null ? null
+                            : board.makeMove(searchResult.getBestMove());
+                    if (this.clockMillis > 0 && clocks[side] < 0) {
+                        result = side == 0 ? GameResult.BLACK_WINS : GameResult.WHITE_WINS;
+                        reason = "time forfeit";
+                    }
+                    else if (transition == null || transition.getStatus() != MoveStatus.DONE) {
+                        result = side == 0 ? GameResult.BLACK_WINS : GameResult.WHITE_WINS;
+                        reason = "illegal move";
+                    }
+                    else {
+                        clocks[side] += this.incrementMillis;
+                        moves.add(searchResult.getBestMove());
+                        board = transition.getTransBoard();
+                        if (strategy instanceof Ponderer) {
+                            ((Ponderer) strategy).ponder(board, searchResult);
+                        }
+                    }
+                }
+            }
+        }
+        finally {
+            shutdown(white);
+            shutdown(black);
+        }
+        String whiteName = (firstIsWhite ? this.first : this.second).getName();
+        String blackName = (firstIsWhite ? this.second : this.first).getName();
+        return new GameRecord(opening, moves, result, reason, firstIsWhite, whiteName, blackName);
+    }
+
+    /**
+     * stop the threads of a search, if it has any
+     * @param strategy the search
+     */
+    private static void shutdown(MoveStrategy strategy) {
+        if (strategy instanceof MonteCarloTreeSearch) {
+            ((MonteCarloTreeSearch) strategy).shutdown();
+        }
+        else if (strategy instanceof Ponderer) {
+            ((Ponderer) strategy).shutdown();
+        }
+    }
+
+    /**
+     * can neither player mate: only kings, or kings and one knight or bishop
+     * @param board the board
+     * @return true if neither player has enough material to mate, false otherwise
+     */
+    static boolean isInsufficientMaterial(Board board) {
+        int minorPieces = 0;
+        for (Piece piece : board.getAllPieces()) {
+            PieceType pieceType = piece.getPieceType();
+            if (pieceType == PieceType.KNIGHT || pieceType == PieceType.BISHOP) {
+                minorPieces++;
+            }
+            else if (pieceType != PieceType.KING) {
+                return false;
+            }
+        }
+        return minorPieces <= 1;
+    }
+
+    /**
+     * write a finished game to the archive. The archive replays games from the standard board, so games from an
+     * opening given as a FEN aren't kept
+     * @param record the game
+     */
+    private void saveGame(GameRecord record) {
+        if (this.archive == null || record.getOpening().getMoves() == null) {
+            return;
+        }
+        List<Move> moves = new ArrayList<>(record.getOpening().getMoves());
+        moves.addAll(record.getMoves());
+        try {
+            synchronized (this.archive) {
+                this.archive.addGame(moves, record.getResult());
+            }
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * get the processor time used by the whole process
+     * @return the time in nanoseconds, -1 if the platform doesn't tell
+     */
+    private static long getProcessCpuNanos() {
+        OperatingSystemMXBean bean = ManagementFactory.getOperatingSystemMXBean();
+        if (bean instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) bean).getProcessCpuTime();
+        }
+        return -1;
+    }
+
+    /**
+     * the EngineConfig class
+     * one side of a match: which search it uses, its selective search features and its evaluation. Every game gets
+     * new searches made from the configuration, so no game shares a transposition table with another
+     * @author Daniel Wakefield
+     * @version 1.0
+     */
+    public static class EngineConfig {
+        // the name of the engine in the report
+        private final String name;
+        // use the Monte Carlo tree search instead of the alpha-beta search
+        private final boolean monteCarlo;
+        // the selective search features of the alpha-beta search
+        private final SearchOptions options;
+        // the network to evaluate with, null for the standard evaluation
+        private final NnueNetwork network;
+        // think on the opponent's time, only for the alpha-beta search
+        private final boolean ponder;
+
+        /**
+         * the constructor
+         * @param name the name of the engine in the report
+         * @param monteCarlo true to use the Monte Carlo tree search instead of the alpha-beta search
+         * @param options the selective search features of the alpha-beta search
+         * @param network the network to evaluate with, null for the standard evaluation
+         * @param ponder true to think on the opponent's time, only for the alpha-beta search
+         */
+        public EngineConfig(String name, boolean monteCarlo, SearchOptions options, NnueNetwork network,
+                            boolean ponder) {
+            if (monteCarlo && ponder) {
+                throw new IllegalArgumentException("only the alpha-beta search can ponder");
+            }
+            this.name = name;
+            this.monteCarlo = monteCarlo;
+            this.options = options;
+            this.network = network;
+            this.ponder = ponder;
+        }
+
+        /**
+         * read an engine from the command line: "alphabeta" or "mcts", then options separated by colons
+         * @param text the engine
+         * @return the configuration
+         * @throws IOException if a network file can't be read
+         */
+        public static EngineConfig parse(String text) throws IOException {
+            String[] parts = text.split(":");
+            SearchOptions.Builder options = new SearchOptions.Builder();
+            NnueNetwork network = null;
+            boolean ponder = false;
+            for (int i = 1; i < parts.length; i++) {
+                if (parts[i].equals("no-nullmove")) {
+                    options.setNullMove(false);
+                }
+                else if (parts[i].equals("no-lmr")) {
+                    options.setLateMoveReductions(false);
+                }
+                else if (parts[i].equals("no-futility")) {
+                    options.setFutility(false);
+                }
+                else if (parts[i].equals("no-razoring")) {
+                    options.setRazoring(false);
+                }
+                else if (parts[i].startsWith("nnue=")) {
+                    network = NnueNetwork.load(parts[i].substring(5));
+                }
+                else if (parts[i].equals("ponder")) {
+                    ponder = true;
+                }
+                else {
+                    throw new IllegalArgumentException("unknown engine option: " + parts[i]);
+                }
+            }
+            if (!parts[0].equals("alphabeta") && !parts[0].equals("mcts")) {
+                throw new IllegalArgumentException("unknown engine: " + parts[0]);
+            }
+            return new EngineConfig(text, parts[0].equals("mcts"), options.build(), network, ponder);
+        }
+
+        /**
+         * get the name of the engine
+         * @return the name
+         */
+        public String getName() {
+            return this.name;
+        }
+
+        /**
+         * make a new search for one game
+         * @return the search
+         */
+        public MoveStrategy createStrategy() {
+            BoardEvaluator evaluator = this.network == null ? new StandardBoardEvaluator()
+                    : new NnueEvaluator(this.network);
+            if (this.monteCarlo) {
+                return new MonteCarloTreeSearch(evaluator, 1, 1 << TABLE_BITS);
+            }
+            AlphaBeta search = new AlphaBeta(evaluator, new TranspositionTable(TABLE_BITS));
+            search.setOptions(this.options);
+            return this.ponder ? new Ponderer(search) : search;
+        }
+    }
+
+    /**
+     * the Opening class
+     * a board to start games from, with the moves that reach it from the standard board when it was given as moves
+     * @author Daniel Wakefield
+     * @version 1.0
+     */
+    public static class Opening {
+        // the board games start from
+        private final Board board;
+        // the moves from the standard board, null if the opening was given as a FEN
+        private final List<Move> moves;
+
+        /**
+         * the constructor
+         * @param board the board games start from
+         * @param moves the moves from the standard board, null if the opening was given as a FEN
+         */
+        private Opening(Board board, List<Move> moves) {
+            this.board = board;
+            this.moves = moves;
+        }
+
+        /**
+         * read one opening: a FEN, or moves from the standard board with or without move numbers
+         * @param line the opening
+         * @return the opening, null if it can't be read
+         */
+        public static Opening parse(String line) {
+            if (line.contains("/")) {
+                try {
+                    return new Opening(FenUtilities.createBoard(line), null);
+                }
+                catch (IllegalArgumentException e) {
+                    return null;
+                }
+            }
+            Board board = Board.createStandardBoard();
+            List<Move> moves = new ArrayList<>();
+            for (String word : line.trim().split("\\s+")) {
+                String text = word.replaceAll("^\\d+\\.+", "");
+                if (text.isEmpty()) {
+                    continue;
+                }
+                Move move = MoveNotation.fromAlgebraic(board, text);
+                if (move == null) {
+                    return null;
+                }
+                moves.add(move);
+                board = board.makeMove(move).getTransBoard();
+            }
+            return new Opening(board, moves);
+        }
+
+        /**
+         * get the board games start from
+         * @return the board
+         */
+        public Board getBoard() {
+            return this.board;
+        }
+
+        /**
+         * get the moves from the standard board
+         * @return the moves, null if the opening was given as a FEN
+         */
+        public List<Move> getMoves() {
+            return this.moves;
+        }
+    }
+
+    /**
+     * the GameRecord class
+     * a finished game of the match
+     * @author Daniel Wakefield
+     * @version 1.0
+     */
+    public static class GameRecord {
+        // the opening the game started from
+        private final Opening opening;
+        // the moves played after the opening
+        private final List<Move> moves;
+        // the result, and what ended the game
+        private final GameResult result;
+        private final String reason;
+        // did the first engine play white
+        private final boolean firstIsWhite;
+        // the names of the engines playing white and black
+        private final String whiteName;
+        private final String blackName;
+
+        /**
+         * the constructor
+         * @param opening the opening the game started from
+         * @param moves the moves played after the opening
+         * @param result the result
+         * @param reason what ended the game
+         * @param firstIsWhite did the first engine play white
+         * @param whiteName the name of the engine playing white
+         * @param blackName the name of the engine playing black
+         */
+        private GameRecord(Opening opening, List<Move> moves, GameResult result, String reason,
+                           boolean firstIsWhite, String whiteName, String blackName) {
+            this.opening = opening;
+            this.moves = moves;
+            this.result = result;
+            this.reason = reason;
+            this.firstIsWhite = firstIsWhite;
+            this.whiteName = whiteName;
+            this.blackName = blackName;
+        }
+
+        /**
+         * get the opening the game started from
+         * @return the opening
+         */
+        public Opening getOpening() {
+            return this.opening;
+        }
+
+        /**
+         * get the moves played after the opening
+         * @return the moves
+         */
+        public List<Move> getMoves() {
+            return this.moves;
+        }
+
+        /**
+         * get the result
+         * @return the result
+         */
+        public GameResult getResult() {
+            return this.result;
+        }
+
+        /**
+         * get what ended the game
+         * @return the reason, like "checkmate"
+         */
+        public String getReason() {
+            return this.reason;
+        }
+
+        /**
+         * get the score of the first engine
+         * @return 1 for a win, 0.5 for a draw, 0 for a loss
+         */
+        public double getFirstScore() {
+            if (this.result == GameResult.DRAW) {
+                return 0.5;
+            }
+            return (this.result == GameResult.WHITE_WINS) == this.firstIsWhite ? 1 : 0;
+        }
+
+        /**
+         * describe the game in one line
+         * @return the players, the result and what ended the game
+         */
+        public String getDescription() {
+            String score = this.result == GameResult.WHITE_WINS ? "1-0"
+                    : this.result == GameResult.BLACK_WINS ? "0-1" : "1/2-1/2";
+            return String.format("%s - %s %s (%s, %d plies)", this.whiteName, this.blackName, score, this.reason,
+                    this.moves.size());
+        }
+    }
+
+    /**
+     * the MatchReport class
+     * the outcome of a match and how fast it was played
+     * @author Daniel Wakefield
+     * @version 1.0
+     */
+    public static class MatchReport {
+        // the test, with the games won, drawn and lost
+        private final Sprt sprt;
+        // what the test decided
+        private final Sprt.Decision decision;
+        // the games that ended because an engine threw, not counted by the test
+        private final int failedGames;
+        // the time the match took in milliseconds
+        private final long elapsedMillis;
+        // the processor time the process used during the match in nanoseconds, -1 if it isn't known
+        private final long cpuNanos;
+
+        /**
+         * the constructor
+         * @param sprt the test, with the games won, drawn and lost
+         * @param decision what the test decided
+         * @param failedGames the games that ended because an engine threw
+         * @param elapsedMillis the time the match took in milliseconds
+         * @param cpuNanos the processor time used during the match in nanoseconds, -1 if it isn't known
+         */
+        private MatchReport(Sprt sprt, Sprt.Decision decision, int failedGames, long elapsedMillis, long cpuNanos) {
+            this.sprt = sprt;
+            this.decision = decision;
+            this.failedGames = failedGames;
+            this.elapsedMillis = elapsedMillis;
+            this.cpuNanos = cpuNanos;
+        }
+
+        /**
+         * get the test, with the games won, drawn and lost
+         * @return the test
+         */
+        public Sprt getSprt() {
+            return this.sprt;
+        }
+
+        /**
+         * get what the test decided
+         * @return the decision, CONTINUE if the match ran out of games first
+         */
+        public Sprt.Decision getDecision() {
+            return this.decision;
+        }
+
+        /**
+         * get the number of games that ended because an engine threw
+         * @return the failed games, they aren't in the test
+         */
+        public int getFailedGames() {
+            return this.failedGames;
+        }
+
+        /**
+         * get the time the match took
+         * @return the time in milliseconds
+         */
+        public long getElapsedMillis() {
+            return this.elapsedMillis;
+        }
+
+        /**
+         * get the number of games played per hour
+         * @return the games per hour
+         */
+        public double getGamesPerHour() {
+            return this.sprt.getGames() * 3600000.0 / this.elapsedMillis;
+        }
+
+        /**
+         * get how busy the processors were during the match
+         * @return the processor time over the time all processors had, from 0 to 1, -1 if it isn't known
+         */
+        public double getCpuUtilization() {
+            if (this.cpuNanos < 0) {
+                return -1;
+            }
+            return this.cpuNanos / (this.elapsedMillis * 1e6 * Runtime.getRuntime().availableProcessors());
+        }
+
+        /**
+         * the String representation of the report
+         * @return the decision, the games and the speed of the match
+         */
+        @Override
+        public String toString() {
+            return String.format("%s%n%s%s%n%.0f games per hour, %.0f%% processor use, %d ms", this.decision,
+                    this.sprt, this.failedGames > 0 ? ", " + this.failedGames + " failed games" : "",
+                    getGamesPerHour(), 100 * getCpuUtilization(), this.elapsedMillis);
+        }
+    }
+}
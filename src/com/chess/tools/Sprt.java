@@ -0,0 +1,237 @@
+package com.chess.tools;
+
+/**
+ * the Sprt class
+ * a sequential probability ratio test between two engines. After every game the log likelihood ratio of the results
+ * under "the first engine is elo1 stronger" against "the first engine is elo0 stronger" is worked out from the mean
+ * and variance of the game scores. The match stops when the ratio crosses either bound, so a clear change is decided
+ * in a few hundred games and only a close one needs thousands
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public class Sprt {
+
+    /**
+     * the Decision enum type, what the test says so far
+     */
+    public enum Decision {
+        /**
+         * CONTINUE is used while more games are needed
+         */
+        CONTINUE,
+        /**
+         * ACCEPT_H0 is used when the first engine is at most elo0 stronger
+         */
+        ACCEPT_H0,
+        /**
+         * ACCEPT_H1 is used when the first engine is at least elo1 stronger
+         */
+        ACCEPT_H1
+    }
+
+    // the elo difference of the null hypothesis, and of the alternative hypothesis
+    private final double elo0;
+    private final double elo1;
+    // the log likelihood ratios that accept the null and the alternative hypothesis
+    private final double lowerBound;
+    private final double upperBound;
+
+    // the games of each result added to the real ones for the log likelihood ratio, so a run of one result still has
+    // a variance
+    private static final double PRIOR_GAMES = 0.5;
+
+    // the games the first engine won, drew and lost
+    private int wins;
+    private int draws;
+    private int losses;
+
+    /**
+     * the constructor
+     * @param elo0 the elo difference of the null hypothesis
+     * @param elo1 the elo difference of the alternative hypothesis, bigger than elo0
+     * @param alpha the chance of accepting the alternative hypothesis when the null hypothesis is true
+     * @param beta the chance of accepting the null hypothesis when the alternative hypothesis is true
+     */
+    public Sprt(double elo0, double elo1, double alpha, double beta) {
+        if (elo1 <= elo0) {
+            throw new IllegalArgumentException("elo1 must be bigger than elo0");
+        }
+        this.elo0 = elo0;
+        this.elo1 = elo1;
+        this.lowerBound = Math.log(beta / (1 - alpha));
+        this.upperBound = Math.log((1 - beta) / alpha);
+    }
+
+    /**
+     * add the result of a game
+     * @param score the score of the first engine, 1 for a win, 0.5 for a draw, 0 for a loss
+     */
+    public synchronized void addResult(double score) {
+        if (score > 0.75) {
+            this.wins++;
+        }
+        else if (score < 0.25) {
+            this.losses++;
+        }
+        else {
+            this.draws++;
+        }
+    }
+
+    /**
+     * get the number of games the first engine won
+     * @return the number of wins
+     */
+    public synchronized int getWins() {
+        return this.wins;
+    }
+
+    /**
+     * get the number of drawn games
+     * @return the number of draws
+     */
+    public synchronized int getDraws() {
+        return this.draws;
+    }
+
+    /**
+     * get the number of games the first engine lost
+     * @return the number of losses
+     */
+    public synchronized int getLosses() {
+        return this.losses;
+    }
+
+    /**
+     * get the number of games
+     * @return the number of games
+     */
+    public synchronized int getGames() {
+        return this.wins + this.draws + this.losses;
+    }
+
+    /**
+     * get the log likelihood ratio that accepts the null hypothesis
+     * @return the lower bound
+     */
+    public double getLowerBound() {
+        return this.lowerBound;
+    }
+
+    /**
+     * get the log likelihood ratio that accepts the alternative hypothesis
+     * @return the upper bound
+     */
+    public double getUpperBound() {
+        return this.upperBound;
+    }
+
+    /**
+     * get the log likelihood ratio of the games so far, using the normal approximation of the mean score. The mean
+     * and variance are worked out with half a game of each result added, so that a run of wins or of losses, which
+     * has no variance of its own, is still decided
+     * @return the ratio, 0 before any games
+     */
+    public synchronized double getLogLikelihoodRatio() {
+        int games = getGames();
+        if (games == 0) {
+            return 0;
+        }
+        double score0 = expectedScore(this.elo0);
+        double score1 = expectedScore(this.elo1);
+        return (score1 - score0) * (2 * getScore(PRIOR_GAMES) - score0 - score1) * games
+                / (2 * getVariance(PRIOR_GAMES));
+    }
+
+    /**
+     * get what the test says so far
+     * @return the decision
+     */
+    public synchronized Decision getDecision() {
+        double ratio = getLogLikelihoodRatio();
+        if (ratio >= this.upperBound) {
+            return Decision.ACCEPT_H1;
+        }
+        if (ratio <= this.lowerBound) {
+            return Decision.ACCEPT_H0;
+        }
+        return Decision.CONTINUE;
+    }
+
+    /**
+     * get the elo difference the games so far point to
+     * @return the elo difference, positive if the first engine is stronger
+     */
+    public synchronized double getElo() {
+        return eloOf(getScore(0));
+    }
+
+    /**
+     * get half the width of the 95% confidence interval of the elo difference
+     * @return the error margin in elo
+     */
+    public synchronized double getEloError() {
+        int games = getGames();
+        if (games == 0) {
+            return 0;
+        }
+        double margin = 1.96 * Math.sqrt(getVariance(0) / games);
+        return (eloOf(getScore(0) + margin) - eloOf(getScore(0) - margin)) / 2;
+    }
+
+    /**
+     * get the mean score of the first engine
+     * @param priorGames the games of each result added to the real ones
+     * @return the mean score, 0.5 before any games
+     */
+    private double getScore(double priorGames) {
+        double games = getGames() + 3 * priorGames;
+        return games == 0 ? 0.5 : (this.wins + priorGames + 0.5 * (this.draws + priorGames)) / games;
+    }
+
+    /**
+     * get the variance of a single game's score
+     * @param priorGames the games of each result added to the real ones
+     * @return the variance
+     */
+    private double getVariance(double priorGames) {
+        double games = getGames() + 3 * priorGames;
+        if (games == 0) {
+            return 0;
+        }
+        double score = getScore(priorGames);
+        return ((this.wins + priorGames) * (1 - score) * (1 - score)
+                + (this.draws + priorGames) * (0.5 - score) * (0.5 - score)
+                + (this.losses + priorGames) * score * score) / games;
+    }
+
+    /**
+     * the score expected of an engine that is stronger by an elo difference
+     * @param elo the elo difference
+     * @return the expected score
+     */
+    public static double expectedScore(double elo) {
+        return 1 / (1 + Math.pow(10, -elo / 400));
+    }
+
+    /**
+     * the elo difference that gives a score
+     * @param score the mean score, clamped away from 0 and 1
+     * @return the elo difference
+     */
+    private static double eloOf(double score) {
+        double clamped = Math.max(1e-6, Math.min(1 - 1e-6, score));
+        return -400 * Math.log10(1 / clamped - 1);
+    }
+
+    /**
+     * the String representation of the test so far
+     * @return the games, the elo difference and the log likelihood ratio
+     */
+    @Override
+    public synchronized String toString() {
+        return String.format("games %d (+%d =%d -%d), elo %.1f +- %.1f, llr %.2f [%.2f, %.2f]", getGames(),
+                this.wins, this.draws, this.losses, getElo(), getEloError(), getLogLikelihoodRatio(),
+                this.lowerBound, this.upperBound);
+    }
+}
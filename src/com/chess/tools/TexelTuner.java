@@ -0,0 +1,631 @@
+package com.chess.tools;
+
+import com.chess.engine.archive.GameArchiveReader;
+import com.chess.engine.archive.GameResult;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardStatus;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.move.Move;
+import com.chess.engine.notation.FenUtilities;
+import com.chess.engine.notation.MoveNotation;
+import com.chess.engine.pieces.PieceType;
+import com.chess.engine.search.StandardBoardEvaluator;
+import com.chess.engine.search.StaticExchange;
+import com.google.common.base.Throwables;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * the TexelTuner class
+ * tunes the weights of the StandardBoardEvaluator on quiet positions from finished games. The score of a position
+ * goes through a sigmoid to predict the result of its game, and gradient descent makes the mean squared difference
+ * between the predictions and the results smaller. Each position is turned into its feature counts once, when it is
+ * loaded, and kept in flat arrays, so an iteration is a pass over a few arrays on every core and never builds a board
+ * usage: TexelTuner FILE [-input positions | archive] [-threads N] [-iterations N] [-rate CENTIPAWNS]
+ *                        [-output FILE]
+ * a positions file has a FEN and a result on each line, the result as 1-0, 0-1, 1/2-1/2 or a number from 0 to 1,
+ * optionally in quotes or brackets. From a game archive every quiet position after the opening is used
+ * @author Daniel Wakefield
+ * @version 1.0
+ */
+public class TexelTuner {
+
+    // the lines or games loaded by one task
+    private static final int BATCH_SIZE = 4096;
+    // the plies of every archived game that are skipped as opening book
+    private static final int OPENING_PLIES = 8;
+    // the decay of the first and second moment of the gradient, and the smallest divisor of a step
+    private static final double FIRST_MOMENT_DECAY = 0.9;
+    private static final double SECOND_MOMENT_DECAY = 0.999;
+    private static final double EPSILON = 1e-8;
+    // the range the sigmoid scale is searched in, and how many times the range is narrowed
+    private static final double MIN_SCALE = 0.1;
+    private static final double MAX_SCALE = 4.0;
+    private static final int SCALE_STEPS = 40;
+
+    // the worker threads
+    private final int threads;
+    private final ExecutorService pool;
+
+    // the features of every position: position i has the features from featureStarts[i] to featureStarts[i + 1]
+    private int[] featureStarts = new int[BATCH_SIZE + 1];
+    private short[] featureIndices = new short[BATCH_SIZE * 32];
+    private byte[] featureCounts = new byte[BATCH_SIZE * 32];
+    // the result of every position's game, 1 if white won, 0 if black won, 0.5 for a draw
+    private float[] results = new float[BATCH_SIZE];
+    // the number of positions and of features
+    private int positionCount;
+    private int featureCount;
+
+    // the weights being tuned
+    private final double[] weights;
+    // the running averages of the gradient and of its square
+    private final double[] firstMoments;
+    private final double[] secondMoments;
+    // the number of steps taken
+    private int steps;
+    // turns a score in centipawns into a predicted result
+    private double scale = 1.0;
+
+    /**
+     * the constructor, starting from the default weights
+     * @param threads the number of worker threads
+     */
+    public TexelTuner(int threads) {
+        this.threads = threads;
+        this.pool = Executors.newFixedThreadPool(threads);
+        int[] defaults = StandardBoardEvaluator.defaultWeights();
+        this.weights = new double[defaults.length];
+        for (int i = 0; i < defaults.length; i++) {
+            this.weights[i] = defaults[i];
+        }
+        this.firstMoments = new double[defaults.length];
+        this.secondMoments = new double[defaults.length];
+    }
+
+    /**
+     * tune the evaluation from the command line
+     * @param args the positions file, then the options
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("usage: TexelTuner FILE [-input positions | archive] [-threads N] [-iterations N] "
+                    + "[-rate CENTIPAWNS] [-output FILE]");
+            return;
+        }
+        boolean archive = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int iterations = 100;
+        double rate = 1.0;
+        String output = "weights.txt";
+        for (int i = 1; i + 1 < args.length; i += 2) {
+            if (args[i].equals("-input")) {
+                archive = args[i + 1].equals("archive");
+            }
+            else if (args[i].equals("-threads")) {
+                threads = Integer.parseInt(args[i + 1]);
+            }
+            else if (args[i].equals("-iterations")) {
+                iterations = Integer.parseInt(args[i + 1]);
+            }
+            else if (args[i].equals("-rate")) {
+                rate = Double.parseDouble(args[i + 1]);
+            }
+            else if (args[i].equals("-output")) {
+                output = args[i + 1];
+            }
+        }
+
+        TexelTuner tuner = new TexelTuner(threads);
+        try {
+            long start = System.currentTimeMillis();
+            int loaded = archive ? tuner.loadArchive(args[0]) : tuner.loadPositions(args[0]);
+            System.out.printf("loaded %d quiet positions in %d ms%n", loaded, System.currentTimeMillis() - start);
+            System.out.printf("scale %.3f, error %.6f%n", tuner.fitScale(), tuner.computeError());
+            for (int i = 1; i <= iterations; i++) {
+                start = System.currentTimeMillis();
+                double error = tuner.step(rate);
+                System.out.printf("iteration %d: error %.6f, %d ms%n", i, error, System.currentTimeMillis() - start);
+            }
+            tuner.writeWeights(output);
+            System.out.println("weights written to " + output);
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+        }
+        finally {
+            tuner.shutdown();
+        }
+    }
+
+    /**
+     * load the quiet positions of a positions file, reading the boards on the worker threads
+     * @param path the path of the file
+     * @return the number of positions loaded
+     * @throws IOException if the file can't be read
+     */
+    public int loadPositions(String path) throws IOException {
+        List<Future<Batch>> futures = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new FileReader(path));
+        try {
+            List<String> lines = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+                if (lines.size() == BATCH_SIZE) {
+                    futures.add(submitLines(lines));
+                    lines = new ArrayList<>();
+                }
+            }
+            futures.add(submitLines(lines));
+        }
+        finally {
+            reader.close();
+        }
+        return addBatches(futures);
+    }
+
+    /**
+     * load the quiet positions of every finished game in an archive, replaying the games on the worker threads
+     * @param path the path of the archive
+     * @return the number of positions loaded
+     * @throws IOException if the archive can't be read
+     */
+    public int loadArchive(String path) throws IOException {
+        final GameArchiveReader reader = new GameArchiveReader(new File(path));
+        try {
+            List<Future<Batch>> futures = new ArrayList<>();
+            for (int first = 0; first < reader.getGameCount(); first += BATCH_SIZE) {
+                final int start = first;
+                final int end = Math.min(first + BATCH_SIZE, reader.getGameCount());
+                futures.add(this.pool.submit(new Callable<Batch>() {
+                    @Override
+                    public Batch call() {
+                        Batch batch = new Batch();
+                        for (int id = start; id < end; id++) {
+                            double result = resultValue(reader.getResult(id));
+                            if (result < 0) {
+                                continue;
+                            }
+                            Board board = Board.createStandardBoard();
+                            int[] indices = reader.getMoveIndices(id);
+                            for (int ply = 0; ply < indices.length; ply++) {
+                                board = board.makeMove(board.calculateLegalMoves().get(indices[ply])).getTransBoard();
+                                if (ply >= OPENING_PLIES) {
+                                    batch.add(board, result);
+                                }
+                            }
+                        }
+                        return batch;
+                    }
+                }));
+            }
+            return addBatches(futures);
+        }
+        finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * add one position, if it is quiet
+     * @param board the position
+     * @param result the result of its game, 1 if white won, 0 if black won, 0.5 for a draw
+     * @return true if the position was added, false if it wasn't quiet
+     */
+    public boolean addPosition(Board board, double result) {
+        Batch batch = new Batch();
+        batch.add(board, result);
+        append(batch);
+        return batch.count == 1;
+    }
+
+    /**
+     * read a batch of lines on a worker thread
+     * @param lines the lines of a positions file
+     * @return the batch of quiet positions, when it is read
+     */
+    private Future<Batch> submitLines(final List<String> lines) {
+        return this.pool.submit(new Callable<Batch>() {
+            @Override
+            public Batch call() {
+                Batch batch = new Batch();
+                for (String line : lines) {
+                    parseLine(line, batch);
+                }
+                return batch;
+            }
+        });
+    }
+
+    /**
+     * read one line of a positions file: a FEN, then the result as the last word
+     * @param line the line
+     * @param batch the batch to add the position to, if the line can be read and the position is quiet
+     */
+    private static void parseLine(String line, Batch batch) {
+        line = line.trim();
+        int split = line.lastIndexOf(' ');
+        if (line.isEmpty() || line.startsWith("#") || split < 0) {
+            return;
+        }
+        String word = line.substring(split + 1).replaceAll("[\"\\[\\];]", "");
+        String fen = line.substring(0, split).trim();
+        // an EPD line has the result in a c9 field
+        if (fen.endsWith(" c9")) {
+            fen = fen.substring(0, fen.length() - 3);
+        }
+        double result;
+        if (word.equals("1-0")) {
+            result = 1;
+        }
+        else if (word.equals("0-1")) {
+            result = 0;
+        }
+        else if (word.equals("1/2-1/2")) {
+            result = 0.5;
+        }
+        else if (word.contains(".")) {
+            result = Double.parseDouble(word);
+        }
+        else {
+            return;
+        }
+        try {
+            batch.add(FenUtilities.createBoard(fen), result);
+        }
+        catch (IllegalArgumentException e) {
+            // not a position, skip the line
+        }
+    }
+
+    /**
+     * turn the result of an archived game into the value a prediction is compared with
+     * @param result the result
+     * @return 1 if white won, 0 if black won, 0.5 for a draw, -1 if the game didn't finish
+     */
+    private static double resultValue(GameResult result) {
+        switch (result) {
+            case WHITE_WINS:
+                return 1;
+            case BLACK_WINS:
+                return 0;
+            case DRAW:
+                return 0.5;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * is a position quiet: the player to move isn't in check and has no capture or promotion that wins material, so
+     * the static score is close to what a search would find
+     * @param board the position
+     * @return true if the position is quiet, false otherwise
+     */
+    static boolean isQuiet(Board board) {
+        if (board.getStatus() != BoardStatus.ONGOING || board.isPlayerInCheck(board.getCurrentPlayerAlliance())) {
+            return false;
+        }
+        for (Move move : board.calculateLegalMoves()) {
+            if ((move.isAttack() || MoveNotation.isPromotion(move)) && StaticExchange.evaluate(board, move) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * add the finished batches in the order they were submitted
+     * @param futures the batches
+     * @return the number of positions added
+     */
+    private int addBatches(List<Future<Batch>> futures) {
+        int added = 0;
+        for (Future<Batch> future : futures) {
+            Batch batch = await(future);
+            append(batch);
+            added += batch.count;
+        }
+        return added;
+    }
+
+    /**
+     * copy a batch onto the end of the flat arrays, growing them when they are full
+     * @param batch the batch
+     */
+    private void append(Batch batch) {
+        if (this.positionCount + batch.count >= this.results.length) {
+            int size = Math.max(2 * this.results.length, this.positionCount + batch.count + 1);
+            this.results = Arrays.copyOf(this.results, size);
+            this.featureStarts = Arrays.copyOf(this.featureStarts, size + 1);
+        }
+        if (this.featureCount + batch.featureCount > this.featureIndices.length) {
+            int size = Math.max(2 * this.featureIndices.length, this.featureCount + batch.featureCount);
+            this.featureIndices = Arrays.copyOf(this.featureIndices, size);
+            this.featureCounts = Arrays.copyOf(this.featureCounts, size);
+        }
+        for (int i = 0; i < batch.count; i++) {
+            this.results[this.positionCount + i] = batch.results[i];
+            this.featureStarts[this.positionCount + i] = this.featureCount + batch.starts[i];
+        }
+        System.arraycopy(batch.indices, 0, this.featureIndices, this.featureCount, batch.featureCount);
+        System.arraycopy(batch.counts, 0, this.featureCounts, this.featureCount, batch.featureCount);
+        this.positionCount += batch.count;
+        this.featureCount += batch.featureCount;
+        this.featureStarts[this.positionCount] = this.featureCount;
+    }
+
+    /**
+     * get the number of positions loaded
+     * @return the number of positions
+     */
+    public int getPositionCount() {
+        return this.positionCount;
+    }
+
+    /**
+     * get the scale that turns a score in centipawns into a predicted result
+     * @return the scale
+     */
+    public double getScale() {
+        return this.scale;
+    }
+
+    /**
+     * find the scale that gives the current weights the smallest error, so the steps only tune the weights against
+     * each other. The error has one minimum in the scale, so the range is narrowed by a golden section search
+     * @return the scale
+     */
+    public double fitScale() {
+        double ratio = (Math.sqrt(5) - 1) / 2;
+        double low = MIN_SCALE;
+        double high = MAX_SCALE;
+        for (int i = 0; i < SCALE_STEPS; i++) {
+            double left = high - ratio * (high - low);
+            double right = low + ratio * (high - low);
+            this.scale = left;
+            double leftError = computeError();
+            this.scale = right;
+            double rightError = computeError();
+            if (leftError < rightError) {
+                high = right;
+            }
+            else {
+                low = left;
+            }
+        }
+        this.scale = (low + high) / 2;
+        return this.scale;
+    }
+
+    /**
+     * get the mean squared error of the predictions with the current weights
+     * @return the error
+     */
+    public double computeError() {
+        return pass(false)[this.weights.length] / Math.max(1, this.positionCount);
+    }
+
+    /**
+     * take one step of gradient descent. Every weight gets a step of about the rate in the direction its gradient
+     * has been pointing, so the piece values and the square tables move at the same speed even though their
+     * gradients are very different in size
+     * @param rate the size of a step in centipawns
+     * @return the mean squared error before the step
+     */
+    public double step(double rate) {
+        double[] sums = pass(true);
+        this.steps++;
+        double firstCorrection = 1 - Math.pow(FIRST_MOMENT_DECAY, this.steps);
+        double secondCorrection = 1 - Math.pow(SECOND_MOMENT_DECAY, this.steps);
+        for (int i = 0; i < this.weights.length; i++) {
+            double gradient = sums[i] / Math.max(1, this.positionCount);
+            this.firstMoments[i] = FIRST_MOMENT_DECAY * this.firstMoments[i] + (1 - FIRST_MOMENT_DECAY) * gradient;
+            this.secondMoments[i] = SECOND_MOMENT_DECAY * this.secondMoments[i]
+                    + (1 - SECOND_MOMENT_DECAY) * gradient * gradient;
+            double first = this.firstMoments[i] / firstCorrection;
+            double second = this.secondMoments[i] / secondCorrection;
+            this.weights[i] -= rate * first / (Math.sqrt(second) + EPSILON);
+        }
+        return sums[this.weights.length] / Math.max(1, this.positionCount);
+    }
+
+    /**
+     * go over every position on the worker threads, each taking an equal share
+     * @param gradient true to add up the gradient as well as the error
+     * @return the sum of the gradient of every weight, then the sum of the squared errors
+     */
+    private double[] pass(final boolean gradient) {
+        List<Future<double[]>> futures = new ArrayList<>();
+        int share = (this.positionCount + this.threads - 1) / this.threads;
+        for (int first = 0; first < this.positionCount; first += share) {
+            final int start = first;
+            final int end = Math.min(first + share, this.positionCount);
+            futures.add(this.pool.submit(new Callable<double[]>() {
+                @Override
+                public double[] call() {
+                    return passRange(start, end, gradient);
+                }
+            }));
+        }
+        double[] sums = new double[this.weights.length + 1];
+        for (Future<double[]> future : futures) {
+            double[] part = await(future);
+            for (int i = 0; i < sums.length; i++) {
+                sums[i] += part[i];
+            }
+        }
+        return sums;
+    }
+
+    /**
+     * wait for the work of a worker thread. A worker that fails ends the run, so the weights are never fitted to
+     * part of the positions or stepped along part of the gradient
+     * @param future the work
+     * @param <T> the type of its result
+     * @return its result
+     */
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("the tuner was interrupted", e);
+        }
+        catch (ExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IllegalStateException("a worker thread failed", e.getCause());
+        }
+    }
+
+    /**
+     * go over a range of positions
+     * @param start the first position
+     * @param end one past the last position
+     * @param gradient true to add up the gradient as well as the error
+     * @return the sum of the gradient of every weight, then the sum of the squared errors
+     */
+    private double[] passRange(int start, int end, boolean gradient) {
+        double[] sums = new double[this.weights.length + 1];
+        // the slope of the sigmoid in the score, without the p * (1 - p)
+        double slope = this.scale * Math.log(10) / 400;
+        for (int position = start; position < end; position++) {
+            int from = this.featureStarts[position];
+            int to = this.featureStarts[position + 1];
+            double score = 0;
+            for (int i = from; i < to; i++) {
+                score += this.weights[this.featureIndices[i]] * this.featureCounts[i];
+            }
+            double prediction = 1 / (1 + Math.exp(-slope * score));
+            double error = prediction - this.results[position];
+            sums[this.weights.length] += error * error;
+            if (gradient) {
+                double factor = 2 * error * prediction * (1 - prediction) * slope;
+                for (int i = from; i < to; i++) {
+                    sums[this.featureIndices[i]] += factor * this.featureCounts[i];
+                }
+            }
+        }
+        return sums;
+    }
+
+    /**
+     * get the weights, rounded to whole centipawns
+     * @return the weights in the order of the StandardBoardEvaluator
+     */
+    public int[] getWeights() {
+        int[] rounded = new int[this.weights.length];
+        for (int i = 0; i < rounded.length; i++) {
+            rounded[i] = (int) Math.round(this.weights[i]);
+        }
+        return rounded;
+    }
+
+    /**
+     * write the weights as the piece values and the square tables, laid out like the tables in the
+     * StandardBoardEvaluator
+     * @param path the path of the file
+     * @throws IOException if the file can't be written
+     */
+    public void writeWeights(String path) throws IOException {
+        int[] rounded = getWeights();
+        PrintWriter writer = new PrintWriter(new FileWriter(path));
+        try {
+            for (PieceType pieceType : PieceType.values()) {
+                if (pieceType != PieceType.KING) {
+                    writer.printf("%s %d%n", pieceType, rounded[StandardBoardEvaluator.PIECE_VALUE_WEIGHTS
+                            + pieceType.ordinal()]);
+                }
+            }
+            for (PieceType pieceType : PieceType.values()) {
+                writer.printf("%s_TABLE%n", pieceType);
+                int table = StandardBoardEvaluator.SQUARE_TABLE_WEIGHTS + pieceType.ordinal() * BoardUtils.NUM_TILES;
+                for (int row = 0; row < BoardUtils.NUM_ROWS; row++) {
+                    StringBuilder builder = new StringBuilder();
+                    for (int col = 0; col < BoardUtils.NUM_COLS; col++) {
+                        builder.append(String.format("%5d,", rounded[table + row * BoardUtils.NUM_COLS + col]));
+                    }
+                    writer.println(builder);
+                }
+            }
+            writer.printf("MOBILITY_BONUS %d%n", rounded[StandardBoardEvaluator.MOBILITY_WEIGHT]);
+            writer.printf("CHECK_BONUS %d%n", rounded[StandardBoardEvaluator.CHECK_WEIGHT]);
+        }
+        finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * stop the worker threads
+     */
+    public void shutdown() {
+        this.pool.shutdown();
+    }
+
+    /**
+     * the Batch class
+     * the features of the quiet positions read by one task, in the same layout as the tuner's arrays
+     * @author Daniel Wakefield
+     * @version 1.0
+     */
+    private static class Batch {
+        // the features of every position, position i has the features from starts[i]
+        private int[] starts = new int[64];
+        private short[] indices = new short[64 * 32];
+        private byte[] counts = new byte[64 * 32];
+        // the result of every position's game
+        private float[] results = new float[64];
+        // the number of positions and of features
+        private int count;
+        private int featureCount;
+        // the feature counts of the position being added
+        private final int[] scratch = new int[StandardBoardEvaluator.WEIGHT_COUNT];
+
+        /**
+         * add a position, if it is quiet. Only the features that don't cancel out between white and black are kept
+         * @param board the position
+         * @param result the result of its game
+         */
+        private void add(Board board, double result) {
+            if (!isQuiet(board)) {
+                return;
+            }
+            StandardBoardEvaluator.countFeatures(board, this.scratch);
+            if (this.count == this.results.length) {
+                this.starts = Arrays.copyOf(this.starts, 2 * this.count);
+                this.results = Arrays.copyOf(this.results, 2 * this.count);
+            }
+            if (this.featureCount + this.scratch.length > this.indices.length) {
+                this.indices = Arrays.copyOf(this.indices, 2 * this.indices.length + this.scratch.length);
+                this.counts = Arrays.copyOf(this.counts, this.indices.length);
+            }
+            this.starts[this.count] = this.featureCount;
+            this.results[this.count] = (float) result;
+            for (int i = 0; i < this.scratch.length; i++) {
+                if (this.scratch[i] != 0) {
+                    this.indices[this.featureCount] = (short) i;
+                    this.counts[this.featureCount] = (byte) Math.max(Byte.MIN_VALUE,
+                            Math.min(Byte.MAX_VALUE, this.scratch[i]));
+                    this.featureCount++;
+                }
+            }
+            this.count++;
+        }
+    }
+}